@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.profiler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * A node of the call tree the profiler builds for every thread. Each node stands for one Python
+ * function reached through one particular call path. Copies of a root node (e.g. after splitting)
+ * share a node, since they are keyed by their source section. Only one thread adds children (the
+ * owning thread or the sampler), but the tree may be read concurrently.
+ */
+public final class CallTreeNode {
+
+    private final CallTreeNode parent;
+    private final Object key;
+    private final String name;
+    private final SourceSection sourceSection;
+    private volatile Map<Object, CallTreeNode> children;
+
+    /** The number of times this function was entered along this path ('calls' mode). */
+    long calls;
+    /** The total time spent in this function along this path, in nanoseconds ('calls' mode). */
+    long time;
+    /** The number of samples with this function at the top of the stack ('sample' mode). */
+    long samples;
+
+    CallTreeNode() {
+        this(null, null, "<thread>", null);
+    }
+
+    private CallTreeNode(CallTreeNode parent, Object key, String name, SourceSection sourceSection) {
+        this.parent = parent;
+        this.key = key;
+        this.name = name;
+        this.sourceSection = sourceSection;
+    }
+
+    CallTreeNode getChild(RootNode root) {
+        SourceSection section = root.getSourceSection();
+        String rootName = root.getName() != null ? root.getName() : "<unknown>";
+        Object childKey = section != null ? section : rootName;
+        Map<Object, CallTreeNode> map = children;
+        if (map == null) {
+            map = new ConcurrentHashMap<>();
+            children = map;
+        }
+        CallTreeNode child = map.get(childKey);
+        if (child == null) {
+            child = new CallTreeNode(this, childKey, rootName, section);
+            map.put(childKey, child);
+        }
+        return child;
+    }
+
+    public CallTreeNode getParent() {
+        return parent;
+    }
+
+    /**
+     * The identity of the function, shared by all call tree nodes of the same function.
+     */
+    public Object getKey() {
+        return key;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SourceSection getSourceSection() {
+        return sourceSection;
+    }
+
+    public Collection<CallTreeNode> getChildren() {
+        Map<Object, CallTreeNode> map = children;
+        return map != null ? map.values() : Collections.emptyList();
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    /**
+     * A frame label for collapsed stack output, e.g. {@code fib (fib.py:3)}.
+     */
+    public String getLabel() {
+        if (sourceSection == null) {
+            return name;
+        }
+        return name + " (" + sourceSection.getSource().getName() + ":" + sourceSection.getStartLine() + ")";
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.profiler;
+
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * The results for one Python function, summed over all call paths and threads.
+ */
+public final class FunctionProfile {
+
+    private final String name;
+    private final SourceSection sourceSection;
+
+    long calls;
+    long selfTime;
+    long totalTime;
+    long selfSamples;
+    long totalSamples;
+
+    FunctionProfile(String name, SourceSection sourceSection) {
+        this.name = name;
+        this.sourceSection = sourceSection;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SourceSection getSourceSection() {
+        return sourceSection;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    /** The time spent in this function itself, excluding its callees, in nanoseconds. */
+    public long getSelfTime() {
+        return selfTime;
+    }
+
+    /** The time spent in this function including its callees, in nanoseconds. */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /** The number of samples with this function at the top of the stack. */
+    public long getSelfSamples() {
+        return selfSamples;
+    }
+
+    /** The number of samples with this function anywhere on the stack. */
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+}
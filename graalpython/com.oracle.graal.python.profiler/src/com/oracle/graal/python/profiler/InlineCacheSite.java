@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.profiler;
+
+import java.util.List;
+
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * An inline cache in the AST of a Python function that saw more than one receiver.
+ */
+public final class InlineCacheSite {
+
+    private final Node node;
+    private final SourceSection location;
+    private final String operation;
+    private final boolean megamorphic;
+    private final int cachedEntries;
+    private final List<String> receivers;
+
+    InlineCacheSite(Node node, SourceSection location, String operation, boolean megamorphic, int cachedEntries, List<String> receivers) {
+        this.node = node;
+        this.location = location;
+        this.operation = operation;
+        this.megamorphic = megamorphic;
+        this.cachedEntries = cachedEntries;
+        this.receivers = receivers;
+    }
+
+    /**
+     * The node holding the inline cache, e.g. a {@code CallDispatchNode}.
+     */
+    public Node getNode() {
+        return node;
+    }
+
+    public SourceSection getLocation() {
+        return location;
+    }
+
+    /**
+     * A description of the Python operation the cache belongs to, e.g. {@code call} or
+     * {@code binary operation __add__}.
+     */
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns {@code true} if the cache exceeded its limit and was replaced by the generic case.
+     */
+    public boolean isMegamorphic() {
+        return megamorphic;
+    }
+
+    /**
+     * The number of entries in the cache, or {@code 0} for megamorphic sites.
+     */
+    public int getCachedEntries() {
+        return cachedEntries;
+    }
+
+    /**
+     * The receiver classes (for attribute lookups) or callees (for calls) that were observed. For
+     * megamorphic sites, these are the receivers seen after the cache was replaced.
+     */
+    public List<String> getReceivers() {
+        return receivers;
+    }
+}
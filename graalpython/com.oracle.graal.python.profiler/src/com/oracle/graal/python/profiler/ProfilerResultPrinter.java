@@ -25,570 +25,166 @@
  */
 package com.oracle.graal.python.profiler;
 
-import java.io.*;
-import java.util.*;
-import java.util.Map.Entry;
-
-import com.oracle.truffle.api.*;
-import com.oracle.truffle.api.nodes.*;
-
-import com.oracle.graal.python.nodes.*;
-import com.oracle.graal.python.nodes.argument.*;
-import com.oracle.graal.python.nodes.call.*;
-import com.oracle.graal.python.nodes.call.CallDispatchBoxedNode.LinkedDispatchBoxedNode;
-import com.oracle.graal.python.nodes.call.CallDispatchUnboxedNode.LinkedDispatchUnboxedNode;
-import com.oracle.graal.python.nodes.call.PythonCallNode.BoxedCallNode;
-import com.oracle.graal.python.nodes.call.PythonCallNode.CallConstructorNode;
-import com.oracle.graal.python.nodes.call.PythonCallNode.UnboxedCallNode;
-import com.oracle.graal.python.nodes.control.*;
-import com.oracle.graal.python.nodes.control.LoopNode;
-import com.oracle.graal.python.nodes.function.*;
-import com.oracle.graal.python.runtime.*;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
+import com.oracle.truffle.api.source.SourceSection;
 
 public class ProfilerResultPrinter {
 
-    private PrintStream out = System.out;
-    private PythonProfilerNodeProber profilerProber;
-    private List<PNode> nodesEmptySourceSections = new ArrayList<>();
-    private List<PNode> nodesUsingExistingProbes = new ArrayList<>();
-    private final PythonParseResult parseResult;
-
-    public ProfilerResultPrinter(PythonProfilerNodeProber profilerProber, PythonParseResult parseResult) {
-        this.profilerProber = profilerProber;
-        this.parseResult = parseResult;
-    }
-
-    private static long excludedTime = 0;
-    private static long totalCounter = 0;
-    private static long cumulativeTime = 0;
-
-    public void printCallProfilerResults() {
-        List<MethodBodyInstrument> methodBodyInstruments = profilerProber.getMethodBodyInstruments();
-        Map<MethodBodyInstrument, List<Long>> timeMap = new HashMap<>();
-
-        if (methodBodyInstruments.size() > 0) {
-            printBanner("Call Time Profiling Results", 116);
-            /**
-             * 50 is the length of the text by default padding left padding is added, so space is
-             * added to the beginning of the string, minus sign adds padding to the right
-             */
-
-            out.format("%-40s", "Function Name");
-            out.format("%-20s", "Counter");
-            out.format("%-20s", "Excluded Time");
-            out.format("%-20s", "Avg Excluded");
-            out.format("%-20s", "Cumulative Time");
-            out.format("%-20s", "Avg Cumulative");
-            out.format("%-9s", "Line");
-            out.format("%-11s", "Column");
-            out.println();
-            out.println("===============                         ===============     ===============     ===============     ===============     ===============     ====     ======");
+    private static final double NANOS_PER_MILLI = 1000000.0;
 
-            excludedTime = 0;
+    private final PrintStream out;
 
-            for (MethodBodyInstrument methodBodyInstrument : methodBodyInstruments) {
-                Node methodBody = methodBodyInstrument.getNode();
-
-                totalCounter = 0;
-                cumulativeTime = 0;
-                getCumulativeCounterTime(methodBodyInstrument);
-
-                if (totalCounter > 0) {
-                    if (methodBody instanceof ReturnTargetNode) {
-                        getExcludedTime(methodBody, methodBodyInstrument);
-                    } else {
-                        excludedTime = cumulativeTime;
-                    }
-
-                    List<Long> times = new ArrayList<>();
-                    times.add(totalCounter);
-                    times.add(excludedTime);
-                    times.add(cumulativeTime);
-                    timeMap.put(methodBodyInstrument, times);
-                }
-
-            }
-
-            printTime(timeMap);
-        }
+    public ProfilerResultPrinter(PrintStream out) {
+        this.out = out;
     }
 
-    private void getCumulativeCounterTime(MethodBodyInstrument methodBodyInstrument) {
-        ModuleNode moduleNode = (ModuleNode) parseResult.getModuleRoot();
-        Node moduleBody = moduleNode.getBody();
-        traverseBody(moduleBody, methodBodyInstrument);
-
-        for (RootNode functionRoot : parseResult.getFunctionRoots()) {
-            if (functionRoot instanceof FunctionRootNode) {
-                Node methodBody = ((FunctionRootNode) functionRoot).getBody();
-                traverseBody(methodBody, methodBodyInstrument);
-            }
+    public void printCallProfilerResults(Collection<FunctionProfile> profiles) {
+        if (profiles.isEmpty()) {
+            return;
         }
-    }
-
-    private static void traverseBody(Node methodBody, MethodBodyInstrument methodBodyInstrument) {
-        methodBody.accept(new NodeVisitor() {
-            public boolean visit(Node node) {
-                if (node instanceof BoxedCallNode || node instanceof CallConstructorNode || node instanceof UnboxedCallNode) {
-                    CallDispatchNode callDispatchNode = null;
-                    if (node instanceof BoxedCallNode) {
-                        callDispatchNode = ((BoxedCallNode) node).getDispatchNode();
-                    } else if (node instanceof CallConstructorNode) {
-                        callDispatchNode = ((CallConstructorNode) node).getDispatchNode();
-                    } else if (node instanceof UnboxedCallNode) {
-                        callDispatchNode = ((UnboxedCallNode) node).getDispatchNode();
-                    }
-
-                    if (node.getParent() instanceof PythonWrapperNode) {
-                        PythonWrapperNode callWrapper = (PythonWrapperNode) node.getParent();
-                        Node callProbe = (Node) callWrapper.getProbe();
-                        TimeProfilerInstrument subCallInstrument = (TimeProfilerInstrument) callProbe.getChildren().iterator().next();
-
-                        DirectCallNode callNode = null;
-                        if (callDispatchNode instanceof LinkedDispatchBoxedNode) {
-                            LinkedDispatchBoxedNode linkDispatchNode = (LinkedDispatchBoxedNode) callDispatchNode;
-                            callNode = linkDispatchNode.getInvokeNode().getDirectCallNode();
-                        } else if (callDispatchNode instanceof LinkedDispatchUnboxedNode) {
-                            LinkedDispatchUnboxedNode linkUnboxedDispatchNode = (LinkedDispatchUnboxedNode) callDispatchNode;
-                            callNode = linkUnboxedDispatchNode.getInvokeNode().getDirectCallNode();
-                        }
+        List<FunctionProfile> sorted = new ArrayList<>(profiles);
+        sorted.sort((p1, p2) -> Long.compare(p2.getTotalTime(), p1.getTotalTime()));
 
-                        if (callNode != null) {
-                            RootCallTarget callTarget = (RootCallTarget) callNode.getCallTarget();
-
-                            PythonWrapperNode wrapper = null;
-                            if (callTarget.getRootNode() instanceof FunctionRootNode) {
-                                FunctionRootNode childRootNode = (FunctionRootNode) callTarget.getRootNode();
-                                wrapper = (PythonWrapperNode) childRootNode.getBody();
-                            } else if (callTarget.getRootNode() instanceof BuiltinFunctionRootNode) {
-                                BuiltinFunctionRootNode childRootNode = (BuiltinFunctionRootNode) callTarget.getRootNode();
-                                if (childRootNode.getBody() instanceof PythonWrapperNode) {
-                                    wrapper = (PythonWrapperNode) childRootNode.getBody();
-                                }
-                            }
-
-                            if (wrapper != null) {
-                                Node probe = (Node) wrapper.getProbe();
-                                MethodBodyInstrument currentMethodBodyInstrument = (MethodBodyInstrument) probe.getChildren().iterator().next();
-
-                                if (currentMethodBodyInstrument.equals(methodBodyInstrument)) {
-                                    totalCounter = totalCounter + subCallInstrument.getCounter();
-                                    cumulativeTime = cumulativeTime + subCallInstrument.getTime();
-                                }
-                            }
-                        }
-                    }
-                }
-                return true;
-            }
-        });
-    }
-
-    public void getExcludedTime(Node methodBody, MethodBodyInstrument methodBodyInstrument) {
-        excludedTime = cumulativeTime;
-
-        methodBody.accept(new NodeVisitor() {
-            public boolean visit(Node node) {
-                if (node instanceof BoxedCallNode) {
-                    PythonWrapperNode callWrapper = (PythonWrapperNode) node.getParent();
-                    if (!(callWrapper.getParent() instanceof ArgumentsNode)) {
-                        Node callProbe = (Node) callWrapper.getProbe();
-                        TimeProfilerInstrument subCallInstrument = (TimeProfilerInstrument) callProbe.getChildren().iterator().next();
-                        BoxedCallNode boxedCallNode = (BoxedCallNode) node;
-                        CallDispatchNode callDispatchNode = boxedCallNode.getDispatchNode();
-                        if (callDispatchNode instanceof LinkedDispatchBoxedNode) {
-                            LinkedDispatchBoxedNode linkDispatchNode = (LinkedDispatchBoxedNode) callDispatchNode;
-                            DirectCallNode callNode = linkDispatchNode.getInvokeNode().getDirectCallNode();
-                            RootCallTarget callTarget = (RootCallTarget) callNode.getCallTarget();
-
-                            PythonWrapperNode wrapper = null;
-                            if (callTarget.getRootNode() instanceof FunctionRootNode) {
-                                FunctionRootNode childRootNode = (FunctionRootNode) callTarget.getRootNode();
-                                wrapper = (PythonWrapperNode) childRootNode.getBody();
-                            } else if (callTarget.getRootNode() instanceof BuiltinFunctionRootNode) {
-                                BuiltinFunctionRootNode childRootNode = (BuiltinFunctionRootNode) callTarget.getRootNode();
-                                if (childRootNode.getBody() instanceof PythonWrapperNode) {
-                                    wrapper = (PythonWrapperNode) childRootNode.getBody();
-                                }
-                            }
-
-                            if (wrapper != null) {
-                                Node probe = (Node) wrapper.getProbe();
-                                MethodBodyInstrument currentMethodBodyInstrument = (MethodBodyInstrument) probe.getChildren().iterator().next();
-                                /**
-                                 * Do not exclude recursive calls
-                                 */
-                                if (!methodBodyInstrument.equals(currentMethodBodyInstrument)) {
-                                    excludedTime = excludedTime - subCallInstrument.getTime();
-                                }
-                            }
-                        }
-                    }
-                }
-                return true;
-            }
-        });
-    }
+        printBanner("Call Time Profiling Results", 156);
+        out.format("%-40s", "Function Name");
+        out.format("%-20s", "Counter");
+        out.format("%-20s", "Excluded Time (ms)");
+        out.format("%-20s", "Avg Excluded (ms)");
+        out.format("%-20s", "Cumulative Time (ms)");
+        out.format("%-20s", "Avg Cumulative (ms)");
+        out.format("%-9s", "Line");
+        out.format("%-11s", "Column");
+        out.println();
+        out.println("===============                         ===============     ===============     ===============     ===============     ===============     ====     ======");
 
-    private void printTime(Map<MethodBodyInstrument, List<Long>> timesMap) {
-        Map<MethodBodyInstrument, List<Long>> sortedTimesMap;
-        if (PythonOptions.SortProfilerResults) {
-            sortedTimesMap = sortTimeProfilerResults(timesMap);
-        } else {
-            sortedTimesMap = timesMap;
-        }
         long totalCalls = 0;
-
-        for (Map.Entry<MethodBodyInstrument, List<Long>> entry : sortedTimesMap.entrySet()) {
-            MethodBodyInstrument methodBodyInstrument = entry.getKey();
-            Node methodBody = methodBodyInstrument.getNode();
-            String methodName = null;
-
-            if (methodBody instanceof ReturnTargetNode) {
-                methodName = ((FunctionRootNode) methodBody.getRootNode()).getFunctionName();
-            } else if (methodBody instanceof PythonBuiltinNode) {
-                methodName = ((BuiltinFunctionRootNode) methodBody.getRootNode()).getFunctionName();
-            }
-
-            List<Long> times = entry.getValue();
-            long counter = times.get(0);
-            long excluded = times.get(1);
-            long cumulative = times.get(2);
-
-            out.format("%-40s", methodName);
+        for (FunctionProfile profile : sorted) {
+            long counter = profile.getCalls();
+            totalCalls += counter;
+            out.format("%-40s", profile.getName());
             out.format("%15s", counter);
-            totalCalls = totalCalls + counter;
-            out.format("%20s", (excluded / 1000000000));
-            out.format("%20s", ((excluded / counter) / 1000000000));
-            out.format("%20s", (cumulative / 1000000000));
-            out.format("%20s", ((cumulative / counter) / 1000000000));
-            if (methodBody instanceof ReturnTargetNode) {
-                out.format("%9s", methodBody.getSourceSection().getStartLine());
-                out.format("%11s", methodBody.getSourceSection().getStartColumn());
-            } else {
-                out.format("%9s", "-");
-                out.format("%11s", "-");
-            }
+            out.format("%20.3f", profile.getSelfTime() / NANOS_PER_MILLI);
+            out.format("%20.3f", profile.getSelfTime() / NANOS_PER_MILLI / Math.max(1, counter));
+            out.format("%20.3f", profile.getTotalTime() / NANOS_PER_MILLI);
+            out.format("%20.3f", profile.getTotalTime() / NANOS_PER_MILLI / Math.max(1, counter));
+            printLocation(profile.getSourceSection());
             out.println();
         }
-
         out.println("Total number of executed calls: " + totalCalls);
     }
 
-    public void printControlFlowProfilerResults() {
-        long totalCount = 0;
-        totalCount += printLoopProfilerResults();
-        totalCount += printIfProfilerResults();
-        totalCount += printBreakContinueProfilerResults();
-        out.println("Total number of executed control flow instruments: " + totalCount);
-    }
-
-    private long printLoopProfilerResults() {
-        long totalCount = 0;
-        List<ProfilerInstrument> loopInstruments = getInstruments(profilerProber.getLoopInstruments());
-
-        if (loopInstruments.size() > 0) {
-            printCaption("Loop Profiling Results");
-
-            for (ProfilerInstrument instrument : loopInstruments) {
-                if (instrument.getCounter() > 0) {
-                    Node node = instrument.getNode();
-                    Node loopNode = node.getParent().getParent();
-
-                    if (loopNode instanceof LoopNode) {
-                        /**
-                         * During generator optimizations for node is replaced with
-                         * PeeledGeneratorLoopNode. Since the for loop is replaced, it's better not
-                         * to print the result of this specific for profiling.
-                         *
-                         */
-                        printProfilerResult(loopNode, instrument.getCounter());
-                        totalCount = totalCount + instrument.getCounter();
-                    }
-                }
-            }
-
-            out.println("Total number of executed instruments: " + totalCount);
-        }
-
-        return totalCount;
-    }
-
-    private long printIfProfilerResults() {
-        long totalCount = 0;
-        Map<ProfilerInstrument, List<ProfilerInstrument>> ifInstruments;
-        if (PythonOptions.SortProfilerResults) {
-            ifInstruments = sortIfProfilerResults(profilerProber.getIfInstruments());
-        } else {
-            ifInstruments = profilerProber.getIfInstruments();
+    public void printSamplingProfilerResults(Collection<FunctionProfile> profiles, long totalSamples, long period) {
+        if (profiles.isEmpty()) {
+            return;
         }
+        List<FunctionProfile> sorted = new ArrayList<>(profiles);
+        sorted.sort((p1, p2) -> Long.compare(p2.getSelfSamples(), p1.getSelfSamples()));
 
-        if (ifInstruments.size() > 0) {
-            printBanner("If Node Profiling Results", 116);
-            out.format("%-20s", "If Counter");
-            out.format("%-18s", "Then Counter");
-            out.format("%-18s", "Else Counter");
-            out.format("%-9s", "Line");
-            out.format("%-11s", "Column");
-            out.format("%-70s", "In Method");
+        printBanner("Sampling Profiling Results", 136);
+        out.format("%-40s", "Function Name");
+        out.format("%-20s", "Self Samples");
+        out.format("%-20s", "Self %");
+        out.format("%-20s", "Total Samples");
+        out.format("%-20s", "Total %");
+        out.format("%-9s", "Line");
+        out.format("%-11s", "Column");
+        out.println();
+        out.println("===============                         ===============     ===============     ===============     ===============     ====     ======");
+
+        for (FunctionProfile profile : sorted) {
+            out.format("%-40s", profile.getName());
+            out.format("%15s", profile.getSelfSamples());
+            out.format("%20.1f", percent(profile.getSelfSamples(), totalSamples));
+            out.format("%20s", profile.getTotalSamples());
+            out.format("%20.1f", percent(profile.getTotalSamples(), totalSamples));
+            printLocation(profile.getSourceSection());
             out.println();
-            out.println("===========         ============      =============     ====     ======     ========================================");
-
-            Iterator<Map.Entry<ProfilerInstrument, List<ProfilerInstrument>>> it = ifInstruments.entrySet().iterator();
-            while (it.hasNext()) {
-                Entry<ProfilerInstrument, List<ProfilerInstrument>> entry = it.next();
-                ProfilerInstrument ifInstrument = entry.getKey();
-                if (ifInstrument.getCounter() > 0) {
-                    List<ProfilerInstrument> instruments = entry.getValue();
-                    ProfilerInstrument thenInstrument = instruments.get(0);
-                    out.format("%11s", ifInstrument.getCounter());
-                    out.format("%21s", thenInstrument.getCounter());
-
-                    totalCount = totalCount + ifInstrument.getCounter();
-                    totalCount = totalCount + thenInstrument.getCounter();
-
-                    if (instruments.size() == 1) {
-                        out.format("%19s", "-");
-                    } else if (instruments.size() == 2) {
-                        ProfilerInstrument elseInstrument = instruments.get(1);
-                        out.format("%19s", elseInstrument.getCounter());
-                        totalCount = totalCount + elseInstrument.getCounter();
-                    }
-
-                    Node ifNode = ifInstrument.getNode();
-                    out.format("%9s", ifNode.getSourceSection().getStartLine());
-                    out.format("%11s", ifNode.getSourceSection().getStartColumn());
-                    out.format("%5s", "");
-                    out.format("%-70s", ifNode.getRootNode());
-                    out.println();
-                }
-            }
-
-            out.println("Total number of executed instruments: " + totalCount);
         }
-
-        return totalCount;
-    }
-
-    private long printBreakContinueProfilerResults() {
-        return printProfilerResults("Break Continue Profiling Results", getInstruments(profilerProber.getBreakContinueInstruments()));
-    }
-
-    public void printVariableAccessProfilerResults() {
-        if (PythonOptions.ProfileTypeDistribution) {
-            printProfilerTypeDistributionResults("Variable Access Profiling Results", profilerProber.getVariableAccessTypeDistributionInstruments());
-        } else {
-            printProfilerResults("Variable Access Profiling Results", getInstruments(profilerProber.getVariableAccessInstruments()));
-        }
-    }
-
-    public void printOperationProfilerResults() {
-        if (PythonOptions.ProfileTypeDistribution) {
-            printProfilerTypeDistributionResults("Operation Profiling Results", profilerProber.getOperationTypeDistributionInstruments());
-        } else {
-            printProfilerResults("Operation Profiling Results", getInstruments(profilerProber.getOperationInstruments()));
-        }
-    }
-
-    public void printCollectionOperationsProfilerResults() {
-        printProfilerResults("Collection Operations Profiling Results", getInstruments(profilerProber.getCollectionOperationsInstruments()));
-    }
-
-    private static List<ProfilerInstrument> getInstruments(List<ProfilerInstrument> instruments) {
-        if (PythonOptions.SortProfilerResults) {
-            List<ProfilerInstrument> sortedInstruments = sortProfilerResult(instruments);
-            return sortedInstruments;
-        }
-
-        return instruments;
+        out.println("Total number of samples: " + totalSamples + " (period " + period + "ms)");
     }
 
-    private long printProfilerResults(String caption, List<ProfilerInstrument> instruments) {
-        long totalCount = 0;
-
-        if (instruments.size() > 0) {
-            printCaption(caption);
-
-            for (ProfilerInstrument instrument : instruments) {
-                if (instrument.getCounter() > 0) {
-                    Node node = instrument.getNode();
-                    printProfilerResult(node, instrument.getCounter());
-                    totalCount = totalCount + instrument.getCounter();
-                }
+    public void printTypeFeedbackResults(List<InlineCacheSite> sites) {
+        printBanner("Polymorphic and Megamorphic Inline Caches", 156);
+        out.format("%-40s", "Location");
+        out.format("%-40s", "Operation");
+        out.format("%-20s", "State");
+        out.format("%-56s", "Receivers");
+        out.println();
+        out.println("===============                         ===============                         ===============     ===============");
+
+        long megamorphic = 0;
+        for (InlineCacheSite site : sites) {
+            out.format("%-40s", TypeFeedbackInstrument.formatLocation(site.getLocation()));
+            out.format("%-40s", site.getOperation());
+            if (site.isMegamorphic()) {
+                megamorphic++;
+                out.format("%-20s", "megamorphic");
+            } else {
+                out.format("%-20s", "polymorphic (" + site.getCachedEntries() + ")");
             }
-            out.println("Total number of executed instruments: " + totalCount);
+            out.print(String.join(", ", site.getReceivers()));
+            out.println();
         }
-
-        return totalCount;
+        out.println("Megamorphic sites: " + megamorphic + ", polymorphic sites: " + (sites.size() - megamorphic));
     }
 
-    private void printProfilerTypeDistributionResults(String caption, List<TypeDistributionProfilerInstrument> instruments) {
-        long totalCount = 0;
-
-        if (instruments.size() > 0) {
-            printBanner(caption, 140);
-            out.format("%-50s", "Node");
-            out.format("%-20s", "Counter");
-            out.format("%-9s", "Line");
-            out.format("%-11s", "Column");
-            out.format("%-70s", "In Method");
-            out.println();
-            out.println("=============                                     ===============     ====     ======     ==================================================");
-
-            for (TypeDistributionProfilerInstrument profilerInstrument : instruments) {
-                Map<Class<? extends Node>, Counter> types = profilerInstrument.getTypes();
-
-                if (types.isEmpty()) {
-                    Node initialNode = profilerInstrument.getInitialNode();
-                    Node onlyNode = profilerInstrument.getOnlyNode();
-                    long counter = profilerInstrument.getOnlyCounter();
-                    Class<? extends Node> nodeClass = onlyNode.getClass();
-                    totalCount = totalCount + counter;
-                    out.format("%-50s", nodeClass.getSimpleName());
-                    out.format("%15s", counter);
-                    out.format("%9s", initialNode.getSourceSection().getStartLine());
-                    out.format("%11s", initialNode.getSourceSection().getStartColumn());
-                    out.format("%5s", "");
-                    out.format("%-70s", initialNode.getRootNode());
-                    out.println();
-                } else {
-                    Iterator<Map.Entry<Class<? extends Node>, Counter>> it = types.entrySet().iterator();
-                    out.println();
-
-                    while (it.hasNext()) {
-                        Entry<Class<? extends Node>, Counter> entry = it.next();
-                        Node initialNode = profilerInstrument.getInitialNode();
-                        Class<? extends Node> nodeClass = entry.getKey();
-                        long counter = entry.getValue().getCounter();
-                        totalCount = totalCount + counter;
-                        out.format("%-50s", nodeClass.getSimpleName());
-                        out.format("%15s", counter);
-                        out.format("%9s", initialNode.getSourceSection().getStartLine());
-                        out.format("%11s", initialNode.getSourceSection().getStartColumn());
-                        out.format("%5s", "");
-                        out.format("%-70s", initialNode.getRootNode());
-                        out.println();
-                    }
-
-                    out.println();
-                }
+    /**
+     * Prints the call trees in the collapsed stack format understood by flame graph tools: one line
+     * per call path, with the frames separated by semicolons, followed by the number of samples
+     * or the self time in microseconds.
+     */
+    public void printFlameGraph(Collection<CallTreeNode> roots, boolean samples) {
+        StringBuilder path = new StringBuilder();
+        for (CallTreeNode root : roots) {
+            for (CallTreeNode child : root.getChildren()) {
+                printCollapsedStacks(child, path, samples);
             }
-
-            out.println("Total number of executed instruments: " + totalCount);
         }
     }
 
-    private void printCaption(String caption) {
-        printBanner(caption, 116);
-        out.format("%-25s", "Node");
-        out.format("%-20s", "Counter");
-        out.format("%-9s", "Line");
-        out.format("%-11s", "Column");
-        out.format("%-70s", "In Method");
-        out.println();
-        out.println("=============            ===============     ====     ======     ===================================================");
-    }
-
-    private void printProfilerResult(Node node, long counter) {
-        String nodeName = getShortName(node);
-        out.format("%-25s", nodeName);
-        out.format("%15s", counter);
-        out.format("%9s", node.getSourceSection().getStartLine());
-        out.format("%11s", node.getSourceSection().getStartColumn());
-        out.format("%11s", node.getSourceSection().getCharLength());
-        out.format("%5s", "");
-        out.format("%-70s", node.getRootNode());
-        out.println();
-    }
-
-    private static String getShortName(Node node) {
-        NodeInfo nodeInfo = node.getClass().getAnnotation(NodeInfo.class);
-
-        if (nodeInfo == null) {
-            nodeInfo = node.getClass().getSuperclass().getAnnotation(NodeInfo.class);
-        } else if (nodeInfo.shortName().equals("")) {
-            nodeInfo = node.getClass().getSuperclass().getAnnotation(NodeInfo.class);
+    private void printCollapsedStacks(CallTreeNode node, StringBuilder path, boolean samples) {
+        int length = path.length();
+        if (length > 0) {
+            path.append(';');
         }
-
-        if (nodeInfo != null) {
-            return nodeInfo.shortName();
+        path.append(node.getLabel().replace(';', ','));
+        long value;
+        if (samples) {
+            value = node.getSamples();
         } else {
-            throw new RuntimeException("Short name is missing in " + node);
-        }
-    }
-
-    private static List<ProfilerInstrument> sortProfilerResult(List<ProfilerInstrument> list) {
-        Collections.sort(list, new Comparator<ProfilerInstrument>() {
-            @Override
-            public int compare(final ProfilerInstrument profiler1, final ProfilerInstrument profiler2) {
-                return Long.compare(profiler2.getCounter(), profiler1.getCounter());
-            }
-        });
-
-        return list;
-    }
-
-    private static Map<ProfilerInstrument, List<ProfilerInstrument>> sortIfProfilerResults(Map<ProfilerInstrument, List<ProfilerInstrument>> map) {
-        List<Map.Entry<ProfilerInstrument, List<ProfilerInstrument>>> list = new LinkedList<>(map.entrySet());
-
-        Collections.sort(list, new Comparator<Map.Entry<ProfilerInstrument, List<ProfilerInstrument>>>() {
-
-            public int compare(Map.Entry<ProfilerInstrument, List<ProfilerInstrument>> if1, Map.Entry<ProfilerInstrument, List<ProfilerInstrument>> if2) {
-                return Long.compare(if2.getKey().getCounter(), if1.getKey().getCounter());
+            long childTime = 0;
+            for (CallTreeNode child : node.getChildren()) {
+                childTime += child.getTime();
             }
-        });
-
-        Map<ProfilerInstrument, List<ProfilerInstrument>> result = new LinkedHashMap<>();
-        for (Map.Entry<ProfilerInstrument, List<ProfilerInstrument>> entry : list) {
-            result.put(entry.getKey(), entry.getValue());
+            value = (node.getTime() - childTime) / 1000;
         }
-
-        return result;
-    }
-
-    private static Map<MethodBodyInstrument, List<Long>> sortTimeProfilerResults(Map<MethodBodyInstrument, List<Long>> map) {
-        List<Map.Entry<MethodBodyInstrument, List<Long>>> list = new LinkedList<>(map.entrySet());
-
-        Collections.sort(list, new Comparator<Map.Entry<MethodBodyInstrument, List<Long>>>() {
-
-            public int compare(Map.Entry<MethodBodyInstrument, List<Long>> if1, Map.Entry<MethodBodyInstrument, List<Long>> if2) {
-                return Long.compare(if2.getValue().get(0).longValue(), if1.getValue().get(0).longValue());
-            }
-        });
-
-        Map<MethodBodyInstrument, List<Long>> result = new LinkedHashMap<>();
-        for (Map.Entry<MethodBodyInstrument, List<Long>> entry : list) {
-            result.put(entry.getKey(), entry.getValue());
+        if (value > 0) {
+            out.print(path);
+            out.print(' ');
+            out.println(value);
         }
-
-        return result;
-    }
-
-    public void addNodeEmptySourceSection(PNode node) {
-        nodesEmptySourceSections.add(node);
-    }
-
-    public void addNodeUsingExistingProbe(PNode node) {
-        nodesUsingExistingProbes.add(node);
+        for (CallTreeNode child : node.getChildren()) {
+            printCollapsedStacks(child, path, samples);
+        }
+        path.setLength(length);
     }
 
-    public void printNodesEmptySourceSections() {
-        if (nodesEmptySourceSections.size() > 0) {
-            printBanner("Nodes That Have Empty Source Sections", 10);
-            for (PNode node : nodesEmptySourceSections) {
-                out.println(node.getClass().getSimpleName() + " in " + node.getRootNode());
-            }
+    private void printLocation(SourceSection section) {
+        if (section != null) {
+            out.format("%9s", section.getStartLine());
+            out.format("%11s", section.getStartColumn());
+        } else {
+            out.format("%9s", "-");
+            out.format("%11s", "-");
         }
     }
 
-    public void printNodesUsingExistingProbes() {
-        if (nodesUsingExistingProbes.size() > 0) {
-            printBanner("Nodes That Reuses an Existing Probe", 10);
-            for (PNode node : nodesUsingExistingProbes) {
-                out.println(node.getClass().getSimpleName() + " in " + node.getRootNode());
-            }
-        }
+    private static double percent(long value, long total) {
+        return total == 0 ? 0 : 100.0 * value / total;
     }
 
     private void printBanner(String caption, int size) {
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.profiler;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.graalvm.options.OptionDescriptors;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNode;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNodeFactory;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.instrumentation.TruffleInstrument;
+import com.oracle.truffle.api.nodes.RootNode;
+
+/**
+ * Profiles Python functions. The profiler instruments the bodies of all Python functions, class
+ * bodies and modules (everything tagged with {@link StandardTags.RootTag}) and keeps one
+ * {@link CallTreeNode call tree} per thread. In {@link PythonProfilerOptions#MODE_SAMPLE sample}
+ * mode, the instrumentation only maintains a shadow stack of the active functions that a sampler
+ * thread reads periodically. In {@link PythonProfilerOptions#MODE_CALLS calls} mode, every call is
+ * counted and timed.
+ */
+@TruffleInstrument.Registration(id = PythonProfiler.ID, name = "Python Profiler", version = "0.1", services = PythonProfiler.class)
+public final class PythonProfiler extends TruffleInstrument {
+
+    public static final String ID = "python-profiler";
+
+    private final ConcurrentLinkedQueue<ThreadState> threads = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(this::createThreadState);
+
+    private boolean sampling;
+    private long period;
+    private Thread sampler;
+    private long totalSamples;
+
+    @Override
+    protected void onCreate(Env newEnv) {
+        newEnv.registerService(this);
+        if (!newEnv.getOptions().get(PythonProfilerOptions.Enabled)) {
+            return;
+        }
+        String mode = newEnv.getOptions().get(PythonProfilerOptions.Mode);
+        if (!PythonProfilerOptions.MODE_SAMPLE.equals(mode) && !PythonProfilerOptions.MODE_CALLS.equals(mode)) {
+            throw new IllegalArgumentException("invalid profiler mode '" + mode + "', expected 'sample' or 'calls'");
+        }
+        String output = newEnv.getOptions().get(PythonProfilerOptions.Output);
+        if (!PythonProfilerOptions.OUTPUT_TABLE.equals(output) && !PythonProfilerOptions.OUTPUT_FLAMEGRAPH.equals(output)) {
+            throw new IllegalArgumentException("invalid profiler output '" + output + "', expected 'table' or 'flamegraph'");
+        }
+        this.sampling = PythonProfilerOptions.MODE_SAMPLE.equals(mode);
+        this.period = Math.max(1, newEnv.getOptions().get(PythonProfilerOptions.Period));
+
+        SourceSectionFilter filter = SourceSectionFilter.newBuilder().tagIs(StandardTags.RootTag.class).mimeTypeIs(PythonLanguage.MIME_TYPE).build();
+        newEnv.getInstrumenter().attachFactory(filter, new ExecutionEventNodeFactory() {
+            public ExecutionEventNode create(EventContext context) {
+                RootNode root = context.getInstrumentedNode().getRootNode();
+                return sampling ? new SamplingEventNode(root) : new CallsEventNode(root);
+            }
+        });
+        if (sampling) {
+            sampler = new Thread(this::sample, "Python Profiler Sampler");
+            sampler.setDaemon(true);
+            sampler.start();
+        }
+    }
+
+    @Override
+    protected OptionDescriptors getOptionDescriptors() {
+        return PythonProfilerOptions.createDescriptors();
+    }
+
+    @Override
+    protected void onDispose(Env disposeEnv) {
+        if (!disposeEnv.getOptions().get(PythonProfilerOptions.Enabled)) {
+            return;
+        }
+        if (sampler != null) {
+            sampler.interrupt();
+            try {
+                sampler.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sampler = null;
+        }
+        printResults(disposeEnv);
+    }
+
+    /**
+     * Returns {@code true} if the profiler samples the call stack, {@code false} if it counts and
+     * times every call.
+     */
+    public boolean isSampling() {
+        return sampling;
+    }
+
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+
+    /**
+     * The call trees of all threads that executed Python code.
+     */
+    public List<CallTreeNode> getCallTrees() {
+        List<CallTreeNode> roots = new ArrayList<>();
+        for (ThreadState state : threads) {
+            roots.add(state.root);
+        }
+        return roots;
+    }
+
+    /**
+     * Sums up the call trees per function. The total time and samples of a recursive function only
+     * count its outermost activation.
+     */
+    public Collection<FunctionProfile> getFunctionProfiles() {
+        Map<Object, FunctionProfile> profiles = new HashMap<>();
+        Set<Object> active = new HashSet<>();
+        for (CallTreeNode root : getCallTrees()) {
+            for (CallTreeNode child : root.getChildren()) {
+                aggregate(child, profiles, active);
+            }
+        }
+        return profiles.values();
+    }
+
+    private static long aggregate(CallTreeNode node, Map<Object, FunctionProfile> profiles, Set<Object> active) {
+        boolean outermost = active.add(node.getKey());
+        long childTime = 0;
+        long subtreeSamples = node.samples;
+        for (CallTreeNode child : node.getChildren()) {
+            subtreeSamples += aggregate(child, profiles, active);
+            childTime += child.time;
+        }
+        if (outermost) {
+            active.remove(node.getKey());
+        }
+        FunctionProfile profile = profiles.get(node.getKey());
+        if (profile == null) {
+            profile = new FunctionProfile(node.getName(), node.getSourceSection());
+            profiles.put(node.getKey(), profile);
+        }
+        profile.calls += node.calls;
+        profile.selfTime += node.time - childTime;
+        profile.selfSamples += node.samples;
+        if (outermost) {
+            profile.totalTime += node.time;
+            profile.totalSamples += subtreeSamples;
+        }
+        return subtreeSamples;
+    }
+
+    private void printResults(Env disposeEnv) {
+        String file = disposeEnv.getOptions().get(PythonProfilerOptions.OutputFile);
+        PrintStream out;
+        if (file.isEmpty()) {
+            out = new PrintStream(disposeEnv.out(), true);
+        } else {
+            try {
+                out = new PrintStream(new FileOutputStream(file), true);
+            } catch (FileNotFoundException e) {
+                new PrintStream(disposeEnv.err(), true).println("Cannot write Python profile to " + file + ": " + e.getMessage());
+                return;
+            }
+        }
+        ProfilerResultPrinter printer = new ProfilerResultPrinter(out);
+        if (PythonProfilerOptions.OUTPUT_FLAMEGRAPH.equals(disposeEnv.getOptions().get(PythonProfilerOptions.Output))) {
+            printer.printFlameGraph(getCallTrees(), sampling);
+        } else if (sampling) {
+            printer.printSamplingProfilerResults(getFunctionProfiles(), totalSamples, period);
+        } else {
+            printer.printCallProfilerResults(getFunctionProfiles());
+        }
+        if (!file.isEmpty()) {
+            out.close();
+        }
+    }
+
+    private ThreadState createThreadState() {
+        ThreadState state = new ThreadState();
+        threads.add(state);
+        return state;
+    }
+
+    @TruffleBoundary
+    private ThreadState getThreadState() {
+        return threadState.get();
+    }
+
+    private void sample() {
+        while (true) {
+            try {
+                Thread.sleep(period);
+            } catch (InterruptedException e) {
+                return;
+            }
+            for (ThreadState state : threads) {
+                state.takeSample();
+            }
+            totalSamples++;
+        }
+    }
+
+    /**
+     * The profiling state of one thread. The shadow stack is written only by the owning thread and
+     * read racily by the sampler; a sample may therefore miss the latest call or return, which is
+     * acceptable for a statistical profile and avoids any synchronization on the call path.
+     */
+    private static final class ThreadState {
+        private final CallTreeNode root = new CallTreeNode();
+
+        // 'sample' mode
+        private RootNode[] stack = new RootNode[64];
+        private int depth;
+
+        // 'calls' mode
+        private CallTreeNode current = root;
+        private long[] enterTimes = new long[64];
+        private int callDepth;
+
+        void push(RootNode rootNode) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[depth] = rootNode;
+            depth++;
+        }
+
+        void pop() {
+            if (depth > 0) {
+                depth--;
+                stack[depth] = null;
+            }
+        }
+
+        void takeSample() {
+            RootNode[] snapshot = stack;
+            int snapshotDepth = Math.min(depth, snapshot.length);
+            if (snapshotDepth == 0) {
+                return;
+            }
+            CallTreeNode node = root;
+            for (int i = 0; i < snapshotDepth; i++) {
+                RootNode rootNode = snapshot[i];
+                if (rootNode == null) {
+                    break;
+                }
+                node = node.getChild(rootNode);
+            }
+            node.samples++;
+        }
+
+        void enter(RootNode rootNode) {
+            if (callDepth == enterTimes.length) {
+                enterTimes = Arrays.copyOf(enterTimes, enterTimes.length * 2);
+            }
+            current = current.getChild(rootNode);
+            current.calls++;
+            enterTimes[callDepth] = System.nanoTime();
+            callDepth++;
+        }
+
+        void exit() {
+            if (callDepth > 0) {
+                callDepth--;
+                current.time += System.nanoTime() - enterTimes[callDepth];
+                current = current.getParent();
+            }
+        }
+    }
+
+    private final class SamplingEventNode extends ExecutionEventNode {
+        private final RootNode root;
+
+        SamplingEventNode(RootNode root) {
+            this.root = root;
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            push(root);
+        }
+
+        @Override
+        protected void onReturnValue(VirtualFrame frame, Object result) {
+            pop();
+        }
+
+        @Override
+        protected void onReturnExceptional(VirtualFrame frame, Throwable exception) {
+            pop();
+        }
+
+        @TruffleBoundary
+        private void push(RootNode rootNode) {
+            getThreadState().push(rootNode);
+        }
+
+        @TruffleBoundary
+        private void pop() {
+            getThreadState().pop();
+        }
+    }
+
+    private final class CallsEventNode extends ExecutionEventNode {
+        private final RootNode root;
+
+        CallsEventNode(RootNode root) {
+            this.root = root;
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            enter(root);
+        }
+
+        @Override
+        protected void onReturnValue(VirtualFrame frame, Object result) {
+            exit();
+        }
+
+        @Override
+        protected void onReturnExceptional(VirtualFrame frame, Throwable exception) {
+            exit();
+        }
+
+        @TruffleBoundary
+        private void enter(RootNode rootNode) {
+            getThreadState().enter(rootNode);
+        }
+
+        @TruffleBoundary
+        private void exit() {
+            getThreadState().exit();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.profiler;
+
+import org.graalvm.options.OptionCategory;
+import org.graalvm.options.OptionDescriptors;
+import org.graalvm.options.OptionKey;
+
+import com.oracle.truffle.api.Option;
+
+@Option.Group(PythonProfiler.ID)
+public final class PythonProfilerOptions {
+
+    public static final String MODE_SAMPLE = "sample";
+    public static final String MODE_CALLS = "calls";
+
+    public static final String OUTPUT_TABLE = "table";
+    public static final String OUTPUT_FLAMEGRAPH = "flamegraph";
+
+    private PythonProfilerOptions() {
+        // no instances
+    }
+
+    @Option(name = "", category = OptionCategory.USER, help = "Enable the Python profiler.") //
+    public static final OptionKey<Boolean> Enabled = new OptionKey<>(false);
+
+    @Option(category = OptionCategory.USER, help = "The profiling mode: 'sample' periodically samples the Python call stack, 'calls' counts every call and measures its self and total time.") //
+    public static final OptionKey<String> Mode = new OptionKey<>(MODE_SAMPLE);
+
+    @Option(category = OptionCategory.USER, help = "The sampling period in milliseconds.") //
+    public static final OptionKey<Long> Period = new OptionKey<>(10L);
+
+    @Option(category = OptionCategory.USER, help = "The output format: 'table' prints per-function results, 'flamegraph' prints collapsed stacks for flame graph tools.") //
+    public static final OptionKey<String> Output = new OptionKey<>(OUTPUT_TABLE);
+
+    @Option(category = OptionCategory.USER, help = "Write the profile to this file instead of the standard output.") //
+    public static final OptionKey<String> OutputFile = new OptionKey<>("");
+
+    public static OptionDescriptors createDescriptors() {
+        return new PythonProfilerOptionsOptionDescriptors();
+    }
+}
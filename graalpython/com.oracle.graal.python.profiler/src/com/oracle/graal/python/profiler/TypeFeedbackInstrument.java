@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.profiler;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.graalvm.options.OptionDescriptors;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.function.PythonCallable;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.attributes.GetAttributeNode;
+import com.oracle.graal.python.nodes.attributes.LookupAttributeInMRONode;
+import com.oracle.graal.python.nodes.call.CallDispatchNode;
+import com.oracle.graal.python.nodes.call.PythonCallNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.nodes.literal.StringLiteralNode;
+import com.oracle.graal.python.runtime.TypeFeedback;
+import com.oracle.truffle.api.dsl.Introspection;
+import com.oracle.truffle.api.dsl.Introspection.SpecializationInfo;
+import com.oracle.truffle.api.instrumentation.LoadSourceSectionEvent;
+import com.oracle.truffle.api.instrumentation.LoadSourceSectionListener;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.instrumentation.TruffleInstrument;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Reports the call sites ({@link CallDispatchNode}) and attribute lookups
+ * ({@link LookupAttributeInMRONode}) of loaded Python code whose inline caches hold more than one
+ * receiver or exceeded their limit. Each site is attributed to the enclosing call,
+ * {@link GetAttributeNode attribute access} or {@link LookupAndCallBinaryNode binary operation}.
+ * The cache state is read from the specializations via {@link Introspection}; since a megamorphic
+ * cache drops its entries, the receivers of megamorphic sites are recorded by a {@link TypeFeedback}
+ * that this instrument provides to the contexts of its engine while it is enabled.
+ */
+@TruffleInstrument.Registration(id = TypeFeedbackInstrument.ID, name = "Python Type Feedback", version = "0.1", services = {TypeFeedbackInstrument.class, TypeFeedback.class})
+public final class TypeFeedbackInstrument extends TruffleInstrument {
+
+    public static final String ID = TypeFeedback.INSTRUMENT_ID;
+
+    private final Set<RootNode> roots = Collections.newSetFromMap(new WeakHashMap<>());
+    private final TypeFeedback feedback = new TypeFeedback();
+
+    @Override
+    protected void onCreate(Env env) {
+        env.registerService(this);
+        if (!env.getOptions().get(TypeFeedbackOptions.Enabled)) {
+            return;
+        }
+        env.registerService(feedback);
+        SourceSectionFilter filter = SourceSectionFilter.newBuilder().tagIs(StandardTags.RootTag.class).mimeTypeIs(PythonLanguage.MIME_TYPE).build();
+        env.getInstrumenter().attachLoadSourceSectionListener(filter, new LoadSourceSectionListener() {
+            public void onLoad(LoadSourceSectionEvent event) {
+                RootNode root = event.getNode().getRootNode();
+                if (root != null) {
+                    synchronized (roots) {
+                        roots.add(root);
+                    }
+                }
+            }
+        }, true);
+    }
+
+    @Override
+    protected OptionDescriptors getOptionDescriptors() {
+        return TypeFeedbackOptions.createDescriptors();
+    }
+
+    @Override
+    protected void onDispose(Env env) {
+        if (!env.getOptions().get(TypeFeedbackOptions.Enabled)) {
+            return;
+        }
+        String file = env.getOptions().get(TypeFeedbackOptions.OutputFile);
+        PrintStream out;
+        if (file.isEmpty()) {
+            out = new PrintStream(env.out(), true);
+        } else {
+            try {
+                out = new PrintStream(new FileOutputStream(file), true);
+            } catch (FileNotFoundException e) {
+                new PrintStream(env.err(), true).println("Cannot write Python type feedback to " + file + ": " + e.getMessage());
+                return;
+            }
+        }
+        new ProfilerResultPrinter(out).printTypeFeedbackResults(getSites(env.getOptions().get(TypeFeedbackOptions.Polymorphic)));
+        if (!file.isEmpty()) {
+            out.close();
+        }
+    }
+
+    /**
+     * Collects the polymorphic (if requested) and megamorphic sites of all loaded Python code,
+     * megamorphic sites first.
+     */
+    public List<InlineCacheSite> getSites(boolean includePolymorphic) {
+        List<RootNode> snapshot;
+        synchronized (roots) {
+            snapshot = new ArrayList<>(roots);
+        }
+        List<InlineCacheSite> sites = new ArrayList<>();
+        for (RootNode root : snapshot) {
+            root.accept(node -> {
+                if (node instanceof CallDispatchNode || node instanceof LookupAttributeInMRONode) {
+                    InlineCacheSite site = inspect(node);
+                    if (site != null && (site.isMegamorphic() || includePolymorphic)) {
+                        sites.add(site);
+                    }
+                }
+                return true;
+            });
+        }
+        sites.sort(Comparator.comparing(InlineCacheSite::isMegamorphic).reversed().thenComparing(site -> formatLocation(site.getLocation())));
+        return sites;
+    }
+
+    private InlineCacheSite inspect(Node node) {
+        boolean megamorphic = false;
+        int cachedEntries = 0;
+        List<String> receivers = new ArrayList<>();
+        for (SpecializationInfo info : Introspection.getSpecializations(node)) {
+            // the cached specializations are excluded once the generic one replaced them
+            if (info.isExcluded()) {
+                megamorphic = true;
+            }
+            for (int i = 0; i < info.getInstances(); i++) {
+                List<Object> cachedData = info.getCachedData(i);
+                if (cachedData.isEmpty()) {
+                    continue;
+                }
+                Object receiver = cachedData.get(0);
+                if (receiver instanceof PythonClass) {
+                    receivers.add(((PythonClass) receiver).getName());
+                    cachedEntries++;
+                } else if (receiver instanceof PythonCallable) {
+                    receivers.add(((PythonCallable) receiver).getName());
+                    cachedEntries++;
+                }
+            }
+        }
+        if (megamorphic) {
+            receivers = new ArrayList<>(feedback.getReceivers(node));
+            cachedEntries = 0;
+        } else if (cachedEntries < 2) {
+            return null;
+        }
+        return new InlineCacheSite(node, node.getEncapsulatingSourceSection(), describeOperation(node), megamorphic, cachedEntries, receivers);
+    }
+
+    private static String describeOperation(Node node) {
+        for (Node current = node.getParent(); current != null && !(current instanceof RootNode); current = current.getParent()) {
+            if (current instanceof PythonCallNode) {
+                return "call";
+            } else if (current instanceof GetAttributeNode) {
+                Node key = ((GetAttributeNode) current).getKey();
+                return key instanceof StringLiteralNode ? "attribute ." + ((StringLiteralNode) key).getValue() : "attribute access";
+            } else if (current instanceof LookupAndCallBinaryNode && !(current.getParent() instanceof GetAttributeNode)) {
+                return "binary operation " + ((LookupAndCallBinaryNode) current).getName();
+            }
+        }
+        return node.getClass().getSimpleName();
+    }
+
+    static String formatLocation(SourceSection location) {
+        if (location == null) {
+            return "<unknown>";
+        }
+        return location.getSource().getName() + ":" + location.getStartLine() + ":" + location.getStartColumn();
+    }
+}
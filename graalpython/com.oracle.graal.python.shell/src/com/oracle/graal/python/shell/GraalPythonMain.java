@@ -162,6 +162,10 @@ public class GraalPythonMain extends AbstractLanguageLauncher {
         if (inspectFlag) {
             contextBuilder.option("python.PythonInspectFlag", "true");
         }
+        if (System.console() != null) {
+            // the context writes to our System.out, tell it whether that is a terminal
+            contextBuilder.option("python.StdoutIsTerminal", "true");
+        }
 
         ConsoleHandler consoleHandler = createConsoleHandler(System.in, System.out);
         contextBuilder.arguments(getLanguageId(), programArgs.toArray(new String[0])).in(consoleHandler.createInputStream());
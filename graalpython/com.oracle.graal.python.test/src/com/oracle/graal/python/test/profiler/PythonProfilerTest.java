@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.Test;
+
+import com.oracle.graal.python.profiler.FunctionProfile;
+import com.oracle.graal.python.profiler.PythonProfiler;
+
+public class PythonProfilerTest {
+
+    private static final Source FIB = Source.newBuilder("python", "" +
+                    "def fib(n):\n" +
+                    "    if n < 2:\n" +
+                    "        return n\n" +
+                    "    return fib(n - 1) + fib(n - 2)\n" +
+                    "\n" +
+                    "fib(10)\n", "test_profiler.py").buildLiteral();
+
+    private static Context.Builder newBuilder(String mode, String output, ByteArrayOutputStream out) {
+        return Context.newBuilder().out(out).option(PythonProfiler.ID, "true").option(PythonProfiler.ID + ".Mode", mode).option(PythonProfiler.ID + ".Output", output);
+    }
+
+    private static FunctionProfile findProfile(PythonProfiler profiler, String name) {
+        for (FunctionProfile profile : profiler.getFunctionProfiles()) {
+            if (name.equals(profile.getName())) {
+                return profile;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testCallCounts() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Context context = newBuilder("calls", "table", out).build()) {
+            context.eval(FIB);
+            PythonProfiler profiler = context.getEngine().getInstruments().get(PythonProfiler.ID).lookup(PythonProfiler.class);
+            FunctionProfile fib = findProfile(profiler, "fib");
+            assertNotNull(fib);
+            assertEquals(177, fib.getCalls());
+            assertEquals(1, fib.getSourceSection().getStartLine());
+            assertTrue(fib.getSelfTime() <= fib.getTotalTime());
+        }
+        String result = out.toString();
+        assertTrue(result, result.contains("Call Time Profiling Results"));
+        assertTrue(result, result.contains("fib"));
+    }
+
+    @Test
+    public void testCollapsedStacks() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Context context = newBuilder("calls", "flamegraph", out).build()) {
+            context.eval(FIB);
+        }
+        String result = out.toString();
+        assertTrue(result, result.contains("fib (test_profiler.py:1);fib (test_profiler.py:1)"));
+    }
+
+    @Test
+    public void testSampling() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Context context = newBuilder("sample", "table", out).option(PythonProfiler.ID + ".Period", "1").build()) {
+            context.eval(Source.create("python", "" +
+                            "import time\n" +
+                            "def spin():\n" +
+                            "    end = time.time() + 0.2\n" +
+                            "    while time.time() < end:\n" +
+                            "        pass\n" +
+                            "spin()\n"));
+            PythonProfiler profiler = context.getEngine().getInstruments().get(PythonProfiler.ID).lookup(PythonProfiler.class);
+            assertTrue(profiler.isSampling());
+            FunctionProfile spin = findProfile(profiler, "spin");
+            assertNotNull(spin);
+            assertTrue(spin.getTotalSamples() > 0);
+        }
+        String result = out.toString();
+        assertTrue(result, result.contains("Sampling Profiling Results"));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.profiler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.junit.Test;
+
+import com.oracle.graal.python.profiler.InlineCacheSite;
+import com.oracle.graal.python.profiler.TypeFeedbackInstrument;
+import com.oracle.graal.python.runtime.TypeFeedback;
+
+public class TypeFeedbackInstrumentTest {
+
+    private static final Source SOURCE = Source.newBuilder("python", "" +
+                    "def a(): return 1\n" +
+                    "def b(): return 2\n" +
+                    "def c(): return 3\n" +
+                    "def call_mega(f): return f()\n" +
+                    "def call_poly(f): return f()\n" +
+                    "for f in [a, b, c]:\n" +
+                    "    call_mega(f)\n" +
+                    "for f in [a, b]:\n" +
+                    "    call_poly(f)\n" +
+                    "def get(o): return o.m\n" +
+                    "class C0: m = 0\n" +
+                    "class C1: m = 1\n" +
+                    "class C2: m = 2\n" +
+                    "class C3: m = 3\n" +
+                    "class C4: m = 4\n" +
+                    "class C5: m = 5\n" +
+                    "for cls in [C0, C1, C2, C3, C4, C5]:\n" +
+                    "    get(cls())\n", "test_typefeedback.py").buildLiteral();
+
+    private static InlineCacheSite findSite(List<InlineCacheSite> sites, int line, String operation) {
+        for (InlineCacheSite site : sites) {
+            if (site.getLocation() != null && site.getLocation().getStartLine() == line && site.getOperation().equals(operation)) {
+                return site;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testReportsSites() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Context context = Context.newBuilder().out(out).option(TypeFeedbackInstrument.ID, "true").option("python.CallSiteInlineCacheMaxDepth", "2").build()) {
+            context.eval(SOURCE);
+            TypeFeedbackInstrument instrument = context.getEngine().getInstruments().get(TypeFeedbackInstrument.ID).lookup(TypeFeedbackInstrument.class);
+            List<InlineCacheSite> sites = instrument.getSites(true);
+
+            InlineCacheSite mega = findSite(sites, 4, "call");
+            assertNotNull(sites.toString(), mega);
+            assertTrue(mega.isMegamorphic());
+            assertTrue(mega.getReceivers().toString(), mega.getReceivers().contains("c"));
+
+            InlineCacheSite poly = findSite(sites, 5, "call");
+            assertNotNull(sites.toString(), poly);
+            assertFalse(poly.isMegamorphic());
+            assertEquals(2, poly.getCachedEntries());
+            assertTrue(poly.getReceivers().contains("a") && poly.getReceivers().contains("b"));
+
+            InlineCacheSite attribute = findSite(sites, 10, "attribute .m");
+            assertNotNull(sites.toString(), attribute);
+            assertTrue(attribute.isMegamorphic());
+
+            for (InlineCacheSite site : instrument.getSites(false)) {
+                assertTrue(site.isMegamorphic());
+            }
+        }
+        String result = out.toString();
+        assertTrue(result, result.contains("Polymorphic and Megamorphic Inline Caches"));
+        assertTrue(result, result.contains("test_typefeedback.py:4"));
+    }
+
+    @Test
+    public void testFeedbackIsPerEngine() {
+        try (Context first = Context.newBuilder().option(TypeFeedbackInstrument.ID, "true").build();
+                        Context second = Context.newBuilder().option(TypeFeedbackInstrument.ID, "true").build();
+                        Context disabled = Context.create()) {
+            TypeFeedback firstFeedback = first.getEngine().getInstruments().get(TypeFeedbackInstrument.ID).lookup(TypeFeedback.class);
+            TypeFeedback secondFeedback = second.getEngine().getInstruments().get(TypeFeedbackInstrument.ID).lookup(TypeFeedback.class);
+            assertNotNull(firstFeedback);
+            assertNotNull(secondFeedback);
+            assertNotSame(firstFeedback, secondFeedback);
+            assertNull(disabled.getEngine().getInstruments().get(TypeFeedbackInstrument.ID).lookup(TypeFeedback.class));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParseTreeCacheTests {
+
+    private Path cacheDir;
+    private File sourceFile;
+
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = Files.createTempDirectory("graalpython_parse_cache");
+        sourceFile = Files.createTempFile("graalpython_parse_cache", ".py").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            for (Path entry : entries.collect(Collectors.toList())) {
+                Files.delete(entry);
+            }
+        }
+        Files.delete(cacheDir);
+        Files.delete(sourceFile.toPath());
+    }
+
+    private Set<Path> listCache() throws IOException {
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            return entries.collect(Collectors.toSet());
+        }
+    }
+
+    private void writeSource(String code, long modified) throws IOException {
+        Files.write(sourceFile.toPath(), code.getBytes(StandardCharsets.UTF_8));
+        assertEquals(true, sourceFile.setLastModified(modified));
+    }
+
+    /**
+     * Evaluates the source file in a fresh context using the cache and returns the cache entry
+     * that belongs to it.
+     */
+    private Path eval(int expected) throws IOException {
+        try (Context context = Context.newBuilder("python").option("python.ParseCacheDirectory", cacheDir.toString()).allowAllAccess(true).build()) {
+            // the core library is cached as well, so only look at what evaluating the file adds
+            context.initialize("python");
+            Set<Path> before = listCache();
+            assertEquals(expected, context.eval(Source.newBuilder("python", sourceFile).build()).asInt());
+            Set<Path> after = new HashSet<>(listCache());
+            after.removeAll(before);
+            if (after.isEmpty()) {
+                return null;
+            }
+            assertEquals(1, after.size());
+            return after.iterator().next();
+        }
+    }
+
+    private Path findEntry() throws IOException {
+        Path entry = eval(42);
+        assertFalse("no cache entry was written", entry == null);
+        return entry;
+    }
+
+    @Test
+    public void cacheIsOffByDefault() {
+        try (Engine engine = Engine.create()) {
+            assertEquals("", engine.getOptions().get("python.ParseCacheDirectory").getKey().getDefaultValue());
+        }
+    }
+
+    @Test
+    public void unchangedSourceHits() throws IOException {
+        writeSource("x = 40 + 2\nx\n", 1_000_000_000_000L);
+        Path entry = findEntry();
+        byte[] stored = Files.readAllBytes(entry);
+        // a hit neither re-parses nor rewrites the entry, so the file stays the same
+        entry.toFile().setLastModified(0);
+        assertEquals(null, eval(42));
+        assertEquals(0, entry.toFile().lastModified());
+        assertArrayEquals(stored, Files.readAllBytes(entry));
+    }
+
+    @Test
+    public void changedSourceIsRejected() throws IOException {
+        writeSource("x = 40 + 2\nx\n", 1_000_000_000_000L);
+        Path entry = findEntry();
+        byte[] stored = Files.readAllBytes(entry);
+        // same length, different text and time: the hash no longer matches
+        writeSource("x = 30 + 3\nx\n", 1_000_000_060_000L);
+        eval(33);
+        assertFalse(Arrays.equals(stored, Files.readAllBytes(entry)));
+    }
+
+    @Test
+    public void touchedSourceStillHits() throws IOException {
+        writeSource("x = 40 + 2\nx\n", 1_000_000_000_000L);
+        Path entry = findEntry();
+        entry.toFile().setLastModified(0);
+        // a new modification time alone only costs hashing the source, the entry stays valid
+        sourceFile.setLastModified(1_000_000_060_000L);
+        eval(42);
+        assertEquals(0, entry.toFile().lastModified());
+    }
+
+    @Test
+    public void recentlyModifiedSourceIsHashed() throws IOException {
+        long now = System.currentTimeMillis() / 1000 * 1000;
+        writeSource("x = 40 + 2\nx\n", now);
+        findEntry();
+        // the time stamp of a file that was just written may not change with the next write
+        writeSource("x = 30 + 3\nx\n", now);
+        eval(33);
+    }
+
+    @Test
+    public void corruptedEntryIsRejected() throws IOException {
+        writeSource("x = 40 + 2\nx\n", 1_000_000_000_000L);
+        Path entry = findEntry();
+        byte[] stored = Files.readAllBytes(entry);
+        byte[] corrupted = stored.clone();
+        // flip a bit in the serialized tree, which the CRC catches
+        corrupted[corrupted.length - 8] ^= 1;
+        Files.write(entry, corrupted);
+        eval(42);
+        assertArrayEquals(stored, Files.readAllBytes(entry));
+    }
+}
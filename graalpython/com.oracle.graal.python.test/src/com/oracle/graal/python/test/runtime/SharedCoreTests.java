@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.test.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.junit.Test;
+
+public class SharedCoreTests {
+
+    private static Context createContext(Engine engine) {
+        return Context.newBuilder("python").engine(engine).option("python.SharedCore", "true").allowAllAccess(true).build();
+    }
+
+    @Test
+    public void builtinModulesAreIsolated() {
+        try (Engine engine = Engine.create()) {
+            try (Context first = createContext(engine); Context second = createContext(engine)) {
+                first.eval("python", "import sys, builtins\nsys.marker = 1\nbuiltins.len = lambda x: 42");
+                assertEquals(42, first.eval("python", "len([])").asInt());
+                assertEquals(0, second.eval("python", "len([])").asInt());
+                assertEquals(false, second.eval("python", "import sys\nhasattr(sys, 'marker')").asBoolean());
+            }
+        }
+    }
+
+    @Test
+    public void coreLibraryIsAvailableInLaterContexts() {
+        try (Engine engine = Engine.create()) {
+            for (int i = 0; i < 3; i++) {
+                try (Context context = createContext(engine)) {
+                    assertEquals(6, context.eval("python", "sum(map(lambda x: x * 2, [1, 2]))").asInt());
+                    assertEquals("sys", context.eval("python", "import sys\nsys.__name__").asString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void coreClassesAreIsolated() {
+        try (Engine engine = Engine.create()) {
+            try (Context first = createContext(engine); Context second = createContext(engine)) {
+                first.eval("python", "ValueError.marker = 1");
+                assertEquals(false, second.eval("python", "hasattr(ValueError, 'marker')").asBoolean());
+                // exceptions raised by the runtime are instances of the context's own classes
+                assertEquals(true, second.eval("python", "try:\n    int('x')\nexcept ValueError as e:\n    r = type(e) is ValueError\nr").asBoolean());
+            }
+        }
+    }
+}
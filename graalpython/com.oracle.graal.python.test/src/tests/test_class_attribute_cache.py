@@ -0,0 +1,101 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+def make_classes(n):
+    class Base():
+        def foo(self):
+            return "base"
+
+    classes = [Base]
+    for i in range(n):
+        class C(classes[-1]):
+            pass
+        classes.append(C)
+    return Base, classes
+
+
+def lookup_all(classes):
+    return [c.foo(None) for c in classes]
+
+
+def test_megamorphic_lookup():
+    Base, classes = make_classes(30)
+    for i in range(3):
+        assert lookup_all(classes) == ["base"] * len(classes)
+
+
+def test_base_change_after_lookup():
+    Base, classes = make_classes(30)
+    lookup_all(classes)
+    Base.foo = lambda self: "changed"
+    assert lookup_all(classes) == ["changed"] * len(classes)
+
+
+def test_override_in_subclass():
+    Base, classes = make_classes(30)
+    lookup_all(classes)
+    classes[10].foo = lambda self: "override"
+    assert lookup_all(classes) == ["base"] * 10 + ["override"] * (len(classes) - 10)
+
+
+def test_delete_reveals_base():
+    Base, classes = make_classes(30)
+    classes[10].foo = lambda self: "override"
+    assert lookup_all(classes)[-1] == "override"
+    del classes[10].foo
+    assert lookup_all(classes) == ["base"] * len(classes)
+
+
+def test_multiple_inheritance():
+    class A():
+        x = 1
+
+    class B():
+        x = 2
+
+    class C(A, B):
+        pass
+
+    for i in range(3):
+        assert C.x == 1
+    del A.x
+    assert C.x == 2
+    B.x = 3
+    assert C.x == 3
+    A.x = 4
+    assert C.x == 4
@@ -49,4 +49,74 @@ def test_import():
     from collections import namedtuple, Counter, OrderedDict, _count_elements
     from collections import UserDict, UserString, UserList
     from collections import ChainMap
-    # from collections import deque
+    from collections import deque
+
+
+def test_defaultdict():
+    from collections import defaultdict
+    d = defaultdict(list)
+    d["a"].append(1)
+    d["a"].append(2)
+    d["b"]
+    assert d == {"a": [1, 2], "b": []}
+    assert d.default_factory is list
+    assert repr(d) == "defaultdict(<class 'list'>, {'a': [1, 2], 'b': []})"
+
+    d = defaultdict(None, {1: 2}, x=3)
+    assert d == {1: 2, "x": 3}
+    assert_raises(KeyError, lambda: d[2])
+    d.default_factory = int
+    assert d[2] == 0
+    assert 2 in d
+
+    c = d.copy()
+    assert type(c) is defaultdict
+    assert c.default_factory is int
+    assert c == d
+    assert_raises(TypeError, defaultdict, 1)
+
+
+def test_defaultdict_subclass():
+    from collections import defaultdict
+
+    class MyDict(defaultdict):
+        def __missing__(self, key):
+            return key * 2
+
+    d = MyDict(int)
+    assert d[21] == 42
+    assert 21 not in d
+
+
+def test_ordereddict():
+    from collections import OrderedDict
+    d = OrderedDict()
+    for k in "edcba":
+        d[k] = ord(k)
+    assert list(d) == list("edcba")
+    del d["c"]
+    d["c"] = 0
+    assert list(d.keys()) == list("edbac")
+
+    d.move_to_end("e")
+    assert list(d) == list("dbace")
+    d.move_to_end("c", last=False)
+    assert list(d) == list("cdbae")
+    assert_raises(KeyError, d.move_to_end, "x")
+
+    assert d.popitem() == ("e", ord("e"))
+    assert d.popitem(last=False) == ("c", 0)
+    assert list(reversed(d)) == list("abd")
+    assert repr(d) == "OrderedDict([('d', 100), ('b', 98), ('a', 97)])"
+    assert repr(OrderedDict()) == "OrderedDict()"
+
+    e = OrderedDict([("d", 100), ("a", 97), ("b", 98)])
+    assert d != e
+    assert dict(d) == e
+    e.move_to_end("a")
+    assert d == e
+    assert d.copy() == d
+    assert type(d.copy()) is OrderedDict
+
+    d.clear()
+    assert_raises(KeyError, d.popitem)
@@ -0,0 +1,182 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+from collections import deque
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_append_pop():
+    d = deque()
+    for i in range(100):
+        d.append(i)
+        d.appendleft(-i)
+    assert len(d) == 200
+    assert d[0] == -99
+    assert d[-1] == 99
+    assert d.pop() == 99
+    assert d.popleft() == -99
+    assert len(d) == 198
+    d.clear()
+    assert not d
+    assert_raises(IndexError, d.pop)
+    assert_raises(IndexError, d.popleft)
+
+
+def test_init():
+    assert list(deque([1, 2, 3])) == [1, 2, 3]
+    assert list(deque("abc")) == ["a", "b", "c"]
+    assert list(deque(range(10), 3)) == [7, 8, 9]
+    assert deque(maxlen=5).maxlen == 5
+    assert deque().maxlen is None
+    d = deque([1, 2])
+    d.__init__([3])
+    assert list(d) == [3]
+    assert_raises(ValueError, deque, [], -1)
+
+
+def test_maxlen():
+    d = deque(maxlen=3)
+    for i in range(10):
+        d.append(i)
+    assert list(d) == [7, 8, 9]
+    d.appendleft(6)
+    assert list(d) == [6, 7, 8]
+    d.extend([10, 11])
+    assert list(d) == [8, 10, 11]
+    d.extendleft([1, 2])
+    assert list(d) == [2, 1, 8]
+    assert_raises(IndexError, d.insert, 0, 5)
+    d = deque([1, 2], maxlen=0)
+    assert len(d) == 0
+
+
+def test_rotate():
+    d = deque(range(10))
+    d.rotate(3)
+    assert list(d) == [7, 8, 9, 0, 1, 2, 3, 4, 5, 6]
+    d.rotate(-3)
+    assert list(d) == list(range(10))
+    d.rotate()
+    assert list(d) == [9, 0, 1, 2, 3, 4, 5, 6, 7, 8]
+    d.rotate(-21)
+    assert list(d) == list(range(10))
+    d.rotate(8)
+    assert list(d) == [2, 3, 4, 5, 6, 7, 8, 9, 0, 1]
+    e = deque()
+    e.rotate(5)
+    assert len(e) == 0
+
+
+def test_extend():
+    d = deque([1, 2])
+    d.extend(d)
+    assert list(d) == [1, 2, 1, 2]
+    d.extendleft(x for x in "ab")
+    assert list(d) == ["b", "a", 1, 2, 1, 2]
+    d += [3]
+    assert d[-1] == 3
+    assert list(deque([1]) + deque([2])) == [1, 2]
+
+
+def test_sequence_methods():
+    d = deque([1, 2, 3, 2])
+    assert d.count(2) == 2
+    assert d.index(2) == 1
+    assert d.index(2, 2) == 3
+    assert_raises(ValueError, d.index, 5)
+    assert 3 in d
+    assert 5 not in d
+    d.remove(2)
+    assert list(d) == [1, 3, 2]
+    assert_raises(ValueError, d.remove, 5)
+    d.insert(1, 9)
+    assert list(d) == [1, 9, 3, 2]
+    d.insert(-1, 8)
+    assert list(d) == [1, 9, 3, 8, 2]
+    d[0] = 0
+    d[-1] = 4
+    assert list(d) == [0, 9, 3, 8, 4]
+    del d[1]
+    assert list(d) == [0, 3, 8, 4]
+    assert_raises(IndexError, lambda: d[4])
+    d.reverse()
+    assert list(d) == [4, 8, 3, 0]
+    assert list(reversed(d)) == [0, 3, 8, 4]
+
+
+def test_iteration():
+    d = deque(range(5))
+    it = iter(d)
+    assert next(it) == 0
+    d.append(5)
+    assert_raises(RuntimeError, next, it)
+    total = 0
+    for x in deque(range(100)):
+        total += x
+    assert total == 4950
+
+
+def test_copy_eq_repr():
+    d = deque([1, 2, 3], maxlen=5)
+    c = d.copy()
+    assert c == d
+    assert c is not d
+    assert c.maxlen == 5
+    c.append(4)
+    assert c != d
+    assert repr(deque()) == "deque([])"
+    assert repr(deque([1, "a"])) == "deque([1, 'a'])"
+    assert repr(d) == "deque([1, 2, 3], maxlen=5)"
+    assert_raises(TypeError, hash, d)
+
+
+def test_sliding_window():
+    window = deque(maxlen=4)
+    sums = []
+    for i in range(10):
+        window.append(i)
+        sums.append(sum(window))
+    assert sums == [0, 1, 3, 6, 10, 14, 18, 22, 26, 30]
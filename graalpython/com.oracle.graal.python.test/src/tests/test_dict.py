@@ -278,3 +278,29 @@ def test_in_dict_keys():
     d = {'a': 1, 'b': 2, 'c': 3}
     keys = d.keys()
     assert 'a' in keys
+
+
+def test_large_string_keys():
+    d = {}
+    for i in range(300):
+        d["k" + str(i)] = i
+    assert len(d) == 300
+    assert list(d.keys())[:3] == ["k0", "k1", "k2"]
+    assert d["k150"] == 150
+    assert "k299" in d
+    assert "k300" not in d
+    for i in range(0, 300, 2):
+        del d["k" + str(i)]
+    assert len(d) == 150
+    assert "k0" not in d
+    assert d.get("k1") == 1
+    d["k0"] = "again"
+    assert list(d)[-1] == "k0"
+    c = d.copy()
+    c["k1"] = -1
+    assert d["k1"] == 1
+    assert c == dict(c)
+    d[1] = "int"
+    assert d[1] == "int"
+    assert d["k3"] == 3
+    assert len(d) == 152
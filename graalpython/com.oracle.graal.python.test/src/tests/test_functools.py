@@ -0,0 +1,135 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+
+def test_partial():
+    from functools import partial
+
+    def f(a, b, c=0, d=0):
+        return (a, b, c, d)
+
+    p = partial(f, 1, c=3)
+    assert p(2) == (1, 2, 3, 0)
+    assert p(2, c=4, d=5) == (1, 2, 4, 5)
+    assert p.func is f
+    assert p.args == (1,)
+    assert p.keywords == {"c": 3}
+    q = partial(p, 2, d=6)
+    assert q.func is f
+    assert q.args == (1, 2)
+    assert q() == (1, 2, 3, 6)
+    assert partial(int, base=2)("101") == 5
+    assert_raises(TypeError, partial, 1)
+
+
+def test_lru_cache():
+    from functools import lru_cache
+    calls = []
+
+    @lru_cache(maxsize=2)
+    def square(x):
+        calls.append(x)
+        return x * x
+
+    assert square(2) == 4
+    assert square(2) == 4
+    assert square(3) == 9
+    assert calls == [2, 3]
+    info = square.cache_info()
+    assert (info.hits, info.misses, info.maxsize, info.currsize) == (1, 2, 2, 2)
+    # 2 was used more recently than 3, so 3 is evicted
+    square(2)
+    square(4)
+    square(2)
+    square(3)
+    assert calls == [2, 3, 4, 3]
+    assert square.__wrapped__.__name__ == "square"
+    square.cache_clear()
+    info = square.cache_info()
+    assert (info.hits, info.misses, info.currsize) == (0, 0, 0)
+
+
+def test_lru_cache_keys():
+    from functools import lru_cache
+    calls = []
+
+    @lru_cache(maxsize=None)
+    def f(*args, **kwargs):
+        calls.append((args, kwargs))
+        return len(calls)
+
+    assert f(1, "a", 2) == 1
+    assert f(1, a=2) == 2
+    assert f(1, a=2) == 2
+    assert f((1, 2)) == 3
+    assert f.cache_info().maxsize is None
+
+    @lru_cache(typed=True)
+    def g(x):
+        calls.append(x)
+        return x
+
+    g(1)
+    g(1.0)
+    assert len(calls) == 5
+
+
+def test_lru_cache_method():
+    from functools import lru_cache
+
+    class A:
+        def __init__(self, n):
+            self.n = n
+
+        @lru_cache()
+        def add(self, x):
+            return self.n + x
+
+    a = A(1)
+    assert a.add(2) == 3
+    assert a.add(2) == 3
+    assert A(5).add(2) == 7
+    assert A.add.cache_info().hits == 1
@@ -0,0 +1,121 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+class Plain:
+    cls_attr = 1
+
+    def __init__(self):
+        self.inst_attr = 2
+
+
+class WithGetattr:
+    def __getattr__(self, name):
+        if name == "dynamic":
+            return 3
+        raise AttributeError(name)
+
+
+class WithGetattribute:
+    def __getattribute__(self, name):
+        if name == "special":
+            return 4
+        return object.__getattribute__(self, name)
+
+
+class WithProperties:
+    @property
+    def missing(self):
+        raise AttributeError("missing")
+
+    @property
+    def broken(self):
+        raise ValueError("broken")
+
+
+def test_hasattr():
+    p = Plain()
+    assert hasattr(p, "inst_attr")
+    assert hasattr(p, "cls_attr")
+    assert hasattr(p, "__init__")
+    assert not hasattr(p, "nope")
+    assert hasattr(Plain, "cls_attr")
+    assert not hasattr(Plain, "inst_attr")
+    assert hasattr(1, "real")
+    assert not hasattr(1, "nope")
+    assert hasattr(WithGetattr(), "dynamic")
+    assert not hasattr(WithGetattr(), "nope")
+    assert hasattr(WithGetattribute(), "special")
+    assert not hasattr(WithGetattribute(), "nope")
+    assert not hasattr(WithProperties(), "missing")
+    assert_raises(ValueError, hasattr, WithProperties(), "broken")
+    assert_raises(TypeError, hasattr, p, 1)
+
+
+def test_getattr_default():
+    p = Plain()
+    assert getattr(p, "inst_attr", None) == 2
+    assert getattr(p, "nope", None) is None
+    assert getattr(p, "nope", 42) == 42
+    assert getattr(WithGetattr(), "dynamic", None) == 3
+    assert getattr(WithGetattr(), "nope", 5) == 5
+    assert getattr(WithGetattribute(), "special", None) == 4
+    assert getattr(WithGetattribute(), "nope", 6) == 6
+    assert getattr(WithProperties(), "missing", 7) == 7
+    assert_raises(ValueError, getattr, WithProperties(), "broken", 8)
+    assert_raises(AttributeError, getattr, p, "nope")
+
+
+def test_getattr_probe_in_loop():
+    p = Plain()
+    found = 0
+    for i in range(1000):
+        if hasattr(p, "inst_attr"):
+            found += 1
+        if getattr(p, "attr%d" % (i % 3), None) is not None:
+            found += 100
+    assert found == 1000
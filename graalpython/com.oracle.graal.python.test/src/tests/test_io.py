@@ -0,0 +1,146 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import os
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+TEST_FILE = os.path.join(os.environ.get("TMPDIR", "/tmp"), "graalpython_test_io_%d.txt" % os.getpid())
+
+
+def test_text_roundtrip():
+    with open(TEST_FILE, "w") as f:
+        assert f.write("hello\nworld\r\nlast") == 17
+    try:
+        with open(TEST_FILE) as f:
+            assert f.readline() == "hello\n"
+            assert f.readline() == "world\n"
+            assert f.readline() == "last"
+            assert f.readline() == ""
+        with open(TEST_FILE, newline="") as f:
+            assert list(f) == ["hello\n", "world\r\n", "last"]
+    finally:
+        os.unlink(TEST_FILE)
+
+
+def test_text_read_size_counts_translated_newlines():
+    with open(TEST_FILE, "wb") as f:
+        f.write(b"a\r\nb\r\nc\rd")
+    try:
+        with open(TEST_FILE) as f:
+            assert f.read(4) == "a\nb\n"
+            assert f.read(1) == "c"
+            assert f.read(1) == "\n"
+            assert f.read() == "d"
+        with open(TEST_FILE, newline="") as f:
+            assert f.read(4) == "a\r\nb"
+    finally:
+        os.unlink(TEST_FILE)
+
+
+def test_binary_roundtrip():
+    data = bytes(range(256)) * 100
+    with open(TEST_FILE, "wb") as f:
+        assert f.write(data) == len(data)
+        assert f.tell() == len(data)
+    try:
+        with open(TEST_FILE, "rb") as f:
+            assert f.read(10) == data[:10]
+            assert f.tell() == 10
+            f.seek(0)
+            assert f.read() == data
+            assert f.read() == b""
+    finally:
+        os.unlink(TEST_FILE)
+
+
+def test_binary_small_reads():
+    data = bytes(range(256)) * 100
+    with open(TEST_FILE, "wb") as f:
+        f.write(data)
+    try:
+        with open(TEST_FILE, "rb") as f:
+            chunks = []
+            while True:
+                b = f.read(1)
+                if not b:
+                    break
+                chunks.append(b)
+            assert b"".join(chunks) == data
+        with open(TEST_FILE, "rb") as f:
+            assert f.read(3) == data[:3]
+            assert f.tell() == 3
+            assert f.read(len(data)) == data[3:]
+            assert f.read(1) == b""
+    finally:
+        os.unlink(TEST_FILE)
+
+
+def test_text_tell_seek():
+    with open(TEST_FILE, "w", encoding="utf-8") as f:
+        f.write("äbc\ndef\n")
+    try:
+        with open(TEST_FILE, encoding="utf-8") as f:
+            assert f.readline() == "äbc\n"
+            pos = f.tell()
+            assert pos == 5
+            assert f.read() == "def\n"
+            f.seek(pos)
+            assert f.read(3) == "def"
+    finally:
+        os.unlink(TEST_FILE)
+
+
+def test_closed():
+    with open(TEST_FILE, "w") as f:
+        pass
+    try:
+        assert f.closed
+        assert_raises(ValueError, f.write, "x")
+        f = open(TEST_FILE, "r")
+        assert_raises(OSError, f.write, "x")
+        f.close()
+        assert_raises(ValueError, f.read)
+    finally:
+        os.unlink(TEST_FILE)
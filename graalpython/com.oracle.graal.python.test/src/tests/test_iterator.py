@@ -96,3 +96,76 @@ def test_iter():
     zip_iterator = type(iter(zip()))
     assert str(zip_iterator) == "<class 'zip'>"
     # <class 'zip'>
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_exhausted_generator():
+    def gen():
+        yield 1
+        return 2
+
+    g = gen()
+    assert list(g) == [1]
+    assert_raises(StopIteration, next, g)
+    assert list(g) == []
+    assert_raises(StopIteration, g.send, None)
+
+
+def test_consumers_of_builtin_iterators():
+    d = {"a": 1, "b": 2}
+    assert sorted(d.items()) == [("a", 1), ("b", 2)]
+    assert sorted(tuple(k for k in d)) == ["a", "b"]
+    assert ",".join(str(v) for v in sorted(d.values())) == "1,2"
+    assert "".join(iter("abc")) == "abc"
+    assert set(iter([1, 2, 2])) == {1, 2}
+    assert any(x > 1 for x in range(3))
+    assert not all(x > 1 for x in range(3))
+    it = iter([1, 2])
+    assert list(it) == [1, 2]
+    assert_raises(StopIteration, next, it)
+
+
+def test_zip():
+    def gen(n):
+        for i in range(n):
+            yield i
+
+    assert list(zip(gen(3), gen(2))) == [(0, 0), (1, 1)]
+    assert list(zip(gen(3), iter("ab"), {"x": 1}.items())) == [(0, "a", ("x", 1))]
+    z = zip([1], [2])
+    assert next(z) == (1, 2)
+    assert_raises(StopIteration, next, z)
+
+
+def test_zip_subclass():
+    class Z(zip):
+        def __next__(self):
+            return tuple(x * 10 for x in zip.__next__(self))
+
+    assert [x for x in Z([1, 2], [3, 4])] == [(10, 30), (20, 40)]
+
+
+def test_user_iterator():
+    class Countdown:
+        def __init__(self, n):
+            self.n = n
+
+        def __iter__(self):
+            return self
+
+        def __next__(self):
+            if self.n == 0:
+                raise StopIteration
+            self.n -= 1
+            return self.n
+
+    assert list(Countdown(3)) == [2, 1, 0]
+    assert [x for x in Countdown(2)] == [1, 0]
@@ -0,0 +1,141 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+
+def test_count_repeat_cycle():
+    from itertools import count, repeat, cycle, islice
+    assert list(islice(count(), 3)) == [0, 1, 2]
+    assert list(islice(count(10, 5), 3)) == [10, 15, 20]
+    assert repr(count(3)) == "count(3)"
+    assert repr(count(3, 2)) == "count(3, 2)"
+    assert list(repeat("a", 3)) == ["a", "a", "a"]
+    assert list(repeat("a", -1)) == []
+    assert list(islice(repeat(1), 4)) == [1, 1, 1, 1]
+    assert list(islice(cycle("ab"), 5)) == ["a", "b", "a", "b", "a"]
+    assert list(cycle([])) == []
+
+
+def test_accumulate_chain_compress():
+    from itertools import accumulate, chain, compress
+    assert list(accumulate([1, 2, 3, 4])) == [1, 3, 6, 10]
+    assert list(accumulate([1, 2, 3, 4], lambda x, y: x * y)) == [1, 2, 6, 24]
+    assert list(accumulate([])) == []
+    assert list(chain("ab", [], (1, 2))) == ["a", "b", 1, 2]
+    assert list(chain.from_iterable(["ab", "cd"])) == ["a", "b", "c", "d"]
+    assert list(compress("abcdef", [1, 0, 1, 0, 1, 1])) == ["a", "c", "e", "f"]
+
+
+def test_predicates():
+    from itertools import dropwhile, takewhile, filterfalse, starmap
+    assert list(dropwhile(lambda x: x < 5, [1, 4, 6, 4, 1])) == [6, 4, 1]
+    assert list(takewhile(lambda x: x < 5, [1, 4, 6, 4, 1])) == [1, 4]
+    assert list(filterfalse(lambda x: x % 2, range(10))) == [0, 2, 4, 6, 8]
+    assert list(filterfalse(None, [0, 1, "", "a"])) == [0, ""]
+    assert list(starmap(pow, [(2, 5), (3, 2)])) == [32, 9]
+    assert list(starmap(pow, [[2, 5], [3, 2]])) == [32, 9]
+
+
+def test_groupby():
+    from itertools import groupby
+    assert [k for k, g in groupby("AAAABBBCCDAABBB")] == ["A", "B", "C", "D", "A", "B"]
+    assert [list(g) for k, g in groupby("AAAABBBCCD")] == [["A"] * 4, ["B"] * 3, ["C"] * 2, ["D"]]
+    groups = [(k, list(g)) for k, g in groupby([1, 3, 2, 4, 5], key=lambda x: x % 2)]
+    assert groups == [(1, [1, 3]), (0, [2, 4]), (1, [5])]
+    # a grouper is invalidated once the groupby object advances
+    it = groupby("aabb")
+    _, first = next(it)
+    next(it)
+    assert list(first) == []
+
+
+def test_islice():
+    from itertools import islice
+    assert list(islice("ABCDEFG", 2)) == ["A", "B"]
+    assert list(islice("ABCDEFG", 2, 4)) == ["C", "D"]
+    assert list(islice("ABCDEFG", 2, None)) == ["C", "D", "E", "F", "G"]
+    assert list(islice("ABCDEFG", 0, None, 2)) == ["A", "C", "E", "G"]
+    it = iter(range(10))
+    assert list(islice(it, 3)) == [0, 1, 2]
+    assert next(it) == 3
+    assert_raises(ValueError, islice, [], -1)
+    assert_raises(ValueError, islice, [], 0, 1, 0)
+
+
+def test_zip_longest():
+    from itertools import zip_longest
+    assert list(zip_longest("ABCD", "xy")) == [("A", "x"), ("B", "y"), ("C", None), ("D", None)]
+    assert list(zip_longest("ABCD", "xy", fillvalue="-")) == [("A", "x"), ("B", "y"), ("C", "-"), ("D", "-")]
+    assert list(zip_longest()) == []
+
+
+def test_combinatorics():
+    from itertools import product, permutations, combinations, combinations_with_replacement
+    assert list(product("ab", range(2))) == [("a", 0), ("a", 1), ("b", 0), ("b", 1)]
+    assert list(product(range(2), repeat=2)) == [(0, 0), (0, 1), (1, 0), (1, 1)]
+    assert list(product()) == [()]
+    assert list(product("ab", [])) == []
+    assert list(permutations(range(3), 2)) == [(0, 1), (0, 2), (1, 0), (1, 2), (2, 0), (2, 1)]
+    assert len(list(permutations("abcd"))) == 24
+    assert list(permutations("ab", 3)) == []
+    assert list(combinations("ABCD", 2)) == [("A", "B"), ("A", "C"), ("A", "D"), ("B", "C"), ("B", "D"), ("C", "D")]
+    assert list(combinations(range(4), 0)) == [()]
+    assert list(combinations_with_replacement("ABC", 2)) == [("A", "A"), ("A", "B"), ("A", "C"), ("B", "B"), ("B", "C"), ("C", "C")]
+    assert_raises(ValueError, combinations, "abc", -1)
+
+
+def test_tee():
+    from itertools import tee
+    a, b = tee(range(200))
+    assert list(a) == list(range(200))
+    assert list(b) == list(range(200))
+    a, b, c = tee("abc", 3)
+    assert next(a) == "a"
+    d, = tee(a, 1)
+    assert d is a
+    assert list(b) == ["a", "b", "c"]
+    assert list(a) == ["b", "c"]
+    assert list(c) == ["a", "b", "c"]
+    assert tee([], 0) == ()
@@ -94,4 +94,92 @@ class ListTest():
     def test_pop_border(self):
         l = [1, 2, 5];
         self.assertRaises(IndexError, l.pop, LONG_NUMBER)
-    
\ No newline at end of file
+    
+
+def test_sort_primitive():
+    l = [5, 3, 9, 1, 3]
+    l.sort()
+    assert l == [1, 3, 3, 5, 9]
+    l.sort(reverse=True)
+    assert l == [9, 5, 3, 3, 1]
+
+    l = [LONG_NUMBER + 3, LONG_NUMBER + 1, LONG_NUMBER + 2]
+    l.sort()
+    assert l == [LONG_NUMBER + 1, LONG_NUMBER + 2, LONG_NUMBER + 3]
+
+    l = [2.5, 0.5, 1.5]
+    l.sort()
+    assert l == [0.5, 1.5, 2.5]
+
+    l = []
+    l.sort()
+    assert l == []
+
+
+def test_sort_signed_zeros():
+    def signs(l):
+        return [str(x) for x in l]
+
+    l = [0.0, -1.5, -0.0, 2.0, 0.0, -0.0]
+    l.sort()
+    assert signs(l) == ["-1.5", "0.0", "-0.0", "0.0", "-0.0", "2.0"]
+    l = [0.0, -1.5, -0.0, 2.0, 0.0, -0.0]
+    l.sort(reverse=True)
+    assert signs(l) == ["2.0", "0.0", "-0.0", "0.0", "-0.0", "-1.5"]
+    assert signs(sorted([-0.0, 0.0])) == ["-0.0", "0.0"]
+    assert signs(sorted([0.0, -0.0])) == ["0.0", "-0.0"]
+
+
+def test_sort_generic():
+    l = list(range(100, 0, -1)) + ['a']
+    l.pop()
+    l.sort()
+    assert l == list(range(1, 101))
+
+    l = ['pear', 'apple', 'fig', 'banana']
+    l.sort()
+    assert l == ['apple', 'banana', 'fig', 'pear']
+    l.sort(reverse=True)
+    assert l == ['pear', 'fig', 'banana', 'apple']
+
+
+def test_sort_key_is_stable():
+    data = [(i % 7, i) for i in range(200)]
+    l = list(data)
+    l.sort(key=lambda t: t[0])
+    assert l == [t for k in range(7) for t in data if t[0] == k]
+
+    l = list(data)
+    l.sort(key=lambda t: t[0], reverse=True)
+    assert l == [t for k in range(6, -1, -1) for t in data if t[0] == k]
+
+    calls = []
+    def key(x):
+        calls.append(x)
+        return -x
+    l = [3, 1, 2]
+    l.sort(key=key)
+    assert l == [3, 2, 1]
+    assert len(calls) == 3
+
+
+def test_sort_errors():
+    l = [3, 'a', 1]
+    try:
+        l.sort()
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError"
+    assert len(l) == 3
+
+    l = [3, 2, 1]
+    def key(x):
+        l.append(x)
+        return x
+    try:
+        l.sort(key=key)
+    except ValueError:
+        pass
+    else:
+        assert False, "expected ValueError"
@@ -56,3 +56,73 @@ def test_map2():
     items0 = [0, 1, 2, 3, 4]
     items1 = [5, 6, 7, 8, 9]
     assert list(map(lambda x, y: x * y, items0, items1)) == [0, 6, 14, 24, 36]
+
+
+def test_map_lazy():
+    seen = []
+
+    def f(x):
+        seen.append(x)
+        return -x
+
+    m = map(f, range(10))
+    assert iter(m) is m
+    assert next(m) == 0
+    assert next(m) == -1
+    assert seen == [0, 1]
+
+
+def test_map_shortest():
+    assert list(map(lambda x, y: (x, y), [1, 2, 3], (10, 20))) == [(1, 10), (2, 20)]
+    assert list(map(str, [1, 2])) == ["1", "2"]
+
+
+def test_filter():
+    assert list(filter(lambda x: x % 2, range(10))) == [1, 3, 5, 7, 9]
+    assert list(filter(None, [0, 1, "", "a", [], [0], None])) == [1, "a", [0]]
+    f = filter(None, [1, 2])
+    assert iter(f) is f
+    assert next(f) == 1
+    assert list(f) == [2]
+
+
+def test_any_all():
+    assert any([0, 0, 1])
+    assert not any([0, 0, 0])
+    assert not any([])
+    assert all([1, 2, 3])
+    assert not all([1, 0, 3])
+    assert all([])
+    assert any((None, "x"))
+    assert not all((None, "x"))
+    assert any(x > 2 for x in range(5))
+    assert not all(x > 2 for x in range(5))
+    assert any(["", [], 0.5])
+    assert all({1: 0, 2: 0})
+
+    class Seen(list):
+        def __iter__(self):
+            return iter([1])
+
+    assert all(Seen([0]))
+
+
+def test_any_all_short_circuit():
+    def gen():
+        yield 1
+        yield 0
+        raise AssertionError("not short-circuited")
+
+    assert any(gen())
+    assert not all(gen())
+
+
+def test_sorted():
+    data = [3, 1, 2]
+    result = sorted(data)
+    assert result == [1, 2, 3]
+    assert data == [3, 1, 2]
+    assert sorted(data, reverse=True) == [3, 2, 1]
+    assert sorted(["bb", "a", "ccc"], key=len) == ["a", "bb", "ccc"]
+    assert sorted("cab") == ["a", "b", "c"]
+    assert sorted((x for x in [2.5, -1.0])) == [-1.0, 2.5]
@@ -0,0 +1,88 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import marshal
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_roundtrip():
+    values = [None, True, False, ..., 0, -1, 2**31 - 1, -2**31, 2**31, 2**63, -(2**100) + 7,
+              1.5, float("inf"), 1+2j, "", "ascii", "ünïcödé", "x" * 300, b"", b"\x00\xff",
+              (), (1, "a"), tuple(range(300)), [1, [2, 3]], {"a": 1, 2: (3,)}, {1, 2, 3},
+              frozenset({"x"})]
+    for value in values:
+        assert marshal.loads(marshal.dumps(value)) == value, value
+        for version in range(5):
+            assert marshal.loads(marshal.dumps(value, version)) == value, (value, version)
+
+
+def test_cpython_format():
+    assert marshal.dumps(1, 2) == b"i\x01\x00\x00\x00"
+    assert marshal.dumps(2**40, 2) == b"l\x03\x00\x00\x00\x00\x00\x00\x00\x00\x04"
+    assert marshal.loads(b"\xe9\x01\x00\x00\x00") == 1
+    assert marshal.dumps(1.0, 2) == b"g\x00\x00\x00\x00\x00\x00\xf0?"
+    assert marshal.loads(b"\xda\x03abc") == "abc"
+    assert marshal.loads(b"\xa9\x02\xda\x01ar\x01\x00\x00\x00") == ("a", "a")
+
+
+def test_shared_references():
+    shared = ["x"]
+    result = marshal.loads(marshal.dumps([shared, shared]))
+    assert result == [["x"], ["x"]]
+    assert result[0] is result[1]
+    assert marshal.loads(marshal.dumps([shared, shared], 2)) == [["x"], ["x"]]
+
+
+def test_errors():
+    assert_raises(ValueError, marshal.dumps, object())
+    assert_raises(EOFError, marshal.loads, b"")
+    assert_raises(EOFError, marshal.loads, b"\xe9\x01")
+    assert_raises(ValueError, marshal.loads, b"\x01")
+
+
+def test_long_digit_count_out_of_range():
+    # digit counts that do not match the input must not be used to size the result
+    assert_raises(EOFError, marshal.loads, b"l\xff\xff\xff\x7f\x01\x00")
+    assert_raises(EOFError, marshal.loads, b"l\x01\x00\x00\xc0\x01\x00")
+    assert_raises(ValueError, marshal.loads, b"l\x00\x00\x00\x80")
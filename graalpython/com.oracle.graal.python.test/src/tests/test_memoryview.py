@@ -0,0 +1,197 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import sys
+from array import array
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_bytes():
+    b = b"hello world"
+    m = memoryview(b)
+    assert len(m) == 11
+    assert m.readonly
+    assert m.obj is b
+    assert m.format == "B" and m.itemsize == 1 and m.nbytes == 11
+    assert m[0] == ord("h")
+    assert m[-1] == ord("d")
+    assert m.tobytes() == b
+    assert bytes(m) == b
+    assert m.tolist() == list(b)
+    assert m.hex() == b.hex()
+    assert m == b
+    assert not (m != b)
+    assert_raises(IndexError, lambda: m[11])
+    assert_raises(TypeError, m.__setitem__, 0, 1)
+
+
+def test_slice():
+    b = b"0123456789"
+    m = memoryview(b)
+    s = m[2:8]
+    assert s.obj is b
+    assert len(s) == 6
+    assert s.tobytes() == b"234567"
+    assert s[1:5:2].tobytes() == b"35"
+    assert s[::-1].tobytes() == b"765432"
+    assert s[::-1].strides == (-1,)
+    assert not s[::2].contiguous
+    assert s[10:].tobytes() == b""
+    assert list(s[:3]) == [50, 51, 52]
+
+
+def test_bytearray_write_through():
+    ba = bytearray(b"abcdef")
+    m = memoryview(ba)
+    assert not m.readonly
+    m[0] = ord("x")
+    assert ba == bytearray(b"xbcdef")
+    s = m[1:5]
+    s[1:3] = b"YZ"
+    assert ba == bytearray(b"xbYZef")
+    m[::2] = b"123"
+    assert ba == bytearray(b"1b2Z3f")
+    m[2:4] = m[0:2]
+    assert ba == bytearray(b"1b1b3f")
+    assert_raises(ValueError, m.__setitem__, slice(0, 2), b"abc")
+    assert_raises(ValueError, m.__setitem__, 0, 256)
+    assert_raises(TypeError, m.__setitem__, 0, "a")
+    assert_raises(TypeError, m.__delitem__, 0)
+    assert bytearray(m[1:3]) == bytearray(b"b1")
+
+
+def test_cast():
+    ba = bytearray(8)
+    m = memoryview(ba)
+    i = m.cast("i")
+    assert i.format == "i" and i.itemsize == 4 and len(i) == 2
+    i[1] = -2
+    assert i.tolist() == [0, -2]
+    assert m[4:].cast("i")[0] == -2
+    assert i.cast("B").tobytes() == bytes(ba)
+    assert m.cast("Q", [1]).shape == (1,)
+    assert m.cast("c")[4:5].tobytes() == bytes(ba[4:5])
+    assert_raises(TypeError, m.cast, "i", [3])
+    assert_raises(TypeError, m[:5].cast, "i")
+    assert_raises(TypeError, i.cast, "h")
+    assert_raises(TypeError, m[::2].cast, "B")
+    assert_raises(ValueError, m.cast, "<i")
+
+
+def test_array():
+    a = array("i", [1, 2, 3])
+    m = memoryview(a)
+    assert m.format == "i" and m.itemsize == 4
+    assert m.tolist() == [1, 2, 3]
+    m[1] = 42
+    assert a[1] == 42
+    assert m[1:].tolist() == [42, 3]
+    b = m.cast("B")
+    assert len(b) == 12
+    assert memoryview(b).cast("i").tolist() == [1, 42, 3]
+    d = memoryview(array("d", [1.5, 2.5]))
+    assert d.format == "d"
+    assert d.tolist() == [1.5, 2.5]
+    assert d == array("d", [1.5, 2.5])
+
+
+def test_release():
+    m = memoryview(b"abc")
+    with m as cm:
+        assert cm is m
+        assert cm[0] == ord("a")
+    assert_raises(ValueError, len, m)
+    assert_raises(ValueError, m.tobytes)
+    m2 = memoryview(b"abc")
+    m2.release()
+    m2.release()
+    assert_raises(ValueError, lambda: m2[0])
+
+
+def test_bytearray_exports():
+    ba = bytearray(b"abcd")
+    with memoryview(ba) as m:
+        assert_raises(BufferError, ba.append, 1)
+        assert_raises(BufferError, ba.clear)
+        assert_raises(BufferError, ba.__delitem__, 0)
+        assert_raises(BufferError, ba.__delitem__, slice(0, 2))
+        assert_raises(BufferError, ba.__setitem__, slice(0, 2), b"x")
+        ba[0:2] = b"xy"
+        ba[3] = ord("z")
+        assert m.tobytes() == b"xycz"
+        assert m == ba
+    ba.append(ord("e"))
+    ba.clear()
+    assert ba == bytearray()
+
+
+def test_bytearray_dropped_views():
+    ba = bytearray(b"abcdef")
+    assert bytes(memoryview(ba)[2:4]) == b"cd"
+    assert memoryview(ba) == ba
+    ba.append(ord("g"))
+    ba.clear()
+    assert ba == bytearray()
+
+
+def test_bytearray_resized_under_view():
+    if sys.implementation.name != "graalpython":
+        # CPython refuses to resize while any view exists
+        return
+    ba = bytearray(b"abcdef")
+    m = memoryview(ba)
+    del ba[2:]
+    assert m[1] == ord("b")
+    assert_raises(IndexError, lambda: m[4])
+    assert_raises(IndexError, m.tobytes)
+
+
+def test_constructor():
+    assert_raises(TypeError, memoryview, "abc")
+    assert_raises(TypeError, memoryview, 1)
+    m = memoryview(bytearray(b"abcd"))[1:3]
+    m2 = memoryview(m)
+    assert m2.tobytes() == b"bc"
+    m2[0] = ord("X")
+    assert m.tobytes() == b"Xc"
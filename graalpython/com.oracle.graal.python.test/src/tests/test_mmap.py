@@ -0,0 +1,123 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import mmap
+import os
+
+
+TEST_FILE = os.path.join(os.environ.get("TMPDIR", "/tmp"), "graalpython_test_mmap_%d.bin" % os.getpid())
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_read():
+    with open(TEST_FILE, "wb") as f:
+        f.write(b"hello\nworld\n")
+    try:
+        with open(TEST_FILE, "rb") as f:
+            m = mmap.mmap(f.fileno(), 0, access=mmap.ACCESS_READ)
+            assert len(m) == 12
+            assert m[0] == ord("h")
+            assert m[-1] == ord("\n")
+            assert m[6:11] == b"world"
+            assert m.readline() == b"hello\n"
+            assert m.tell() == 6
+            assert m.read(3) == b"wor"
+            assert m.find(b"ld") == 9
+            m.seek(0)
+            assert m.read() == b"hello\nworld\n"
+            assert bytes(m) == b"hello\nworld\n"
+            assert_raises(TypeError, m.write, b"x")
+            m.close()
+            assert m.closed
+            assert_raises(ValueError, len, m)
+    finally:
+        os.unlink(TEST_FILE)
+
+
+def test_large_os_read():
+    data = bytes(range(256)) * (12 * 1024)
+    with open(TEST_FILE, "wb") as f:
+        f.write(data)
+    try:
+        fd = os.open(TEST_FILE, os.O_RDONLY)
+        try:
+            chunks = []
+            while True:
+                b = os.read(fd, 1 << 20)
+                if not b:
+                    break
+                chunks.append(b)
+            assert b"".join(chunks) == data
+            assert [len(c) for c in chunks] == [1 << 20, 1 << 20, len(data) - (2 << 20)]
+        finally:
+            os.close(fd)
+    finally:
+        os.unlink(TEST_FILE)
+
+
+def test_write():
+    with open(TEST_FILE, "wb") as f:
+        f.write(b"\0" * 8)
+    try:
+        fd = os.open(TEST_FILE, os.O_RDWR)
+        try:
+            with mmap.mmap(fd, 8) as m:
+                m[0:4] = b"abcd"
+                m[4] = ord("e")
+                m.seek(5)
+                m.write(b"fgh")
+                m.flush()
+        finally:
+            os.close(fd)
+        with open(TEST_FILE, "rb") as f:
+            assert f.read() == b"abcdefgh"
+    finally:
+        os.unlink(TEST_FILE)
+
+
+def test_anonymous():
+    m = mmap.mmap(-1, 16)
+    m.write(b"abc")
+    assert m[:4] == b"abc\0"
+    assert_raises(IndexError, m.__getitem__, 16)
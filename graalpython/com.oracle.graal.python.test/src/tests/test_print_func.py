@@ -47,3 +47,70 @@ class Foo():
 
 def test_print_calls_str_not_repr():
     print(Foo())
+
+
+class Sink():
+    def __init__(self):
+        self.written = []
+        self.flushed = 0
+
+    def write(self, s):
+        self.written.append(s)
+
+    def flush(self):
+        self.flushed += 1
+
+
+def test_print_file():
+    sink = Sink()
+    print(1, "a", 2.5, sep="-", end="!", file=sink)
+    assert "".join(sink.written) == "1-a-2.5!"
+    assert sink.flushed == 0
+    print(file=sink, flush=True)
+    assert "".join(sink.written) == "1-a-2.5!\n"
+    assert sink.flushed == 1
+    print("x", "y", sep=None, end=None, file=sink)
+    assert "".join(sink.written) == "1-a-2.5!\nx y\n"
+
+
+def test_print_replaced_stdout():
+    import sys
+    sink = Sink()
+    old_stdout = sys.stdout
+    sys.stdout = sink
+    try:
+        print("hello", Foo(), "world")
+    finally:
+        sys.stdout = old_stdout
+    assert "".join(sink.written) == "hello  world\n"
+
+
+def test_print_sep_type():
+    try:
+        print("a", sep=1)
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError"
+    try:
+        print("a", end=b"")
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError"
+
+
+class BadStr:
+    def __str__(self):
+        return 42
+
+
+def test_print_str_returns_non_string():
+    sink = Sink()
+    try:
+        print(BadStr(), file=sink)
+    except TypeError:
+        pass
+    else:
+        assert False, "expected TypeError"
+    assert sink.written == []
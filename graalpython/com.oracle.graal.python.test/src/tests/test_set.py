@@ -0,0 +1,92 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+
+
+def test_int_set():
+    s = set(range(1000))
+    s.add(5)
+    s.add(2 ** 40)
+    assert len(s) == 1001
+    assert 999 in s
+    assert 2 ** 40 in s
+    assert 1000 not in s
+    assert 1.0 in s
+    assert True in s
+    assert "1" not in s
+    s.discard(0)
+    assert 0 not in s
+    assert len(s) == 1000
+    assert sorted(s)[:3] == [1, 2, 3]
+
+
+def test_set_generalizes():
+    s = {1, 2, 3}
+    s.add("x")
+    s.add((1, 2))
+    assert len(s) == 5
+    assert 2 in s and "x" in s and (1, 2) in s
+    b = {True}
+    b.add(1)
+    assert len(b) == 1
+    assert list(b)[0] is True
+
+
+def test_string_set():
+    s = set("abcabc")
+    assert len(s) == 3
+    assert "a" in s
+    assert 1 not in s
+    s.add(1)
+    assert len(s) == 4 and 1 in s and "c" in s
+    f = frozenset(["x", "y"])
+    assert "y" in f
+    assert len(f) == 2
+
+
+def test_set_operations():
+    a = set(range(0, 100, 2))
+    b = set(range(0, 100, 3))
+    assert a & b == set(range(0, 100, 6))
+    assert a - b == {x for x in range(0, 100, 2) if x % 3}
+    assert a | b == {x for x in range(100) if x % 2 == 0 or x % 3 == 0}
+    assert isinstance(frozenset(a) | b, frozenset)
+    s = set("abc")
+    t = set("bcd")
+    assert s & t == {"b", "c"}
+    assert s - t == {"a"}
+    assert s | t == {"a", "b", "c", "d"}
+    assert a | s == set(range(0, 100, 2)) | {"a", "b", "c"}
@@ -0,0 +1,175 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import struct
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_pack_unpack_endianness():
+    assert struct.pack("<i", 1) == b"\x01\x00\x00\x00"
+    assert struct.pack(">i", 1) == b"\x00\x00\x00\x01"
+    assert struct.pack("!h", -2) == b"\xff\xfe"
+    assert struct.pack("<HbB", 0x1234, -1, 255) == b"\x34\x12\xff\xff"
+    assert struct.unpack("<i", b"\x01\x00\x00\x00") == (1,)
+    assert struct.unpack(">i", b"\xff\xff\xff\xfe") == (-2,)
+    assert struct.unpack("<q", struct.pack("<q", -2 ** 63)) == (-2 ** 63,)
+    assert struct.unpack("<l", b"\x00\x00\x00\x80") == (-2 ** 31,)
+
+
+def test_unsigned_64():
+    assert struct.pack("<Q", 2 ** 64 - 1) == b"\xff" * 8
+    assert struct.unpack("<Q", b"\xff" * 8) == (2 ** 64 - 1,)
+    assert struct.unpack(">Q", b"\x80" + b"\x00" * 7) == (2 ** 63,)
+    assert_raises(struct.error, struct.pack, "<Q", 2 ** 64)
+    assert_raises(struct.error, struct.pack, "<Q", -1)
+
+
+def test_calcsize():
+    assert struct.calcsize("<ihb") == 7
+    assert struct.calcsize("@bi") == 8
+    assert struct.calcsize("=bi") == 5
+    assert struct.calcsize("@bq") == 16
+    assert struct.calcsize("<3x2h") == 7
+    assert struct.calcsize("3x2h") == 8
+    assert struct.calcsize("< i  h ") == 6
+    assert struct.calcsize("10s") == 10
+    assert struct.calcsize(b"<d") == 8
+    assert_raises(struct.error, struct.calcsize, "z")
+    assert_raises(struct.error, struct.calcsize, "<3")
+    assert_raises(struct.error, struct.calcsize, "<n")
+
+
+def test_native_alignment():
+    data = struct.pack("@bi", 1, 2)
+    assert len(data) == 8
+    assert struct.unpack("@bi", data) == (1, 2)
+    assert data[1:4] == b"\x00\x00\x00"
+
+
+def test_misc_codes():
+    assert struct.pack("<c?x?", b"a", 5, 0) == b"a\x01\x00\x00"
+    assert struct.unpack("<c??", b"z\x00\x02") == (b"z", False, True)
+    assert struct.pack("5s", b"ab") == b"ab\x00\x00\x00"
+    assert struct.pack("2s", b"abcd") == b"ab"
+    assert struct.unpack("3s", b"xyz") == (b"xyz",)
+    assert struct.pack("4p", b"ab") == b"\x02ab\x00"
+    assert struct.pack("3p", b"abcdef") == b"\x02ab"
+    assert struct.unpack("4p", b"\x02abc") == (b"ab",)
+    assert struct.pack("<d", 1.5) == b"\x00\x00\x00\x00\x00\x00\xf8\x3f"
+    assert struct.unpack("<f", struct.pack("<f", 0.25)) == (0.25,)
+    assert struct.unpack(">d", struct.pack(">d", -3)) == (-3.0,)
+    assert struct.pack("<e", 1.0) == b"\x00\x3c"
+    assert struct.unpack("<e", b"\x00\x3c") == (1.0,)
+    assert struct.unpack("<e", struct.pack("<e", 65504.0)) == (65504.0,)
+    assert_raises(OverflowError, struct.pack, "<e", 1e6)
+    assert_raises(struct.error, struct.pack, "c", b"ab")
+
+
+def test_range_errors():
+    assert_raises(struct.error, struct.pack, "b", 128)
+    assert_raises(struct.error, struct.pack, "B", -1)
+    assert_raises(struct.error, struct.pack, "<I", 2 ** 32)
+    assert_raises(struct.error, struct.pack, "i", "x")
+    assert_raises(struct.error, struct.pack, "ii", 1)
+    assert_raises(struct.error, struct.unpack, "<i", b"\x00\x00")
+    assert_raises(TypeError, struct.calcsize, 1)
+
+
+def test_unpack_from():
+    data = b"\x00\x01\x00\x02\x00\x03"
+    assert struct.unpack_from(">h", data) == (1,)
+    assert struct.unpack_from(">h", data, 2) == (2,)
+    assert struct.unpack_from(">h", data, offset=4) == (3,)
+    assert struct.unpack_from(">h", data, -2) == (3,)
+    assert struct.unpack_from(">h", memoryview(data)[2:]) == (2,)
+    assert struct.unpack_from(">h", bytearray(data), 2) == (2,)
+    assert_raises(struct.error, struct.unpack_from, ">h", data, 5)
+    assert_raises(struct.error, struct.unpack_from, ">h", data, -7)
+
+
+def test_pack_into():
+    buf = bytearray(6)
+    struct.pack_into(">hh", buf, 1, 1, 2)
+    assert buf == bytearray(b"\x00\x00\x01\x00\x02\x00")
+    struct.pack_into("<b", buf, -1, 7)
+    assert buf[5] == 7
+    m = memoryview(buf)
+    struct.pack_into("<h", m[2:], 0, -1)
+    assert buf[2:4] == b"\xff\xff"
+    assert_raises(struct.error, struct.pack_into, "<i", buf, 4, 1)
+    assert_raises(TypeError, struct.pack_into, "<b", b"abc", 0, 1)
+
+
+def test_iter_unpack():
+    data = struct.pack("<4h", 1, 2, 3, 4)
+    it = struct.iter_unpack("<h", data)
+    assert it.__length_hint__() == 4
+    assert list(it) == [(1,), (2,), (3,), (4,)]
+    assert list(struct.iter_unpack("<hh", data)) == [(1, 2), (3, 4)]
+    assert_raises(struct.error, struct.iter_unpack, "<i", b"\x00\x00")
+
+
+def test_struct_class():
+    s = struct.Struct("<ih")
+    assert s.size == 6
+    assert s.format == "<ih"
+    data = s.pack(1, -1)
+    assert data == b"\x01\x00\x00\x00\xff\xff"
+    assert s.unpack(data) == (1, -1)
+    assert s.unpack_from(b"\x00" + data, 1) == (1, -1)
+    buf = bytearray(6)
+    s.pack_into(buf, 0, 2, 3)
+    assert s.unpack(buf) == (2, 3)
+    assert list(s.iter_unpack(data + data)) == [(1, -1), (1, -1)]
+    assert_raises(struct.error, struct.Struct, "q!")
+
+
+def test_error_class():
+    assert issubclass(struct.error, Exception)
+    try:
+        struct.pack("b", 1000)
+    except struct.error as e:
+        assert "format requires" in str(e)
+    else:
+        assert False
@@ -0,0 +1,257 @@
+# Copyright (c) 2018, Oracle and/or its affiliates.
+#
+# The Universal Permissive License (UPL), Version 1.0
+#
+# Subject to the condition set forth below, permission is hereby granted to any
+# person obtaining a copy of this software, associated documentation and/or data
+# (collectively the "Software"), free of charge and under any and all copyright
+# rights in the Software, and any and all patent rights owned or freely
+# licensable by each licensor hereunder covering either (i) the unmodified
+# Software as contributed to or provided by such licensor, or (ii) the Larger
+# Works (as defined below), to deal in both
+#
+# (a) the Software, and
+# (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+#     one is included with the Software (each a "Larger Work" to which the
+#     Software is contributed by such licensors),
+#
+# without restriction, including without limitation the rights to copy, create
+# derivative works of, display, perform, and distribute the Software and make,
+# use, sell, offer for sale, import, export, have made, and have sold the
+# Software and the Larger Work(s), and to sublicense the foregoing rights on
+# either these or other terms.
+#
+# This license is subject to the following condition:
+#
+# The above copyright notice and either this complete permission notice or at a
+# minimum a reference to the UPL must be included in all copies or substantial
+# portions of the Software.
+#
+# THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+# IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+# FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+# AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+# LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+# OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+# SOFTWARE.
+import _thread
+import threading
+
+
+def assert_raises(err, fn, *args, **kwargs):
+    raised = False
+    try:
+        fn(*args, **kwargs)
+    except err:
+        raised = True
+    assert raised
+
+
+def test_lock_acquire_release():
+    lock = _thread.allocate_lock()
+    assert isinstance(lock, _thread.LockType)
+    assert not lock.locked()
+    assert lock.acquire()
+    assert lock.locked()
+    assert not lock.acquire(False)
+    assert not lock.acquire(True, 0.01)
+    lock.release()
+    assert not lock.locked()
+    assert_raises(RuntimeError, lock.release)
+
+
+def test_lock_arguments():
+    lock = _thread.allocate_lock()
+    assert_raises(ValueError, lock.acquire, False, 1)
+    assert_raises(ValueError, lock.acquire, True, -2)
+    assert_raises(OverflowError, lock.acquire, True, _thread.TIMEOUT_MAX * 2)
+    assert lock.acquire(timeout=1)
+    lock.release()
+
+
+def test_lock_context_manager():
+    lock = _thread.allocate_lock()
+    with lock:
+        assert lock.locked()
+    assert not lock.locked()
+
+
+def test_lock_released_by_other_thread():
+    lock = _thread.allocate_lock()
+    lock.acquire()
+    done = _thread.allocate_lock()
+    done.acquire()
+
+    def release():
+        lock.release()
+        done.release()
+
+    _thread.start_new_thread(release, ())
+    assert done.acquire(True, 10)
+    assert not lock.locked()
+
+
+def test_rlock():
+    lock = _thread.RLock()
+    assert lock.acquire()
+    assert lock.acquire()
+    assert lock._is_owned()
+    lock.release()
+    lock.release()
+    assert not lock._is_owned()
+    assert_raises(RuntimeError, lock.release)
+
+
+def test_rlock_other_thread():
+    lock = _thread.RLock()
+    lock.acquire()
+    result = []
+    done = _thread.allocate_lock()
+    done.acquire()
+
+    def try_acquire():
+        result.append(lock.acquire(False))
+        done.release()
+
+    _thread.start_new_thread(try_acquire, ())
+    assert done.acquire(True, 10)
+    assert result == [False]
+    lock.release()
+
+
+def test_start_new_thread():
+    result = []
+    done = _thread.allocate_lock()
+    done.acquire()
+
+    def run(a, b, c=None):
+        result.append((a, b, c, _thread.get_ident()))
+        done.release()
+
+    _thread.start_new_thread(run, (1, 2), {"c": 3})
+    assert done.acquire(True, 10)
+    assert result[0][:3] == (1, 2, 3)
+    assert result[0][3] != _thread.get_ident()
+    assert_raises(TypeError, _thread.start_new_thread, run, [1, 2])
+    assert_raises(TypeError, _thread.start_new_thread, run, (1, 2), 3)
+
+
+def test_threading_counter():
+    lock = threading.Lock()
+    counter = [0]
+
+    def work():
+        for i in range(1000):
+            with lock:
+                counter[0] += 1
+
+    threads = [threading.Thread(target=work) for i in range(4)]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+    assert counter[0] == 4000
+
+
+def run_concurrently(work, count=4):
+    barrier = threading.Barrier(count)
+
+    def run(n):
+        barrier.wait()
+        work(n)
+
+    threads = [threading.Thread(target=run, args=(n,)) for n in range(count)]
+    for t in threads:
+        t.start()
+    for t in threads:
+        t.join()
+
+
+def test_list_generalization_from_threads():
+    items = []
+
+    def work(n):
+        # the list starts out empty and goes from int to object storage while all threads append
+        for i in range(500):
+            items.append(i)
+        for i in range(500):
+            items.append(str(n))
+
+    for rounds in range(10):
+        del items[:]
+        run_concurrently(work)
+        assert len(items) == 4000
+        for n in range(4):
+            assert items.count(str(n)) == 500
+        assert sorted(i for i in items if isinstance(i, int)) == sorted(list(range(500)) * 4)
+
+
+def test_dict_generalization_from_threads():
+    for rounds in range(10):
+        d = {}
+
+        def work(n):
+            # string keys first, then keys that need a generic storage
+            for i in range(200):
+                d["%d-%d" % (n, i)] = i
+            for i in range(200):
+                d[(n, i)] = i
+
+        run_concurrently(work)
+        assert len(d) == 1600
+        for n in range(4):
+            for i in range(200):
+                assert d["%d-%d" % (n, i)] == i
+                assert d[(n, i)] == i
+
+
+def test_set_and_attributes_from_threads():
+    class Holder:
+        pass
+
+    for rounds in range(10):
+        s = set()
+        holder = Holder()
+
+        def work(n):
+            # every new attribute changes the shape of the same object
+            for i in range(100):
+                s.add((n, i))
+                setattr(holder, "a%d_%d" % (n, i), i)
+
+        run_concurrently(work)
+        assert len(s) == 400
+        for n in range(4):
+            for i in range(100):
+                assert getattr(holder, "a%d_%d" % (n, i)) == i
+
+
+def test_lru_cache_from_threads():
+    import functools
+
+    @functools.lru_cache(maxsize=16)
+    def square(x):
+        return x * x
+
+    def work(n):
+        for i in range(500):
+            assert square(i % 32) == (i % 32) ** 2
+
+    run_concurrently(work)
+    info = square.cache_info()
+    assert info.hits + info.misses == 2000
+    assert info.currsize == 16
+
+
+def test_condition():
+    cond = threading.Condition()
+    ready = []
+
+    def producer():
+        with cond:
+            ready.append(True)
+            cond.notify()
+
+    with cond:
+        threading.Thread(target=producer).start()
+        assert cond.wait_for(lambda: ready, 10)
@@ -59,6 +59,83 @@ def test_traceback_dir():
         assert set(dir(tb)) == {'tb_frame', 'tb_next', 'tb_lasti', 'tb_lineno'}
 
 
+
+def _raise_value_error():
+    raise ValueError("deep")
+
+
+def _catch():
+    try:
+        _raise_value_error()
+    except ValueError as e:
+        return e
+
+
+def _tb_names(tb):
+    names = []
+    while tb is not None:
+        names.append(tb.tb_frame.f_code.co_name)
+        tb = tb.tb_next
+    return names
+
+
+def _handler_frames(tb, caller):
+    # frames outside the handler (the test runner) are only recorded on some implementations
+    names = _tb_names(tb)
+    if caller in names:
+        names = names[names.index(caller) + 1:]
+    return names
+
+
+def _access(e):
+    return _handler_frames(e.__traceback__, "test_traceback_of_escaped_exception")
+
+
+def test_traceback_of_escaped_exception():
+    e = _catch()
+    assert isinstance(e, ValueError)
+    # the traceback is first read from a frame that did not exist when the exception was caught
+    assert _access(e) == ["_catch", "_raise_value_error"]
+    assert _handler_frames(e.__traceback__, "test_traceback_of_escaped_exception") == ["_catch", "_raise_value_error"]
+
+
+def test_traceback_after_reraise():
+    def reraise():
+        try:
+            _raise_value_error()
+        except ValueError as e:
+            raise e
+
+    try:
+        reraise()
+    except ValueError:
+        _type, _err, tb = sys.exc_info()
+        assert "_raise_value_error" in _tb_names(tb)
+
+
+def _current_traceback():
+    return sys.exc_info()[2]
+
+
+def test_exc_info_from_helper_in_unnamed_handler():
+    try:
+        _raise_value_error()
+    except ValueError:
+        tb = _current_traceback()
+    # the traceback starts in the handler's frame, not in the helper asking for it
+    assert "_current_traceback" not in _tb_names(tb)
+    assert _handler_frames(tb, "test_exc_info_from_helper_in_unnamed_handler") == ["_raise_value_error"]
+
+
+def test_unused_exceptions():
+    count = 0
+    for i in range(1000):
+        try:
+            raise KeyError(i)
+        except KeyError as e:
+            count += 1
+    assert count == 1000
+
 # def test_import():
 #     import traceback
 
@@ -49,6 +49,7 @@ import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.PythonParseResult;
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -85,6 +86,12 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
 
     @CompilationFinal private PythonCore sharedCore;
     private final NodeFactory nodeFactory;
+    /**
+     * Valid until a second thread enters a context of this language or a thread is started through
+     * {@code _thread}. Until then, updates of lists, dicts, sets, object attributes and
+     * {@code lru_cache} wrappers need no lock.
+     */
+    private final Assumption singleThreadedAssumption = Truffle.getRuntime().createAssumption("single threaded");
 
     public PythonLanguage() {
         this.nodeFactory = NodeFactory.create(this);
@@ -94,6 +101,10 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
         return nodeFactory;
     }
 
+    public Assumption getSingleThreadedAssumption() {
+        return singleThreadedAssumption;
+    }
+
     @Override
     protected boolean patchContext(PythonContext context, Env newEnv) {
         ensureHomeInOptions(newEnv);
@@ -118,14 +129,21 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
     @Override
     protected PythonContext createContext(Env env) {
         ensureHomeInOptions(env);
-        if (env.getOptions().get(PythonOptions.SharedCore) && sharedCore != null) {
-            return new PythonContext(this, env, sharedCore);
+        if (env.getOptions().get(PythonOptions.SharedCore)) {
+            return new PythonContext(this, env, getOrCreateSharedCore());
         } else {
             Python3Core newCore = new Python3Core(this, new PythonParserImpl());
             return new PythonContext(this, env, newCore);
         }
     }
 
+    private synchronized PythonCore getOrCreateSharedCore() {
+        if (sharedCore == null) {
+            sharedCore = new Python3Core(this, new PythonParserImpl());
+        }
+        return sharedCore;
+    }
+
     private void ensureHomeInOptions(Env env) {
         String languageHome = getLanguageHome();
         String sysPrefix = env.getOptions().get(PythonOptions.SysPrefix);
@@ -181,22 +199,47 @@ public final class PythonLanguage extends TruffleLanguage<PythonContext> {
 
     @Override
     protected void initializeContext(PythonContext context) throws Exception {
-        Python3Core core = (Python3Core) getCore();
-        boolean fullInit = !PythonOptions.getOption(context, PythonOptions.LazyInit);
+        Python3Core core = (Python3Core) context.getCore();
         if (context.getOptions().get(PythonOptions.SharedCore)) {
-            if (sharedCore == null) {
-                sharedCore = context.getCore();
-                core.bootstrap();
-            } else {
-                fullInit = false;
+            synchronized (core) {
+                if (!core.isInitialized()) {
+                    // the first context loads the core library into the shared modules, it
+                    // cannot be deferred because later contexts only copy the loaded modules
+                    core.bootstrap();
+                    context.useSharedBuiltinModules();
+                    core.initialize();
+                }
             }
+            context.initialize();
+            core.exportCInterface(context);
         } else {
             core.bootstrap();
+            context.initialize();
+            if (!PythonOptions.getOption(context, PythonOptions.LazyInit)) {
+                core.initialize();
+            }
         }
-        context.initialize();
-        if (fullInit) {
-            core.initialize();
-        }
+    }
+
+    @Override
+    protected void finalizeContext(PythonContext context) {
+        context.flushStandardStreams();
+        super.finalizeContext(context);
+    }
+
+    /**
+     * Python code may run on any number of threads at once. There is no global interpreter lock.
+     * Once {@link #getSingleThreadedAssumption()} is invalidated, the runtime data structures that
+     * can be shared between threads synchronize their updates.
+     */
+    @Override
+    protected boolean isThreadAccessAllowed(Thread thread, boolean singleThreaded) {
+        return true;
+    }
+
+    @Override
+    protected void initializeMultiThreading(PythonContext context) {
+        singleThreadedAssumption.invalidate();
     }
 
     @Override
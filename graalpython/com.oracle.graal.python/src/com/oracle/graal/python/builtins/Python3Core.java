@@ -55,6 +55,7 @@ import com.oracle.graal.python.builtins.modules.ImpModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.InteropModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.ItertoolsModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.JavaModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.MMapModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.MarshalModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.MathModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.PosixModuleBuiltins;
@@ -62,21 +63,33 @@ import com.oracle.graal.python.builtins.modules.RandomModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SREModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SignalModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.StringModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.StructModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.SysModuleBuiltins;
+import com.oracle.graal.python.builtins.modules.ThreadModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TimeModuleBuiltins;
 import com.oracle.graal.python.builtins.modules.TruffleCextBuiltins;
 import com.oracle.graal.python.builtins.modules.WeakRefModuleBuiltins;
+import com.oracle.graal.python.builtins.objects.PEllipsis;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.array.ArrayBuiltins;
 import com.oracle.graal.python.builtins.objects.bool.BoolBuiltins;
 import com.oracle.graal.python.builtins.objects.bytes.ByteArrayBuiltins;
 import com.oracle.graal.python.builtins.objects.bytes.BytesBuiltins;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
 import com.oracle.graal.python.builtins.objects.cell.CellBuiltins;
+import com.oracle.graal.python.builtins.objects.cell.PCell;
 import com.oracle.graal.python.builtins.objects.code.CodeBuiltins;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.complex.ComplexBuiltins;
+import com.oracle.graal.python.builtins.objects.complex.PComplex;
 import com.oracle.graal.python.builtins.objects.cpyobject.PyObjectBuiltins;
+import com.oracle.graal.python.builtins.objects.deque.DequeBuiltins;
+import com.oracle.graal.python.builtins.objects.deque.DequeIteratorBuiltins;
+import com.oracle.graal.python.builtins.objects.dict.DefaultDictBuiltins;
 import com.oracle.graal.python.builtins.objects.dict.DictBuiltins;
 import com.oracle.graal.python.builtins.objects.dict.DictItemsBuiltins;
 import com.oracle.graal.python.builtins.objects.dict.DictItemsIteratorBuiltins;
@@ -84,39 +97,85 @@ import com.oracle.graal.python.builtins.objects.dict.DictKeysBuiltins;
 import com.oracle.graal.python.builtins.objects.dict.DictKeysIteratorBuiltins;
 import com.oracle.graal.python.builtins.objects.dict.DictValuesBuiltins;
 import com.oracle.graal.python.builtins.objects.dict.DictValuesIteratorBuiltins;
+import com.oracle.graal.python.builtins.objects.dict.OrderedDictBuiltins;
+import com.oracle.graal.python.builtins.objects.dict.PDefaultDict;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.dict.POrderedDict;
 import com.oracle.graal.python.builtins.objects.enumerate.EnumerateBuiltins;
 import com.oracle.graal.python.builtins.objects.exception.BaseExceptionBuiltins;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.floats.FloatBuiltins;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
 import com.oracle.graal.python.builtins.objects.foreign.TruffleObjectBuiltins;
 import com.oracle.graal.python.builtins.objects.frame.FrameBuiltins;
 import com.oracle.graal.python.builtins.objects.function.FunctionBuiltins;
 import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
+import com.oracle.graal.python.builtins.objects.functools.LruCacheWrapperBuiltins;
+import com.oracle.graal.python.builtins.objects.functools.PartialBuiltins;
 import com.oracle.graal.python.builtins.objects.generator.GeneratorBuiltins;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.GetSetDescriptorTypeBuiltins;
 import com.oracle.graal.python.builtins.objects.ints.IntBuiltins;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.io.BufferedReaderBuiltins;
+import com.oracle.graal.python.builtins.objects.io.BufferedWriterBuiltins;
+import com.oracle.graal.python.builtins.objects.io.TextIOWrapperBuiltins;
 import com.oracle.graal.python.builtins.objects.iterator.ForeignIteratorBuiltins;
 import com.oracle.graal.python.builtins.objects.iterator.IteratorBuiltins;
+import com.oracle.graal.python.builtins.objects.iterator.PFilterBuiltins;
+import com.oracle.graal.python.builtins.objects.iterator.PMapBuiltins;
 import com.oracle.graal.python.builtins.objects.iterator.PZipBuiltins;
 import com.oracle.graal.python.builtins.objects.iterator.SentinelIteratorBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.AccumulateBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.ChainBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.CombinationsBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.CombinationsWithReplacementBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.CompressBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.CountBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.CycleBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.DropwhileBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.FilterfalseBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.GroupByBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.GrouperBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.IsliceBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.PermutationsBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.ProductBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.RepeatBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.StarmapBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.TakewhileBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.TeeBuiltins;
+import com.oracle.graal.python.builtins.objects.itertools.ZipLongestBuiltins;
 import com.oracle.graal.python.builtins.objects.list.ListBuiltins;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.mappingproxy.MappingproxyBuiltins;
 import com.oracle.graal.python.builtins.objects.method.MethodBuiltins;
+import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
+import com.oracle.graal.python.builtins.objects.method.PMethod;
+import com.oracle.graal.python.builtins.objects.memoryview.MemoryViewBuiltins;
+import com.oracle.graal.python.builtins.objects.mmap.MMapBuiltins;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.ObjectBuiltins;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.builtins.objects.range.PRange;
 import com.oracle.graal.python.builtins.objects.range.RangeBuiltins;
 import com.oracle.graal.python.builtins.objects.referencetype.ReferenceTypeBuiltins;
 import com.oracle.graal.python.builtins.objects.reversed.ReversedBuiltins;
 import com.oracle.graal.python.builtins.objects.set.FrozenSetBuiltins;
+import com.oracle.graal.python.builtins.objects.set.PBaseSet;
+import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
 import com.oracle.graal.python.builtins.objects.set.SetBuiltins;
+import com.oracle.graal.python.builtins.objects.slice.PSlice;
 import com.oracle.graal.python.builtins.objects.slice.SliceBuiltins;
+import com.oracle.graal.python.builtins.objects.sre.SREMatchBuiltins;
+import com.oracle.graal.python.builtins.objects.sre.SREPatternBuiltins;
+import com.oracle.graal.python.builtins.objects.sre.SREScannerBuiltins;
+import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.str.StringBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructBuiltins;
+import com.oracle.graal.python.builtins.objects.struct.StructUnpackIteratorBuiltins;
+import com.oracle.graal.python.builtins.objects.thread.LockBuiltins;
+import com.oracle.graal.python.builtins.objects.thread.RLockBuiltins;
 import com.oracle.graal.python.builtins.objects.traceback.TracebackBuiltins;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.tuple.TupleBuiltins;
@@ -174,12 +233,12 @@ public final class Python3Core implements PythonCore {
                     "itertools",
                     "base_exception",
                     "python_cext",
-                    "_sre",
-                    "_collections",
                     "list",
                     "_codecs",
                     "bytes",
                     "float",
+                    "_struct",
+                    "_thread",
     };
 
     private static final Map<String, Object> BUILTIN_CONSTANTS = new HashMap<>();
@@ -218,6 +277,8 @@ public final class Python3Core implements PythonCore {
                     new IteratorBuiltins(),
                     new ReversedBuiltins(),
                     new PZipBuiltins(),
+                    new PMapBuiltins(),
+                    new PFilterBuiltins(),
                     new EnumerateBuiltins(),
                     new SentinelIteratorBuiltins(),
                     new ForeignIteratorBuiltins(),
@@ -241,12 +302,52 @@ public final class Python3Core implements PythonCore {
                     new WeakRefModuleBuiltins(),
                     new ReferenceTypeBuiltins(),
                     new IOModuleBuiltins(),
+                    new BufferedReaderBuiltins(),
+                    new BufferedWriterBuiltins(),
+                    new TextIOWrapperBuiltins(),
+                    new MMapModuleBuiltins(),
+                    new MMapBuiltins(),
+                    new MemoryViewBuiltins(),
+                    new StructModuleBuiltins(),
+                    new StructBuiltins(),
+                    new StructUnpackIteratorBuiltins(),
+                    new ThreadModuleBuiltins(),
+                    new LockBuiltins(),
+                    new RLockBuiltins(),
+                    new SREPatternBuiltins(),
+                    new SREMatchBuiltins(),
+                    new SREScannerBuiltins(),
                     new StringModuleBuiltins(),
                     new ItertoolsModuleBuiltins(),
+                    new AccumulateBuiltins(),
+                    new ChainBuiltins(),
+                    new CombinationsBuiltins(),
+                    new CombinationsWithReplacementBuiltins(),
+                    new CompressBuiltins(),
+                    new CountBuiltins(),
+                    new CycleBuiltins(),
+                    new DropwhileBuiltins(),
+                    new FilterfalseBuiltins(),
+                    new GroupByBuiltins(),
+                    new GrouperBuiltins(),
+                    new IsliceBuiltins(),
+                    new PermutationsBuiltins(),
+                    new ProductBuiltins(),
+                    new RepeatBuiltins(),
+                    new StarmapBuiltins(),
+                    new TakewhileBuiltins(),
+                    new TeeBuiltins(),
+                    new ZipLongestBuiltins(),
                     new FunctoolsModuleBuiltins(),
+                    new PartialBuiltins(),
+                    new LruCacheWrapperBuiltins(),
                     new ErrnoModuleBuiltins(),
                     new CodecsModuleBuiltins(),
                     new CollectionsModuleBuiltins(),
+                    new DequeBuiltins(),
+                    new DequeIteratorBuiltins(),
+                    new DefaultDictBuiltins(),
+                    new OrderedDictBuiltins(),
                     new JavaModuleBuiltins(),
                     new SREModuleBuiltins(),
                     new AstModuleBuiltins(),
@@ -340,88 +441,207 @@ public final class Python3Core implements PythonCore {
         for (String s : CORE_FILES) {
             loadFile(s, coreHome);
         }
-        exportCInterface(getContext());
+        if (hasSingletonContext()) {
+            // with a shared core, every context exports its own modules once it is initialized
+            exportCInterface(getContext());
+        }
         currentException = null;
         initialized = true;
     }
 
+    /**
+     * Copies the mutable state of the core library for a context of a shared core. Modules,
+     * classes defined in the core library, functions (for their globals and closures), containers
+     * and instances are copied with their exact class, so that no context can observe changes made
+     * by another; only builtin classes and functions, which cannot be modified from Python code, and
+     * immutable values are shared.
+     */
     public Object duplicate(Map<Object, Object> replacements, Object value) {
         Object replacement = replacements.get(value);
         if (replacement != null) {
             return replacement;
         }
-        if (value instanceof String || value instanceof PNone || value instanceof PNotImplemented || value instanceof Boolean || value instanceof Integer || value instanceof PInt ||
-                        value instanceof Double) {
+        if (value instanceof String || value instanceof PString || value instanceof PNone || value instanceof PNotImplemented || value instanceof PEllipsis || value instanceof Boolean ||
+                        value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof PInt || value instanceof PFloat || value instanceof PComplex ||
+                        value instanceof PBytes || value instanceof PRange || value instanceof PSlice) {
+            return value;
+        } else if (value instanceof PBuiltinFunction) {
+            assert ((PythonObject) value).getAttributeNames().isEmpty();
+            return value;
+        } else if (value instanceof PythonBuiltinClass) {
             return value;
         } else if (value instanceof PFunction) {
             PFunction function = (PFunction) value;
             PythonModule globals = (PythonModule) function.getGlobals();
-            PFunction newFunction = function.copyWithGlobals((PythonObject) duplicate(replacements, globals));
-            for (String attr : function.getAttributeNames()) {
-                newFunction.setAttribute(attr, duplicate(replacements, function.getAttribute(attr)));
+            PCell[] closure = function.getClosure();
+            PCell[] newClosure = closure;
+            if (closure != null) {
+                // generator functions keep their closure in their call target
+                assert !function.isGeneratorFunction() : "cannot duplicate the closure of a generator function";
+                newClosure = new PCell[closure.length];
+            }
+            PFunction newFunction = function.copyWithGlobals((PythonObject) duplicate(replacements, globals), newClosure);
+            replacements.put(function, newFunction);
+            if (closure != null && closure != newClosure) {
+                for (int i = 0; i < closure.length; i++) {
+                    newClosure[i] = (PCell) duplicate(replacements, closure[i]);
+                }
             }
+            copyAttributes(replacements, function, newFunction);
             return newFunction;
-        } else if (value instanceof PBuiltinFunction) {
-            assert ((PythonObject) value).getAttributeNames().isEmpty();
-            return value;
+        } else if (value instanceof PCell) {
+            PCell cell = (PCell) value;
+            PCell newCell = new PCell();
+            replacements.put(cell, newCell);
+            if (cell.getRef() != null) {
+                newCell.setRef(duplicate(replacements, cell.getRef()));
+            }
+            return newCell;
         } else if (value instanceof PythonModule) {
             PythonModule module = (PythonModule) value;
             PythonModule newModule = factory().createPythonModule(module.getModuleName(), module.getModulePath());
             replacements.put(module, newModule);
-            for (String attr : module.getAttributeNames()) {
-                newModule.setAttribute(attr, duplicate(replacements, module.getAttribute(attr)));
-            }
+            copyAttributes(replacements, module, newModule);
             return newModule;
         } else if (value instanceof PythonClass) {
-            // TODO: all classes in core should be PythonBuiltinClass
-            return value;
-        } else if (value instanceof PythonBuiltinClass) {
-            return value;
+            // a class defined by the core library
+            PythonClass cls = (PythonClass) value;
+            assert cls.getClass() == PythonClass.class : "cannot duplicate class " + cls;
+            PythonClass[] bases = cls.getBaseClasses();
+            PythonClass[] newBases = new PythonClass[bases.length];
+            for (int i = 0; i < bases.length; i++) {
+                newBases[i] = (PythonClass) duplicate(replacements, bases[i]);
+            }
+            PythonClass newClass = factory().createPythonClass(duplicateClass(replacements, cls), cls.getName(), newBases);
+            replacements.put(cls, newClass);
+            copyAttributes(replacements, cls, newClass);
+            return newClass;
+        } else if (value instanceof PMethod) {
+            PMethod method = (PMethod) value;
+            PMethod newMethod = factory().createMethod(duplicateClass(replacements, method), duplicate(replacements, method.__self__()),
+                            (PFunction) duplicate(replacements, method.__func__()));
+            replacements.put(method, newMethod);
+            return newMethod;
+        } else if (value instanceof PBuiltinMethod) {
+            PBuiltinMethod method = (PBuiltinMethod) value;
+            PBuiltinMethod newMethod = factory().createBuiltinMethod(duplicateClass(replacements, method), duplicate(replacements, method.__self__()), method.__func__());
+            replacements.put(method, newMethod);
+            return newMethod;
         } else if (value instanceof PDict) {
             PDict dict = (PDict) value;
-            PDict newDict = factory().createDict();
+            PDict newDict;
+            if (dict instanceof PDefaultDict) {
+                newDict = factory().createDefaultDict(duplicateClass(replacements, dict));
+            } else if (dict instanceof POrderedDict) {
+                newDict = factory().createOrderedDict(duplicateClass(replacements, dict));
+            } else {
+                assert dict.getClass() == PDict.class : "cannot duplicate dict " + dict;
+                newDict = factory().createDict(duplicateClass(replacements, dict));
+            }
             replacements.put(dict, newDict);
-            for (DictEntry attr : dict.entries()) {
-                newDict.setItem(duplicate(replacements, attr.getKey()), duplicate(replacements, attr.getValue()));
+            if (dict instanceof PDefaultDict) {
+                ((PDefaultDict) newDict).setDefaultFactory(duplicate(replacements, ((PDefaultDict) dict).getDefaultFactory()));
             }
+            // the entries of an ordered dict come in their order
+            for (DictEntry entry : dict.entries()) {
+                newDict.setItem(duplicate(replacements, entry.getKey()), duplicate(replacements, entry.getValue()));
+            }
+            copyAttributes(replacements, dict, newDict);
             return newDict;
+        } else if (value instanceof PBaseSet) {
+            PBaseSet set = (PBaseSet) value;
+            HashingStorage storage = EconomicMapStorage.create(set.size(), true);
+            PBaseSet newSet;
+            if (set instanceof PFrozenSet) {
+                newSet = factory().createFrozenSet(duplicateClass(replacements, set), storage);
+            } else {
+                newSet = factory().createSet(duplicateClass(replacements, set), storage);
+            }
+            replacements.put(set, newSet);
+            for (Object key : set.values()) {
+                Object newKey = duplicate(replacements, key);
+                storage.setItem(newKey, PNone.NO_VALUE, HashingStorage.getSlowPathEquivalence(newKey));
+            }
+            copyAttributes(replacements, set, newSet);
+            return newSet;
         } else if (value instanceof PTuple) {
             PTuple tuple = (PTuple) value;
-            assert tuple.getAttributeNames().isEmpty();
             Object[] contents = new Object[tuple.len()];
-            PTuple newTuple = factory.createTuple(contents);
+            PTuple newTuple = factory().createTuple(duplicateClass(replacements, tuple), contents);
             replacements.put(tuple, newTuple);
             for (int i = 0; i < tuple.len(); i++) {
                 contents[i] = duplicate(replacements, tuple.getItem(i));
             }
+            copyAttributes(replacements, tuple, newTuple);
             return newTuple;
         } else if (value instanceof PList) {
             PList list = (PList) value;
-            assert list.getAttributeNames().isEmpty();
-            PList newList = factory().createList();
+            PList newList = factory().createList(duplicateClass(replacements, list));
             replacements.put(list, newList);
             for (int i = 0; i < list.len(); i++) {
                 newList.append(duplicate(replacements, list.getItem(i)));
             }
+            copyAttributes(replacements, list, newList);
             return newList;
+        } else if (value instanceof PByteArray) {
+            PByteArray byteArray = (PByteArray) value;
+            PByteArray newByteArray = factory().createByteArray(duplicateClass(replacements, byteArray), Arrays.copyOf(byteArray.getInternalByteArray(), byteArray.len()));
+            replacements.put(byteArray, newByteArray);
+            copyAttributes(replacements, byteArray, newByteArray);
+            return newByteArray;
+        } else if (value.getClass() == PythonObject.class) {
+            // plain instances created by the core library, e.g. the standard streams
+            PythonObject object = (PythonObject) value;
+            PythonObject newObject = factory().createPythonObject(duplicateClass(replacements, object));
+            replacements.put(object, newObject);
+            copyAttributes(replacements, object, newObject);
+            return newObject;
         }
-        assert value.getClass() == PythonObject.class;
-        // TODO: not sure what to do about these
+        // deques, locks, iterators, native objects and the like have state that cannot be copied
+        assert false : "cannot duplicate " + value.getClass().getSimpleName() + " of the shared core";
         return value;
     }
 
-    public PythonModule createSysModule(PythonContext context) {
+    private PythonClass duplicateClass(Map<Object, Object> replacements, PythonObject object) {
+        return (PythonClass) duplicate(replacements, object.getPythonClass());
+    }
+
+    private void copyAttributes(Map<Object, Object> replacements, PythonObject object, PythonObject newObject) {
+        for (String attr : object.getAttributeNames()) {
+            newObject.setAttribute(attr, duplicate(replacements, object.getAttribute(attr)));
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public Map<String, PythonModule> createBuiltinModules(PythonContext context) {
         Map<Object, Object> replacements = new HashMap<>();
-        if (context.getOptions().get(PythonOptions.SharedCore)) {
+        if (initialized && context.getOptions().get(PythonOptions.SharedCore)) {
+            // the core library has been loaded into the shared modules, so every context works on
+            // its own copies while the function code and call targets remain shared
             for (PythonModule module : builtinModules.values()) {
                 duplicate(replacements, module);
             }
+            // the exception classes are defined in Python, so every context has its own
+            PythonClass[] contextErrorClasses = new PythonClass[errorClasses.length];
+            for (int i = 0; i < errorClasses.length; i++) {
+                contextErrorClasses[i] = (PythonClass) duplicate(replacements, errorClasses[i]);
+            }
+            context.setErrorClasses(contextErrorClasses);
         } else {
             for (PythonModule module : builtinModules.values()) {
                 replacements.put(module, module);
             }
         }
-        PythonModule sys = (PythonModule) replacements.get(builtinModules.get("sys"));
+        Map<String, PythonModule> contextModules = new HashMap<>();
+        for (Entry<String, PythonModule> entry : builtinModules.entrySet()) {
+            contextModules.put(entry.getKey(), (PythonModule) replacements.get(entry.getValue()));
+        }
+        initializeSysModule(context, contextModules.get("sys"));
+        return contextModules;
+    }
+
+    private void initializeSysModule(PythonContext context, PythonModule sys) {
         String[] args = context.getEnv().getApplicationArguments();
         sys.setAttribute("argv", factory().createList(Arrays.copyOf(args, args.length, Object[].class)));
         String prefix = PythonCore.getSysPrefix(context.getEnv());
@@ -429,7 +649,6 @@ public final class Python3Core implements PythonCore {
             sys.setAttribute(name, prefix);
         }
         initializeSysPath(context, sys, args);
-        return sys;
     }
 
     private void initializeSysPath(PythonContext context, PythonModule sys, String[] args) {
@@ -512,6 +731,12 @@ public final class Python3Core implements PythonCore {
     }
 
     public PythonClass getErrorClass(PythonErrorType type) {
+        if (singletonContext == null && initialized) {
+            PythonClass[] contextErrorClasses = getContext().getErrorClasses();
+            if (contextErrorClasses != null) {
+                return contextErrorClasses[type.ordinal()];
+            }
+        }
         return errorClasses[type.ordinal()];
     }
 
@@ -577,11 +802,12 @@ public final class Python3Core implements PythonCore {
         }
     }
 
+    @Override
     public void exportCInterface(PythonContext context) {
         Env env = context.getEnv();
         if (env != null) {
-            env.exportSymbol("python_cext", builtinModules.get("python_cext"));
-            env.exportSymbol("python_builtins", builtinsModule);
+            env.exportSymbol("python_cext", context.lookupBuiltinModule("python_cext"));
+            env.exportSymbol("python_builtins", context.getBuiltins());
 
             // export all exception classes for the C API
             for (PythonErrorType errorType : PythonErrorType.values()) {
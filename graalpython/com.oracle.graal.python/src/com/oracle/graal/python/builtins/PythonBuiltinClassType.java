@@ -38,11 +38,23 @@ public enum PythonBuiltinClassType {
     PBuiltinFunction(com.oracle.graal.python.builtins.objects.function.PBuiltinFunction.class, "function"),
     PBuiltinMethod(com.oracle.graal.python.builtins.objects.method.PBuiltinMethod.class, "method"),
     PByteArray(com.oracle.graal.python.builtins.objects.bytes.PByteArray.class, "bytearray"),
+    PAccumulate(com.oracle.graal.python.builtins.objects.itertools.PAccumulate.class, "accumulate"),
+    PBufferedReader(com.oracle.graal.python.builtins.objects.io.PBufferedReader.class, "BufferedReader"),
+    PBufferedWriter(com.oracle.graal.python.builtins.objects.io.PBufferedWriter.class, "BufferedWriter"),
     PBytes(com.oracle.graal.python.builtins.objects.bytes.PBytes.class, "bytes"),
     PCell(com.oracle.graal.python.builtins.objects.cell.PCell.class, "cell"),
+    PChain(com.oracle.graal.python.builtins.objects.itertools.PChain.class, "chain"),
     PCharArray(com.oracle.graal.python.builtins.objects.array.PCharArray.class, "chars"),
     PCharArrayIterator(com.oracle.graal.python.builtins.objects.iterator.PCharArrayIterator.class, "iterator"),
+    PCombinations(com.oracle.graal.python.builtins.objects.itertools.PCombinations.class, "combinations"),
+    PCombinationsWithReplacement(com.oracle.graal.python.builtins.objects.itertools.PCombinationsWithReplacement.class, "combinations_with_replacement"),
+    PCompress(com.oracle.graal.python.builtins.objects.itertools.PCompress.class, "compress"),
+    PCount(com.oracle.graal.python.builtins.objects.itertools.PCount.class, "count"),
+    PCycle(com.oracle.graal.python.builtins.objects.itertools.PCycle.class, "cycle"),
     PComplex(com.oracle.graal.python.builtins.objects.complex.PComplex.class, "complex"),
+    PDefaultDict(com.oracle.graal.python.builtins.objects.dict.PDefaultDict.class, "defaultdict"),
+    PDeque(com.oracle.graal.python.builtins.objects.deque.PDeque.class, "deque"),
+    PDequeIterator(com.oracle.graal.python.builtins.objects.deque.PDequeIterator.class, "_deque_iterator"),
     PDict(com.oracle.graal.python.builtins.objects.dict.PDict.class, "dict"),
     PDictKeysView(com.oracle.graal.python.builtins.objects.dict.PDictView.PDictKeysView.class, "dict_keys"),
     PDictItemsIterator(com.oracle.graal.python.builtins.objects.dict.PDictView.PDictItemsIterator.class, "dict_itemsiterator"),
@@ -53,40 +65,65 @@ public enum PythonBuiltinClassType {
     PDoubleArray(com.oracle.graal.python.builtins.objects.array.PDoubleArray.class, "doubles"),
     PDoubleArrayIterator(com.oracle.graal.python.builtins.objects.iterator.PDoubleArrayIterator.class, "iterator"),
     PDoubleSequenceIterator(com.oracle.graal.python.builtins.objects.iterator.PDoubleSequenceIterator.class, "iterator"),
+    PDropwhile(com.oracle.graal.python.builtins.objects.itertools.PDropwhile.class, "dropwhile"),
     PEllipsis(com.oracle.graal.python.builtins.objects.PEllipsis.class, "ellipsis"),
     PEnumerate(com.oracle.graal.python.builtins.objects.enumerate.PEnumerate.class, "enumerate"),
+    PFilter(com.oracle.graal.python.builtins.objects.iterator.PFilter.class, "filter"),
+    PFilterfalse(com.oracle.graal.python.builtins.objects.itertools.PFilterfalse.class, "filterfalse"),
     PFloat(com.oracle.graal.python.builtins.objects.floats.PFloat.class, "float"),
     PFrame(com.oracle.graal.python.builtins.objects.frame.PFrame.class, "frame"),
     PFrozenSet(com.oracle.graal.python.builtins.objects.set.PFrozenSet.class, "frozenset"),
     PFunction(com.oracle.graal.python.builtins.objects.function.PFunction.class, "function"),
     PGenerator(com.oracle.graal.python.builtins.objects.generator.PGenerator.class, "generator"),
     PGeneratorFunction(com.oracle.graal.python.builtins.objects.function.PGeneratorFunction.class, "function"),
+    PGroupBy(com.oracle.graal.python.builtins.objects.itertools.PGroupBy.class, "groupby"),
+    PGrouper(com.oracle.graal.python.builtins.objects.itertools.PGrouper.class, "_grouper"),
     PInt(com.oracle.graal.python.builtins.objects.ints.PInt.class, "int"),
     PIntArray(com.oracle.graal.python.builtins.objects.array.PIntArray.class, "ints"),
     PIntArrayIterator(com.oracle.graal.python.builtins.objects.iterator.PIntArrayIterator.class, "iterator"),
     PIntegerSequenceIterator(com.oracle.graal.python.builtins.objects.iterator.PIntegerSequenceIterator.class, "iterator"),
+    PIslice(com.oracle.graal.python.builtins.objects.itertools.PIslice.class, "islice"),
     PList(com.oracle.graal.python.builtins.objects.list.PList.class, "list"),
     PLongArray(com.oracle.graal.python.builtins.objects.array.PLongArray.class, "longs"),
     PLongArrayIterator(com.oracle.graal.python.builtins.objects.iterator.PLongArrayIterator.class, "iterator"),
+    PLock(com.oracle.graal.python.builtins.objects.thread.PLock.class, "lock"),
     PLongSequenceIterator(com.oracle.graal.python.builtins.objects.iterator.PLongSequenceIterator.class, "iterator"),
+    PLruCacheWrapper(com.oracle.graal.python.builtins.objects.functools.PLruCacheWrapper.class, "_lru_cache_wrapper"),
+    PMap(com.oracle.graal.python.builtins.objects.iterator.PMap.class, "map"),
     PMemoryView(com.oracle.graal.python.builtins.objects.memoryview.PMemoryView.class, "memoryview"),
+    PMMap(com.oracle.graal.python.builtins.objects.mmap.PMMap.class, "mmap"),
     PMappingproxy(com.oracle.graal.python.builtins.objects.mappingproxy.PMappingproxy.class, "mapping_proxy"),
     PMethod(com.oracle.graal.python.builtins.objects.method.PMethod.class, "method"),
     PNone(com.oracle.graal.python.builtins.objects.PNone.class, "NoneType"),
     PNotImplemented(com.oracle.graal.python.builtins.objects.PNotImplemented.class, "NotImplementedType"),
+    POrderedDict(com.oracle.graal.python.builtins.objects.dict.POrderedDict.class, "OrderedDict"),
+    PPartial(com.oracle.graal.python.builtins.objects.functools.PPartial.class, "partial"),
+    PPermutations(com.oracle.graal.python.builtins.objects.itertools.PPermutations.class, "permutations"),
+    PProduct(com.oracle.graal.python.builtins.objects.itertools.PProduct.class, "product"),
+    PRLock(com.oracle.graal.python.builtins.objects.thread.PRLock.class, "RLock"),
     PRange(com.oracle.graal.python.builtins.objects.range.PRange.class, "range"),
     PRangeIterator(com.oracle.graal.python.builtins.objects.iterator.PRangeIterator.class, "iterator"),
     PRangeReverseIterator(com.oracle.graal.python.builtins.objects.iterator.PRangeIterator.PRangeReverseIterator.class, "iterator"),
+    PRepeat(com.oracle.graal.python.builtins.objects.itertools.PRepeat.class, "repeat"),
     PReferenceType(com.oracle.graal.python.builtins.objects.referencetype.PReferenceType.class, "ReferenceType"),
+    PSREMatch(com.oracle.graal.python.builtins.objects.sre.PSREMatch.class, "SRE_Match"),
+    PSREPattern(com.oracle.graal.python.builtins.objects.sre.PSREPattern.class, "SRE_Pattern"),
+    PSREScanner(com.oracle.graal.python.builtins.objects.sre.PSREScanner.class, "SRE_Scanner"),
     PSentinelIterator(com.oracle.graal.python.builtins.objects.iterator.PSentinelIterator.class, "callable_iterator"),
     PSequenceIterator(com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator.class, "iterator"),
     PForeignArrayIterator(com.oracle.graal.python.builtins.objects.iterator.PForeignArrayIterator.class, "foreign_iterator"),
     PSequenceReverseIterator(com.oracle.graal.python.builtins.objects.reversed.PSequenceReverseIterator.class, "reversed"),
     PSet(com.oracle.graal.python.builtins.objects.set.PSet.class, "set"),
     PSlice(com.oracle.graal.python.builtins.objects.slice.PSlice.class, "slice"),
+    PStarmap(com.oracle.graal.python.builtins.objects.itertools.PStarmap.class, "starmap"),
     PString(com.oracle.graal.python.builtins.objects.str.PString.class, "str"),
     PStringIterator(com.oracle.graal.python.builtins.objects.iterator.PStringIterator.class, "iterator"),
     PStringReverseIterator(com.oracle.graal.python.builtins.objects.reversed.PStringReverseIterator.class, "reversed"),
+    PStruct(com.oracle.graal.python.builtins.objects.struct.PStruct.class, "Struct"),
+    PStructUnpackIterator(com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator.class, "unpack_iterator"),
+    PTakewhile(com.oracle.graal.python.builtins.objects.itertools.PTakewhile.class, "takewhile"),
+    PTee(com.oracle.graal.python.builtins.objects.itertools.PTee.class, "_tee"),
+    PTextIOWrapper(com.oracle.graal.python.builtins.objects.io.PTextIOWrapper.class, "TextIOWrapper"),
     PTraceback(com.oracle.graal.python.builtins.objects.traceback.PTraceback.class, "traceback"),
     PTuple(com.oracle.graal.python.builtins.objects.tuple.PTuple.class, "tuple"),
     PythonBuiltinClass(com.oracle.graal.python.builtins.objects.type.PythonBuiltinClass.class, "type"),
@@ -94,7 +131,8 @@ public enum PythonBuiltinClassType {
     PythonModule(com.oracle.graal.python.builtins.objects.module.PythonModule.class, "module"),
     PythonObject(com.oracle.graal.python.builtins.objects.object.PythonObject.class, "object"),
     PythonParseResult(com.oracle.graal.python.runtime.PythonParseResult.class, "code"),
-    PZip(com.oracle.graal.python.builtins.objects.iterator.PZip.class, "zip");
+    PZip(com.oracle.graal.python.builtins.objects.iterator.PZip.class, "zip"),
+    PZipLongest(com.oracle.graal.python.builtins.objects.itertools.PZipLongest.class, "zip_longest");
 
     private final Class<?> clazz;
     private final String shortName;
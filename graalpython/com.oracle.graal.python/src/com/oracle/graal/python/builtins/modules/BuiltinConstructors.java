@@ -31,10 +31,12 @@ import static com.oracle.graal.python.nodes.BuiltinNames.BYTES;
 import static com.oracle.graal.python.nodes.BuiltinNames.COMPLEX;
 import static com.oracle.graal.python.nodes.BuiltinNames.DICT;
 import static com.oracle.graal.python.nodes.BuiltinNames.ENUMERATE;
+import static com.oracle.graal.python.nodes.BuiltinNames.FILTER;
 import static com.oracle.graal.python.nodes.BuiltinNames.FLOAT;
 import static com.oracle.graal.python.nodes.BuiltinNames.FROZENSET;
 import static com.oracle.graal.python.nodes.BuiltinNames.INT;
 import static com.oracle.graal.python.nodes.BuiltinNames.LIST;
+import static com.oracle.graal.python.nodes.BuiltinNames.MAP;
 import static com.oracle.graal.python.nodes.BuiltinNames.MEMORYVIEW;
 import static com.oracle.graal.python.nodes.BuiltinNames.MODULE;
 import static com.oracle.graal.python.nodes.BuiltinNames.OBJECT;
@@ -89,11 +91,13 @@ import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.iterator.PBaseSetIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PDoubleArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PDoubleSequenceIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PFilter;
 import com.oracle.graal.python.builtins.objects.iterator.PForeignArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PIntArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PIntegerSequenceIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PLongArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PLongSequenceIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PMap;
 import com.oracle.graal.python.builtins.objects.iterator.PRangeIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PRangeIterator.PRangeReverseIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PSentinelIterator;
@@ -103,6 +107,8 @@ import com.oracle.graal.python.builtins.objects.iterator.PZip;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.mappingproxy.PMappingproxy;
 import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.memoryview.PythonBuffer;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
@@ -199,6 +205,19 @@ public final class BuiltinConstructors extends PythonBuiltins {
             throw raise(TypeError, "string argument without an encoding");
         }
 
+        @Specialization
+        public PBytes bytes(PythonClass cls, PMMap source, @SuppressWarnings("unused") PNone encoding, @SuppressWarnings("unused") PNone errors) {
+            return factory().createBytes(cls, source.getBytes(0, source.getLength()));
+        }
+
+        @Specialization
+        public PBytes bytes(PythonClass cls, PMemoryView source, @SuppressWarnings("unused") PNone encoding, @SuppressWarnings("unused") PNone errors) {
+            if (source.isReleased()) {
+                throw raise(ValueError, "operation forbidden on released memoryview object");
+            }
+            return factory().createBytes(cls, source.toBytes());
+        }
+
         @Specialization
         public PBytes bytes(PythonClass cls, PythonObject source, @SuppressWarnings("unused") PNone encoding, @SuppressWarnings("unused") PNone errors,
                         @Cached("create()") ConstructListNode constructListNode,
@@ -247,6 +266,19 @@ public final class BuiltinConstructors extends PythonBuiltins {
             return factory().createByteArray(cls, BytesUtils.fromStringAndEncoding(PythonLanguage.getCore(), source, encoding));
         }
 
+        @Specialization
+        public PByteArray bytearray(PythonClass cls, PMMap source, PNone encoding, PNone errors) {
+            return factory().createByteArray(cls, source.getBytes(0, source.getLength()));
+        }
+
+        @Specialization
+        public PByteArray bytearray(PythonClass cls, PMemoryView source, PNone encoding, PNone errors) {
+            if (source.isReleased()) {
+                throw raise(ValueError, "operation forbidden on released memoryview object");
+            }
+            return factory().createByteArray(cls, source.toBytes());
+        }
+
         @Specialization
         public PByteArray bytearray(PythonClass cls, PythonObject source, PNone encoding, PNone errors,
                         @Cached("create()") ConstructListNode constructListNode,
@@ -1043,6 +1075,33 @@ public final class BuiltinConstructors extends PythonBuiltins {
         }
     }
 
+    // map(function, iterable, ...)
+    @Builtin(name = MAP, minNumOfArguments = 3, takesVariableArguments = true, constructsClass = PMap.class)
+    @GenerateNodeFactory
+    public abstract static class MapNode extends PythonBuiltinNode {
+        @Specialization
+        public PMap map(PythonClass cls, Object function, Object iterable, PTuple args,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            Object[] iterators = new Object[args.len() + 1];
+            iterators[0] = getIterator.executeWith(iterable);
+            for (int i = 0; i < args.len(); i++) {
+                iterators[i + 1] = getIterator.executeWith(args.getItem(i));
+            }
+            return factory().createMap(cls, function, iterators);
+        }
+    }
+
+    // filter(function, iterable)
+    @Builtin(name = FILTER, fixedNumOfArguments = 3, constructsClass = PFilter.class)
+    @GenerateNodeFactory
+    public abstract static class FilterNode extends PythonBuiltinNode {
+        @Specialization
+        public PFilter filter(PythonClass cls, Object function, Object iterable,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createFilter(cls, function, getIterator.executeWith(iterable));
+        }
+    }
+
     // function(code, globals[, name[, argdefs[, closure]]])
     @Builtin(name = "function", minNumOfArguments = 3, maxNumOfArguments = 6, constructsClass = {PFunction.class, PBuiltinFunction.class, PGeneratorFunction.class}, isPublic = false)
     @GenerateNodeFactory
@@ -1388,10 +1447,26 @@ public final class BuiltinConstructors extends PythonBuiltins {
     @Builtin(name = MEMORYVIEW, constructsClass = {PMemoryView.class}, isPublic = true, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     public abstract static class MemoryViewNode extends PythonBuiltinNode {
-        @SuppressWarnings("unused")
         @Specialization
-        Object memoryview(PythonClass cls, Object obj) {
-            throw raise(NotImplementedError, "memoryview objects");
+        PMemoryView memoryview(PythonClass cls, PMemoryView obj) {
+            if (obj.isReleased()) {
+                throw raise(ValueError, "operation forbidden on released memoryview object");
+            }
+            return factory().createMemoryView(cls, obj.getBuffer(), obj.getOffset(), obj.getLength(), obj.getStride(), obj.getItemSize(), obj.getFormat(), obj.isReadonly());
+        }
+
+        @Specialization(guards = "!isMemoryView(obj)")
+        PMemoryView memoryview(PythonClass cls, Object obj) {
+            PythonBuffer buffer = PythonBuffer.get(obj);
+            if (buffer == null) {
+                throw raise(TypeError, "memoryview: a bytes-like object is required, not '%p'", obj);
+            }
+            int itemSize = buffer.getItemSize();
+            return factory().createMemoryView(cls, buffer, 0, buffer.getLength() / itemSize, itemSize, itemSize, buffer.getFormat(), buffer.isReadonly());
+        }
+
+        protected static boolean isMemoryView(Object obj) {
+            return obj instanceof PMemoryView;
         }
     }
 
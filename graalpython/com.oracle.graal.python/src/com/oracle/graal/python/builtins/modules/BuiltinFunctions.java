@@ -27,6 +27,8 @@ package com.oracle.graal.python.builtins.modules;
 
 import static com.oracle.graal.python.builtins.objects.PNotImplemented.NOT_IMPLEMENTED;
 import static com.oracle.graal.python.nodes.BuiltinNames.ABS;
+import static com.oracle.graal.python.nodes.BuiltinNames.ALL;
+import static com.oracle.graal.python.nodes.BuiltinNames.ANY;
 import static com.oracle.graal.python.nodes.BuiltinNames.CALLABLE;
 import static com.oracle.graal.python.nodes.BuiltinNames.CHR;
 import static com.oracle.graal.python.nodes.BuiltinNames.COMPILE;
@@ -34,6 +36,7 @@ import static com.oracle.graal.python.nodes.BuiltinNames.DIR;
 import static com.oracle.graal.python.nodes.BuiltinNames.DIVMOD;
 import static com.oracle.graal.python.nodes.BuiltinNames.EVAL;
 import static com.oracle.graal.python.nodes.BuiltinNames.GETATTR;
+import static com.oracle.graal.python.nodes.BuiltinNames.HASATTR;
 import static com.oracle.graal.python.nodes.BuiltinNames.HASH;
 import static com.oracle.graal.python.nodes.BuiltinNames.ID;
 import static com.oracle.graal.python.nodes.BuiltinNames.ISINSTANCE;
@@ -48,6 +51,7 @@ import static com.oracle.graal.python.nodes.BuiltinNames.PRINT;
 import static com.oracle.graal.python.nodes.BuiltinNames.REPR;
 import static com.oracle.graal.python.nodes.BuiltinNames.ROUND;
 import static com.oracle.graal.python.nodes.BuiltinNames.SETATTR;
+import static com.oracle.graal.python.nodes.BuiltinNames.SORTED;
 import static com.oracle.graal.python.nodes.BuiltinNames.SUM;
 import static com.oracle.graal.python.nodes.BuiltinNames.__BREAKPOINT__;
 import static com.oracle.graal.python.nodes.SpecialAttributeNames.__NAME__;
@@ -55,6 +59,7 @@ import static com.oracle.graal.python.nodes.SpecialMethodNames.__DIR__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__INSTANCECHECK__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__SUBCLASSCHECK__;
 import static com.oracle.graal.python.nodes.frame.FrameSlotIDs.RETURN_SLOT_ID;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
@@ -79,6 +84,8 @@ import com.oracle.graal.python.builtins.objects.function.PArguments;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.function.PythonCallable;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.ListBuiltins.ListSortNode;
+import com.oracle.graal.python.builtins.objects.list.ListBuiltinsFactory;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
@@ -90,10 +97,12 @@ import com.oracle.graal.python.nodes.GraalPythonTranslationErrorNode;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.attributes.GetAttributeNode;
+import com.oracle.graal.python.nodes.attributes.GetAttributeOrNoValueNode;
 import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
 import com.oracle.graal.python.nodes.attributes.ReadAttributeFromObjectNode;
 import com.oracle.graal.python.nodes.attributes.SetAttributeNode;
 import com.oracle.graal.python.nodes.attributes.WriteAttributeToObjectNode;
+import com.oracle.graal.python.nodes.builtins.ListNodes.ConstructListNode;
 import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
@@ -101,20 +110,25 @@ import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode.NoAttri
 import com.oracle.graal.python.nodes.classes.IsSubtypeNode;
 import com.oracle.graal.python.nodes.control.GetIteratorNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.nodes.expression.BinaryArithmetic;
 import com.oracle.graal.python.nodes.expression.BinaryComparisonNode;
 import com.oracle.graal.python.nodes.expression.CastToBooleanNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.object.GetClassNode;
 import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
-import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.BufferedOutputSink;
 import com.oracle.graal.python.runtime.PythonParseResult;
 import com.oracle.graal.python.runtime.PythonParser;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -174,6 +188,86 @@ public final class BuiltinFunctions extends PythonBuiltins {
         }
     }
 
+    public abstract static class AllAnyNode extends PythonUnaryBuiltinNode {
+
+        /**
+         * The result of {@code any} if an item is true, or of {@code all} if an item is false. In
+         * both cases the iteration can stop at that item.
+         */
+        protected final boolean shortCircuitResult() {
+            return this instanceof AnyNode;
+        }
+
+        @Specialization(guards = {"cannotBeOverridden(list.getPythonClass())", "isIntStorage(list)"})
+        public boolean doIntList(PList list) {
+            boolean stopOn = shortCircuitResult();
+            IntSequenceStorage storage = (IntSequenceStorage) list.getSequenceStorage();
+            for (int i = 0; i < storage.length(); i++) {
+                if ((storage.getIntItemNormalized(i) != 0) == stopOn) {
+                    return stopOn;
+                }
+            }
+            return !stopOn;
+        }
+
+        @Specialization(guards = "cannotBeOverridden(list.getPythonClass())")
+        public boolean doList(PList list,
+                        @Cached("createIfTrueNode()") CastToBooleanNode isTrue) {
+            return doSequence(list, isTrue);
+        }
+
+        @Specialization(guards = "cannotBeOverridden(tuple.getPythonClass())")
+        public boolean doTuple(PTuple tuple,
+                        @Cached("createIfTrueNode()") CastToBooleanNode isTrue) {
+            return doSequence(tuple, isTrue);
+        }
+
+        private boolean doSequence(PSequence sequence, CastToBooleanNode isTrue) {
+            boolean stopOn = shortCircuitResult();
+            // the storage is read again in each step, because __bool__ may modify the sequence
+            for (int i = 0; i < sequence.getSequenceStorage().length(); i++) {
+                SequenceStorage storage = sequence.getSequenceStorage();
+                if (isTrue.executeWith(storage.getItemNormalized(i)) == stopOn) {
+                    return stopOn;
+                }
+            }
+            return !stopOn;
+        }
+
+        @Specialization(replaces = {"doIntList", "doList", "doTuple"})
+        public boolean doGeneric(Object iterable,
+                        @Cached("create()") GetIteratorNode getIterator,
+                        @Cached("create()") GetNextOrStopNode next,
+                        @Cached("createIfTrueNode()") CastToBooleanNode isTrue,
+                        @Cached("createBinaryProfile()") ConditionProfile stopProfile) {
+            boolean stopOn = shortCircuitResult();
+            Object iterator = getIterator.executeWith(iterable);
+            while (true) {
+                Object item = next.execute(iterator);
+                if (stopProfile.profile(item == GetNextOrStopNode.STOP)) {
+                    return !stopOn;
+                }
+                if (isTrue.executeWith(item) == stopOn) {
+                    return stopOn;
+                }
+            }
+        }
+    }
+
+    // all(iterable)
+    @Builtin(name = ALL, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class AllNode extends AllAnyNode {
+
+    }
+
+    // any(iterable)
+    @Builtin(name = ANY, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class AnyNode extends AllAnyNode {
+
+    }
+
     // callable(object)
     @Builtin(name = CALLABLE, fixedNumOfArguments = 1)
     @GenerateNodeFactory
@@ -476,14 +570,9 @@ public final class BuiltinFunctions extends PythonBuiltins {
         @Specialization(limit = "getIntOption(getContext(), AttributeAccessInlineCacheMaxDepth)", guards = {"name.equals(cachedName)", "!isNoValue(defaultValue)"})
         public Object getAttr(Object primary, String name, Object defaultValue,
                         @Cached("name") String cachedName,
-                        @Cached("create()") GetAttributeNode getter,
-                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
-            try {
-                return getter.execute(primary, cachedName);
-            } catch (PException e) {
-                e.expect(AttributeError, getCore(), errorProfile);
-                return defaultValue;
-            }
+                        @Cached("create()") GetAttributeOrNoValueNode getter) {
+            Object value = getter.execute(primary, cachedName);
+            return value == PNone.NO_VALUE ? defaultValue : value;
         }
 
         @Specialization(replaces = {"getAttr", "getAttrDefault"}, guards = "isNoValue(defaultValue)")
@@ -494,14 +583,9 @@ public final class BuiltinFunctions extends PythonBuiltins {
 
         @Specialization(replaces = {"getAttr", "getAttrDefault"}, guards = "!isNoValue(defaultValue)")
         public Object getAttrFromObject(Object primary, String name, Object defaultValue,
-                        @Cached("create()") GetAttributeNode getter,
-                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
-            try {
-                return getter.execute(primary, name);
-            } catch (PException e) {
-                e.expect(AttributeError, getCore(), errorProfile);
-                return defaultValue;
-            }
+                        @Cached("create()") GetAttributeOrNoValueNode getter) {
+            Object value = getter.execute(primary, name);
+            return value == PNone.NO_VALUE ? defaultValue : value;
         }
 
         @Specialization
@@ -512,20 +596,38 @@ public final class BuiltinFunctions extends PythonBuiltins {
         @Specialization(guards = "!isString(name)")
         public Object getAttrGeneric(Object primary, Object name, Object defaultValue,
                         @Cached("create()") GetAttributeNode getter,
-                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+                        @Cached("create()") GetAttributeOrNoValueNode getterOrNoValue) {
             if (PGuards.isNoValue(defaultValue)) {
                 return getter.execute(primary, name);
             } else {
-                try {
-                    return getter.execute(primary, name);
-                } catch (PException e) {
-                    e.expect(AttributeError, getCore(), errorProfile);
-                    return defaultValue;
-                }
+                Object value = getterOrNoValue.execute(primary, name);
+                return value == PNone.NO_VALUE ? defaultValue : value;
             }
         }
     }
 
+    // hasattr(object, name)
+    @Builtin(name = HASATTR, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class HasAttrNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        public boolean hasAttr(Object object, String name,
+                        @Cached("create()") GetAttributeOrNoValueNode getter) {
+            return getter.execute(object, name) != PNone.NO_VALUE;
+        }
+
+        @Specialization
+        public boolean hasAttr(Object object, PString name,
+                        @Cached("create()") GetAttributeOrNoValueNode getter) {
+            return getter.execute(object, name.getValue()) != PNone.NO_VALUE;
+        }
+
+        @Specialization(guards = "!isString(name)")
+        public boolean hasAttr(@SuppressWarnings("unused") Object object, @SuppressWarnings("unused") Object name) {
+            throw raise(TypeError, "hasattr(): attribute name must be string");
+        }
+    }
+
     // id(object)
     @Builtin(name = ID, fixedNumOfArguments = 1)
     @GenerateNodeFactory
@@ -925,36 +1027,126 @@ public final class BuiltinFunctions extends PythonBuiltins {
     }
 
     // print(*objects, sep=' ', end='\n', file=sys.stdout, flush=False)
-    @Builtin(name = PRINT, fixedNumOfArguments = 5)
+    @Builtin(name = PRINT, takesVariableArguments = true, keywordArguments = {"sep", "end", "file", "flush"})
     @GenerateNodeFactory
     public abstract static class PrintNode extends PythonBuiltinNode {
-        @SuppressWarnings("unused")
+        private static final String DEFAULT_SEP = " ";
+        private static final String DEFAULT_END = "\n";
+
+        @Child private LookupAndCallUnaryNode callStrNode = LookupAndCallUnaryNode.create(__STR__);
+        @Child private ReadAttributeFromObjectNode readStdoutNode;
+        @Child private GetAttributeNode getWriteNode;
+        @Child private GetAttributeNode getFlushNode;
+        @Child private CallNode callWriteNode;
+        @Child private CallNode callFlushNode;
+        @Child private CastToBooleanNode castFlushNode;
+
+        private final ConditionProfile defaultStdoutProfile = ConditionProfile.createBinaryProfile();
+
         @Specialization
-        public Object print(PTuple values, String sep, String end, Object file, boolean flush,
-                        @Cached("create(__STR__)") LookupAndCallUnaryNode callStr) {
-            try {
-                PythonContext context = getContext();
-                if (values.len() == 0) {
-                    write(context, end);
-                } else {
-                    StringBuilder sb = new StringBuilder();
-                    for (int i = 0; i < values.len() - 1; i++) {
-                        sb.append(callStr.executeObject(values.getItem(i)) + " ");
+        public Object print(PTuple values, Object sep, Object end, Object file, Object flush) {
+            String sepString = castSeparator(sep, DEFAULT_SEP, "sep");
+            String endString = castSeparator(end, DEFAULT_END, "end");
+            String[] strings = new String[values.len()];
+            for (int i = 0; i < strings.length; i++) {
+                strings[i] = callStr(values.getItem(i));
+            }
+            boolean doFlush = isTrue(flush);
+
+            Object out = file;
+            if (PGuards.isNoValue(out) || out == PNone.NONE) {
+                PythonModule sys = getContext().lookupBuiltinModule("sys");
+                out = readStdout(sys, "stdout");
+                if (defaultStdoutProfile.profile(out == PNone.NO_VALUE || out == readStdout(sys, "__stdout__"))) {
+                    // the common case: print straight to the buffered stdout of this context,
+                    // without going through the Python level file object
+                    try {
+                        BufferedOutputSink sink = getContext().getStandardOut();
+                        sink.print(strings, sepString, endString);
+                        if (doFlush) {
+                            sink.flush();
+                        }
+                    } catch (IOException e) {
+                        throw raise(PythonErrorType.OSError, e.getMessage());
                     }
-                    sb.append(callStr.executeObject(values.getItem(values.len() - 1)));
-                    sb.append(end);
-                    write(context, sb.toString());
+                    return PNone.NONE;
+                } else if (out == PNone.NONE) {
+                    return PNone.NONE;
                 }
-            } catch (IOException e) {
-                // pass through
             }
-
+            if (getWriteNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getWriteNode = insert(GetAttributeNode.create());
+                callWriteNode = insert(CallNode.create());
+            }
+            Object write = getWriteNode.execute(out, "write");
+            callWriteNode.execute(write, new Object[]{join(strings, sepString, endString)}, PKeyword.EMPTY_KEYWORDS);
+            if (doFlush) {
+                if (getFlushNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    getFlushNode = insert(GetAttributeNode.create());
+                    callFlushNode = insert(CallNode.create());
+                }
+                callFlushNode.execute(getFlushNode.execute(out, "flush"), new Object[0], PKeyword.EMPTY_KEYWORDS);
+            }
             return PNone.NONE;
         }
 
+        private String castSeparator(Object value, String defaultValue, String name) {
+            if (PGuards.isNoValue(value) || value == PNone.NONE) {
+                return defaultValue;
+            } else if (value instanceof String) {
+                return (String) value;
+            } else if (value instanceof PString) {
+                return ((PString) value).getValue();
+            }
+            throw raise(TypeError, "%s must be None or a string, not %p", name, value);
+        }
+
+        private String callStr(Object value) {
+            if (value instanceof String) {
+                return (String) value;
+            }
+            Object result = callStrNode.executeObject(value);
+            if (result instanceof PString) {
+                return ((PString) result).getValue();
+            } else if (!(result instanceof String)) {
+                throw raise(TypeError, "__str__ returned non-string (type %p)", result);
+            }
+            return (String) result;
+        }
+
+        private boolean isTrue(Object flush) {
+            if (PGuards.isNoValue(flush) || flush == PNone.NONE || flush == Boolean.FALSE) {
+                return false;
+            } else if (flush == Boolean.TRUE) {
+                return true;
+            }
+            if (castFlushNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                castFlushNode = insert(CastToBooleanNode.createIfTrueNode());
+            }
+            return castFlushNode.executeWith(flush);
+        }
+
+        private Object readStdout(PythonModule sys, String name) {
+            if (readStdoutNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                readStdoutNode = insert(ReadAttributeFromObjectNode.create());
+            }
+            return readStdoutNode.execute(sys, name);
+        }
+
         @TruffleBoundary
-        private static void write(PythonContext context, String string) throws IOException {
-            context.getStandardOut().write(string.getBytes());
+        private static String join(String[] strings, String sep, String end) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < strings.length; i++) {
+                if (i > 0) {
+                    sb.append(sep);
+                }
+                sb.append(strings[i]);
+            }
+            return sb.append(end).toString();
         }
     }
 
@@ -1023,6 +1215,26 @@ public final class BuiltinFunctions extends PythonBuiltins {
         }
     }
 
+    // sorted(iterable, *, key=None, reverse=False)
+    @Builtin(name = SORTED, fixedNumOfArguments = 1, keywordArguments = {"key", "reverse"})
+    @GenerateNodeFactory
+    public abstract static class SortedNode extends PythonBuiltinNode {
+
+        protected static ListSortNode createSort() {
+            return ListBuiltinsFactory.ListSortNodeFactory.create(null);
+        }
+
+        @Specialization
+        public PList sorted(Object iterable, Object key, Object reverse,
+                        @Cached("create()") GetClassNode getClassNode,
+                        @Cached("create()") ConstructListNode constructListNode,
+                        @Cached("createSort()") ListSortNode sortNode) {
+            PList list = constructListNode.execute(iterable, getClassNode.execute(iterable));
+            sortNode.execute(list, key, reverse);
+            return list;
+        }
+    }
+
     // sum(iterable[, start])
     @Builtin(name = SUM, fixedNumOfArguments = 1, keywordArguments = {"start"})
     @GenerateNodeFactory
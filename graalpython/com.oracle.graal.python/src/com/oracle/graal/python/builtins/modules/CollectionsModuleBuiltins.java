@@ -38,18 +38,68 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.deque.PDeque;
+import com.oracle.graal.python.builtins.objects.deque.PDequeIterator;
+import com.oracle.graal.python.builtins.objects.dict.PDefaultDict;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.dict.POrderedDict;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.oracle.truffle.api.dsl.Specialization;
 
 @CoreFunctions(defineModule = "_collections")
 public class CollectionsModuleBuiltins extends PythonBuiltins {
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
-        return new ArrayList<>();
+        return CollectionsModuleBuiltinsFactory.getFactories();
+    }
+
+    // deque([iterable[, maxlen]]), the contents are filled in by __init__
+    @Builtin(name = "deque", minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PDeque.class)
+    @GenerateNodeFactory
+    public abstract static class DequeNode extends PythonBuiltinNode {
+        @Specialization
+        PDeque deque(PythonClass cls, @SuppressWarnings("unused") Object args, @SuppressWarnings("unused") Object kwargs) {
+            return factory().createDeque(cls);
+        }
+    }
+
+    @Builtin(name = "_deque_iterator", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PDequeIterator.class, isPublic = false)
+    @GenerateNodeFactory
+    public abstract static class DequeIteratorTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        Object dequeIterator(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create '_deque_iterator' instances");
+        }
+    }
+
+    // defaultdict([default_factory[, ...]]), the contents are filled in by __init__
+    @Builtin(name = "defaultdict", minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PDefaultDict.class, base = PDict.class)
+    @GenerateNodeFactory
+    public abstract static class DefaultDictNode extends PythonBuiltinNode {
+        @Specialization
+        PDefaultDict defaultDict(PythonClass cls, @SuppressWarnings("unused") Object args, @SuppressWarnings("unused") Object kwargs) {
+            return factory().createDefaultDict(cls);
+        }
+    }
+
+    // OrderedDict([items]), the contents are filled in by __init__
+    @Builtin(name = "OrderedDict", minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true, constructsClass = POrderedDict.class, base = PDict.class)
+    @GenerateNodeFactory
+    public abstract static class OrderedDictNode extends PythonBuiltinNode {
+        @Specialization
+        POrderedDict orderedDict(PythonClass cls, @SuppressWarnings("unused") Object args, @SuppressWarnings("unused") Object kwargs) {
+            return factory().createOrderedDict(cls);
+        }
     }
 }
@@ -38,18 +38,96 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.functools.PLruCacheWrapper;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
+import com.oracle.graal.python.nodes.expression.CastToBooleanNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.oracle.truffle.api.dsl.Specialization;
 
 @CoreFunctions(defineModule = "_functools")
 public class FunctoolsModuleBuiltins extends PythonBuiltins {
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
-        return new ArrayList<>();
+        return FunctoolsModuleBuiltinsFactory.getFactories();
+    }
+
+    abstract static class CallableArgumentNode extends PythonBuiltinNode {
+        @Child private LookupInheritedAttributeNode lookupCall = LookupInheritedAttributeNode.create();
+
+        protected void checkCallable(Object function) {
+            if (lookupCall.execute(function, __CALL__) == PNone.NO_VALUE) {
+                throw raise(TypeError, "the first argument must be callable");
+            }
+        }
+    }
+
+    // partial(func, *args, **keywords)
+    @Builtin(name = "partial", minNumOfArguments = 2, takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PPartial.class)
+    @GenerateNodeFactory
+    public abstract static class PartialNode extends CallableArgumentNode {
+        @Specialization(guards = "isExactPartial(function)")
+        PPartial partialOfPartial(PythonClass cls, PPartial function, PTuple arguments, PKeyword[] keywords) {
+            // flatten nested partials, as CPython does
+            return factory().createPartial(cls, function.getFunction(), function.bindArguments(arguments.getArray()), function.bindKeywords(keywords));
+        }
+
+        @Specialization(guards = "!isExactPartial(function)")
+        PPartial partial(PythonClass cls, Object function, PTuple arguments, PKeyword[] keywords) {
+            checkCallable(function);
+            return factory().createPartial(cls, function, arguments.getArray(), keywords);
+        }
+
+        protected static boolean isExactPartial(Object function) {
+            return function instanceof PPartial && ((PPartial) function).getPythonClass().isBuiltin();
+        }
+    }
+
+    // _lru_cache_wrapper(user_function, maxsize, typed, cache_info_type)
+    @Builtin(name = "_lru_cache_wrapper", fixedNumOfArguments = 5, constructsClass = PLruCacheWrapper.class)
+    @GenerateNodeFactory
+    public abstract static class LruCacheWrapperNode extends CallableArgumentNode {
+        @Specialization
+        PLruCacheWrapper lruCacheWrapper(PythonClass cls, Object function, Object maxSize, Object typed, Object cacheInfoType,
+                        @Cached("createIfTrueNode()") CastToBooleanNode castToBoolean) {
+            checkCallable(function);
+            return factory().createLruCacheWrapper(cls, function, toMaxSize(maxSize), castToBoolean.executeWith(typed), cacheInfoType,
+                            factory().createPythonObject(getCore().getObjectClass()));
+        }
+
+        private int toMaxSize(Object maxSize) {
+            long value;
+            if (maxSize == PNone.NONE) {
+                return PLruCacheWrapper.UNBOUNDED;
+            } else if (maxSize instanceof Integer) {
+                value = (int) maxSize;
+            } else if (maxSize instanceof Long) {
+                value = (long) maxSize;
+            } else if (maxSize instanceof Boolean) {
+                value = PInt.intValue((boolean) maxSize);
+            } else if (maxSize instanceof PInt) {
+                PInt pint = (PInt) maxSize;
+                value = pint.isZeroOrPositive() ? Integer.MAX_VALUE : 0;
+            } else {
+                throw raise(TypeError, "maxsize should be integer or None");
+            }
+            return (int) Math.max(0, Math.min(value, Integer.MAX_VALUE));
+        }
     }
 }
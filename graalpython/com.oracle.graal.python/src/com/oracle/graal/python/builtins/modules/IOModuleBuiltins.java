@@ -38,18 +38,150 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.LookupError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.nio.channels.Channel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.io.PBufferedReader;
+import com.oracle.graal.python.builtins.objects.io.PBufferedWriter;
+import com.oracle.graal.python.builtins.objects.io.PTextIOWrapper;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.oracle.truffle.api.dsl.Specialization;
 
 @CoreFunctions(defineModule = "_io")
 public class IOModuleBuiltins extends PythonBuiltins {
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    public IOModuleBuiltins() {
+        super();
+        builtinConstants.put("DEFAULT_BUFFER_SIZE", DEFAULT_BUFFER_SIZE);
+    }
+
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
-        return new ArrayList<>();
+        return IOModuleBuiltinsFactory.getFactories();
+    }
+
+    abstract static class BufferedNode extends PythonBuiltinNode {
+        @Child private LookupAndCallUnaryNode callFileno = LookupAndCallUnaryNode.create("fileno");
+
+        protected Channel getRawChannel(Object raw) {
+            Object fd = callFileno.executeObject(raw);
+            if (!(fd instanceof Integer)) {
+                throw raise(TypeError, "fileno() returned a non-integer");
+            }
+            Channel channel = PosixModuleBuiltins.getChannel(getContext(), (int) fd);
+            if (channel == null) {
+                throw raise(OSError, "Bad file descriptor");
+            }
+            return channel;
+        }
+
+        protected void checkBufferSize(int bufferSize) {
+            if (bufferSize <= 0) {
+                throw raise(ValueError, "buffer size must be strictly positive");
+            }
+        }
+    }
+
+    // BufferedReader(raw, buffer_size=DEFAULT_BUFFER_SIZE)
+    @Builtin(name = "BufferedReader", minNumOfArguments = 2, maxNumOfArguments = 3, constructsClass = PBufferedReader.class)
+    @GenerateNodeFactory
+    public abstract static class BufferedReaderNode extends BufferedNode {
+
+        @Specialization
+        PBufferedReader create(PythonClass cls, Object raw, @SuppressWarnings("unused") PNone bufferSize) {
+            return create(cls, raw, DEFAULT_BUFFER_SIZE);
+        }
+
+        @Specialization
+        PBufferedReader create(PythonClass cls, Object raw, int bufferSize) {
+            checkBufferSize(bufferSize);
+            Channel channel = getRawChannel(raw);
+            if (!(channel instanceof ReadableByteChannel)) {
+                throw raise(OSError, "File or stream is not readable.");
+            }
+            return factory().createBufferedReader(cls, raw, (ReadableByteChannel) channel, bufferSize);
+        }
+    }
+
+    // BufferedWriter(raw, buffer_size=DEFAULT_BUFFER_SIZE)
+    @Builtin(name = "BufferedWriter", minNumOfArguments = 2, maxNumOfArguments = 3, constructsClass = PBufferedWriter.class)
+    @GenerateNodeFactory
+    public abstract static class BufferedWriterNode extends BufferedNode {
+
+        @Specialization
+        PBufferedWriter create(PythonClass cls, Object raw, @SuppressWarnings("unused") PNone bufferSize) {
+            return create(cls, raw, DEFAULT_BUFFER_SIZE);
+        }
+
+        @Specialization
+        PBufferedWriter create(PythonClass cls, Object raw, int bufferSize) {
+            checkBufferSize(bufferSize);
+            Channel channel = getRawChannel(raw);
+            if (!(channel instanceof WritableByteChannel)) {
+                throw raise(OSError, "File or stream is not writable.");
+            }
+            return factory().createBufferedWriter(cls, raw, (WritableByteChannel) channel, bufferSize);
+        }
+    }
+
+    // TextIOWrapper(buffer, encoding=None, errors=None, newline=None, line_buffering=False,
+    // write_through=False)
+    @Builtin(name = "TextIOWrapper", minNumOfArguments = 2, maxNumOfArguments = 7, constructsClass = PTextIOWrapper.class)
+    @GenerateNodeFactory
+    public abstract static class TextIOWrapperNode extends PythonBuiltinNode {
+
+        @Specialization
+        @TruffleBoundary
+        PTextIOWrapper create(PythonClass cls, Object buffer, Object encoding, Object errors, Object newline, Object lineBuffering, @SuppressWarnings("unused") Object writeThrough) {
+            if (!(buffer instanceof PBufferedReader || buffer instanceof PBufferedWriter)) {
+                throw raise(NotImplementedError, "TextIOWrapper only supports BufferedReader and BufferedWriter buffers");
+            }
+            String encodingName = PGuards.isPNone(encoding) ? "utf-8" : asString(encoding, "encoding");
+            String errorsName = PGuards.isPNone(errors) ? "strict" : asString(errors, "errors");
+            String newlineValue = PGuards.isPNone(newline) ? null : asString(newline, "newline");
+            if (newlineValue != null && !newlineValue.isEmpty() && !newlineValue.equals("\n") && !newlineValue.equals("\r") && !newlineValue.equals("\r\n")) {
+                throw raise(ValueError, "illegal newline value: %s", newlineValue);
+            }
+            Charset charset;
+            try {
+                charset = Charset.forName(encodingName.replace('_', '-'));
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                throw raise(LookupError, "unknown encoding: %s", encodingName);
+            }
+            boolean isLineBuffering = lineBuffering instanceof Boolean && (boolean) lineBuffering;
+            return factory().createTextIOWrapper(cls, buffer, charset, encodingName, errorsName, newlineValue, isLineBuffering);
+        }
+
+        private String asString(Object value, String name) {
+            if (value instanceof String) {
+                return (String) value;
+            } else if (value instanceof PString) {
+                return ((PString) value).getValue();
+            }
+            throw raise(TypeError, "TextIOWrapper() argument '%s' must be str or None, not %p", name, value);
+        }
     }
 }
@@ -213,7 +213,7 @@ public class ImpModuleBuiltins extends PythonBuiltins {
                 // call into Python to initialize python_cext module globals
                 ReadAttributeFromObjectNode readNode = ReadAttributeFromObjectNode.create();
                 CallUnaryMethodNode callNode = CallUnaryMethodNode.create();
-                callNode.executeObject(readNode.execute(getContext().getCore().lookupBuiltinModule("python_cext"), INITIALIZE_CAPI), capi);
+                callNode.executeObject(readNode.execute(getContext().lookupBuiltinModule("python_cext"), INITIALIZE_CAPI), capi);
                 getContext().setCapiWasLoaded();
             }
         }
@@ -270,7 +270,7 @@ public class ImpModuleBuiltins extends PythonBuiltins {
             if ("built-in".equals(origin)) {
                 for (String bm : getCore().builtinModuleNames()) {
                     if (bm.equals(name)) {
-                        return getCore().lookupBuiltinModule(bm);
+                        return getContext().lookupBuiltinModule(bm);
                     }
                 }
             }
@@ -284,7 +284,7 @@ public class ImpModuleBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         public Object run(String path, String modulename) {
-            return run(path, getCore().lookupBuiltinModule(modulename));
+            return run(path, getContext().lookupBuiltinModule(modulename));
         }
 
         @Specialization
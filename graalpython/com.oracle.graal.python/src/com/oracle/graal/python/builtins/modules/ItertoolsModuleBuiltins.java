@@ -25,7 +25,8 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.util.List;
 
@@ -33,7 +34,34 @@ import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.itertools.PAccumulate;
+import com.oracle.graal.python.builtins.objects.itertools.PChain;
+import com.oracle.graal.python.builtins.objects.itertools.PCombinations;
+import com.oracle.graal.python.builtins.objects.itertools.PCombinationsWithReplacement;
+import com.oracle.graal.python.builtins.objects.itertools.PCompress;
+import com.oracle.graal.python.builtins.objects.itertools.PCount;
+import com.oracle.graal.python.builtins.objects.itertools.PCycle;
+import com.oracle.graal.python.builtins.objects.itertools.PDropwhile;
+import com.oracle.graal.python.builtins.objects.itertools.PFilterfalse;
+import com.oracle.graal.python.builtins.objects.itertools.PGroupBy;
+import com.oracle.graal.python.builtins.objects.itertools.PGrouper;
+import com.oracle.graal.python.builtins.objects.itertools.PIslice;
+import com.oracle.graal.python.builtins.objects.itertools.PPermutations;
+import com.oracle.graal.python.builtins.objects.itertools.PProduct;
+import com.oracle.graal.python.builtins.objects.itertools.PRepeat;
+import com.oracle.graal.python.builtins.objects.itertools.PStarmap;
+import com.oracle.graal.python.builtins.objects.itertools.PTakewhile;
+import com.oracle.graal.python.builtins.objects.itertools.PTee;
+import com.oracle.graal.python.builtins.objects.itertools.PTee.TeeData;
+import com.oracle.graal.python.builtins.objects.itertools.PZipLongest;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.builtins.TupleNodes.ConstructTupleNode;
+import com.oracle.graal.python.nodes.control.GetIteratorNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -46,15 +74,377 @@ public final class ItertoolsModuleBuiltins extends PythonBuiltins {
         return ItertoolsModuleBuiltinsFactory.getFactories();
     }
 
+    /**
+     * Converts {@code value} to a non-negative long, returning {@code -1} if it is not an integer
+     * or is out of range.
+     */
+    private static long toNonNegativeLong(Object value) {
+        long result;
+        if (value instanceof Integer) {
+            result = (int) value;
+        } else if (value instanceof Long) {
+            result = (long) value;
+        } else if (value instanceof Boolean) {
+            result = PInt.intValue((boolean) value);
+        } else if (value instanceof PInt) {
+            PInt pint = (PInt) value;
+            if (!pint.isZeroOrPositive()) {
+                return -1;
+            }
+            try {
+                result = pint.longValueExact();
+            } catch (ArithmeticException e) {
+                return -1;
+            }
+        } else {
+            return -1;
+        }
+        return result < 0 ? -1 : result;
+    }
+
+    /**
+     * Converts {@code value} to an int, raising a {@code TypeError} if it is not an integer.
+     */
+    private static int toInt(PythonBuiltinNode node, Object value) {
+        if (value instanceof Integer) {
+            return (int) value;
+        } else if (value instanceof Long) {
+            return PInt.intValueExact((long) value);
+        } else if (value instanceof Boolean) {
+            return PInt.intValue((boolean) value);
+        } else if (value instanceof PInt) {
+            return ((PInt) value).intValueExact();
+        }
+        throw node.raise(TypeError, "an integer is required");
+    }
+
+    private static Object[] toArray(ConstructTupleNode constructTuple, Object iterable) {
+        return constructTuple.execute(iterable).getArray();
+    }
+
+    // count(start=0, step=1)
+    @Builtin(name = "count", fixedNumOfArguments = 1, keywordArguments = {"start", "step"}, constructsClass = PCount.class)
+    @GenerateNodeFactory
+    public abstract static class CountNode extends PythonBuiltinNode {
+        @Specialization
+        PCount count(PythonClass cls, Object start, Object step) {
+            return factory().createCount(cls, start == PNone.NO_VALUE ? 0 : start, step == PNone.NO_VALUE ? 1 : step);
+        }
+    }
+
+    // repeat(object[, times])
+    @Builtin(name = "repeat", fixedNumOfArguments = 2, keywordArguments = {"times"}, constructsClass = PRepeat.class)
+    @GenerateNodeFactory
+    public abstract static class RepeatNode extends PythonBuiltinNode {
+        @Specialization(guards = "isNoValue(times)")
+        PRepeat repeat(PythonClass cls, Object element, @SuppressWarnings("unused") PNone times) {
+            return factory().createRepeat(cls, element, -1);
+        }
+
+        @Specialization(guards = "!isNoValue(times)")
+        PRepeat repeat(PythonClass cls, Object element, Object times) {
+            return factory().createRepeat(cls, element, Math.max(0, toInt(this, times)));
+        }
+    }
+
+    // cycle(iterable)
+    @Builtin(name = "cycle", fixedNumOfArguments = 2, constructsClass = PCycle.class)
+    @GenerateNodeFactory
+    public abstract static class CycleNode extends PythonBuiltinNode {
+        @Specialization
+        PCycle cycle(PythonClass cls, Object iterable,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createCycle(cls, getIterator.executeWith(iterable));
+        }
+    }
+
+    // accumulate(iterable[, func])
+    @Builtin(name = "accumulate", fixedNumOfArguments = 2, keywordArguments = {"func"}, constructsClass = PAccumulate.class)
+    @GenerateNodeFactory
+    public abstract static class AccumulateNode extends PythonBuiltinNode {
+        @Specialization
+        PAccumulate accumulate(PythonClass cls, Object iterable, Object func,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createAccumulate(cls, getIterator.executeWith(iterable), func == PNone.NO_VALUE ? PNone.NONE : func);
+        }
+    }
+
+    // chain(*iterables)
+    @Builtin(name = "chain", minNumOfArguments = 1, takesVariableArguments = true, constructsClass = PChain.class)
+    @GenerateNodeFactory
+    public abstract static class ChainNode extends PythonBuiltinNode {
+        @Specialization
+        PChain chain(PythonClass cls, PTuple iterables,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createChain(cls, getIterator.executeWith(iterables));
+        }
+    }
+
+    // backs chain.from_iterable, which is installed as a classmethod in itertools.py
+    @Builtin(name = "_chain_from_iterable", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class ChainFromIterableNode extends PythonBuiltinNode {
+        @Specialization
+        PChain chain(PythonClass cls, Object iterables,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createChain(cls, getIterator.executeWith(iterables));
+        }
+    }
+
+    // compress(data, selectors)
+    @Builtin(name = "compress", fixedNumOfArguments = 3, constructsClass = PCompress.class)
+    @GenerateNodeFactory
+    public abstract static class CompressNode extends PythonBuiltinNode {
+        @Specialization
+        PCompress compress(PythonClass cls, Object data, Object selectors,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createCompress(cls, getIterator.executeWith(data), getIterator.executeWith(selectors));
+        }
+    }
+
+    // dropwhile(predicate, iterable)
+    @Builtin(name = "dropwhile", fixedNumOfArguments = 3, constructsClass = PDropwhile.class)
+    @GenerateNodeFactory
+    public abstract static class DropwhileNode extends PythonBuiltinNode {
+        @Specialization
+        PDropwhile dropwhile(PythonClass cls, Object predicate, Object iterable,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createDropwhile(cls, predicate, getIterator.executeWith(iterable));
+        }
+    }
+
+    // takewhile(predicate, iterable)
+    @Builtin(name = "takewhile", fixedNumOfArguments = 3, constructsClass = PTakewhile.class)
+    @GenerateNodeFactory
+    public abstract static class TakewhileNode extends PythonBuiltinNode {
+        @Specialization
+        PTakewhile takewhile(PythonClass cls, Object predicate, Object iterable,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createTakewhile(cls, predicate, getIterator.executeWith(iterable));
+        }
+    }
+
+    // filterfalse(function or None, iterable)
+    @Builtin(name = "filterfalse", fixedNumOfArguments = 3, constructsClass = PFilterfalse.class)
+    @GenerateNodeFactory
+    public abstract static class FilterfalseNode extends PythonBuiltinNode {
+        @Specialization
+        PFilterfalse filterfalse(PythonClass cls, Object predicate, Object iterable,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createFilterfalse(cls, predicate, getIterator.executeWith(iterable));
+        }
+    }
+
+    // starmap(function, iterable)
+    @Builtin(name = "starmap", fixedNumOfArguments = 3, constructsClass = PStarmap.class)
+    @GenerateNodeFactory
+    public abstract static class StarmapNode extends PythonBuiltinNode {
+        @Specialization
+        PStarmap starmap(PythonClass cls, Object function, Object iterable,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createStarmap(cls, function, getIterator.executeWith(iterable));
+        }
+    }
+
+    // groupby(iterable, key=None)
+    @Builtin(name = "groupby", fixedNumOfArguments = 2, keywordArguments = {"key"}, constructsClass = PGroupBy.class)
+    @GenerateNodeFactory
+    public abstract static class GroupByNode extends PythonBuiltinNode {
+        @Specialization
+        PGroupBy groupby(PythonClass cls, Object iterable, Object key,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            return factory().createGroupBy(cls, getIterator.executeWith(iterable), key == PNone.NO_VALUE ? PNone.NONE : key);
+        }
+    }
+
+    @Builtin(name = "_grouper", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PGrouper.class, isPublic = false)
+    @GenerateNodeFactory
+    public abstract static class GrouperTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        Object grouper(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create '_grouper' instances");
+        }
+    }
+
+    // islice(iterable, stop)
+    // islice(iterable, start, stop[, step])
+    @Builtin(name = "islice", minNumOfArguments = 3, maxNumOfArguments = 5, constructsClass = PIslice.class)
+    @GenerateNodeFactory
+    public abstract static class IsliceNode extends PythonBuiltinNode {
+        @Specialization(guards = "isNoValue(stop)")
+        PIslice islice(PythonClass cls, Object iterable, Object end, @SuppressWarnings("unused") PNone stop, @SuppressWarnings("unused") PNone step,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            long stopIndex = -1;
+            if (end != PNone.NONE) {
+                stopIndex = toNonNegativeLong(end);
+                if (stopIndex == -1) {
+                    throw raise(ValueError, "Stop argument for islice() must be None or an integer: 0 <= x <= sys.maxsize.");
+                }
+            }
+            return factory().createIslice(cls, getIterator.executeWith(iterable), 0, stopIndex, 1);
+        }
+
+        @Specialization(guards = "!isNoValue(stop)")
+        PIslice islice(PythonClass cls, Object iterable, Object start, Object stop, Object step,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            long startIndex = 0;
+            if (start != PNone.NONE) {
+                startIndex = toNonNegativeLong(start);
+            }
+            long stopIndex = -1;
+            if (stop != PNone.NONE) {
+                stopIndex = toNonNegativeLong(stop);
+                if (stopIndex == -1) {
+                    throw raise(ValueError, "Stop argument for islice() must be None or an integer: 0 <= x <= sys.maxsize.");
+                }
+            }
+            if (startIndex == -1) {
+                throw raise(ValueError, "Indices for islice() must be None or an integer: 0 <= x <= sys.maxsize.");
+            }
+            long stepValue = 1;
+            if (step != PNone.NO_VALUE && step != PNone.NONE) {
+                stepValue = toNonNegativeLong(step);
+                if (stepValue < 1) {
+                    throw raise(ValueError, "Step for islice() must be a positive integer or None.");
+                }
+            }
+            return factory().createIslice(cls, getIterator.executeWith(iterable), startIndex, stopIndex, stepValue);
+        }
+    }
+
+    // zip_longest(*iterables, fillvalue=None)
+    @Builtin(name = "zip_longest", minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PZipLongest.class)
+    @GenerateNodeFactory
+    public abstract static class ZipLongestNode extends PythonBuiltinNode {
+        @Specialization
+        PZipLongest zipLongest(PythonClass cls, PTuple iterables, PKeyword[] kwargs,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            Object fillValue = PNone.NONE;
+            for (PKeyword keyword : kwargs) {
+                if (!"fillvalue".equals(keyword.getName())) {
+                    throw raise(TypeError, "zip_longest() got an unexpected keyword argument '%s'", keyword.getName());
+                }
+                fillValue = keyword.getValue();
+            }
+            Object[] iterators = new Object[iterables.len()];
+            for (int i = 0; i < iterators.length; i++) {
+                iterators[i] = getIterator.executeWith(iterables.getItem(i));
+            }
+            return factory().createZipLongest(cls, iterators, fillValue);
+        }
+    }
+
+    // product(*iterables, repeat=1)
+    @Builtin(name = "product", minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PProduct.class)
+    @GenerateNodeFactory
+    public abstract static class ProductNode extends PythonBuiltinNode {
+        @Specialization
+        PProduct product(PythonClass cls, PTuple iterables, PKeyword[] kwargs,
+                        @Cached("create()") ConstructTupleNode constructTuple) {
+            int repeat = 1;
+            for (PKeyword keyword : kwargs) {
+                if (!"repeat".equals(keyword.getName())) {
+                    throw raise(TypeError, "product() got an unexpected keyword argument '%s'", keyword.getName());
+                }
+                repeat = toInt(this, keyword.getValue());
+                if (repeat < 0) {
+                    throw raise(ValueError, "repeat argument cannot be negative");
+                }
+            }
+            int n = iterables.len();
+            Object[][] gears = new Object[n * repeat][];
+            for (int i = 0; i < n; i++) {
+                Object[] pool = toArray(constructTuple, iterables.getItem(i));
+                for (int j = 0; j < repeat; j++) {
+                    gears[j * n + i] = pool;
+                }
+            }
+            return factory().createProduct(cls, gears);
+        }
+    }
+
+    // permutations(iterable, r=None)
+    @Builtin(name = "permutations", fixedNumOfArguments = 2, keywordArguments = {"r"}, constructsClass = PPermutations.class)
+    @GenerateNodeFactory
+    public abstract static class PermutationsNode extends PythonBuiltinNode {
+        @Specialization
+        PPermutations permutations(PythonClass cls, Object iterable, Object r,
+                        @Cached("create()") ConstructTupleNode constructTuple) {
+            Object[] pool = toArray(constructTuple, iterable);
+            int length = pool.length;
+            if (r != PNone.NO_VALUE && r != PNone.NONE) {
+                length = toInt(this, r);
+                if (length < 0) {
+                    throw raise(ValueError, "r must be non-negative");
+                }
+            }
+            return factory().createPermutations(cls, pool, length);
+        }
+    }
+
+    // combinations(iterable, r)
+    @Builtin(name = "combinations", fixedNumOfArguments = 3, constructsClass = PCombinations.class)
+    @GenerateNodeFactory
+    public abstract static class CombinationsNode extends PythonBuiltinNode {
+        @Specialization
+        PCombinations combinations(PythonClass cls, Object iterable, Object r,
+                        @Cached("create()") ConstructTupleNode constructTuple) {
+            int length = toInt(this, r);
+            if (length < 0) {
+                throw raise(ValueError, "r must be non-negative");
+            }
+            return factory().createCombinations(cls, toArray(constructTuple, iterable), length);
+        }
+    }
+
+    // combinations_with_replacement(iterable, r)
+    @Builtin(name = "combinations_with_replacement", fixedNumOfArguments = 3, constructsClass = PCombinationsWithReplacement.class)
+    @GenerateNodeFactory
+    public abstract static class CombinationsWithReplacementNode extends PythonBuiltinNode {
+        @Specialization
+        PCombinationsWithReplacement combinations(PythonClass cls, Object iterable, Object r,
+                        @Cached("create()") ConstructTupleNode constructTuple) {
+            int length = toInt(this, r);
+            if (length < 0) {
+                throw raise(ValueError, "r must be non-negative");
+            }
+            return factory().createCombinationsWithReplacement(cls, toArray(constructTuple, iterable), length);
+        }
+    }
+
     // tee(iterable, n=2)
     @Builtin(name = "tee", minNumOfArguments = 1, maxNumOfArguments = 2)
     @GenerateNodeFactory
     public abstract static class TeeNode extends PythonBuiltinNode {
-        @SuppressWarnings("unused")
-        @Specialization(guards = "isNoValue(n)")
-        Object tee(Object iterable, PNone n) {
-            throw raise(NotImplementedError, "tee");
+        @Specialization
+        PTuple tee(Object iterable, Object n,
+                        @Cached("create()") GetIteratorNode getIterator) {
+            int count = n == PNone.NO_VALUE ? 2 : toInt(this, n);
+            if (count < 0) {
+                throw raise(ValueError, "n must be >= 0");
+            }
+            Object[] result = new Object[count];
+            if (count > 0) {
+                Object iterator = getIterator.executeWith(iterable);
+                // copies of a tee share its buffer instead of wrapping it again
+                PTee first = iterator instanceof PTee ? (PTee) iterator : factory().createTee(new TeeData(iterator), 0);
+                result[0] = first;
+                for (int i = 1; i < count; i++) {
+                    result[i] = factory().createTee(first.getCopyData(), first.getIndex());
+                }
+            }
+            return factory().createTuple(result);
         }
     }
 
+    @Builtin(name = "_tee", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PTee.class, isPublic = false)
+    @GenerateNodeFactory
+    public abstract static class TeeTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        Object tee(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create '_tee' instances");
+        }
+    }
 }
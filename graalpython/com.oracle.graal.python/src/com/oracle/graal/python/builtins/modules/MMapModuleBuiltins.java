@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.PGuards;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(defineModule = "mmap")
+public class MMapModuleBuiltins extends PythonBuiltins {
+    private static final int PAGESIZE = 4096;
+    private static final int MAP_SHARED = 1;
+    private static final int MAP_PRIVATE = 2;
+    private static final int PROT_READ = 1;
+    private static final int PROT_WRITE = 2;
+
+    public MMapModuleBuiltins() {
+        super();
+        builtinConstants.put("PAGESIZE", PAGESIZE);
+        builtinConstants.put("ALLOCATIONGRANULARITY", PAGESIZE);
+        builtinConstants.put("MAP_SHARED", MAP_SHARED);
+        builtinConstants.put("MAP_PRIVATE", MAP_PRIVATE);
+        builtinConstants.put("PROT_READ", PROT_READ);
+        builtinConstants.put("PROT_WRITE", PROT_WRITE);
+        builtinConstants.put("ACCESS_DEFAULT", PMMap.ACCESS_DEFAULT);
+        builtinConstants.put("ACCESS_READ", PMMap.ACCESS_READ);
+        builtinConstants.put("ACCESS_WRITE", PMMap.ACCESS_WRITE);
+        builtinConstants.put("ACCESS_COPY", PMMap.ACCESS_COPY);
+    }
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return MMapModuleBuiltinsFactory.getFactories();
+    }
+
+    // mmap(fileno, length, flags=MAP_SHARED, prot=PROT_WRITE|PROT_READ, access=ACCESS_DEFAULT,
+    // offset=0)
+    @Builtin(name = "mmap", fixedNumOfArguments = 3, keywordArguments = {"flags", "prot", "access", "offset"}, constructsClass = PMMap.class)
+    @GenerateNodeFactory
+    public abstract static class MMapNode extends PythonBuiltinNode {
+
+        @Specialization
+        @TruffleBoundary
+        PMMap mmap(PythonClass cls, int fd, long length, Object flags, Object prot, Object access, Object offset) {
+            int mapFlags = asInt(flags, MAP_SHARED, "flags");
+            int mapProt = asInt(prot, PROT_READ | PROT_WRITE, "prot");
+            int mapAccess = asInt(access, PMMap.ACCESS_DEFAULT, "access");
+            long mapOffset = asLong(offset, "offset");
+            if (mapAccess != PMMap.ACCESS_DEFAULT && (!PGuards.isPNone(flags) || !PGuards.isPNone(prot))) {
+                throw raise(ValueError, "mmap can't specify both access and flags, prot.");
+            }
+            if (mapAccess < PMMap.ACCESS_DEFAULT || mapAccess > PMMap.ACCESS_COPY) {
+                throw raise(ValueError, "mmap invalid access parameter.");
+            }
+            if (mapAccess == PMMap.ACCESS_DEFAULT) {
+                if ((mapProt & PROT_WRITE) == 0) {
+                    mapAccess = PMMap.ACCESS_READ;
+                } else {
+                    mapAccess = mapFlags == MAP_PRIVATE ? PMMap.ACCESS_COPY : PMMap.ACCESS_WRITE;
+                }
+            }
+            long mapLength = length;
+            if (mapLength < 0) {
+                throw raise(OverflowError, "memory mapped length must be positive");
+            }
+            if (mapOffset < 0) {
+                throw raise(OverflowError, "memory mapped offset must be positive");
+            }
+            if (fd == -1) {
+                if (mapLength == 0) {
+                    throw raise(ValueError, "cannot mmap an empty file");
+                }
+                return factory().createMMap(cls, ByteBuffer.allocateDirect(checkLength(mapLength)), null, 0, mapAccess);
+            }
+            Channel channel = PosixModuleBuiltins.getChannel(getContext(), fd);
+            if (!(channel instanceof SeekableByteChannel)) {
+                throw raise(OSError, "Bad file descriptor");
+            }
+            SeekableByteChannel file = (SeekableByteChannel) channel;
+            try {
+                long fileSize = file.size();
+                if (mapLength == 0) {
+                    if (fileSize == 0) {
+                        throw raise(ValueError, "cannot mmap an empty file");
+                    }
+                    if (mapOffset >= fileSize) {
+                        throw raise(ValueError, "mmap offset is greater than file size");
+                    }
+                    mapLength = fileSize - mapOffset;
+                } else if (mapOffset > fileSize || fileSize - mapOffset < mapLength) {
+                    throw raise(ValueError, "mmap length is greater than file size");
+                }
+                int size = checkLength(mapLength);
+                if (file instanceof FileChannel) {
+                    return factory().createMMap(cls, ((FileChannel) file).map(mapMode(mapAccess), mapOffset, size), null, mapOffset, mapAccess);
+                }
+                // not a regular file, hold the region in memory and write it back on flush
+                ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+                file.position(mapOffset);
+                while (buffer.hasRemaining() && file.read(buffer) > 0) {
+                }
+                buffer.clear();
+                return factory().createMMap(cls, buffer, mapAccess == PMMap.ACCESS_WRITE ? file : null, mapOffset, mapAccess);
+            } catch (IOException | NonReadableChannelException | NonWritableChannelException e) {
+                throw raise(OSError, "%s", e.toString());
+            }
+        }
+
+        private static MapMode mapMode(int access) {
+            switch (access) {
+                case PMMap.ACCESS_READ:
+                    return MapMode.READ_ONLY;
+                case PMMap.ACCESS_COPY:
+                    return MapMode.PRIVATE;
+                default:
+                    return MapMode.READ_WRITE;
+            }
+        }
+
+        private int checkLength(long length) {
+            // a MappedByteBuffer is indexed by int
+            if (length > Integer.MAX_VALUE) {
+                throw raise(OverflowError, "mmap length is too large");
+            }
+            return (int) length;
+        }
+
+        private int asInt(Object value, int defaultValue, String name) {
+            if (PGuards.isPNone(value)) {
+                return defaultValue;
+            } else if (value instanceof Integer) {
+                return (int) value;
+            }
+            throw raise(TypeError, "mmap() argument '%s' must be int, not %p", name, value);
+        }
+
+        private long asLong(Object value, String name) {
+            if (value instanceof Long) {
+                return (long) value;
+            }
+            return asInt(value, 0, name);
+        }
+    }
+}
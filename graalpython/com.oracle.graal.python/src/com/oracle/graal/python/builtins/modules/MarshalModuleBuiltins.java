@@ -25,62 +25,760 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
-import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.EOFError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PEllipsis;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.complex.PComplex;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.set.PBaseSet;
+import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
+import com.oracle.graal.python.builtins.objects.set.PSet;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.ModuleNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallTernaryNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.PythonParseResult;
+import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorageFactory;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
 
 @CoreFunctions(defineModule = "marshal")
 public final class MarshalModuleBuiltins extends PythonBuiltins {
+    static final int CURRENT_VERSION = 4;
+
+    public MarshalModuleBuiltins() {
+        super();
+        builtinConstants.put("version", CURRENT_VERSION);
+    }
+
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
         return MarshalModuleBuiltinsFactory.getFactories();
     }
 
+    abstract static class MarshalNode extends PythonBuiltinNode {
+        protected final int getVersion(Object version) {
+            if (version instanceof PNone) {
+                return CURRENT_VERSION;
+            } else if (version instanceof Integer) {
+                return (int) version;
+            }
+            throw raise(TypeError, "an integer is required (got type %p)", version);
+        }
+
+        @TruffleBoundary
+        protected final byte[] dump(Object value, int version) {
+            Marshaller marshaller = new Marshaller(this, version);
+            marshaller.writeObject(value, 0);
+            return marshaller.toByteArray();
+        }
+
+        @TruffleBoundary
+        protected final Unmarshaller load(byte[] data, int length) {
+            return new Unmarshaller(this, factory(), getCore(), data, length);
+        }
+    }
+
     @Builtin(name = "dump", minNumOfArguments = 2, keywordArguments = {"version"})
     @GenerateNodeFactory
-    abstract static class DumpNode extends PythonBuiltinNode {
-        @SuppressWarnings("unused")
+    abstract static class DumpNode extends MarshalNode {
+        @Child private LookupAndCallBinaryNode callWrite = LookupAndCallBinaryNode.create("write");
+
         @Specialization
         Object doit(Object value, Object file, Object version) {
-            throw raise(NotImplementedError, "marshal.dump");
+            callWrite.executeObject(file, factory().createBytes(dump(value, getVersion(version))));
+            return PNone.NONE;
         }
     }
 
     @Builtin(name = "dumps", minNumOfArguments = 1, keywordArguments = {"version"})
     @GenerateNodeFactory
-    abstract static class DumpsNode extends PythonBuiltinNode {
-        @SuppressWarnings("unused")
+    abstract static class DumpsNode extends MarshalNode {
         @Specialization
         Object doit(Object value, Object version) {
-            throw raise(NotImplementedError, "marshal.dumps");
+            return factory().createBytes(dump(value, getVersion(version)));
         }
     }
 
     @Builtin(name = "load", fixedNumOfArguments = 1)
     @GenerateNodeFactory
-    abstract static class LoadNode extends PythonBuiltinNode {
-        @SuppressWarnings("unused")
+    abstract static class LoadNode extends MarshalNode {
+        @Child private LookupAndCallUnaryNode callRead = LookupAndCallUnaryNode.create("read");
+        @Child private LookupAndCallTernaryNode callSeek;
+
         @Specialization
         Object doit(Object file) {
-            throw raise(NotImplementedError, "marshal.load");
+            Object data = callRead.executeObject(file);
+            if (!(data instanceof PBytes)) {
+                throw raise(TypeError, "file.read() returned not bytes but %p", data);
+            }
+            PBytes bytes = (PBytes) data;
+            Unmarshaller unmarshaller = load(bytes.getInternalByteArray(), bytes.len());
+            Object result = unmarshaller.readTopLevelObject();
+            int unread = bytes.len() - unmarshaller.getPosition();
+            if (unread > 0) {
+                // leave the file positioned right after the object, like CPython does
+                if (callSeek == null) {
+                    callSeek = insert(LookupAndCallTernaryNode.create("seek"));
+                }
+                callSeek.execute(file, -unread, 1);
+            }
+            return result;
         }
     }
 
     @Builtin(name = "loads", fixedNumOfArguments = 1)
     @GenerateNodeFactory
-    abstract static class LoadsNode extends PythonBuiltinNode {
-        @SuppressWarnings("unused")
+    abstract static class LoadsNode extends MarshalNode {
         @Specialization
+        Object doit(PBytes bytes) {
+            return load(bytes.getInternalByteArray(), bytes.len()).readTopLevelObject();
+        }
+
+        @Specialization
+        Object doit(PByteArray bytes) {
+            return load(bytes.getInternalByteArray(), bytes.len()).readTopLevelObject();
+        }
+
+        @Specialization(guards = "!isBytes(bytes)")
         Object doit(Object bytes) {
-            throw raise(NotImplementedError, "marshal.loads");
+            throw raise(TypeError, "a bytes-like object is required, not '%p'", bytes);
+        }
+    }
+
+    private static final char TYPE_NULL = '0';
+    private static final char TYPE_NONE = 'N';
+    private static final char TYPE_FALSE = 'F';
+    private static final char TYPE_TRUE = 'T';
+    private static final char TYPE_ELLIPSIS = '.';
+    private static final char TYPE_INT = 'i';
+    private static final char TYPE_INT64 = 'I';
+    private static final char TYPE_FLOAT = 'f';
+    private static final char TYPE_BINARY_FLOAT = 'g';
+    private static final char TYPE_COMPLEX = 'x';
+    private static final char TYPE_BINARY_COMPLEX = 'y';
+    private static final char TYPE_LONG = 'l';
+    private static final char TYPE_STRING = 's';
+    private static final char TYPE_INTERNED = 't';
+    private static final char TYPE_REF = 'r';
+    private static final char TYPE_TUPLE = '(';
+    private static final char TYPE_LIST = '[';
+    private static final char TYPE_DICT = '{';
+    private static final char TYPE_CODE = 'c';
+    private static final char TYPE_UNICODE = 'u';
+    private static final char TYPE_SET = '<';
+    private static final char TYPE_FROZENSET = '>';
+    private static final char TYPE_ASCII = 'a';
+    private static final char TYPE_ASCII_INTERNED = 'A';
+    private static final char TYPE_SMALL_TUPLE = ')';
+    private static final char TYPE_SHORT_ASCII = 'z';
+    private static final char TYPE_SHORT_ASCII_INTERNED = 'Z';
+    private static final int FLAG_REF = 0x80;
+
+    private static final int MAX_MARSHAL_STACK_DEPTH = 2000;
+    private static final int PYLONG_MARSHAL_SHIFT = 15;
+    private static final int PYLONG_MARSHAL_MASK = (1 << PYLONG_MARSHAL_SHIFT) - 1;
+
+    /**
+     * Writes the CPython marshal format into a growable byte array. With version 3 and up, every
+     * object that has an identity gets {@link #FLAG_REF} so that repeated occurrences (and
+     * recursive containers) are written as back references.
+     *
+     * Code objects have no bytecode here, so only module code objects can be marshalled. They are
+     * written with their file name and source text and recompiled when loaded.
+     */
+    private static final class Marshaller {
+        private final PythonBuiltinNode node;
+        private final int version;
+        private final IdentityHashMap<Object, Integer> refs;
+        private byte[] out = new byte[64];
+        private int size;
+
+        Marshaller(PythonBuiltinNode node, int version) {
+            this.node = node;
+            this.version = version;
+            this.refs = version >= 3 ? new IdentityHashMap<>() : null;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(out, size);
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > out.length) {
+                out = Arrays.copyOf(out, Math.max(out.length << 1, size + additional));
+            }
+        }
+
+        private void writeByte(int b) {
+            ensureCapacity(1);
+            out[size++] = (byte) b;
+        }
+
+        private void writeInt(int v) {
+            ensureCapacity(4);
+            out[size++] = (byte) v;
+            out[size++] = (byte) (v >> 8);
+            out[size++] = (byte) (v >> 16);
+            out[size++] = (byte) (v >> 24);
+        }
+
+        private void writeShort(int v) {
+            ensureCapacity(2);
+            out[size++] = (byte) v;
+            out[size++] = (byte) (v >> 8);
+        }
+
+        private void writeBytes(byte[] data, int length) {
+            ensureCapacity(length);
+            System.arraycopy(data, 0, out, size, length);
+            size += length;
+        }
+
+        private void writeSize(int length) {
+            writeInt(length);
+        }
+
+        private void writeDouble(double v) {
+            long bits = Double.doubleToRawLongBits(v);
+            writeInt((int) bits);
+            writeInt((int) (bits >>> 32));
+        }
+
+        private void writeFloatText(double v) {
+            byte[] text = floatRepr(v).getBytes(StandardCharsets.US_ASCII);
+            writeByte(text.length);
+            writeBytes(text, text.length);
+        }
+
+        private static String floatRepr(double v) {
+            if (Double.isNaN(v)) {
+                return "nan";
+            } else if (Double.isInfinite(v)) {
+                return v > 0 ? "inf" : "-inf";
+            }
+            return Double.toString(v);
+        }
+
+        private void writeLong(BigInteger value) {
+            writeByte(TYPE_LONG);
+            BigInteger abs = value.abs();
+            int digits = (abs.bitLength() + PYLONG_MARSHAL_SHIFT - 1) / PYLONG_MARSHAL_SHIFT;
+            writeInt(value.signum() < 0 ? -digits : digits);
+            for (int i = 0; i < digits; i++) {
+                writeShort(abs.shiftRight(i * PYLONG_MARSHAL_SHIFT).intValue() & PYLONG_MARSHAL_MASK);
+            }
+        }
+
+        private void writeIntegral(long value) {
+            if (value == (int) value) {
+                writeByte(TYPE_INT);
+                writeInt((int) value);
+            } else {
+                writeLong(BigInteger.valueOf(value));
+            }
+        }
+
+        private void writeFloat(double value) {
+            if (version > 1) {
+                writeByte(TYPE_BINARY_FLOAT);
+                writeDouble(value);
+            } else {
+                writeByte(TYPE_FLOAT);
+                writeFloatText(value);
+            }
+        }
+
+        /**
+         * Writes a back reference if the object was written before, otherwise remembers it and
+         * returns the flag to combine with its type code.
+         */
+        private int writeRef(Object value) {
+            if (refs == null) {
+                return 0;
+            }
+            Integer index = refs.get(value);
+            if (index != null) {
+                writeByte(TYPE_REF);
+                writeInt(index);
+                return -1;
+            }
+            refs.put(value, refs.size());
+            return FLAG_REF;
+        }
+
+        void writeObject(Object value, int depth) {
+            if (depth > MAX_MARSHAL_STACK_DEPTH) {
+                throw node.raise(ValueError, "object too deeply nested to marshal");
+            }
+            if (value == PNone.NONE) {
+                writeByte(TYPE_NONE);
+            } else if (value == PEllipsis.INSTANCE) {
+                writeByte(TYPE_ELLIPSIS);
+            } else if (value instanceof Boolean) {
+                writeByte((boolean) value ? TYPE_TRUE : TYPE_FALSE);
+            } else if (value instanceof Integer) {
+                writeByte(TYPE_INT);
+                writeInt((int) value);
+            } else if (value instanceof Long) {
+                writeIntegral((long) value);
+            } else if (value instanceof PInt) {
+                BigInteger big = ((PInt) value).getValue();
+                if (big.bitLength() < Integer.SIZE) {
+                    writeIntegral(big.intValue());
+                } else {
+                    writeLong(big);
+                }
+            } else if (value instanceof Double) {
+                writeFloat((double) value);
+            } else if (value instanceof PFloat) {
+                writeFloat(((PFloat) value).getValue());
+            } else if (value instanceof PComplex) {
+                PComplex complex = (PComplex) value;
+                if (version > 1) {
+                    writeByte(TYPE_BINARY_COMPLEX);
+                    writeDouble(complex.getReal());
+                    writeDouble(complex.getImag());
+                } else {
+                    writeByte(TYPE_COMPLEX);
+                    writeFloatText(complex.getReal());
+                    writeFloatText(complex.getImag());
+                }
+            } else {
+                writeReferenceable(value, depth);
+            }
+        }
+
+        private void writeReferenceable(Object value, int depth) {
+            int flag = writeRef(value);
+            if (flag < 0) {
+                return;
+            }
+            if (value instanceof String) {
+                writeString((String) value, flag);
+            } else if (value instanceof PString) {
+                writeString(((PString) value).getValue(), flag);
+            } else if (value instanceof PBytes) {
+                PBytes bytes = (PBytes) value;
+                writeByte(TYPE_STRING | flag);
+                writeSize(bytes.len());
+                writeBytes(bytes.getInternalByteArray(), bytes.len());
+            } else if (value instanceof PByteArray) {
+                PByteArray bytes = (PByteArray) value;
+                writeByte(TYPE_STRING | flag);
+                writeSize(bytes.len());
+                writeBytes(bytes.getInternalByteArray(), bytes.len());
+            } else if (value instanceof PTuple) {
+                Object[] items = ((PTuple) value).getArray();
+                if (version >= 4 && items.length < 256) {
+                    writeByte(TYPE_SMALL_TUPLE | flag);
+                    writeByte(items.length);
+                } else {
+                    writeByte(TYPE_TUPLE | flag);
+                    writeSize(items.length);
+                }
+                for (Object item : items) {
+                    writeObject(item, depth + 1);
+                }
+            } else if (value instanceof PList) {
+                SequenceStorage storage = ((PList) value).getSequenceStorage();
+                int length = storage.length();
+                writeByte(TYPE_LIST | flag);
+                writeSize(length);
+                for (int i = 0; i < length; i++) {
+                    writeObject(storage.getItemNormalized(i), depth + 1);
+                }
+            } else if (value instanceof PDict) {
+                writeByte(TYPE_DICT | flag);
+                for (DictEntry entry : ((PDict) value).entries()) {
+                    writeObject(entry.getKey(), depth + 1);
+                    writeObject(entry.getValue(), depth + 1);
+                }
+                writeByte(TYPE_NULL);
+            } else if (value instanceof PSet || value instanceof PFrozenSet) {
+                PBaseSet set = (PBaseSet) value;
+                writeByte((value instanceof PSet ? TYPE_SET : TYPE_FROZENSET) | flag);
+                writeSize(set.size());
+                for (Object item : set.values()) {
+                    writeObject(item, depth + 1);
+                }
+            } else if (value instanceof PythonParseResult) {
+                writeCode((PythonParseResult) value, flag, depth);
+            } else {
+                throw node.raise(ValueError, "unmarshallable object");
+            }
+        }
+
+        private void writeString(String value, int flag) {
+            if (version >= 4 && isAscii(value)) {
+                int length = value.length();
+                if (length < 256) {
+                    writeByte(TYPE_SHORT_ASCII | flag);
+                    writeByte(length);
+                } else {
+                    writeByte(TYPE_ASCII | flag);
+                    writeSize(length);
+                }
+                ensureCapacity(length);
+                for (int i = 0; i < length; i++) {
+                    out[size++] = (byte) value.charAt(i);
+                }
+            } else {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeByte(TYPE_UNICODE | flag);
+                writeSize(utf8.length);
+                writeBytes(utf8, utf8.length);
+            }
+        }
+
+        private static boolean isAscii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) > 0x7f) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void writeCode(PythonParseResult code, int flag, int depth) {
+            RootNode rootNode = code.getRootNode();
+            SourceSection section = rootNode.getSourceSection();
+            if (!(rootNode instanceof ModuleNode) || section == null) {
+                throw node.raise(ValueError, "unmarshallable object");
+            }
+            writeByte(TYPE_CODE | flag);
+            writeObject(section.getSource().getName(), depth + 1);
+            writeObject(section.getSource().getCharacters().toString(), depth + 1);
+        }
+    }
+
+    private static final class Unmarshaller {
+        private final PythonBuiltinNode node;
+        private final PythonObjectFactory factory;
+        private final PythonCore core;
+        private final byte[] data;
+        private final int length;
+        private final ArrayList<Object> refs = new ArrayList<>();
+        private final SequenceStorageFactory storageFactory = new SequenceStorageFactory();
+        private int pos;
+
+        Unmarshaller(PythonBuiltinNode node, PythonObjectFactory factory, PythonCore core, byte[] data, int length) {
+            this.node = node;
+            this.factory = factory;
+            this.core = core;
+            this.data = data;
+            this.length = length;
+        }
+
+        int getPosition() {
+            return pos;
+        }
+
+        @TruffleBoundary
+        Object readTopLevelObject() {
+            Object result = readObject(0);
+            if (result == null) {
+                throw node.raise(TypeError, "NULL object in marshal data for object");
+            }
+            return result;
+        }
+
+        private void need(int n) {
+            if (length - pos < n) {
+                throw node.raise(EOFError, "marshal data too short");
+            }
+        }
+
+        private int readByte() {
+            need(1);
+            return data[pos++] & 0xFF;
+        }
+
+        private int readInt() {
+            need(4);
+            int result = (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8 | (data[pos + 2] & 0xFF) << 16 | (data[pos + 3] & 0xFF) << 24;
+            pos += 4;
+            return result;
+        }
+
+        private long readInt64() {
+            long low = readInt() & 0xFFFFFFFFL;
+            return low | (long) readInt() << 32;
+        }
+
+        private int readSize() {
+            int size = readInt();
+            if (size < 0) {
+                throw node.raise(ValueError, "bad marshal data (size out of range)");
+            }
+            return size;
+        }
+
+        private byte[] readBytes(int n) {
+            need(n);
+            byte[] result = Arrays.copyOfRange(data, pos, pos + n);
+            pos += n;
+            return result;
+        }
+
+        private String readAscii(int n) {
+            need(n);
+            String result = new String(data, pos, n, StandardCharsets.ISO_8859_1);
+            pos += n;
+            return result;
+        }
+
+        private double readFloatText() {
+            String text = readAscii(readByte());
+            switch (text) {
+                case "nan":
+                case "-nan":
+                    return Double.NaN;
+                case "inf":
+                    return Double.POSITIVE_INFINITY;
+                case "-inf":
+                    return Double.NEGATIVE_INFINITY;
+                default:
+                    try {
+                        return Double.parseDouble(text);
+                    } catch (NumberFormatException e) {
+                        throw node.raise(ValueError, "bad marshal data (invalid float)");
+                    }
+            }
+        }
+
+        private Object readLong() {
+            int n = readInt();
+            if (n == Integer.MIN_VALUE) {
+                throw node.raise(ValueError, "bad marshal data (long size out of range)");
+            }
+            int digits = Math.abs(n);
+            if (digits <= 4) {
+                // at most 60 bits, fits a long
+                long value = 0;
+                for (int i = 0; i < digits; i++) {
+                    value |= (long) readDigit() << (i * PYLONG_MARSHAL_SHIFT);
+                }
+                value = n < 0 ? -value : value;
+                return value == (int) value ? (Object) (int) value : (Object) value;
+            }
+            // check the digit count against the input before it is used to size the magnitude
+            if ((long) digits * 2 > length - pos) {
+                throw node.raise(EOFError, "marshal data too short");
+            }
+            byte[] magnitude = new byte[(int) (((long) digits * PYLONG_MARSHAL_SHIFT + 7) / 8 + 1)];
+            long bit = 0;
+            for (int i = 0; i < digits; i++, bit += PYLONG_MARSHAL_SHIFT) {
+                int digit = readDigit();
+                for (int j = 0; j < PYLONG_MARSHAL_SHIFT; j++) {
+                    if ((digit & (1 << j)) != 0) {
+                        long b = bit + j;
+                        magnitude[magnitude.length - 1 - (int) (b >> 3)] |= 1 << (b & 7);
+                    }
+                }
+            }
+            BigInteger value = new BigInteger(n < 0 ? -1 : 1, magnitude);
+            if (value.bitLength() < Long.SIZE) {
+                return value.longValue();
+            }
+            return factory.createInt(value);
+        }
+
+        private int readDigit() {
+            need(2);
+            int digit = (data[pos] & 0xFF) | (data[pos + 1] & 0xFF) << 8;
+            pos += 2;
+            if (digit > PYLONG_MARSHAL_MASK) {
+                throw node.raise(ValueError, "bad marshal data (digit out of range in long)");
+            }
+            return digit;
+        }
+
+        private Object register(Object value, boolean flag) {
+            if (flag) {
+                refs.add(value);
+            }
+            return value;
+        }
+
+        private int reserve(boolean flag) {
+            if (flag) {
+                refs.add(null);
+                return refs.size() - 1;
+            }
+            return -1;
+        }
+
+        private Object readNonNull(int depth) {
+            Object value = readObject(depth);
+            if (value == null) {
+                throw node.raise(TypeError, "NULL object in marshal data for object");
+            }
+            return value;
+        }
+
+        private Object readObject(int depth) {
+            if (depth > MAX_MARSHAL_STACK_DEPTH) {
+                throw node.raise(ValueError, "recursion limit exceeded");
+            }
+            if (pos >= length) {
+                throw node.raise(EOFError, "EOF read where object expected");
+            }
+            int code = data[pos++] & 0xFF;
+            boolean flag = (code & FLAG_REF) != 0;
+            switch (code & ~FLAG_REF) {
+                case TYPE_NULL:
+                    return null;
+                case TYPE_NONE:
+                    return PNone.NONE;
+                case TYPE_FALSE:
+                    return false;
+                case TYPE_TRUE:
+                    return true;
+                case TYPE_ELLIPSIS:
+                    return PEllipsis.INSTANCE;
+                case TYPE_INT:
+                    return register(readInt(), flag);
+                case TYPE_INT64:
+                    return register(readInt64(), flag);
+                case TYPE_LONG:
+                    return register(readLong(), flag);
+                case TYPE_FLOAT:
+                    return register(readFloatText(), flag);
+                case TYPE_BINARY_FLOAT:
+                    return register(Double.longBitsToDouble(readInt64()), flag);
+                case TYPE_COMPLEX: {
+                    double real = readFloatText();
+                    return register(factory.createComplex(real, readFloatText()), flag);
+                }
+                case TYPE_BINARY_COMPLEX: {
+                    double real = Double.longBitsToDouble(readInt64());
+                    return register(factory.createComplex(real, Double.longBitsToDouble(readInt64())), flag);
+                }
+                case TYPE_STRING:
+                    return register(factory.createBytes(readBytes(readSize())), flag);
+                case TYPE_UNICODE:
+                case TYPE_INTERNED: {
+                    int n = readSize();
+                    need(n);
+                    String value = new String(data, pos, n, StandardCharsets.UTF_8);
+                    pos += n;
+                    return register(value, flag);
+                }
+                case TYPE_ASCII:
+                case TYPE_ASCII_INTERNED:
+                    return register(readAscii(readSize()), flag);
+                case TYPE_SHORT_ASCII:
+                case TYPE_SHORT_ASCII_INTERNED:
+                    return register(readAscii(readByte()), flag);
+                case TYPE_TUPLE:
+                    return readTuple(readSize(), flag, depth);
+                case TYPE_SMALL_TUPLE:
+                    return readTuple(readByte(), flag, depth);
+                case TYPE_LIST: {
+                    int n = readSize();
+                    Object[] items = new Object[n];
+                    // the list must be registered before its items, which may refer back to it
+                    PList list = factory.createList();
+                    register(list, flag);
+                    for (int i = 0; i < n; i++) {
+                        items[i] = readNonNull(depth + 1);
+                    }
+                    list.setSequenceStorage(storageFactory.createStorage(items));
+                    return list;
+                }
+                case TYPE_DICT: {
+                    PDict dict = factory.createDict();
+                    register(dict, flag);
+                    while (true) {
+                        Object key = readObject(depth + 1);
+                        if (key == null) {
+                            break;
+                        }
+                        dict.setItem(key, readNonNull(depth + 1));
+                    }
+                    return dict;
+                }
+                case TYPE_SET:
+                case TYPE_FROZENSET: {
+                    int n = readSize();
+                    boolean isSet = (code & ~FLAG_REF) == TYPE_SET;
+                    HashingStorage storage = EconomicMapStorage.create(n, true);
+                    PBaseSet set = isSet ? factory.createSet(storage) : factory.createFrozenSet(storage);
+                    register(set, flag);
+                    for (int i = 0; i < n; i++) {
+                        Object item = readNonNull(depth + 1);
+                        storage.setItem(item, PNone.NO_VALUE, HashingStorage.getSlowPathEquivalence(item));
+                    }
+                    return set;
+                }
+                case TYPE_CODE: {
+                    int index = reserve(flag);
+                    Object filename = readNonNull(depth + 1);
+                    Object source = readNonNull(depth + 1);
+                    if (!(filename instanceof String) || !(source instanceof String)) {
+                        throw node.raise(ValueError, "bad marshal data (unsupported code object)");
+                    }
+                    PythonParseResult code = core.getParser().parseExec(core, (String) source, (String) filename);
+                    if (index >= 0) {
+                        refs.set(index, code);
+                    }
+                    return code;
+                }
+                case TYPE_REF: {
+                    int index = readInt();
+                    if (index < 0 || index >= refs.size() || refs.get(index) == null) {
+                        throw node.raise(ValueError, "bad marshal data (invalid reference)");
+                    }
+                    return refs.get(index);
+                }
+                default:
+                    throw node.raise(ValueError, "bad marshal data (unknown type code)");
+            }
+        }
+
+        private PTuple readTuple(int n, boolean flag, int depth) {
+            int index = reserve(flag);
+            Object[] items = new Object[n];
+            for (int i = 0; i < n; i++) {
+                items[i] = readNonNull(depth + 1);
+            }
+            PTuple tuple = factory.createTuple(items);
+            if (index >= 0) {
+                refs.set(index, tuple);
+            }
+            return tuple;
         }
     }
 }
@@ -36,6 +36,9 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.NonWritableChannelException;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.StandardOpenOption;
@@ -65,6 +68,7 @@ import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.PythonContext;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonExitException;
@@ -140,6 +144,23 @@ public class PosixModuleBuiltins extends PythonBuiltins {
         return PosixModuleBuiltinsFactory.getFactories();
     }
 
+    /**
+     * Returns the channel behind a file descriptor, so that buffered I/O can work on it directly.
+     * The standard streams share one channel per context around the context's streams. Returns {@code null} if the
+     * file descriptor is not open.
+     */
+    @TruffleBoundary
+    public static Channel getChannel(PythonContext context, int fd) {
+        switch (fd) {
+            case 0:
+            case 1:
+            case 2:
+                return context.getStandardChannel(fd);
+            default:
+                return fd > 0 && fd < files.size() ? files.get(fd) : null;
+        }
+    }
+
     private abstract static class PythonFileNode extends PythonBuiltinNode {
         protected SeekableByteChannel getFileChannel(int fd) {
             if (files.size() <= fd || fd < 3) {
@@ -661,22 +682,60 @@ public class PosixModuleBuiltins extends PythonBuiltins {
     @Builtin(name = "read", fixedNumOfArguments = 2)
     @GenerateNodeFactory
     public abstract static class ReadNode extends PythonFileNode {
+        /**
+         * Large reads go to the channel in chunks of this size. The channel copies reads into heap
+         * arrays through a temporary direct buffer as large as the request, so bounded chunks keep
+         * that buffer small while the bytes still land directly in the result array.
+         */
+        private static final int READ_CHUNK_SIZE = 64 * 1024;
+
+        /**
+         * Reads of at least this many bytes from regular files copy straight out of the page cache
+         * through a read-only mapping, skipping the channel's temporary direct buffer.
+         */
+        private static final int MAPPED_READ_THRESHOLD = 1 << 20;
+
+        /**
+         * Mapped reads map the file in windows of at most this size. A mapping is only unmapped
+         * once it is garbage collected, so bounding the windows bounds the address space a single
+         * large read leaves behind.
+         */
+        private static final int MAPPED_READ_WINDOW = 16 << 20;
+
         @Specialization
         @TruffleBoundary
         Object read(int fd, int requestedSize) {
             SeekableByteChannel channel = getFileChannel(fd);
             try {
-                long size = Math.min(requestedSize, channel.size() - channel.position());
-                // cast below will always succeed, since requestedSize was an int,
-                // and must thus will always be smaller than a long that cannot be
-                // downcast
-                ByteBuffer dst = ByteBuffer.allocate((int) size);
-                getFileChannel(fd).read(dst);
-                return factory().createBytes(dst.array());
+                long position = channel.position();
+                // the minimum with requestedSize always fits in an int
+                int size = (int) Math.max(0, Math.min(requestedSize, channel.size() - position));
+                byte[] data = new byte[size];
+                if (size >= MAPPED_READ_THRESHOLD && channel instanceof FileChannel) {
+                    readMapped((FileChannel) channel, position, data);
+                    channel.position(position + size);
+                    return factory().createBytes(data);
+                }
+                ByteBuffer dst = ByteBuffer.wrap(data);
+                while (dst.position() < size) {
+                    dst.limit(Math.min(size, dst.position() + READ_CHUNK_SIZE));
+                    if (channel.read(dst) <= 0) {
+                        // the channel may return fewer bytes than requested
+                        break;
+                    }
+                }
+                return factory().createBytes(dst.position() < size ? Arrays.copyOf(data, dst.position()) : data);
             } catch (IOException e) {
                 throw raise(OSError, e.getMessage());
             }
         }
+
+        private static void readMapped(FileChannel channel, long position, byte[] data) throws IOException {
+            for (int offset = 0; offset < data.length; offset += MAPPED_READ_WINDOW) {
+                int length = Math.min(MAPPED_READ_WINDOW, data.length - offset);
+                channel.map(MapMode.READ_ONLY, position + offset, length).get(data, offset, length);
+            }
+        }
     }
 
     @Builtin(name = "isatty", fixedNumOfArguments = 1)
@@ -687,7 +746,8 @@ public class PosixModuleBuiltins extends PythonBuiltins {
             // TODO: XXX: actually check
             switch (fd) {
                 case 1:
-                    return getContext().getStandardOut() == System.out;
+                    // as configured with the StdoutIsTerminal option
+                    return getContext().getStandardOut().isInteractive();
                 case 2:
                     return getContext().getStandardErr() == System.err;
                 default:
@@ -38,18 +38,196 @@
  */
 package com.oracle.graal.python.builtins.modules;
 
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.sre.PSREMatch;
+import com.oracle.graal.python.builtins.objects.sre.PSREPattern;
+import com.oracle.graal.python.builtins.objects.sre.PSREScanner;
+import com.oracle.graal.python.builtins.objects.sre.RegexTranslator;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
-
-import java.util.ArrayList;
-import java.util.List;
+import com.oracle.truffle.api.dsl.Specialization;
 
 @CoreFunctions(defineModule = "_sre")
 public class SREModuleBuiltins extends PythonBuiltins {
+    private static final int MAGIC = 20140917;
+    private static final int CODESIZE = 4;
+    private static final long MAXREPEAT = 4294967295L;
+    private static final int MAXGROUPS = 2147483647;
+
+    public SREModuleBuiltins() {
+        super();
+        builtinConstants.put("MAGIC", MAGIC);
+        builtinConstants.put("CODESIZE", CODESIZE);
+        builtinConstants.put("MAXREPEAT", MAXREPEAT);
+        builtinConstants.put("MAXGROUPS", MAXGROUPS);
+        builtinConstants.put("copyright", " SRE 2.2.2 Copyright (c) 1997-2002 by Secret Labs AB ");
+    }
+
     @Override
     protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
-        return new ArrayList<>();
+        return SREModuleBuiltinsFactory.getFactories();
+    }
+
+    private static int toInt(Object value) {
+        if (value instanceof Integer) {
+            return (int) value;
+        } else if (value instanceof Long) {
+            return (int) (long) value;
+        } else if (value instanceof PInt) {
+            return ((PInt) value).intValue();
+        } else if (value instanceof Boolean) {
+            return (boolean) value ? 1 : 0;
+        }
+        return -1;
+    }
+
+    // compile(pattern, flags, code, groups, groupindex, indexgroup)
+    @Builtin(name = "compile", fixedNumOfArguments = 6)
+    @GenerateNodeFactory
+    public abstract static class CompileNode extends PythonBuiltinNode {
+        @Child private CallNode callErrorNode;
+
+        @Specialization
+        @TruffleBoundary
+        PSREPattern compile(Object pattern, Object flagsArg, @SuppressWarnings("unused") Object code, Object groupsArg, Object groupindex, Object indexgroup) {
+            String source;
+            boolean bytes;
+            if (pattern instanceof String || pattern instanceof PString) {
+                source = pattern.toString();
+                bytes = false;
+            } else if (pattern instanceof PIBytesLike) {
+                source = new String(((PIBytesLike) pattern).getInternalByteArray(), StandardCharsets.ISO_8859_1);
+                bytes = true;
+            } else if (pattern instanceof PSequence || pattern == null) {
+                throw raise(NotImplementedError, "compiling parsed patterns is not supported");
+            } else {
+                throw raise(TypeError, "first argument must be string or compiled pattern");
+            }
+            int flags = toInt(flagsArg);
+            int groups = toInt(groupsArg);
+            if (flags < 0 || groups < 0) {
+                throw raise(TypeError, "an integer is required");
+            }
+            String[] groupNames = new String[groups + 1];
+            if (indexgroup instanceof PSequence) {
+                SequenceStorage storage = ((PSequence) indexgroup).getSequenceStorage();
+                for (int i = 0; i < Math.min(storage.length(), groupNames.length); i++) {
+                    Object name = storage.getItemNormalized(i);
+                    if (name instanceof String || name instanceof PString) {
+                        groupNames[i] = name.toString();
+                    }
+                }
+            }
+            Pattern regex;
+            try {
+                regex = RegexTranslator.compile(source, flags);
+            } catch (UnsupportedOperationException e) {
+                throw raise(NotImplementedError, e.getMessage());
+            } catch (PatternSyntaxException e) {
+                throw raise(ValueError, "unsupported regular expression: %s", e.getMessage());
+            } catch (IllegalArgumentException e) {
+                throw raiseError(e.getMessage(), pattern);
+            }
+            return factory().createSREPattern(pattern, source, flags, groups, groupindex, groupNames, bytes, regex);
+        }
+
+        /**
+         * Raises {@code re.error}, which is defined by {@code sre_constants}. If {@code _sre} is used
+         * before that module was loaded, {@code ValueError} is raised instead.
+         */
+        private PException raiseError(String message, Object pattern) {
+            Object sreConstants = getContext().getSysModules().getItem("sre_constants");
+            if (sreConstants instanceof PythonModule) {
+                Object errorClass = ((PythonModule) sreConstants).getAttribute("error");
+                if (errorClass instanceof PythonClass) {
+                    if (callErrorNode == null) {
+                        CompilerDirectives.transferToInterpreterAndInvalidate();
+                        callErrorNode = insert(CallNode.create());
+                    }
+                    Object error = callErrorNode.execute(errorClass, new Object[]{message, pattern}, PKeyword.EMPTY_KEYWORDS);
+                    if (error instanceof PBaseException) {
+                        throw getCore().raise((PBaseException) error, this);
+                    }
+                }
+            }
+            throw raise(ValueError, "%s", message);
+        }
+    }
+
+    @Builtin(name = "getcodesize", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    public abstract static class GetCodeSizeNode extends PythonBuiltinNode {
+        @Specialization
+        int getcodesize() {
+            return CODESIZE;
+        }
+    }
+
+    // getlower(character, flags)
+    @Builtin(name = "getlower", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class GetLowerNode extends PythonBuiltinNode {
+        @Specialization
+        int getlower(int character, int flags) {
+            if ((flags & RegexTranslator.FLAG_UNICODE) != 0) {
+                return Character.toLowerCase(character);
+            }
+            return character < 128 ? Character.toLowerCase(character) : character;
+        }
+    }
+
+    @Builtin(name = "SRE_Pattern", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = {PSREPattern.class}, isPublic = false)
+    @GenerateNodeFactory
+    public abstract static class PatternTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        public Object pattern(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create '_sre.SRE_Pattern' instances");
+        }
+    }
+
+    @Builtin(name = "SRE_Match", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = {PSREMatch.class}, isPublic = false)
+    @GenerateNodeFactory
+    public abstract static class MatchTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        public Object match(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create '_sre.SRE_Match' instances");
+        }
+    }
+
+    @Builtin(name = "SRE_Scanner", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = {PSREScanner.class}, isPublic = false)
+    @GenerateNodeFactory
+    public abstract static class ScannerTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        public Object scanner(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create '_sre.SRE_Scanner' instances");
+        }
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.struct.PStruct;
+import com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.objects.struct.StructBaseNode;
+import com.oracle.graal.python.builtins.objects.struct.StructFormat;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+/**
+ * The module level functions compile their format argument through a global cache. Where the
+ * format is a constant string, they additionally cache the compiled format in the node.
+ */
+@CoreFunctions(defineModule = "_struct")
+public class StructModuleBuiltins extends PythonBuiltins {
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return StructModuleBuiltinsFactory.getFactories();
+    }
+
+    // Struct(format)
+    @Builtin(name = "Struct", fixedNumOfArguments = 2, constructsClass = PStruct.class)
+    @GenerateNodeFactory
+    public abstract static class StructNode extends StructBaseNode {
+        @Specialization
+        PStruct struct(PythonClass cls, Object format) {
+            return factory().createStruct(cls, getStructFormat(format));
+        }
+    }
+
+    @Builtin(name = "unpack_iterator", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PStructUnpackIterator.class, isPublic = false)
+    @GenerateNodeFactory
+    public abstract static class UnpackIteratorTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        Object unpackIterator(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create '_struct.unpack_iterator' instances");
+        }
+    }
+
+    // pack(format, v1, v2, ...)
+    @Builtin(name = "pack", minNumOfArguments = 1, takesVariableArguments = true)
+    @GenerateNodeFactory
+    public abstract static class PackNode extends StructBaseNode {
+        @Specialization(guards = "format == cachedFormat", limit = "3")
+        PBytes packCached(@SuppressWarnings("unused") String format, PTuple values,
+                        @SuppressWarnings("unused") @Cached("format") String cachedFormat,
+                        @Cached("getStructFormat(format)") StructFormat structFormat) {
+            return packBytes(structFormat, values.getArray());
+        }
+
+        @Specialization(replaces = "packCached")
+        PBytes pack(Object format, PTuple values) {
+            return packBytes(getStructFormat(format), values.getArray());
+        }
+    }
+
+    // pack_into(format, buffer, offset, v1, v2, ...)
+    @Builtin(name = "pack_into", minNumOfArguments = 3, takesVariableArguments = true)
+    @GenerateNodeFactory
+    public abstract static class PackIntoNode extends StructBaseNode {
+        @Specialization(guards = "format == cachedFormat", limit = "3")
+        PNone packIntoCached(@SuppressWarnings("unused") String format, Object buffer, Object offset, PTuple values,
+                        @SuppressWarnings("unused") @Cached("format") String cachedFormat,
+                        @Cached("getStructFormat(format)") StructFormat structFormat) {
+            return packInto(structFormat, buffer, offset, values.getArray());
+        }
+
+        @Specialization(replaces = "packIntoCached")
+        PNone packInto(Object format, Object buffer, Object offset, PTuple values) {
+            return packInto(getStructFormat(format), buffer, offset, values.getArray());
+        }
+    }
+
+    // unpack(format, buffer)
+    @Builtin(name = "unpack", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class UnpackNode extends StructBaseNode {
+        @Specialization(guards = "format == cachedFormat", limit = "3")
+        PTuple unpackCached(@SuppressWarnings("unused") String format, Object buffer,
+                        @SuppressWarnings("unused") @Cached("format") String cachedFormat,
+                        @Cached("getStructFormat(format)") StructFormat structFormat) {
+            return unpackBuffer(structFormat, buffer);
+        }
+
+        @Specialization(replaces = "unpackCached")
+        PTuple unpack(Object format, Object buffer) {
+            return unpackBuffer(getStructFormat(format), buffer);
+        }
+    }
+
+    // unpack_from(format, buffer, offset=0)
+    @Builtin(name = "unpack_from", fixedNumOfArguments = 2, keywordArguments = {"offset"})
+    @GenerateNodeFactory
+    public abstract static class UnpackFromNode extends StructBaseNode {
+        @Specialization(guards = "format == cachedFormat", limit = "3")
+        PTuple unpackFromCached(@SuppressWarnings("unused") String format, Object buffer, Object offset,
+                        @SuppressWarnings("unused") @Cached("format") String cachedFormat,
+                        @Cached("getStructFormat(format)") StructFormat structFormat) {
+            return unpackFrom(structFormat, buffer, offset);
+        }
+
+        @Specialization(replaces = "unpackFromCached")
+        PTuple unpackFrom(Object format, Object buffer, Object offset) {
+            return unpackFrom(getStructFormat(format), buffer, offset);
+        }
+    }
+
+    // iter_unpack(format, buffer)
+    @Builtin(name = "iter_unpack", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class IterUnpackNode extends StructBaseNode {
+        @Specialization
+        PStructUnpackIterator iterUnpack(Object format, Object buffer) {
+            return iterUnpack(getStructFormat(format), buffer);
+        }
+    }
+
+    // calcsize(format)
+    @Builtin(name = "calcsize", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CalcSizeNode extends StructBaseNode {
+        @Specialization
+        int calcsize(Object format) {
+            return getStructFormat(format).getSize();
+        }
+    }
+
+    @Builtin(name = "_clearcache", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    public abstract static class ClearCacheNode extends PythonBuiltinNode {
+        @Specialization
+        PNone clearcache() {
+            StructFormat.clearCache();
+            return PNone.NONE;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.modules;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.SystemExit;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.exception.PBaseException;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.thread.LockBuiltins;
+import com.oracle.graal.python.builtins.objects.thread.PLock;
+import com.oracle.graal.python.builtins.objects.thread.PRLock;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.BuiltinNames;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+
+/**
+ * Threads started through this module are real Java threads created through the Truffle
+ * environment, so they run Python code in parallel. There is no global interpreter lock, see
+ * {@link PythonLanguage#getSingleThreadedAssumption()}.
+ */
+@CoreFunctions(defineModule = "_thread")
+public class ThreadModuleBuiltins extends PythonBuiltins {
+
+    private static final long MIN_STACK_SIZE = 32768;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return ThreadModuleBuiltinsFactory.getFactories();
+    }
+
+    @Override
+    public void initialize(PythonCore core) {
+        super.initialize(core);
+        builtinConstants.put("TIMEOUT_MAX", LockBuiltins.TIMEOUT_MAX);
+    }
+
+    @Builtin(name = "lock", takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PLock.class, isPublic = false)
+    @GenerateNodeFactory
+    public abstract static class LockTypeNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        Object lock(Object args, Object kwargs) {
+            throw raise(TypeError, "cannot create '_thread.lock' instances");
+        }
+    }
+
+    @Builtin(name = "allocate_lock", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    public abstract static class AllocateLockNode extends PythonBuiltinNode {
+        @Specialization
+        PLock allocate() {
+            return factory().createLock();
+        }
+    }
+
+    @Builtin(name = "allocate", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    public abstract static class AllocateNode extends AllocateLockNode {
+    }
+
+    // RLock(*args, **kwargs)
+    @Builtin(name = "RLock", minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true, constructsClass = PRLock.class)
+    @GenerateNodeFactory
+    public abstract static class RLockNode extends PythonBuiltinNode {
+        @SuppressWarnings("unused")
+        @Specialization
+        PRLock rlock(PythonClass cls, Object args, Object kwargs) {
+            return factory().createRLock(cls);
+        }
+    }
+
+    @Builtin(name = "get_ident", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    public abstract static class GetIdentNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        long getIdent() {
+            return Thread.currentThread().getId();
+        }
+    }
+
+    @Builtin(name = "_count", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    public abstract static class CountNode extends PythonBuiltinNode {
+        @Specialization
+        int count() {
+            return getContext().getThreadCount().get();
+        }
+    }
+
+    /**
+     * The returned lock is released when the current thread ends, which is how
+     * {@code threading.Thread.join} waits for threads it did not start itself.
+     */
+    @Builtin(name = "_set_sentinel", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    public abstract static class SetSentinelNode extends PythonBuiltinNode {
+        @Specialization
+        PLock setSentinel() {
+            PLock lock = factory().createLock();
+            lock.acquire(true, -1);
+            getContext().setSentinelLock(lock);
+            return lock;
+        }
+    }
+
+    // stack_size([size])
+    @Builtin(name = "stack_size", minNumOfArguments = 0, maxNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class StackSizeNode extends PythonBuiltinNode {
+        @Specialization
+        long getStackSize(@SuppressWarnings("unused") PNone size) {
+            return getContext().getThreadStackSize();
+        }
+
+        @Specialization
+        long setStackSize(long size) {
+            if (size < 0) {
+                throw raise(ValueError, "size must be 0 or a positive value");
+            } else if (size != 0 && size < MIN_STACK_SIZE) {
+                throw raise(ValueError, "size not valid: %d bytes", size);
+            }
+            PythonContext context = getContext();
+            long old = context.getThreadStackSize();
+            context.setThreadStackSize(size);
+            return old;
+        }
+
+        @Fallback
+        long setStackSize(Object size) {
+            throw raise(TypeError, "an integer is required (got type %p)", size);
+        }
+    }
+
+    // start_new_thread(function, args[, kwargs])
+    @Builtin(name = "start_new_thread", minNumOfArguments = 2, maxNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class StartNewThreadNode extends PythonBuiltinNode {
+        @CompilationFinal private RootCallTarget threadBody;
+
+        @Specialization
+        long start(Object function, PTuple args, @SuppressWarnings("unused") PNone kwargs) {
+            return startThread(getContext(), function, args.getArray(), PKeyword.EMPTY_KEYWORDS);
+        }
+
+        @Specialization
+        long start(Object function, PTuple args, PDict kwargs) {
+            return startThread(getContext(), function, args.getArray(), toKeywords(kwargs));
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        long start(Object function, Object args, Object kwargs) {
+            if (!(args instanceof PTuple)) {
+                throw raise(TypeError, "2nd arg must be a tuple");
+            }
+            throw raise(TypeError, "optional 3rd arg must be a dictionary");
+        }
+
+        @TruffleBoundary
+        private PKeyword[] toKeywords(PDict kwargs) {
+            PKeyword[] keywords = new PKeyword[kwargs.size()];
+            Iterator<DictEntry> iterator = kwargs.entries().iterator();
+            for (int i = 0; i < keywords.length; i++) {
+                DictEntry entry = iterator.next();
+                if (!(entry.getKey() instanceof String)) {
+                    throw raise(TypeError, "keywords must be strings");
+                }
+                keywords[i] = new PKeyword((String) entry.getKey(), entry.getValue());
+            }
+            return keywords;
+        }
+
+        @TruffleBoundary
+        private long startThread(PythonContext context, Object function, Object[] arguments, PKeyword[] keywords) {
+            if (threadBody == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                threadBody = Truffle.getRuntime().createCallTarget(new ThreadRootNode(context.getLanguage()));
+            }
+            RootCallTarget callTarget = threadBody;
+            // from now on, shared storages are updated under a lock, before the new thread can see them
+            context.getLanguage().getSingleThreadedAssumption().invalidate();
+            Thread thread = context.getEnv().createThread(() -> {
+                try {
+                    callTarget.call(function, arguments, keywords);
+                } finally {
+                    PLock sentinel = context.getSentinelLock();
+                    if (sentinel != null) {
+                        context.setSentinelLock(null);
+                        sentinel.release();
+                    }
+                    context.getThreadCount().decrementAndGet();
+                }
+            });
+            context.getThreadCount().incrementAndGet();
+            try {
+                thread.start();
+            } catch (OutOfMemoryError e) {
+                context.getThreadCount().decrementAndGet();
+                throw raise(RuntimeError, "can't start new thread");
+            }
+            return thread.getId();
+        }
+    }
+
+    /**
+     * Calls the thread function. Uncaught exceptions other than {@code SystemExit} are reported
+     * through {@code sys.excepthook}, they never propagate out of the thread.
+     */
+    private static final class ThreadRootNode extends RootNode {
+        @Child private CallNode callNode = CallNode.create();
+        @Child private CallNode callHookNode;
+        @Child private LookupAndCallUnaryNode callReprNode;
+
+        ThreadRootNode(PythonLanguage language) {
+            super(language);
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            Object[] arguments = frame.getArguments();
+            try {
+                callNode.execute(arguments[0], (Object[]) arguments[1], (PKeyword[]) arguments[2]);
+            } catch (PException e) {
+                handleUncaughtException(arguments[0], e);
+            }
+            return PNone.NONE;
+        }
+
+        private void handleUncaughtException(Object function, PException e) {
+            CompilerDirectives.transferToInterpreter();
+            PythonContext context = PythonLanguage.getContext();
+            PythonCore core = context.getCore();
+            if (core.getErrorClass(SystemExit) == e.getType()) {
+                return;
+            }
+            if (callHookNode == null) {
+                callHookNode = insert(CallNode.create());
+                callReprNode = insert(LookupAndCallUnaryNode.create(__REPR__));
+            }
+            writeErr(context, "Unhandled exception in thread started by " + callReprNode.executeObject(function) + "\n");
+            PBaseException value = e.getExceptionObject();
+            PythonModule sys = context.lookupBuiltinModule("sys");
+            Object hook = sys.getAttribute(BuiltinNames.EXCEPTHOOK);
+            if (hook != PNone.NO_VALUE) {
+                try {
+                    callHookNode.execute(hook, new Object[]{value.getPythonClass(), value, value.getTraceback(core.factory())}, PKeyword.EMPTY_KEYWORDS);
+                } catch (PException hookError) {
+                    writeErr(context, "Error in sys.excepthook\n");
+                }
+            } else {
+                writeErr(context, "sys.excepthook is missing\n");
+            }
+        }
+
+        private static void writeErr(PythonContext context, String message) {
+            try {
+                context.getStandardErr().write(message.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException ioException) {
+                // stderr is gone, there is no one left to tell
+            }
+        }
+
+        @Override
+        public SourceSection getSourceSection() {
+            return null;
+        }
+
+        @Override
+        public boolean isInternal() {
+            return true;
+        }
+    }
+}
@@ -98,6 +98,17 @@ public final class TimeModuleBuiltins extends PythonBuiltins {
         }
     }
 
+    // time.monotonic()
+    @Builtin(name = "monotonic", fixedNumOfArguments = 0)
+    @GenerateNodeFactory
+    public abstract static class PythonMonotonicNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        double monotonic() {
+            return System.nanoTime() / 1000_000_000.0;
+        }
+    }
+
     @Builtin(name = "sleep", fixedNumOfArguments = 1)
     @GenerateNodeFactory
     abstract static class SleepNode extends PythonBuiltinNode {
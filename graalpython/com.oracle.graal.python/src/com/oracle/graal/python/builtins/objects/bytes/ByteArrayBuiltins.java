@@ -195,6 +195,7 @@ public class ByteArrayBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "isByteStorage(byteArray)")
         public PByteArray appendInt(PByteArray byteArray, int arg) {
+            byteArray.checkResizable();
             ByteSequenceStorage store = (ByteSequenceStorage) byteArray.getSequenceStorage();
             store.appendInt(arg);
             return byteArray;
@@ -202,6 +203,7 @@ public class ByteArrayBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "isByteStorage(byteArray)")
         public PByteArray appendInt(PByteArray byteArray, byte arg) {
+            byteArray.checkResizable();
             ByteSequenceStorage store = (ByteSequenceStorage) byteArray.getSequenceStorage();
             store.appendByte(arg);
             return byteArray;
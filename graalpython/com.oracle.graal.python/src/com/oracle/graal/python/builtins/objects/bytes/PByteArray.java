@@ -26,6 +26,7 @@
 package com.oracle.graal.python.builtins.objects.bytes;
 
 import static com.oracle.graal.python.builtins.objects.bytes.BytesUtils.__repr__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.BufferError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
 
 import java.util.Arrays;
@@ -49,6 +50,14 @@ public final class PByteArray extends PSequence implements PIBytesLike {
 
     @CompilationFinal private SequenceStorage store;
 
+    /**
+     * The number of memoryviews that are known to use the buffer of this bytearray, namely views
+     * entered with {@code with} that have not been released yet; its size must not change while
+     * there are any. Other views do not count, since without reference counting there is no telling
+     * when they are gone. Their accesses are checked against the current size instead.
+     */
+    private int exports;
+
     public PByteArray(PythonClass cls, byte[] bytes) {
         super(cls);
         store = new ByteSequenceStorage(bytes);
@@ -95,6 +104,9 @@ public final class PByteArray extends PSequence implements PIBytesLike {
         if (normalizedStop < normalizedStart) {
             normalizedStop = normalizedStart;
         }
+        if (step == 1 && normalizedStop - normalizedStart != value.len()) {
+            checkResizable();
+        }
 
         try {
             store.setSliceInBound(normalizedStart, normalizedStop, step, value.getSequenceStorage());
@@ -116,6 +128,7 @@ public final class PByteArray extends PSequence implements PIBytesLike {
 
     @Override
     public void delItem(int idx) {
+        checkResizable();
         int index = SequenceUtil.normalizeIndex(idx, store.length(), "array index out of range");
         store.delItemInBound(index);
     }
@@ -177,10 +190,12 @@ public final class PByteArray extends PSequence implements PIBytesLike {
     }
 
     public final void clear() {
+        checkResizable();
         store.clear();
     }
 
     public final void append(Object value) {
+        checkResizable();
         if (store instanceof EmptySequenceStorage) {
             store = store.generalizeFor(value);
         }
@@ -203,11 +218,31 @@ public final class PByteArray extends PSequence implements PIBytesLike {
     }
 
     public final void delSlice(PSlice slice) {
+        checkResizable();
         int start = SequenceUtil.normalizeSliceStart(slice, store.length(), "array index out of range");
         final int stop = SequenceUtil.normalizeSliceStop(slice, store.length(), "array index out of range");
         store.delSlice(start, stop);
     }
 
+    public void addExport() {
+        exports++;
+    }
+
+    public void removeExport() {
+        exports--;
+    }
+
+    /**
+     * Raises a {@code BufferError} if memoryviews still export the buffer of this bytearray, so
+     * that its size cannot change under them.
+     */
+    public void checkResizable() {
+        if (exports > 0) {
+            CompilerDirectives.transferToInterpreter();
+            throw PythonLanguage.getCore().raise(BufferError, "Existing exports of data: object cannot be re-sized");
+        }
+    }
+
     public int count(Object arg) {
         return this.store.count(arg);
     }
@@ -60,6 +60,7 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorageNodesFactor
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodesFactory.GetItemNodeGen;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodesFactory.InitNodeGen;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodesFactory.SetItemNodeGen;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageNodesFactory.UnionNodeGen;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
@@ -246,6 +247,13 @@ public abstract class HashingStorageNodes {
             return newStorage;
         }
 
+        protected static StringMapStorage switchToStringMap(PHashingCollection container, HashingStorage storage) {
+            StringMapStorage newStorage = new StringMapStorage(storage.length() + 1);
+            newStorage.addAll(storage, DEFAULT_EQIVALENCE);
+            container.setDictStorage(newStorage);
+            return newStorage;
+        }
+
         protected static Location lookupLocation(Shape shape, Object name) {
             /* Initialization of cached values always happens in a slow path. */
             CompilerAsserts.neverPartOfCompilation();
@@ -401,6 +409,20 @@ public abstract class HashingStorageNodes {
 
     public abstract static class ContainsKeyNode extends DictStorageBaseNode {
 
+        /**
+         * Looks up the key in the current storage of the container, while holding the lock of the
+         * container once more than one thread runs, see
+         * {@link SetItemNode#execute(PHashingCollection, Object, Object)}.
+         */
+        public final boolean execute(PHashingCollection container, Object key) {
+            if (isSingleThreaded()) {
+                return execute(container.getDictStorage(), key);
+            }
+            synchronized (container) {
+                return execute(container.getDictStorage(), key);
+            }
+        }
+
         public abstract boolean execute(HashingStorage storage, Object key);
 
         @Specialization
@@ -484,11 +506,41 @@ public abstract class HashingStorageNodes {
             return false;
         }
 
+        @Specialization
+        protected boolean contains(LongSetStorage storage, int key) {
+            return storage.contains(key);
+        }
+
+        @Specialization
+        protected boolean contains(LongSetStorage storage, long key) {
+            return storage.contains(key);
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(LongSetStorage storage, Object key) {
+            return storage.hasKey(key, getEquivalence());
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(StringMapStorage storage, Object key,
+                        @Cached("createClassProfile()") ValueProfile keyTypeProfile) {
+            Object profileKey = keyTypeProfile.profile(key);
+            if (profileKey instanceof PString && wrappedString((PString) profileKey)) {
+                return storage.hasKey(((PString) profileKey).getValue(), DEFAULT_EQIVALENCE);
+            }
+            return storage.hasKey(profileKey, DEFAULT_EQIVALENCE);
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected boolean contains(EconomicMapStorage storage, Object key) {
             return storage.hasKey(key, getEquivalence());
         }
 
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(LinkedMapStorage storage, Object key) {
+            return storage.hasKey(key, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected boolean contains(HashMapStorage storage, Object key) {
             return storage.hasKey(key, getEquivalence());
@@ -562,11 +614,26 @@ public abstract class HashingStorageNodes {
             return readUncached(storage, name);
         }
 
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(StringMapStorage storage, Object key) {
+            return storage.hasKey(key, DEFAULT_EQIVALENCE);
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(LongSetStorage storage, Object key) {
+            return storage.hasKey(key, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected boolean contains(EconomicMapStorage storage, Object key) {
             return storage.hasKey(key, getEquivalence());
         }
 
+        @Specialization(guards = "isHashable(key)")
+        protected boolean contains(LinkedMapStorage storage, Object key) {
+            return storage.hasKey(key, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected boolean contains(HashMapStorage storage, Object key) {
             return storage.hasKey(key, getEquivalence());
@@ -589,6 +656,22 @@ public abstract class HashingStorageNodes {
 
     public abstract static class SetItemNode extends DictStorageBaseNode {
 
+        /**
+         * Stores into the current storage of the container. Once more than one thread runs, the
+         * storage is read, updated and possibly replaced by a generalized one while holding the lock
+         * of the container, so that no concurrent update of a shared dict or set is lost. The lock
+         * is held while the key's {@code __hash__} and {@code __eq__} run.
+         */
+        public final void execute(PHashingCollection container, Object key, Object value) {
+            if (isSingleThreaded()) {
+                execute(container, container.getDictStorage(), key, value);
+            } else {
+                synchronized (container) {
+                    execute(container, container.getDictStorage(), key, value);
+                }
+            }
+        }
+
         public abstract void execute(PHashingCollection container, HashingStorage storage, Object key, Object value);
 
         @Specialization
@@ -684,7 +767,7 @@ public abstract class HashingStorageNodes {
 
         @Specialization(guards = {"storage.getStore().getShape().isValid()", "exceedsLimit(storage)"})
         protected void doDynamicObjectGeneralize(PHashingCollection container, FastDictStorage storage, String name, Object value) {
-            switchToEconomicMap(container, storage).setItem(name, value, getEquivalence());
+            switchToStringMap(container, storage).setItem(name, value, DEFAULT_EQIVALENCE);
         }
 
         @TruffleBoundary
@@ -780,7 +863,7 @@ public abstract class HashingStorageNodes {
 
         @Specialization(guards = {"wrappedString(name)", "storage.getStore().getShape().isValid()", "exceedsLimit(storage)"})
         protected void doDynamicObjectPStringGeneralize(PHashingCollection container, DynamicObjectStorage storage, PString name, Object value) {
-            switchToEconomicMap(container, storage).setItem(name.getValue(), value, getEquivalence());
+            switchToStringMap(container, storage).setItem(name.getValue(), value, DEFAULT_EQIVALENCE);
         }
 
         @TruffleBoundary
@@ -840,11 +923,59 @@ public abstract class HashingStorageNodes {
             container.setDictStorage(newStorage);
         }
 
+        @Specialization
+        protected static void doLongSet(@SuppressWarnings("unused") PHashingCollection container, LongSetStorage storage, int key, @SuppressWarnings("unused") Object value) {
+            storage.add(key);
+        }
+
+        @Specialization
+        protected static void doLongSet(@SuppressWarnings("unused") PHashingCollection container, LongSetStorage storage, long key, @SuppressWarnings("unused") Object value) {
+            storage.add(key);
+        }
+
+        @Specialization(guards = "storage.length() == 0")
+        protected static void doLongSetToStringSet(PHashingCollection container, @SuppressWarnings("unused") LongSetStorage storage, String key, Object value) {
+            // the first element of a set is a string: switch to a string set
+            StringMapStorage newStorage = StringMapStorage.createSet();
+            newStorage.setItem(key, value, DEFAULT_EQIVALENCE);
+            container.setDictStorage(newStorage);
+        }
+
+        @Specialization(guards = {"storage.length() == 0", "wrappedString(key)"})
+        protected static void doLongSetToStringSet(PHashingCollection container, LongSetStorage storage, PString key, Object value) {
+            doLongSetToStringSet(container, storage, key.getValue(), value);
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        protected void doLongSetGeneralize(PHashingCollection container, LongSetStorage storage, Object key, Object value) {
+            switchToEconomicMap(container, storage).setItem(key, value, getEquivalence());
+        }
+
+        @Specialization
+        protected static void doStringMap(@SuppressWarnings("unused") PHashingCollection container, StringMapStorage storage, String key, Object value) {
+            storage.setItem(key, value, DEFAULT_EQIVALENCE);
+        }
+
+        @Specialization(guards = "wrappedString(key)")
+        protected static void doStringMap(@SuppressWarnings("unused") PHashingCollection container, StringMapStorage storage, PString key, Object value) {
+            storage.setItem(key.getValue(), value, DEFAULT_EQIVALENCE);
+        }
+
+        @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
+        protected void doStringMapGeneralize(PHashingCollection container, StringMapStorage storage, Object key, Object value) {
+            switchToEconomicMap(container, storage).setItem(key, value, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected void doHashMap(@SuppressWarnings("unused") PHashingCollection container, EconomicMapStorage storage, Object key, Object value) {
             storage.setItem(key, value, getEquivalence());
         }
 
+        @Specialization(guards = "isHashable(key)")
+        protected void doLinkedMap(@SuppressWarnings("unused") PHashingCollection container, LinkedMapStorage storage, Object key, Object value) {
+            storage.setItem(key, value, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         protected void doHashMap(@SuppressWarnings("unused") PHashingCollection container, HashMapStorage storage, Object key, Object value) {
             storage.setItem(key, value, getEquivalence());
@@ -893,6 +1024,20 @@ public abstract class HashingStorageNodes {
 
     public abstract static class GetItemNode extends DictStorageBaseNode {
 
+        /**
+         * Looks up the key in the current storage of the container, while holding the lock of the
+         * container once more than one thread runs, see
+         * {@link SetItemNode#execute(PHashingCollection, Object, Object)}.
+         */
+        public final Object execute(PHashingCollection container, Object key) {
+            if (isSingleThreaded()) {
+                return execute(container.getDictStorage(), key);
+            }
+            synchronized (container) {
+                return execute(container.getDictStorage(), key);
+            }
+        }
+
         public abstract Object execute(HashingStorage storage, Object key);
 
         @Specialization(guards = "isHashable(key)")
@@ -998,11 +1143,47 @@ public abstract class HashingStorageNodes {
             return null;
         }
 
+        @Specialization
+        Object doLongSet(LongSetStorage storage, int key) {
+            return storage.contains(key) ? PNone.NO_VALUE : null;
+        }
+
+        @Specialization
+        Object doLongSet(LongSetStorage storage, long key) {
+            return storage.contains(key) ? PNone.NO_VALUE : null;
+        }
+
+        @Specialization(guards = "isHashable(key)")
+        Object doLongSet(LongSetStorage storage, Object key) {
+            return storage.getItem(key, getEquivalence());
+        }
+
+        @Specialization
+        Object doStringMap(StringMapStorage storage, String key) {
+            return storage.getItem(key, DEFAULT_EQIVALENCE);
+        }
+
+        @Specialization(guards = "wrappedString(key)")
+        Object doStringMap(StringMapStorage storage, PString key) {
+            return storage.getItem(key.getValue(), DEFAULT_EQIVALENCE);
+        }
+
+        @Specialization(guards = {"!isJavaString(key)", "isHashable(key)"})
+        @SuppressWarnings("unused")
+        Object doStringMapObject(StringMapStorage storage, Object key) {
+            return null;
+        }
+
         @Specialization(guards = "isHashable(key)")
         Object doGeneric(EconomicMapStorage storage, Object key) {
             return storage.getItem(key, getEquivalence());
         }
 
+        @Specialization(guards = "isHashable(key)")
+        Object doGeneric(LinkedMapStorage storage, Object key) {
+            return storage.getItem(key, getEquivalence());
+        }
+
         @Specialization(guards = "isHashable(key)")
         Object doGeneric(HashMapStorage storage, Object key) {
             return storage.getItem(key, getEquivalence());
@@ -1093,6 +1274,20 @@ public abstract class HashingStorageNodes {
 
     public abstract static class DelItemNode extends DictStorageBaseNode {
 
+        /**
+         * Removes the key from the current storage of the container, while holding the lock of the
+         * container once more than one thread runs, see
+         * {@link SetItemNode#execute(PHashingCollection, Object, Object)}.
+         */
+        public final boolean execute(PHashingCollection container, Object key) {
+            if (isSingleThreaded()) {
+                return execute(container, container.getDictStorage(), key);
+            }
+            synchronized (container) {
+                return execute(container, container.getDictStorage(), key);
+            }
+        }
+
         public abstract boolean execute(PHashingCollection dict, HashingStorage dictStorage, Object key);
 
         @SuppressWarnings("unused")
@@ -1166,11 +1361,47 @@ public abstract class HashingStorageNodes {
             return false;
         }
 
+        @Specialization
+        protected static boolean doLongSet(@SuppressWarnings("unused") PHashingCollection container, LongSetStorage storage, int key) {
+            return storage.remove(key);
+        }
+
+        @Specialization
+        protected static boolean doLongSet(@SuppressWarnings("unused") PHashingCollection container, LongSetStorage storage, long key) {
+            return storage.remove(key);
+        }
+
+        @Specialization
+        protected boolean doLongSet(@SuppressWarnings("unused") PHashingCollection container, LongSetStorage storage, Object key) {
+            return storage.remove(key, getEquivalence());
+        }
+
+        @Specialization
+        protected boolean doStringMap(@SuppressWarnings("unused") PHashingCollection container, StringMapStorage storage, String key) {
+            return storage.remove(key, DEFAULT_EQIVALENCE);
+        }
+
+        @Specialization(guards = "wrappedString(key)")
+        protected boolean doStringMap(@SuppressWarnings("unused") PHashingCollection container, StringMapStorage storage, PString key) {
+            return storage.remove(key.getValue(), DEFAULT_EQIVALENCE);
+        }
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "!isJavaString(key)")
+        protected boolean doStringMap(PHashingCollection container, StringMapStorage storage, Object key) {
+            return false;
+        }
+
         @Specialization
         protected boolean doEconomicMap(@SuppressWarnings("unused") PHashingCollection container, EconomicMapStorage storage, Object key) {
             return storage.remove(key, getEquivalence());
         }
 
+        @Specialization
+        protected boolean doLinkedMap(@SuppressWarnings("unused") PHashingCollection container, LinkedMapStorage storage, Object key) {
+            return storage.remove(key, getEquivalence());
+        }
+
         @Specialization
         protected boolean doHashMap(@SuppressWarnings("unused") PHashingCollection container, HashMapStorage storage, Object key) {
             return storage.remove(key, getEquivalence());
@@ -1208,6 +1439,11 @@ public abstract class HashingStorageNodes {
             return storage.copy(DEFAULT_EQIVALENCE);
         }
 
+        @Specialization
+        HashingStorage doStringMap(StringMapStorage storage) {
+            return storage.copy(DEFAULT_EQIVALENCE);
+        }
+
         @Fallback
         HashingStorage doGeneric(HashingStorage storage) {
             return storage.copy(getEquivalence());
@@ -1224,6 +1460,11 @@ public abstract class HashingStorageNodes {
         @Child private SetItemNode setItemNode;
 
         public HashingStorage execute(HashingStorage left, HashingStorage right) {
+            if (left instanceof LongSetStorage && right instanceof LongSetStorage) {
+                return ((LongSetStorage) left).intersect((LongSetStorage) right);
+            } else if (left instanceof StringMapStorage && right instanceof StringMapStorage) {
+                return ((StringMapStorage) left).intersect((StringMapStorage) right);
+            }
             EconomicMapStorage newStorage = EconomicMapStorage.create(false);
             if (left.length() != 0 && right.length() != 0) {
                 if (containsKeyNode == null) {
@@ -1264,6 +1505,16 @@ public abstract class HashingStorageNodes {
             return left.copy(getEquivalence());
         }
 
+        @Specialization(guards = {"left.length() != 0", "right.length() != 0"})
+        public HashingStorage doLongSets(LongSetStorage left, LongSetStorage right) {
+            return left.diff(right);
+        }
+
+        @Specialization(guards = {"left.length() != 0", "right.length() != 0"})
+        public HashingStorage doStringSets(StringMapStorage left, StringMapStorage right) {
+            return left.diff(right);
+        }
+
         @Specialization(guards = {"left.length() != 0", "right.length() != 0"})
         public HashingStorage doNonEmpty(HashingStorage left, HashingStorage right,
                         @Cached("create()") ContainsKeyNode containsKeyNode,
@@ -1283,4 +1534,37 @@ public abstract class HashingStorageNodes {
         }
     }
 
+    public abstract static class UnionNode extends DictStorageBaseNode {
+
+        public abstract HashingStorage execute(HashingStorage left, HashingStorage right);
+
+        @Specialization
+        public HashingStorage doLongSets(LongSetStorage left, LongSetStorage right) {
+            return left.union(right);
+        }
+
+        @Specialization
+        public HashingStorage doStringSets(StringMapStorage left, StringMapStorage right) {
+            return left.union(right);
+        }
+
+        @Specialization
+        public HashingStorage doGeneric(HashingStorage left, HashingStorage right,
+                        @Cached("create()") SetItemNode setItemNode) {
+
+            EconomicMapStorage newStorage = EconomicMapStorage.create(left.length() + right.length(), true);
+            for (Object key : left.keys()) {
+                setItemNode.execute(null, newStorage, key, PNone.NO_VALUE);
+            }
+            for (Object key : right.keys()) {
+                setItemNode.execute(null, newStorage, key, PNone.NO_VALUE);
+            }
+            return newStorage;
+        }
+
+        public static UnionNode create() {
+            return UnionNodeGen.create();
+        }
+    }
+
 }
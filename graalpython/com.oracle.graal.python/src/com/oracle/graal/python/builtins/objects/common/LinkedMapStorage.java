@@ -0,0 +1,302 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Storage that keeps its entries in a doubly linked list, so that an entry can be moved to either
+ * end, and the first or last entry can be removed, in constant time. This backs
+ * {@code collections.OrderedDict}.
+ *
+ * The links are found through an {@link EconomicMapStorage} that maps each key to its link, so
+ * lookups cost the same as for an ordinary dictionary. A removed link keeps pointing to its
+ * successor, so an iterator standing on it continues with the entries that are still present.
+ *
+ * Looking up a key may run its {@code __eq__}, which may change this storage or let another thread
+ * change it. A link is therefore taken out of the list before the index is updated, and unlinking a
+ * link that is already out of the list does nothing, so the list never loses or duplicates links.
+ */
+public final class LinkedMapStorage extends HashingStorage {
+
+    private static final class Link {
+        private final Object key;
+        private Object value;
+        private Link prev;
+        private Link next;
+        private boolean linked;
+
+        private Link(Object key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final EconomicMapStorage index;
+    private final Link root = new Link(null, null);
+
+    public LinkedMapStorage() {
+        this(EconomicMapStorage.create(false));
+    }
+
+    public LinkedMapStorage(int expectedSize) {
+        this(EconomicMapStorage.create(expectedSize, false));
+    }
+
+    private LinkedMapStorage(EconomicMapStorage index) {
+        this.index = index;
+        root.prev = root;
+        root.next = root;
+    }
+
+    @Override
+    public int length() {
+        return index.length();
+    }
+
+    @Override
+    public boolean hasKey(Object key, Equivalence eq) {
+        return index.hasKey(key, eq);
+    }
+
+    @Override
+    public Object getItem(Object key, Equivalence eq) {
+        Link link = (Link) index.getItem(key, eq);
+        return link == null ? null : link.value;
+    }
+
+    @Override
+    public void setItem(Object key, Object value, Equivalence eq) {
+        Link link = (Link) index.getItem(key, eq);
+        if (link != null) {
+            link.value = value;
+        } else {
+            link = new Link(key, value);
+            linkLast(link);
+            index.setItem(key, link, eq);
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Equivalence eq) {
+        Link link = (Link) index.getItem(key, eq);
+        if (link == null) {
+            return false;
+        }
+        unlink(link);
+        index.remove(key, eq);
+        return true;
+    }
+
+    /**
+     * Moves the entry for {@code key} to the end ({@code last}) or to the front of the order.
+     *
+     * @return {@code false} if there is no entry for {@code key}
+     */
+    public boolean moveToEnd(Object key, boolean last, Equivalence eq) {
+        Link link = (Link) index.getItem(key, eq);
+        if (link == null || !link.linked) {
+            return false;
+        }
+        unlink(link);
+        if (last) {
+            linkLast(link);
+        } else {
+            linkFirst(link);
+        }
+        return true;
+    }
+
+    /**
+     * Looks up {@code key} and moves its entry to the end of the order.
+     *
+     * @return the value, or {@code null} if there is no entry for {@code key}
+     */
+    public Object getAndMoveToEnd(Object key, Equivalence eq) {
+        Link link = (Link) index.getItem(key, eq);
+        if (link == null || !link.linked) {
+            return null;
+        }
+        unlink(link);
+        linkLast(link);
+        return link.value;
+    }
+
+    /**
+     * Removes the last ({@code last}) or first entry and returns it, or {@code null} if the storage
+     * is empty.
+     */
+    public DictEntry popEntry(boolean last, Equivalence eq) {
+        Link link = last ? root.prev : root.next;
+        if (link == root) {
+            return null;
+        }
+        unlink(link);
+        index.remove(link.key, eq);
+        return new DictEntry(link.key, link.value);
+    }
+
+    private void linkLast(Link link) {
+        link.linked = true;
+        link.prev = root.prev;
+        link.next = root;
+        root.prev.next = link;
+        root.prev = link;
+    }
+
+    private void linkFirst(Link link) {
+        link.linked = true;
+        link.prev = root;
+        link.next = root.next;
+        root.next.prev = link;
+        root.next = link;
+    }
+
+    private static void unlink(Link link) {
+        if (!link.linked) {
+            return;
+        }
+        link.prev.next = link.next;
+        link.next.prev = link.prev;
+        link.linked = false;
+        // keep link.prev and link.next, so that iterators standing on this link can continue
+    }
+
+    private abstract class LinkIterator<T> implements Iterator<T> {
+        private final boolean reverse;
+        private Link current;
+
+        LinkIterator(boolean reverse) {
+            this.reverse = reverse;
+            this.current = reverse ? root.prev : root.next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != root;
+        }
+
+        @Override
+        public T next() {
+            if (current == root) {
+                throw new NoSuchElementException();
+            }
+            Link link = current;
+            current = reverse ? link.prev : link.next;
+            return get(link);
+        }
+
+        protected abstract T get(Link link);
+    }
+
+    @Override
+    public Iterable<Object> keys() {
+        return keys(false);
+    }
+
+    public Iterable<Object> keys(boolean reverse) {
+        return new Iterable<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new LinkIterator<Object>(reverse) {
+                    @Override
+                    protected Object get(Link link) {
+                        return link.key;
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Object> values() {
+        return new Iterable<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new LinkIterator<Object>(false) {
+                    @Override
+                    protected Object get(Link link) {
+                        return link.value;
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<DictEntry> entries() {
+        return new Iterable<DictEntry>() {
+            @Override
+            public Iterator<DictEntry> iterator() {
+                return new LinkIterator<DictEntry>(false) {
+                    @Override
+                    protected DictEntry get(Link link) {
+                        return new DictEntry(link.key, link.value);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        index.clear();
+        root.prev = root;
+        root.next = root;
+    }
+
+    @Override
+    public HashingStorage copy(Equivalence eq) {
+        LinkedMapStorage copy = new LinkedMapStorage(length());
+        copy.addAll(this, eq);
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("linked(size=").append(length()).append(", {");
+        String sep = "";
+        for (Link link = root.next; link != root; link = link.next) {
+            builder.append(sep).append(link.key).append(": ").append(link.value);
+            sep = ", ";
+        }
+        return builder.append("})").toString();
+    }
+}
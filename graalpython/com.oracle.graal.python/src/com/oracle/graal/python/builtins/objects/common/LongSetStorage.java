@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+
+/**
+ * Set storage for Python {@code int} elements that fit into a Java {@code long}.
+ *
+ * Elements are kept unboxed in an open addressing table with linear probing. Since {@code 0}
+ * marks a free slot, the element {@code 0} itself is tracked by a separate flag. Removal shifts
+ * the following entries of the probe sequence back, so there are no tombstones. Elements are
+ * returned as {@link Integer} if they fit, otherwise as {@link Long}; iteration order is
+ * unspecified, as for any Python set.
+ *
+ * Only {@link Integer} and {@link Long} elements can be stored;
+ * {@link #setItem(Object, Object, Equivalence)} throws {@link UnmodifiableStorageException} for
+ * anything else, which requires a generic storage (e.g. {@code True} must not be stored as
+ * {@code 1}). Lookups accept any number that can be equal to an integer.
+ */
+public final class LongSetStorage extends HashingStorage {
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final long[] EMPTY_TABLE = new long[0];
+
+    private long[] table;
+    private boolean hasZero;
+    private int size;
+
+    public LongSetStorage() {
+        this(0);
+    }
+
+    public LongSetStorage(int expectedSize) {
+        table = expectedSize > 0 ? new long[tableSizeFor(expectedSize)] : EMPTY_TABLE;
+    }
+
+    private LongSetStorage(LongSetStorage other) {
+        table = other.table.clone();
+        hasZero = other.hasZero;
+        size = other.size;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        // keep the load factor at or below one half
+        int n = Integer.highestOneBit(Math.max(expectedSize, INITIAL_CAPACITY / 2) - 1) << 2;
+        return Math.max(INITIAL_CAPACITY, n);
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Returns {@code true} if {@code key} is a number equal to some {@code long}, which is then
+     * given by {@link #asLong(Object)}.
+     */
+    private static boolean isLong(Object key) {
+        if (key instanceof Integer || key instanceof Long || key instanceof Boolean) {
+            return true;
+        } else if (key instanceof Double) {
+            double d = (double) key;
+            return d == Math.rint(d) && d >= Long.MIN_VALUE && d < 0x1p63;
+        } else if (key instanceof PInt) {
+            return ((PInt) key).getValue().bitLength() < Long.SIZE;
+        }
+        return false;
+    }
+
+    private static long asLong(Object key) {
+        if (key instanceof Integer) {
+            return (int) key;
+        } else if (key instanceof Long) {
+            return (long) key;
+        } else if (key instanceof Boolean) {
+            return (boolean) key ? 1 : 0;
+        } else if (key instanceof Double) {
+            return (long) (double) key;
+        } else {
+            return ((PInt) key).longValue();
+        }
+    }
+
+    private static boolean isIntegral(Object key) {
+        return key instanceof Integer || key instanceof Long || key instanceof Boolean || key instanceof Double || key instanceof PInt;
+    }
+
+    private int indexOf(long value) {
+        long[] t = table;
+        if (t.length == 0) {
+            return -1;
+        }
+        int mask = t.length - 1;
+        int slot = hash(value) & mask;
+        long entry;
+        while ((entry = t[slot]) != 0) {
+            if (entry == value) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public boolean contains(long value) {
+        return value == 0 ? hasZero : indexOf(value) != -1;
+    }
+
+    /**
+     * @return {@code true} if the value was not yet contained in the set.
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        if ((size + 1) << 1 > table.length) {
+            resize(tableSizeFor(size + 1));
+        }
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        long entry;
+        while ((entry = table[slot]) != 0) {
+            if (entry == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the value was contained in the set.
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (hasZero) {
+                hasZero = false;
+                size--;
+                return true;
+            }
+            return false;
+        }
+        int slot = indexOf(value);
+        if (slot == -1) {
+            return false;
+        }
+        // shift back entries that probed past the freed slot
+        int mask = table.length - 1;
+        int free = slot;
+        int next = (free + 1) & mask;
+        long entry;
+        while ((entry = table[next]) != 0) {
+            int home = hash(entry) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                table[free] = entry;
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[free] = 0;
+        size--;
+        return true;
+    }
+
+    private void resize(int newLength) {
+        long[] old = table;
+        table = new long[newLength];
+        int mask = newLength - 1;
+        for (long entry : old) {
+            if (entry != 0) {
+                int slot = hash(entry) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = entry;
+            }
+        }
+    }
+
+    private static Object box(long value) {
+        int intValue = (int) value;
+        if (intValue == value) {
+            return intValue;
+        }
+        return value;
+    }
+
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @Override
+    public boolean hasKey(Object key, Equivalence eq) {
+        if (isLong(key)) {
+            return contains(asLong(key));
+        } else if (isIntegral(key) || key instanceof String || eq == null || eq == DEFAULT_EQIVALENCE) {
+            return false;
+        }
+        // an arbitrary object may still compare equal to one of our elements
+        for (Object element : keys()) {
+            if (eq.equals(element, key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object getItem(Object key, Equivalence eq) {
+        return hasKey(key, eq) ? PNone.NO_VALUE : null;
+    }
+
+    @Override
+    public void setItem(Object key, Object value, Equivalence eq) {
+        if (key instanceof Integer) {
+            add((int) key);
+        } else if (key instanceof Long) {
+            add((long) key);
+        } else {
+            throw UnmodifiableStorageException.INSTANCE;
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Equivalence eq) {
+        if (isLong(key)) {
+            return remove(asLong(key));
+        } else if (isIntegral(key) || key instanceof String || eq == null || eq == DEFAULT_EQIVALENCE) {
+            return false;
+        }
+        for (Object element : keys()) {
+            if (eq.equals(element, key)) {
+                return remove(((Number) element).longValue());
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void addAll(HashingStorage other, Equivalence eq) {
+        if (other instanceof LongSetStorage) {
+            LongSetStorage o = (LongSetStorage) other;
+            if (o.hasZero) {
+                add(0);
+            }
+            for (long entry : o.table) {
+                if (entry != 0) {
+                    add(entry);
+                }
+            }
+        } else {
+            super.addAll(other, eq);
+        }
+    }
+
+    /**
+     * Returns a new set with the elements of this set that are also in {@code other}.
+     */
+    public LongSetStorage intersect(LongSetStorage other) {
+        LongSetStorage smaller = size <= other.size ? this : other;
+        LongSetStorage larger = smaller == this ? other : this;
+        LongSetStorage result = new LongSetStorage(smaller.size);
+        if (smaller.hasZero && larger.hasZero) {
+            result.add(0);
+        }
+        for (long entry : smaller.table) {
+            if (entry != 0 && larger.indexOf(entry) != -1) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set with the elements of this set that are not in {@code other}.
+     */
+    public LongSetStorage diff(LongSetStorage other) {
+        LongSetStorage result = new LongSetStorage(size);
+        if (hasZero && !other.hasZero) {
+            result.add(0);
+        }
+        for (long entry : table) {
+            if (entry != 0 && other.indexOf(entry) == -1) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set with the elements of both sets.
+     */
+    public LongSetStorage union(LongSetStorage other) {
+        LongSetStorage result = new LongSetStorage(size + other.size);
+        result.addAll(this, DEFAULT_EQIVALENCE);
+        result.addAll(other, DEFAULT_EQIVALENCE);
+        return result;
+    }
+
+    private abstract class ElementIterator<T> implements Iterator<T> {
+        private final long[] elements = table;
+        private boolean zeroPending = hasZero;
+        private int current = nextOccupied(0);
+
+        private int nextOccupied(int start) {
+            int i = start;
+            while (i < elements.length && elements[i] == 0) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return zeroPending || current < elements.length;
+        }
+
+        @Override
+        public T next() {
+            long value;
+            if (zeroPending) {
+                zeroPending = false;
+                value = 0;
+            } else if (current < elements.length) {
+                value = elements[current];
+                current = nextOccupied(current + 1);
+            } else {
+                throw new NoSuchElementException();
+            }
+            return get(value);
+        }
+
+        protected abstract T get(long value);
+    }
+
+    @Override
+    public Iterable<Object> keys() {
+        return new Iterable<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new ElementIterator<Object>() {
+                    @Override
+                    protected Object get(long value) {
+                        return box(value);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Object> values() {
+        return new Iterable<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new ElementIterator<Object>() {
+                    @Override
+                    protected Object get(long value) {
+                        return PNone.NO_VALUE;
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<DictEntry> entries() {
+        return new Iterable<DictEntry>() {
+            @Override
+            public Iterator<DictEntry> iterator() {
+                return new ElementIterator<DictEntry>() {
+                    @Override
+                    protected DictEntry get(long value) {
+                        return new DictEntry(box(value), PNone.NO_VALUE);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        table = EMPTY_TABLE;
+        hasZero = false;
+        size = 0;
+    }
+
+    @Override
+    public HashingStorage copy(Equivalence eq) {
+        return new LongSetStorage(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("set(size=").append(size).append(", {");
+        String sep = "";
+        for (Object element : keys()) {
+            builder.append(sep).append(element);
+            sep = ",";
+        }
+        return builder.append("})").toString();
+    }
+}
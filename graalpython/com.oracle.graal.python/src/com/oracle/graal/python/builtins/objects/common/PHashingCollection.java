@@ -41,6 +41,12 @@ package com.oracle.graal.python.builtins.objects.common;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 
+/**
+ * Dicts and sets do not synchronize themselves. Once more than one thread runs, the nodes that
+ * take the collection rather than its storage, such as
+ * {@link HashingStorageNodes.SetItemNode#execute(PHashingCollection, Object, Object)}, hold the
+ * lock of the collection while they use or replace its storage.
+ */
 public abstract class PHashingCollection extends PythonBuiltinObject {
 
     public PHashingCollection(PythonClass cls) {
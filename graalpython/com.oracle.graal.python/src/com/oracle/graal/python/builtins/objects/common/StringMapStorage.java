@@ -0,0 +1,468 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.common;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+
+/**
+ * Insertion-ordered storage for dictionaries whose keys are all Java {@link String strings}.
+ *
+ * Keys, values and the cached {@link String#hashCode() hash codes} of the keys live in three
+ * parallel arrays, so there is no per-entry object. Up to {@link #HASH_THRESHOLD} entries are
+ * looked up by a linear scan over the hash codes. Above that, an open addressing table with linear
+ * probing maps hash codes to entry indices (plus one, so that {@code 0} denotes a free slot).
+ *
+ * Removing an entry clears its key and value but keeps its position; the table slot pointing to it
+ * then acts as a tombstone. Deleted positions are reclaimed when the entry arrays are full.
+ *
+ * A storage created with {@link #createSet()} backs a Python set: it has no values array and
+ * reports {@link PNone#NO_VALUE} as the value of every element.
+ *
+ * Callers have to generalize to a different storage before storing non-string keys;
+ * {@link #setItem(Object, Object, Equivalence)} throws {@link UnmodifiableStorageException} for
+ * them.
+ */
+public final class StringMapStorage extends HashingStorage {
+
+    /**
+     * Initial number of entries allocated on the first insertion.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /**
+     * Number of entries above which the hash table is created.
+     */
+    private static final int HASH_THRESHOLD = 8;
+
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+    private static final int[] EMPTY_HASHES = new int[0];
+
+    private final boolean isSet;
+
+    private String[] keys;
+    /** The values of the entries, or {@code null} for a set. */
+    private Object[] values;
+    private int[] hashes;
+
+    /**
+     * Hash table of entry indices plus one; {@code null} while the map is small. Its length is a
+     * power of two and at least twice the entry capacity.
+     */
+    private int[] table;
+
+    /** Number of live entries. */
+    private int size;
+
+    /** Number of used entry positions, including deleted ones. */
+    private int used;
+
+    public StringMapStorage() {
+        this(0);
+    }
+
+    public StringMapStorage(int expectedSize) {
+        this(expectedSize, false);
+    }
+
+    private StringMapStorage(int expectedSize, boolean isSet) {
+        this.isSet = isSet;
+        if (expectedSize > 0) {
+            allocate(expectedSize);
+        } else {
+            keys = EMPTY_KEYS;
+            values = isSet ? null : EMPTY_VALUES;
+            hashes = EMPTY_HASHES;
+        }
+    }
+
+    private StringMapStorage(StringMapStorage other) {
+        isSet = other.isSet;
+        keys = other.keys.clone();
+        values = isSet ? null : other.values.clone();
+        hashes = other.hashes.clone();
+        table = other.table != null ? other.table.clone() : null;
+        size = other.size;
+        used = other.used;
+    }
+
+    public static StringMapStorage createSet() {
+        return new StringMapStorage(0, true);
+    }
+
+    public boolean isSet() {
+        return isSet;
+    }
+
+    private void allocate(int capacity) {
+        int n = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(capacity - 1) << 1);
+        keys = new String[n];
+        values = isSet ? null : new Object[n];
+        hashes = new int[n];
+        table = n > HASH_THRESHOLD ? new int[n << 1] : null;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private int find(String key, int hash) {
+        if (table == null) {
+            for (int i = 0; i < used; i++) {
+                if (hashes[i] == hash && keyEquals(keys[i], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            int index = entry - 1;
+            if (hashes[index] == hash && keyEquals(keys[index], key)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static boolean keyEquals(String entryKey, String key) {
+        return entryKey == key || (entryKey != null && entryKey.equals(key));
+    }
+
+    private void insertIntoTable(int index) {
+        int mask = table.length - 1;
+        int slot = spread(hashes[index]) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    /**
+     * Makes room for one more entry, either by dropping deleted positions or by growing the entry
+     * arrays, and rebuilds the hash table if necessary.
+     */
+    private void ensureCapacity() {
+        if (used < keys.length) {
+            return;
+        }
+        int capacity = keys.length;
+        if (capacity == 0) {
+            allocate(INITIAL_CAPACITY);
+            return;
+        } else if (size > capacity - (capacity >> 2)) {
+            capacity <<= 1;
+        }
+        String[] newKeys = new String[capacity];
+        Object[] newValues = isSet ? null : new Object[capacity];
+        int[] newHashes = new int[capacity];
+        int j = 0;
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != null) {
+                newKeys[j] = keys[i];
+                if (!isSet) {
+                    newValues[j] = values[i];
+                }
+                newHashes[j] = hashes[i];
+                j++;
+            }
+        }
+        assert j == size;
+        keys = newKeys;
+        values = newValues;
+        hashes = newHashes;
+        used = size;
+        rehash();
+    }
+
+    private void rehash() {
+        if (keys.length > HASH_THRESHOLD) {
+            table = new int[keys.length << 1];
+            for (int i = 0; i < used; i++) {
+                if (keys[i] != null) {
+                    insertIntoTable(i);
+                }
+            }
+        } else {
+            table = null;
+        }
+    }
+
+    private Object getValue(int index) {
+        return isSet ? PNone.NO_VALUE : values[index];
+    }
+
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @Override
+    public boolean hasKey(Object key, Equivalence eq) {
+        return key instanceof String && find((String) key, key.hashCode()) != -1;
+    }
+
+    @Override
+    public Object getItem(Object key, Equivalence eq) {
+        if (key instanceof String) {
+            int index = find((String) key, key.hashCode());
+            if (index != -1) {
+                return getValue(index);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void setItem(Object key, Object value, Equivalence eq) {
+        if (!(key instanceof String)) {
+            throw UnmodifiableStorageException.INSTANCE;
+        }
+        String stringKey = (String) key;
+        int hash = stringKey.hashCode();
+        int index = find(stringKey, hash);
+        if (index != -1) {
+            if (!isSet) {
+                values[index] = value;
+            }
+            return;
+        }
+        ensureCapacity();
+        index = used++;
+        keys[index] = stringKey;
+        if (!isSet) {
+            values[index] = value;
+        }
+        hashes[index] = hash;
+        size++;
+        if (table != null) {
+            insertIntoTable(index);
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Equivalence eq) {
+        if (key instanceof String) {
+            int index = find((String) key, key.hashCode());
+            if (index != -1) {
+                keys[index] = null;
+                if (!isSet) {
+                    values[index] = null;
+                }
+                size--;
+                if (size == 0) {
+                    // nothing left that could be found through a tombstone
+                    Arrays.fill(hashes, 0, used, 0);
+                    used = 0;
+                    if (table != null) {
+                        Arrays.fill(table, 0);
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void addAll(HashingStorage other, Equivalence eq) {
+        if (other instanceof StringMapStorage) {
+            StringMapStorage o = (StringMapStorage) other;
+            for (int i = 0; i < o.used; i++) {
+                if (o.keys[i] != null) {
+                    setItem(o.keys[i], o.getValue(i), eq);
+                }
+            }
+        } else {
+            super.addAll(other, eq);
+        }
+    }
+
+    /**
+     * Returns a new set with the keys of this storage that are also in {@code other}.
+     */
+    public StringMapStorage intersect(StringMapStorage other) {
+        StringMapStorage result = createSet();
+        for (int i = 0; i < used; i++) {
+            String key = keys[i];
+            if (key != null && other.find(key, hashes[i]) != -1) {
+                result.setItem(key, PNone.NO_VALUE, null);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set with the keys of this storage that are not in {@code other}.
+     */
+    public StringMapStorage diff(StringMapStorage other) {
+        StringMapStorage result = createSet();
+        for (int i = 0; i < used; i++) {
+            String key = keys[i];
+            if (key != null && other.find(key, hashes[i]) == -1) {
+                result.setItem(key, PNone.NO_VALUE, null);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns a new set with the keys of both storages.
+     */
+    public StringMapStorage union(StringMapStorage other) {
+        StringMapStorage result = new StringMapStorage(size + other.size, true);
+        result.addAll(this, null);
+        result.addAll(other, null);
+        return result;
+    }
+
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int current = nextLive(0);
+
+        private int nextLive(int start) {
+            int i = start;
+            while (i < used && keys[i] == null) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < used;
+        }
+
+        @Override
+        public T next() {
+            if (current >= used) {
+                throw new NoSuchElementException();
+            }
+            int index = current;
+            current = nextLive(current + 1);
+            return get(index);
+        }
+
+        protected abstract T get(int index);
+    }
+
+    @Override
+    public Iterable<Object> keys() {
+        return new Iterable<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new EntryIterator<Object>() {
+                    @Override
+                    protected Object get(int index) {
+                        return keys[index];
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<Object> values() {
+        return new Iterable<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return new EntryIterator<Object>() {
+                    @Override
+                    protected Object get(int index) {
+                        return getValue(index);
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Iterable<DictEntry> entries() {
+        return new Iterable<DictEntry>() {
+            @Override
+            public Iterator<DictEntry> iterator() {
+                return new EntryIterator<DictEntry>() {
+                    @Override
+                    protected DictEntry get(int index) {
+                        return new DictEntry(keys[index], getValue(index));
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public void clear() {
+        keys = EMPTY_KEYS;
+        values = isSet ? null : EMPTY_VALUES;
+        hashes = EMPTY_HASHES;
+        table = null;
+        size = 0;
+        used = 0;
+    }
+
+    @Override
+    public HashingStorage copy(Equivalence eq) {
+        return new StringMapStorage(this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(isSet ? "set(size=" : "map(size=").append(size).append(", {");
+        String sep = "";
+        for (int i = 0; i < used; i++) {
+            if (keys[i] != null) {
+                builder.append(sep);
+                if (isSet) {
+                    builder.append(keys[i]);
+                } else {
+                    builder.append("(").append(keys[i]).append(",").append(values[i]).append(")");
+                }
+                sep = ",";
+            }
+        }
+        return builder.append("})").toString();
+    }
+}
@@ -0,0 +1,617 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.deque;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__BOOL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CONTAINS__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DELITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__IADD__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REVERSED__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.control.GetIteratorNode;
+import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.expression.BinaryComparisonNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PDeque.class)
+public class DequeBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return DequeBuiltinsFactory.getFactories();
+    }
+
+    abstract static class DequeNode extends PythonBuiltinNode {
+        @Child private GetIteratorNode getIteratorNode;
+        @Child private GetNextNode getNextNode;
+
+        private final ConditionProfile errorProfile = ConditionProfile.createBinaryProfile();
+
+        protected final int normalizeIndex(PDeque self, long index) {
+            long normalized = index < 0 ? index + self.size() : index;
+            if (normalized < 0 || normalized >= self.size()) {
+                throw raise(IndexError, "deque index out of range");
+            }
+            return (int) normalized;
+        }
+
+        protected final void checkState(PDeque self, int expectedState) {
+            if (self.getState() != expectedState) {
+                throw raise(RuntimeError, "deque mutated during iteration");
+            }
+        }
+
+        protected final void extend(PDeque self, Object iterable, boolean left) {
+            if (iterable instanceof PDeque) {
+                // also covers d.extend(d), which must not see its own appends
+                for (Object value : ((PDeque) iterable).toArray()) {
+                    add(self, value, left);
+                }
+                return;
+            }
+            if (getIteratorNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getIteratorNode = insert(GetIteratorNode.create());
+                getNextNode = insert(GetNextNode.create());
+            }
+            Object iterator = getIteratorNode.executeWith(iterable);
+            while (true) {
+                Object value;
+                try {
+                    value = getNextNode.execute(iterator);
+                } catch (PException e) {
+                    e.expectStopIteration(getCore(), errorProfile);
+                    return;
+                }
+                add(self, value, left);
+            }
+        }
+
+        protected final boolean equals(PDeque self, PDeque other, BinaryComparisonNode eqNode) {
+            if (self.size() != other.size()) {
+                return false;
+            }
+            int state = self.getState();
+            int otherState = other.getState();
+            for (int i = 0; i < self.size(); i++) {
+                boolean eq = eqNode.executeBool(self.getItem(i), other.getItem(i));
+                checkState(self, state);
+                checkState(other, otherState);
+                if (!eq) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static void add(PDeque self, Object value, boolean left) {
+            if (left) {
+                self.appendLeft(value);
+            } else {
+                self.append(value);
+            }
+        }
+    }
+
+    // deque([iterable[, maxlen]])
+    @Builtin(name = __INIT__, minNumOfArguments = 1, maxNumOfArguments = 3, keywordArguments = {"iterable", "maxlen"})
+    @GenerateNodeFactory
+    public abstract static class InitNode extends DequeNode {
+
+        @Specialization
+        Object init(PDeque self, Object iterable, @SuppressWarnings("unused") PNone maxlen) {
+            return init(self, iterable, -1);
+        }
+
+        @Specialization
+        Object init(PDeque self, Object iterable, long maxlen) {
+            if (maxlen < 0) {
+                throw raise(ValueError, "maxlen must be non-negative");
+            }
+            self.clear();
+            self.setMaxlen((int) Math.min(maxlen, Integer.MAX_VALUE));
+            if (iterable != PNone.NO_VALUE) {
+                extend(self, iterable, false);
+            }
+            return PNone.NONE;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object init(Object self, Object iterable, Object maxlen) {
+            throw raise(TypeError, "an integer is required");
+        }
+    }
+
+    @Builtin(name = "maxlen", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class MaxlenNode extends DequeNode {
+        @Specialization
+        Object maxlen(PDeque self) {
+            int maxlen = self.getMaxlen();
+            return maxlen < 0 ? PNone.NONE : maxlen;
+        }
+    }
+
+    @Builtin(name = "append", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class AppendNode extends DequeNode {
+        @Specialization
+        PNone append(PDeque self, Object value) {
+            self.append(value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "appendleft", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class AppendLeftNode extends DequeNode {
+        @Specialization
+        PNone appendLeft(PDeque self, Object value) {
+            self.appendLeft(value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "pop", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class PopNode extends DequeNode {
+        @Specialization
+        Object pop(PDeque self) {
+            if (self.size() == 0) {
+                throw raise(IndexError, "pop from an empty deque");
+            }
+            return self.pop();
+        }
+    }
+
+    @Builtin(name = "popleft", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class PopLeftNode extends DequeNode {
+        @Specialization
+        Object popLeft(PDeque self) {
+            if (self.size() == 0) {
+                throw raise(IndexError, "pop from an empty deque");
+            }
+            return self.popLeft();
+        }
+    }
+
+    @Builtin(name = "extend", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class ExtendNode extends DequeNode {
+        @Specialization
+        PNone extend(PDeque self, Object iterable) {
+            extend(self, iterable, false);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "extendleft", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class ExtendLeftNode extends DequeNode {
+        @Specialization
+        PNone extendLeft(PDeque self, Object iterable) {
+            extend(self, iterable, true);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "rotate", minNumOfArguments = 1, maxNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class RotateNode extends DequeNode {
+        @Specialization
+        PNone rotate(PDeque self, @SuppressWarnings("unused") PNone n) {
+            self.rotate(1);
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone rotate(PDeque self, long n) {
+            self.rotate(n);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "clear", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ClearNode extends DequeNode {
+        @Specialization
+        PNone clear(PDeque self) {
+            self.clear();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "copy", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends DequeNode {
+        @Specialization
+        PDeque copy(PDeque self) {
+            PDeque copy = factory().createDeque(self.getPythonClass());
+            copy.setMaxlen(self.getMaxlen());
+            for (Object value : self.toArray()) {
+                copy.append(value);
+            }
+            return copy;
+        }
+    }
+
+    @Builtin(name = "__copy__", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class DunderCopyNode extends CopyNode {
+    }
+
+    @Builtin(name = "count", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class CountNode extends DequeNode {
+        @Specialization
+        long count(PDeque self, Object value,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            int state = self.getState();
+            long count = 0;
+            for (int i = 0; i < self.size(); i++) {
+                boolean eq = eqNode.executeBool(self.getItem(i), value);
+                checkState(self, state);
+                if (eq) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    // deque.index(x[, start[, stop]])
+    @Builtin(name = "index", minNumOfArguments = 2, maxNumOfArguments = 4)
+    @GenerateNodeFactory
+    public abstract static class IndexNode extends DequeNode {
+        @Specialization
+        int index(PDeque self, Object value, @SuppressWarnings("unused") PNone start, @SuppressWarnings("unused") PNone stop,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            return findIndex(self, value, 0, self.size(), eqNode);
+        }
+
+        @Specialization
+        int index(PDeque self, Object value, long start, @SuppressWarnings("unused") PNone stop,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            return findIndex(self, value, clampIndex(self, start), self.size(), eqNode);
+        }
+
+        @Specialization
+        int index(PDeque self, Object value, long start, long stop,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            return findIndex(self, value, clampIndex(self, start), clampIndex(self, stop), eqNode);
+        }
+
+        private static int clampIndex(PDeque self, long index) {
+            long normalized = index < 0 ? index + self.size() : index;
+            return (int) Math.max(0, Math.min(normalized, self.size()));
+        }
+
+        private int findIndex(PDeque self, Object value, int start, int stop, BinaryComparisonNode eqNode) {
+            int state = self.getState();
+            for (int i = start; i < stop && i < self.size(); i++) {
+                boolean eq = eqNode.executeBool(self.getItem(i), value);
+                checkState(self, state);
+                if (eq) {
+                    return i;
+                }
+            }
+            throw raise(ValueError, "%s is not in deque", value);
+        }
+    }
+
+    @Builtin(name = "insert", fixedNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class InsertNode extends DequeNode {
+        @Specialization
+        PNone insert(PDeque self, long index, Object value) {
+            if (self.size() == self.getMaxlen()) {
+                throw raise(IndexError, "deque already at its maximum size");
+            }
+            long normalized = index < 0 ? index + self.size() : index;
+            self.insert((int) Math.max(0, Math.min(normalized, self.size())), value);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "remove", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class RemoveNode extends DequeNode {
+        @Specialization
+        PNone remove(PDeque self, Object value,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            int state = self.getState();
+            for (int i = 0; i < self.size(); i++) {
+                boolean eq = eqNode.executeBool(self.getItem(i), value);
+                if (self.getState() != state) {
+                    throw raise(IndexError, "deque mutated during remove().");
+                }
+                if (eq) {
+                    self.delItem(i);
+                    return PNone.NONE;
+                }
+            }
+            throw raise(ValueError, "deque.remove(x): x not in deque");
+        }
+    }
+
+    @Builtin(name = "reverse", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReverseNode extends DequeNode {
+        @Specialization
+        PNone reverse(PDeque self) {
+            self.reverse();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __LEN__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class LenNode extends DequeNode {
+        @Specialization
+        int len(PDeque self) {
+            return self.size();
+        }
+    }
+
+    @Builtin(name = __BOOL__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class BoolNode extends DequeNode {
+        @Specialization
+        boolean bool(PDeque self) {
+            return self.size() != 0;
+        }
+    }
+
+    @Builtin(name = __GETITEM__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class GetItemNode extends DequeNode {
+        @Specialization
+        Object getItem(PDeque self, long index) {
+            return self.getItem(normalizeIndex(self, index));
+        }
+
+        @Fallback
+        Object getItem(@SuppressWarnings("unused") Object self, Object index) {
+            throw raise(TypeError, "sequence index must be integer, not '%p'", index);
+        }
+    }
+
+    @Builtin(name = __SETITEM__, fixedNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class SetItemNode extends DequeNode {
+        @Specialization
+        PNone setItem(PDeque self, long index, Object value) {
+            self.setItem(normalizeIndex(self, index), value);
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object setItem(@SuppressWarnings("unused") Object self, Object index, @SuppressWarnings("unused") Object value) {
+            throw raise(TypeError, "sequence index must be integer, not '%p'", index);
+        }
+    }
+
+    @Builtin(name = __DELITEM__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class DelItemNode extends DequeNode {
+        @Specialization
+        PNone delItem(PDeque self, long index) {
+            self.delItem(normalizeIndex(self, index));
+            return PNone.NONE;
+        }
+
+        @Fallback
+        Object delItem(@SuppressWarnings("unused") Object self, Object index) {
+            throw raise(TypeError, "sequence index must be integer, not '%p'", index);
+        }
+    }
+
+    @Builtin(name = __CONTAINS__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class ContainsNode extends DequeNode {
+        @Specialization
+        boolean contains(PDeque self, Object value,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            int state = self.getState();
+            for (int i = 0; i < self.size(); i++) {
+                boolean eq = eqNode.executeBool(self.getItem(i), value);
+                checkState(self, state);
+                if (eq) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @Builtin(name = __ITER__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class IterNode extends DequeNode {
+        @Specialization
+        PDequeIterator iter(PDeque self) {
+            return factory().createDequeIterator(self, false);
+        }
+    }
+
+    @Builtin(name = __REVERSED__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReversedNode extends DequeNode {
+        @Specialization
+        PDequeIterator reversed(PDeque self) {
+            return factory().createDequeIterator(self, true);
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends DequeNode {
+        @Specialization
+        @TruffleBoundary
+        Object repr(PDeque self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode repr) {
+            StringBuilder result = new StringBuilder(self.getPythonClass().getName()).append("([");
+            Object[] values = self.toArray();
+            for (int i = 0; i < values.length; i++) {
+                Object reprString = repr.executeObject(values[i]);
+                if (reprString instanceof PString) {
+                    reprString = ((PString) reprString).getValue();
+                }
+                if (!(reprString instanceof String)) {
+                    throw raise(TypeError, "__repr__ returned non-string (type %p)", reprString);
+                }
+                if (i > 0) {
+                    result.append(", ");
+                }
+                result.append((String) reprString);
+            }
+            result.append(']');
+            if (self.getMaxlen() >= 0) {
+                result.append(", maxlen=").append(self.getMaxlen());
+            }
+            return result.append(')').toString();
+        }
+    }
+
+    @Builtin(name = __EQ__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class EqNode extends DequeNode {
+        @Specialization
+        boolean eq(PDeque self, PDeque other,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            return equals(self, other, eqNode);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        PNotImplemented eq(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __NE__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class NeNode extends DequeNode {
+        @Specialization
+        boolean ne(PDeque self, PDeque other,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            return !equals(self, other, eqNode);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        PNotImplemented ne(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __ADD__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class AddNode extends DequeNode {
+        @Specialization
+        PDeque add(PDeque self, PDeque other) {
+            PDeque result = factory().createDeque(self.getPythonClass());
+            result.setMaxlen(self.getMaxlen());
+            for (Object value : self.toArray()) {
+                result.append(value);
+            }
+            for (Object value : other.toArray()) {
+                result.append(value);
+            }
+            return result;
+        }
+
+        @Fallback
+        Object add(@SuppressWarnings("unused") Object self, Object other) {
+            throw raise(TypeError, "can only concatenate deque (not \"%p\") to deque", other);
+        }
+    }
+
+    @Builtin(name = __IADD__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class IAddNode extends DequeNode {
+        @Specialization
+        PDeque iadd(PDeque self, Object iterable) {
+            extend(self, iterable, false);
+            return self;
+        }
+    }
+
+    @Builtin(name = __HASH__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class HashNode extends DequeNode {
+        @Specialization
+        Object hash(Object self) {
+            throw raise(TypeError, "unhashable type: '%p'", self);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.deque;
+
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+
+/**
+ * A double-ended queue stored in a circular buffer. The capacity is always a power of two, so the
+ * physical slot of a logical index is a single mask operation, and the buffer doubles when it is
+ * full. Appends and pops on either end are amortized O(1), as are random reads and writes. If a
+ * {@link #getMaxlen() maxlen} is set, appending to a full deque discards an element from the
+ * opposite end.
+ */
+public final class PDeque extends PythonBuiltinObject {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Object[] items = new Object[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+    /** The maximum length, or {@code -1} if the deque is unbounded. */
+    private int maxlen = -1;
+    /** Incremented on every structural change, so that iterators can detect mutation. */
+    private int state;
+
+    public PDeque(PythonClass cls) {
+        super(cls);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getMaxlen() {
+        return maxlen;
+    }
+
+    public void setMaxlen(int maxlen) {
+        this.maxlen = maxlen;
+    }
+
+    public int getState() {
+        return state;
+    }
+
+    private int slot(int index) {
+        return (head + index) & (items.length - 1);
+    }
+
+    private void grow() {
+        Object[] newItems = new Object[items.length << 1];
+        int firstPart = Math.min(size, items.length - head);
+        System.arraycopy(items, head, newItems, 0, firstPart);
+        System.arraycopy(items, 0, newItems, firstPart, size - firstPart);
+        items = newItems;
+        head = 0;
+    }
+
+    public void append(Object value) {
+        if (maxlen == 0) {
+            return;
+        }
+        if (size == maxlen) {
+            popLeft();
+        }
+        if (size == items.length) {
+            grow();
+        }
+        items[slot(size)] = value;
+        size++;
+        state++;
+    }
+
+    public void appendLeft(Object value) {
+        if (maxlen == 0) {
+            return;
+        }
+        if (size == maxlen) {
+            pop();
+        }
+        if (size == items.length) {
+            grow();
+        }
+        head = (head - 1) & (items.length - 1);
+        items[head] = value;
+        size++;
+        state++;
+    }
+
+    /**
+     * Removes and returns the rightmost element. The deque must not be empty.
+     */
+    public Object pop() {
+        assert size > 0;
+        int i = slot(size - 1);
+        Object value = items[i];
+        items[i] = null;
+        size--;
+        state++;
+        return value;
+    }
+
+    /**
+     * Removes and returns the leftmost element. The deque must not be empty.
+     */
+    public Object popLeft() {
+        assert size > 0;
+        Object value = items[head];
+        items[head] = null;
+        head = (head + 1) & (items.length - 1);
+        size--;
+        state++;
+        return value;
+    }
+
+    public Object getItem(int index) {
+        assert index >= 0 && index < size;
+        return items[slot(index)];
+    }
+
+    public void setItem(int index, Object value) {
+        assert index >= 0 && index < size;
+        items[slot(index)] = value;
+    }
+
+    /**
+     * Inserts {@code value} before the element at {@code index}, shifting the shorter side.
+     */
+    public void insert(int index, Object value) {
+        assert index >= 0 && index <= size;
+        if (size == items.length) {
+            grow();
+        }
+        int mask = items.length - 1;
+        if (index < size - index) {
+            head = (head - 1) & mask;
+            for (int i = 0; i < index; i++) {
+                items[slot(i)] = items[slot(i + 1)];
+            }
+        } else {
+            for (int i = size; i > index; i--) {
+                items[slot(i)] = items[slot(i - 1)];
+            }
+        }
+        items[slot(index)] = value;
+        size++;
+        state++;
+    }
+
+    /**
+     * Removes the element at {@code index}, shifting the shorter side.
+     */
+    public void delItem(int index) {
+        assert index >= 0 && index < size;
+        if (index < size - 1 - index) {
+            for (int i = index; i > 0; i--) {
+                items[slot(i)] = items[slot(i - 1)];
+            }
+            items[head] = null;
+            head = (head + 1) & (items.length - 1);
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                items[slot(i)] = items[slot(i + 1)];
+            }
+            items[slot(size - 1)] = null;
+        }
+        size--;
+        state++;
+    }
+
+    /**
+     * Rotates the deque {@code n} steps to the right, or to the left if {@code n} is negative.
+     * Only the elements that wrap around are moved.
+     */
+    public void rotate(long n) {
+        if (size <= 1) {
+            return;
+        }
+        int steps = (int) (((n % size) + size) % size);
+        if (steps == 0) {
+            return;
+        }
+        int mask = items.length - 1;
+        if (size == items.length) {
+            head = (head - steps) & mask;
+        } else if (steps <= size / 2) {
+            for (int i = 0; i < steps; i++) {
+                int last = slot(size - 1);
+                head = (head - 1) & mask;
+                items[head] = items[last];
+                items[last] = null;
+            }
+        } else {
+            for (int i = steps; i < size; i++) {
+                items[slot(size)] = items[head];
+                items[head] = null;
+                head = (head + 1) & mask;
+            }
+        }
+        state++;
+    }
+
+    public void reverse() {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            int a = slot(i);
+            int b = slot(j);
+            Object tmp = items[a];
+            items[a] = items[b];
+            items[b] = tmp;
+        }
+        state++;
+    }
+
+    public void clear() {
+        Arrays.fill(items, null);
+        head = 0;
+        size = 0;
+        state++;
+    }
+
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int firstPart = Math.min(size, items.length - head);
+        System.arraycopy(items, head, result, 0, firstPart);
+        System.arraycopy(items, 0, result, firstPart, size - firstPart);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "deque(" + Arrays.toString(toArray()) + ")";
+    }
+}
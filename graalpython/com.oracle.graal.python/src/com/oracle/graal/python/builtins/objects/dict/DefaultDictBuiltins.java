@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.dict;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__INIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__MISSING__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PDefaultDict.class)
+public class DefaultDictBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return DefaultDictBuiltinsFactory.getFactories();
+    }
+
+    // defaultdict([default_factory[, ...]])
+    @Builtin(name = __INIT__, minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true)
+    @GenerateNodeFactory
+    public abstract static class InitNode extends PythonBuiltinNode {
+
+        @Specialization(guards = "args.len() <= 2")
+        Object init(PDefaultDict self, PTuple args, PKeyword[] kwargs,
+                        @Cached("create()") LookupInheritedAttributeNode lookupCallNode,
+                        @Cached("create()") HashingStorageNodes.InitNode initNode) {
+            Object defaultFactory = args.len() > 0 ? args.getItem(0) : PNone.NONE;
+            if (defaultFactory != PNone.NONE && lookupCallNode.execute(defaultFactory, __CALL__) == PNone.NO_VALUE) {
+                throw raise(TypeError, "first argument must be callable or None");
+            }
+            self.setDefaultFactory(defaultFactory);
+            initNode.execute(self, args.len() > 1 ? args.getItem(1) : PNone.NO_VALUE, kwargs);
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "args.len() > 2")
+        Object init(@SuppressWarnings("unused") PDefaultDict self, PTuple args, @SuppressWarnings("unused") PKeyword[] kwargs) {
+            throw raise(TypeError, "dict expected at most 1 arguments, got %d", args.len() - 1);
+        }
+    }
+
+    @Builtin(name = "default_factory", minNumOfArguments = 1, maxNumOfArguments = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class DefaultFactoryNode extends PythonBuiltinNode {
+        @Specialization(guards = "isNoValue(none)")
+        Object get(PDefaultDict self, @SuppressWarnings("unused") PNone none) {
+            return self.getDefaultFactory();
+        }
+
+        @Specialization(guards = "!isNoValue(defaultFactory)")
+        Object set(PDefaultDict self, Object defaultFactory) {
+            self.setDefaultFactory(defaultFactory);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __MISSING__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class MissingNode extends PythonBuiltinNode {
+        @Specialization
+        Object missing(PDefaultDict self, Object key,
+                        @Cached("create()") HashingStorageNodes.SetItemNode setItemNode,
+                        @Cached("create()") CallNode callFactoryNode) {
+            Object defaultFactory = self.getDefaultFactory();
+            if (defaultFactory == PNone.NONE) {
+                throw raise(KeyError, "%s", key);
+            }
+            Object value = callFactoryNode.execute(defaultFactory, new Object[0], PKeyword.EMPTY_KEYWORDS);
+            setItemNode.execute(self, key, value);
+            return value;
+        }
+    }
+
+    @Builtin(name = "copy", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends PythonBuiltinNode {
+        @Specialization
+        PDefaultDict copy(PDefaultDict self,
+                        @Cached("create()") HashingStorageNodes.CopyNode copyNode) {
+            PDefaultDict copy = factory().createDefaultDict(self.getPythonClass());
+            copy.setDefaultFactory(self.getDefaultFactory());
+            copy.setDictStorage(copyNode.execute(self.getDictStorage()));
+            return copy;
+        }
+    }
+
+    @Builtin(name = "__copy__", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class DunderCopyNode extends CopyNode {
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object repr(PDefaultDict self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprFactoryNode,
+                        @Cached("createDictRepr()") DictBuiltins.ReprNode dictReprNode) {
+            Object defaultFactory = self.getDefaultFactory();
+            Object factoryRepr = defaultFactory == self ? "..." : reprFactoryNode.executeObject(defaultFactory);
+            if (factoryRepr instanceof PString) {
+                factoryRepr = ((PString) factoryRepr).getValue();
+            }
+            if (!(factoryRepr instanceof String)) {
+                throw raise(TypeError, "__repr__ returned non-string (type %p)", factoryRepr);
+            }
+            return concat(self.getPythonClass().getName(), (String) factoryRepr, dictReprNode.execute(self));
+        }
+
+        @TruffleBoundary
+        private static String concat(String name, String factoryRepr, Object dictRepr) {
+            return name + "(" + factoryRepr + ", " + dictRepr + ")";
+        }
+
+        protected static DictBuiltins.ReprNode createDictRepr() {
+            return DictBuiltinsFactory.ReprNodeFactory.create(null);
+        }
+    }
+}
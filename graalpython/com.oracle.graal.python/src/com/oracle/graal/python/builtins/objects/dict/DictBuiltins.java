@@ -49,13 +49,13 @@ import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
-import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.ContainsKeyNode;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
@@ -112,26 +112,25 @@ public final class DictBuiltins extends PythonBuiltins {
     @Builtin(name = "setdefault", fixedNumOfArguments = 3)
     @GenerateNodeFactory
     public abstract static class SetDefaultNode extends PythonBuiltinNode {
-        @Child private HashingStorageNodes.ContainsKeyNode containsKeyNode;
-
-        protected boolean containsKey(HashingStorage storage, Object key) {
-            if (containsKeyNode == null) {
-                CompilerDirectives.transferToInterpreterAndInvalidate();
-                containsKeyNode = insert(ContainsKeyNode.create());
-            }
-            return containsKeyNode.execute(storage, key);
-        }
-
-        @Specialization(guards = "containsKey(dict.getDictStorage(), key)")
-        public Object setDefault(PDict dict, Object key, @SuppressWarnings("unused") Object defaultValue,
-                        @Cached("create()") HashingStorageNodes.GetItemNode getItemNode) {
-            return getItemNode.execute(dict.getDictStorage(), key);
-        }
 
-        @Specialization(guards = "!containsKey(dict.getDictStorage(), key)")
+        @Specialization
         public Object setDefault(PDict dict, Object key, Object defaultValue,
+                        @Cached("create()") HashingStorageNodes.GetItemNode getItemNode,
                         @Cached("create()") HashingStorageNodes.SetItemNode setItemNode) {
+            if (isSingleThreaded()) {
+                return doSetDefault(dict, key, defaultValue, getItemNode, setItemNode);
+            }
+            // another thread must not store the key between the lookup and the update
+            synchronized (dict) {
+                return doSetDefault(dict, key, defaultValue, getItemNode, setItemNode);
+            }
+        }
 
+        private static Object doSetDefault(PDict dict, Object key, Object defaultValue, HashingStorageNodes.GetItemNode getItemNode, HashingStorageNodes.SetItemNode setItemNode) {
+            Object value = getItemNode.execute(dict.getDictStorage(), key);
+            if (value != null) {
+                return value;
+            }
             setItemNode.execute(dict, dict.getDictStorage(), key, defaultValue);
             return defaultValue;
         }
@@ -168,6 +167,16 @@ public final class DictBuiltins extends PythonBuiltins {
 
         @Specialization
         public Object popDefault(PDict dict, Object key, Object defaultValue) {
+            if (isSingleThreaded()) {
+                return doPop(dict, key, defaultValue);
+            }
+            // the key must be removed by the thread that returns its value
+            synchronized (dict) {
+                return doPop(dict, key, defaultValue);
+            }
+        }
+
+        private Object doPop(PDict dict, Object key, Object defaultValue) {
             Object retVal = getGetItemNode().execute(dict.getDictStorage(), key);
             if (retVal != null) {
                 getDelItemNode().execute(dict, dict.getDictStorage(), key);
@@ -186,6 +195,15 @@ public final class DictBuiltins extends PythonBuiltins {
         @Specialization
         @TruffleBoundary
         public Object popItem(PDict dict) {
+            if (isSingleThreaded()) {
+                return doPopItem(dict);
+            }
+            synchronized (dict) {
+                return doPopItem(dict);
+            }
+        }
+
+        private Object doPopItem(PDict dict) {
             Iterator<DictEntry> iterator = dict.getDictStorage().entries().iterator();
             if (iterator.hasNext()) {
                 DictEntry entry = iterator.next();
@@ -226,13 +244,13 @@ public final class DictBuiltins extends PythonBuiltins {
 
         @Specialization(guards = "!isNoValue(defaultValue)")
         public Object doWithDefault(PDict self, Object key, Object defaultValue) {
-            final Object value = getGetItemNode().execute(self.getDictStorage(), key);
+            final Object value = getGetItemNode().execute(self, key);
             return value != null ? value : defaultValue;
         }
 
         @Specialization
         public Object doNoDefault(PDict self, Object key, @SuppressWarnings("unused") PNone defaultValue) {
-            final Object value = getGetItemNode().execute(self.getDictStorage(), key);
+            final Object value = getGetItemNode().execute(self, key);
             return value != null ? value : PNone.NONE;
         }
 
@@ -248,11 +266,34 @@ public final class DictBuiltins extends PythonBuiltins {
     @Builtin(name = __GETITEM__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     public abstract static class GetItemNode extends PythonBuiltinNode {
+        /**
+         * The {@code __missing__} of {@code defaultdict} itself cannot be overridden, so the
+         * default factory is called here directly instead of looking up and calling
+         * {@code __missing__}. Subclasses take the generic path.
+         */
+        @Specialization(guards = "self.getPythonClass().isBuiltin()")
+        Object getItem(PDefaultDict self, Object key,
+                        @Cached("create()") HashingStorageNodes.GetItemNode getItemNode,
+                        @Cached("create()") HashingStorageNodes.SetItemNode setItemNode,
+                        @Cached("create()") CallNode callFactoryNode) {
+            final Object result = getItemNode.execute(self, key);
+            if (result == null) {
+                Object defaultFactory = self.getDefaultFactory();
+                if (defaultFactory == PNone.NONE) {
+                    throw raise(KeyError, "%s", key);
+                }
+                Object value = callFactoryNode.execute(defaultFactory, new Object[0], PKeyword.EMPTY_KEYWORDS);
+                setItemNode.execute(self, key, value);
+                return value;
+            }
+            return result;
+        }
+
         @Specialization
         Object getItem(PDict self, Object key,
                         @Cached("create()") HashingStorageNodes.GetItemNode getItemNode,
                         @Cached("create(__MISSING__)") LookupAndCallBinaryNode specialNode) {
-            final Object result = getItemNode.execute(self.getDictStorage(), key);
+            final Object result = getItemNode.execute(self, key);
             if (result == null) {
                 return specialNode.executeObject(self, key);
             }
@@ -276,7 +317,7 @@ public final class DictBuiltins extends PythonBuiltins {
         @Specialization
         Object run(PDict self, Object key, Object value,
                         @Cached("create()") HashingStorageNodes.SetItemNode setItemNode) {
-            setItemNode.execute(self, self.getDictStorage(), key, value);
+            setItemNode.execute(self, key, value);
             return PNone.NONE;
         }
     }
@@ -287,7 +328,7 @@ public final class DictBuiltins extends PythonBuiltins {
         @Specialization
         Object run(PDict self, Object key,
                         @Cached("create()") HashingStorageNodes.DelItemNode delItemNode) {
-            if (delItemNode.execute(self, self.getDictStorage(), key)) {
+            if (delItemNode.execute(self, key)) {
                 return PNone.NONE;
             }
             throw getCore().raise(KeyError, this, "%s", key);
@@ -336,7 +377,7 @@ public final class DictBuiltins extends PythonBuiltins {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 containsKeyNode = insert(ContainsKeyNode.create());
             }
-            return containsKeyNode.execute(self.getDictStorage(), key);
+            return containsKeyNode.execute(self, key);
         }
     }
 
@@ -366,7 +407,12 @@ public final class DictBuiltins extends PythonBuiltins {
         @Specialization
         public PDict copy(PDict dict,
                         @Cached("create()") HashingStorageNodes.CopyNode copyNode) {
-            return factory().createDict(copyNode.execute(dict.getDictStorage()));
+            if (isSingleThreaded()) {
+                return factory().createDict(copyNode.execute(dict.getDictStorage()));
+            }
+            synchronized (dict) {
+                return factory().createDict(copyNode.execute(dict.getDictStorage()));
+            }
         }
     }
 
@@ -377,7 +423,13 @@ public final class DictBuiltins extends PythonBuiltins {
 
         @Specialization
         public PDict copy(PDict dict) {
-            dict.getDictStorage().clear();
+            if (isSingleThreaded()) {
+                dict.getDictStorage().clear();
+            } else {
+                synchronized (dict) {
+                    dict.getDictStorage().clear();
+                }
+            }
             return dict;
         }
     }
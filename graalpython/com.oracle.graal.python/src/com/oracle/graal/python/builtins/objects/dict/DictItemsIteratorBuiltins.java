@@ -33,18 +33,15 @@ import java.util.List;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
-import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
 import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictItemsIterator;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
-import com.oracle.graal.python.runtime.exception.PythonErrorType;
-import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PDictItemsIterator.class)
 public final class DictItemsIteratorBuiltins extends PythonBuiltins {
@@ -59,22 +56,8 @@ public final class DictItemsIteratorBuiltins extends PythonBuiltins {
     public abstract static class NextNode extends PythonUnaryBuiltinNode {
         @Specialization
         Object run(PDictItemsIterator self,
-                        @Cached("createBinaryProfile()") ConditionProfile profile) {
-            if (profile.profile(hasNext(self))) {
-                DictEntry value = next(self);
-                return factory().createTuple(new Object[]{value.getKey(), value.getValue()});
-            }
-            throw raise(PythonErrorType.StopIteration);
-        }
-
-        @TruffleBoundary
-        private static DictEntry next(PDictItemsIterator self) {
-            return self.getIterator().next();
-        }
-
-        @TruffleBoundary
-        private static boolean hasNext(PDictItemsIterator self) {
-            return self.getIterator().hasNext();
+                        @Cached("create()") GetNextOrStopNode next) {
+            return next.executeOrRaise(self);
         }
     }
 
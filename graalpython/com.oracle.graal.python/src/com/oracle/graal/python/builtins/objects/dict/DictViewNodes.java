@@ -56,13 +56,13 @@ public abstract class DictViewNodes {
         @Specialization
         protected boolean doDictKeysView(PDictKeysView self, Object key,
                         @Cached("create()") HashingStorageNodes.ContainsKeyNode containsKeyNode) {
-            return containsKeyNode.execute(self.getDict().getDictStorage(), key);
+            return containsKeyNode.execute(self.getDict(), key);
         }
 
         @Specialization
         protected boolean doDictValuesView(PDictValuesView self, Object key,
                         @Cached("create()") HashingStorageNodes.ContainsKeyNode containsKeyNode) {
-            return containsKeyNode.execute(self.getDict().getDictStorage(), key);
+            return containsKeyNode.execute(self.getDict(), key);
         }
     }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.dict;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REVERSED__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes;
+import com.oracle.graal.python.builtins.objects.common.LinkedMapStorage;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.expression.BinaryComparisonNode;
+import com.oracle.graal.python.nodes.expression.CastToBooleanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+/**
+ * The methods of {@code OrderedDict} that differ from {@code dict}. Everything else is inherited,
+ * and keeps the order because it goes through the {@link LinkedMapStorage} of the dictionary.
+ */
+@CoreFunctions(extendClasses = POrderedDict.class)
+public class OrderedDictBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return OrderedDictBuiltinsFactory.getFactories();
+    }
+
+    abstract static class OrderedDictNode extends PythonBuiltinNode {
+        protected static boolean isLast(Object last, CastToBooleanNode castToBoolean) {
+            return last == PNone.NO_VALUE || castToBoolean.executeWith(last);
+        }
+    }
+
+    // move_to_end(key, last=True)
+    @Builtin(name = "move_to_end", fixedNumOfArguments = 2, keywordArguments = {"last"})
+    @GenerateNodeFactory
+    public abstract static class MoveToEndNode extends OrderedDictNode {
+        @Specialization
+        PNone moveToEnd(POrderedDict self, Object key, Object last,
+                        @Cached("createIfTrueNode()") CastToBooleanNode castToBoolean) {
+            boolean toEnd = isLast(last, castToBoolean);
+            boolean moved;
+            if (isSingleThreaded()) {
+                moved = moveToEnd(self.getLinkedStorage(), key, toEnd);
+            } else {
+                synchronized (self) {
+                    moved = moveToEnd(self.getLinkedStorage(), key, toEnd);
+                }
+            }
+            if (!moved) {
+                throw raise(KeyError, "%s", key);
+            }
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private static boolean moveToEnd(LinkedMapStorage storage, Object key, boolean last) {
+            return storage.moveToEnd(key, last, HashingStorage.getSlowPathEquivalence(key));
+        }
+    }
+
+    // popitem(last=True)
+    @Builtin(name = "popitem", fixedNumOfArguments = 1, keywordArguments = {"last"})
+    @GenerateNodeFactory
+    public abstract static class PopItemNode extends OrderedDictNode {
+        @Specialization
+        Object popItem(POrderedDict self, Object last,
+                        @Cached("createIfTrueNode()") CastToBooleanNode castToBoolean) {
+            boolean fromEnd = isLast(last, castToBoolean);
+            DictEntry entry;
+            if (isSingleThreaded()) {
+                entry = popEntry(self.getLinkedStorage(), fromEnd);
+            } else {
+                synchronized (self) {
+                    entry = popEntry(self.getLinkedStorage(), fromEnd);
+                }
+            }
+            if (entry == null) {
+                throw raise(KeyError, "dictionary is empty");
+            }
+            return factory().createTuple(new Object[]{entry.getKey(), entry.getValue()});
+        }
+
+        @TruffleBoundary
+        private static DictEntry popEntry(LinkedMapStorage storage, boolean last) {
+            return storage.popEntry(last, HashingStorage.getSlowPathEquivalence(null));
+        }
+    }
+
+    @Builtin(name = __REVERSED__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReversedNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object reversed(POrderedDict self) {
+            return factory().createDictKeysIterator(self.getLinkedStorage().keys(true));
+        }
+    }
+
+    @Builtin(name = "copy", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends PythonBuiltinNode {
+        @Specialization
+        POrderedDict copy(POrderedDict self,
+                        @Cached("create()") HashingStorageNodes.CopyNode copyNode) {
+            POrderedDict copy = factory().createOrderedDict(self.getPythonClass());
+            copy.setDictStorage(copyNode.execute(self.getDictStorage()));
+            return copy;
+        }
+    }
+
+    @Builtin(name = "__copy__", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class DunderCopyNode extends CopyNode {
+    }
+
+    @Builtin(name = __EQ__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class EqNode extends PythonBuiltinNode {
+        /**
+         * Two ordered dictionaries are only equal if their entries are in the same order.
+         */
+        @Specialization
+        @TruffleBoundary
+        boolean eq(POrderedDict self, POrderedDict other,
+                        @Cached("create(__EQ__, __EQ__, __EQ__)") BinaryComparisonNode eqNode) {
+            if (self.size() != other.size()) {
+                return false;
+            }
+            Iterator<DictEntry> otherEntries = other.entries().iterator();
+            for (DictEntry entry : self.entries()) {
+                if (!otherEntries.hasNext()) {
+                    return false;
+                }
+                DictEntry otherEntry = otherEntries.next();
+                if (!eqNode.executeBool(entry.getKey(), otherEntry.getKey()) || !eqNode.executeBool(entry.getValue(), otherEntry.getValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Specialization
+        Object eq(POrderedDict self, PDict other,
+                        @Cached("create()") HashingStorageNodes.EqualsNode equalsNode) {
+            return equalsNode.execute(self.getDictStorage(), other.getDictStorage());
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object eq(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        Object repr(POrderedDict self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode) {
+            StringBuilder result = new StringBuilder(self.getPythonClass().getName()).append('(');
+            if (self.size() == 0) {
+                return result.append(')').toString();
+            }
+            result.append('[');
+            boolean initial = true;
+            for (DictEntry entry : self.entries()) {
+                if (initial) {
+                    initial = false;
+                } else {
+                    result.append(", ");
+                }
+                result.append('(').append(repr(reprNode, entry.getKey())).append(", ");
+                result.append(entry.getValue() == self ? "..." : repr(reprNode, entry.getValue())).append(')');
+            }
+            return result.append("])").toString();
+        }
+
+        private String repr(LookupAndCallUnaryNode reprNode, Object value) {
+            Object repr = reprNode.executeObject(value);
+            if (repr instanceof PString) {
+                repr = ((PString) repr).getValue();
+            }
+            if (!(repr instanceof String)) {
+                throw raise(TypeError, "__repr__ returned non-string (type %p)", repr);
+            }
+            return (String) repr;
+        }
+    }
+}
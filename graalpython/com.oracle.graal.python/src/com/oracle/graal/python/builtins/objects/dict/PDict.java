@@ -34,10 +34,11 @@ import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage.UnmodifiableStorageException;
 import com.oracle.graal.python.builtins.objects.common.KeywordsStorage;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
+import com.oracle.graal.python.builtins.objects.common.StringMapStorage;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 
-public final class PDict extends PHashingCollection {
+public class PDict extends PHashingCollection {
 
     private HashingStorage dictStorage;
 
@@ -65,6 +66,7 @@ public final class PDict extends PHashingCollection {
             dictStorage.setItem(key, value, HashingStorage.getSlowPathEquivalence(key));
         } catch (UnmodifiableStorageException e) {
             HashingStorage newDictStorage = createNewStorage(key instanceof String, size() + 1);
+            newDictStorage.addAll(dictStorage, HashingStorage.getSlowPathEquivalence(key));
             newDictStorage.setItem(key, value, HashingStorage.getSlowPathEquivalence(key));
             dictStorage = newDictStorage;
         }
@@ -76,6 +78,8 @@ public final class PDict extends PHashingCollection {
             newDictStorage = new EmptyStorage();
         } else if (isStringKey && expectedSize < DynamicObjectStorage.SIZE_THRESHOLD) {
             newDictStorage = new FastDictStorage();
+        } else if (isStringKey) {
+            newDictStorage = new StringMapStorage(expectedSize);
         } else {
             newDictStorage = EconomicMapStorage.create(expectedSize, false);
         }
@@ -87,6 +91,7 @@ public final class PDict extends PHashingCollection {
             dictStorage.remove(key, HashingStorage.getSlowPathEquivalence(key));
         } catch (UnmodifiableStorageException e) {
             HashingStorage newDictStorage = createNewStorage(key instanceof String, size() - 1);
+            newDictStorage.addAll(dictStorage, HashingStorage.getSlowPathEquivalence(key));
             newDictStorage.remove(key, HashingStorage.getSlowPathEquivalence(key));
             dictStorage = newDictStorage;
         }
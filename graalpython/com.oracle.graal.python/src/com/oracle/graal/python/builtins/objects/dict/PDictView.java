@@ -66,6 +66,10 @@ public abstract class PDictView extends PythonBuiltinObject {
         public PDictKeysIterator(PythonClass clazz, PDict dict) {
             super(clazz, dict.keys().iterator());
         }
+
+        public PDictKeysIterator(PythonClass clazz, Iterable<Object> keys) {
+            super(clazz, keys.iterator());
+        }
     }
 
     public final static class PDictKeysView extends PDictView {
@@ -92,6 +92,10 @@ public final class PBaseException extends PythonObject {
     }
 
     public void setException(PException exception) {
+        if (this.exception != null) {
+            // re-raised: keep the traceback of the original raise
+            reifyException();
+        }
         this.exception = exception;
     }
 
@@ -155,9 +159,13 @@ public final class PBaseException extends PythonObject {
     }
 
     /**
-     * This function must be called before handing out exceptions into the Python value space,
-     * because otherwise the stack will not be correct if the exception object escapes the current
-     * function.
+     * Materializes the stack trace of this exception. The frames between the raise and the handler
+     * are recorded while the exception unwinds, the remaining frames are taken from the stack at
+     * the time of this call. So this must happen before the exception object can escape the frame
+     * of its handler, or be looked up from code called by the handler: when it is caught by an
+     * {@code except} clause whose name is used or whose body may call other code, or when it is
+     * raised again. Other caught exceptions are only materialized if their traceback is requested
+     * while they are being handled.
      */
     @TruffleBoundary
     public void reifyException() {
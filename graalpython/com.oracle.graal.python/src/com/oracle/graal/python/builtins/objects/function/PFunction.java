@@ -62,8 +62,8 @@ public class PFunction extends PythonObject implements PythonCallable {
         addDefaultConstants(this.getStorage(), name, enclosingClassName);
     }
 
-    public PFunction copyWithGlobals(PythonObject newGlobals) {
-        return new PFunction(getPythonClass(), name, enclosingClassName, arity, callTarget, frameDescriptor, newGlobals, closure);
+    public PFunction copyWithGlobals(PythonObject newGlobals, PCell[] newClosure) {
+        return new PFunction(getPythonClass(), name, enclosingClassName, arity, callTarget, frameDescriptor, newGlobals, newClosure);
     }
 
     @TruffleBoundary
@@ -100,6 +100,10 @@ public class PFunction extends PythonObject implements PythonCallable {
         return name;
     }
 
+    public String getEnclosingClassName() {
+        return enclosingClassName;
+    }
+
     @Override
     public Arity getArity() {
         return arity;
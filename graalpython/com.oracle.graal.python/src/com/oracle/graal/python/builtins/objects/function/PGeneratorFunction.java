@@ -55,6 +55,15 @@ public final class PGeneratorFunction extends PFunction {
         super(clazz, name, enclosingClassName, arity, callTarget, frameDescriptor, globals, closure);
     }
 
+    /**
+     * The call target of a generator function holds on to its closure, so the copy keeps it.
+     */
+    @Override
+    public PFunction copyWithGlobals(PythonObject newGlobals, PCell[] newClosure) {
+        assert newClosure == getClosure();
+        return new PGeneratorFunction(getPythonClass(), getName(), getEnclosingClassName(), getArity(), getCallTarget(), getFrameDescriptor(), newGlobals, newClosure);
+    }
+
     @Override
     public boolean isGeneratorFunction() {
         return true;
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GET__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.PythonEquivalence;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PLruCacheWrapper.class)
+public class LruCacheWrapperBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return LruCacheWrapperBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __CALL__, minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true)
+    @GenerateNodeFactory
+    public abstract static class CallWrapperNode extends PythonBuiltinNode {
+        @Child private PythonEquivalence equivalence = new PythonEquivalence();
+
+        @Specialization(guards = "self.getMaxSize() == 0")
+        Object callUncached(PLruCacheWrapper self, PTuple arguments, PKeyword[] keywords,
+                        @Cached("create()") CallNode callNode) {
+            Object result = callNode.execute(self.getFunction(), arguments.getArray(), keywords);
+            store(self, null, result);
+            return result;
+        }
+
+        @Specialization(guards = "self.getMaxSize() != 0")
+        Object call(PLruCacheWrapper self, PTuple arguments, PKeyword[] keywords,
+                        @Cached("create()") CallNode callNode,
+                        @Cached("create()") GetClassNode getClassNode,
+                        @Cached("createBinaryProfile()") ConditionProfile hitProfile) {
+            Object key = makeKey(self, arguments, keywords, getClassNode);
+            Object result;
+            if (isSingleThreaded()) {
+                result = self.lookup(key, equivalence);
+            } else {
+                synchronized (self) {
+                    result = self.lookup(key, equivalence);
+                }
+            }
+            if (hitProfile.profile(result != null)) {
+                return result;
+            }
+            // like in CPython, the function is called without holding the lock, so two threads
+            // may both compute the result for the same key
+            result = callNode.execute(self.getFunction(), arguments.getArray(), keywords);
+            store(self, key, result);
+            return result;
+        }
+
+        private void store(PLruCacheWrapper self, Object key, Object result) {
+            if (isSingleThreaded()) {
+                self.store(key, result, equivalence);
+            } else {
+                synchronized (self) {
+                    self.store(key, result, equivalence);
+                }
+            }
+        }
+
+        /**
+         * Builds the cache key like CPython does: the positional arguments, then a marker followed
+         * by the keyword names and values, then the argument types if the cache is typed. A single
+         * int or str argument is its own key, and so is the argument tuple if there is nothing
+         * else to add.
+         */
+        private Object makeKey(PLruCacheWrapper self, PTuple arguments, PKeyword[] keywords, GetClassNode getClassNode) {
+            Object[] args = arguments.getArray();
+            if (keywords.length == 0 && !self.isTyped()) {
+                if (args.length == 1 && isFastType(args[0])) {
+                    return args[0];
+                }
+                return arguments;
+            }
+            int length = args.length;
+            if (keywords.length > 0) {
+                length += 1 + 2 * keywords.length;
+            }
+            if (self.isTyped()) {
+                length += args.length + keywords.length;
+            }
+            Object[] key = new Object[length];
+            System.arraycopy(args, 0, key, 0, args.length);
+            int i = args.length;
+            if (keywords.length > 0) {
+                key[i++] = self.getKeywordMark();
+                for (PKeyword keyword : keywords) {
+                    key[i++] = keyword.getName();
+                    key[i++] = keyword.getValue();
+                }
+            }
+            if (self.isTyped()) {
+                for (Object arg : args) {
+                    key[i++] = getClassNode.execute(arg);
+                }
+                for (PKeyword keyword : keywords) {
+                    key[i++] = getClassNode.execute(keyword.getValue());
+                }
+            }
+            return factory().createTuple(key);
+        }
+
+        private static boolean isFastType(Object value) {
+            return value instanceof Integer || value instanceof Long || value instanceof String;
+        }
+    }
+
+    @Builtin(name = "cache_info", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CacheInfoNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object cacheInfo(PLruCacheWrapper self,
+                        @Cached("create()") CallNode callNode) {
+            Object[] info;
+            if (isSingleThreaded()) {
+                info = getInfo(self);
+            } else {
+                synchronized (self) {
+                    info = getInfo(self);
+                }
+            }
+            return callNode.execute(self.getCacheInfoType(), info, PKeyword.EMPTY_KEYWORDS);
+        }
+
+        private static Object[] getInfo(PLruCacheWrapper self) {
+            int maxSize = self.getMaxSize();
+            return new Object[]{self.getHits(), self.getMisses(), maxSize == PLruCacheWrapper.UNBOUNDED ? PNone.NONE : maxSize, self.getCurrentSize()};
+        }
+    }
+
+    @Builtin(name = "cache_clear", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CacheClearNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object cacheClear(PLruCacheWrapper self) {
+            if (isSingleThreaded()) {
+                self.clear();
+            } else {
+                synchronized (self) {
+                    self.clear();
+                }
+            }
+            return PNone.NONE;
+        }
+    }
+
+    // binds the instance like a method, so that lru_cache can decorate methods
+    @Builtin(name = __GET__, fixedNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class GetNode extends PythonTernaryBuiltinNode {
+        @Specialization(guards = "isNone(instance)")
+        Object getUnbound(PLruCacheWrapper self, @SuppressWarnings("unused") Object instance, @SuppressWarnings("unused") Object owner) {
+            return self;
+        }
+
+        @Specialization(guards = "!isNone(instance)")
+        Object get(PLruCacheWrapper self, Object instance, @SuppressWarnings("unused") Object owner) {
+            return factory().createPartial(self, new Object[]{instance}, PKeyword.EMPTY_KEYWORDS);
+        }
+    }
+
+    @Builtin(name = __DICT__, fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class DictNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object dict(PLruCacheWrapper self) {
+            PDict dict = self.getDict();
+            if (dict == null) {
+                dict = factory().createDictFixedStorage(self);
+                self.setDict(dict);
+            }
+            return dict;
+        }
+    }
+}
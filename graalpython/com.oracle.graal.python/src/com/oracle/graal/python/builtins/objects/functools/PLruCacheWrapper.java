@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.Equivalence;
+import com.oracle.graal.python.builtins.objects.common.LinkedMapStorage;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+
+/**
+ * The callable returned by {@code functools.lru_cache}. Results are kept in a
+ * {@link LinkedMapStorage} ordered from least to most recently used, so a hit is one lookup that
+ * moves the entry to the end and an eviction pops the first entry.
+ *
+ * This class does not synchronize itself. Once more than one thread runs, the builtins call
+ * {@link #lookup}, {@link #store} and {@link #clear} while holding the lock of the wrapper. The
+ * storage also tolerates a key whose {@code __hash__} or {@code __eq__} changes the cache itself.
+ */
+public final class PLruCacheWrapper extends PythonBuiltinObject {
+
+    /** The value of {@link #getMaxSize()} if the cache has no size limit. */
+    public static final int UNBOUNDED = -1;
+
+    private final Object function;
+    private final int maxSize;
+    private final boolean typed;
+    private final Object cacheInfoType;
+    /** Separates the positional from the keyword arguments in a cache key. */
+    private final Object keywordMark;
+    private final LinkedMapStorage cache = new LinkedMapStorage();
+    private long hits;
+    private long misses;
+
+    public PLruCacheWrapper(PythonClass cls, Object function, int maxSize, boolean typed, Object cacheInfoType, Object keywordMark) {
+        super(cls);
+        this.function = function;
+        this.maxSize = maxSize;
+        this.typed = typed;
+        this.cacheInfoType = cacheInfoType;
+        this.keywordMark = keywordMark;
+    }
+
+    public Object getFunction() {
+        return function;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public boolean isTyped() {
+        return typed;
+    }
+
+    public Object getCacheInfoType() {
+        return cacheInfoType;
+    }
+
+    public Object getKeywordMark() {
+        return keywordMark;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int getCurrentSize() {
+        return cache.length();
+    }
+
+    /**
+     * Looks up the cached result for {@code key} and counts a hit if there is one.
+     *
+     * @return the cached result, or {@code null} if {@code key} is not cached
+     */
+    public Object lookup(Object key, Equivalence eq) {
+        Object result = maxSize == UNBOUNDED ? cache.getItem(key, eq) : cache.getAndMoveToEnd(key, eq);
+        if (result != null) {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Caches {@code result} for {@code key}, evicting the least recently used entry if the cache is
+     * full, and counts a miss.
+     */
+    public void store(Object key, Object result, Equivalence eq) {
+        misses++;
+        if (maxSize == 0) {
+            return;
+        }
+        cache.setItem(key, result, eq);
+        while (maxSize != UNBOUNDED && cache.length() > maxSize) {
+            cache.popEntry(false, eq);
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+        hits = 0;
+        misses = 0;
+    }
+}
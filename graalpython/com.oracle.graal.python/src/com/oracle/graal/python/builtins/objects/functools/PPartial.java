@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A {@code functools.partial} object. The bound positional arguments and keywords are stored as
+ * arrays, so a call without keywords passes the stored keywords on unchanged and only has to
+ * prepend the bound positional arguments.
+ */
+public final class PPartial extends PythonBuiltinObject {
+
+    private final Object function;
+    private final Object[] arguments;
+    private final PKeyword[] keywords;
+
+    public PPartial(PythonClass cls, Object function, Object[] arguments, PKeyword[] keywords) {
+        super(cls);
+        this.function = function;
+        this.arguments = arguments;
+        this.keywords = keywords;
+    }
+
+    public Object getFunction() {
+        return function;
+    }
+
+    public Object[] getArguments() {
+        return arguments;
+    }
+
+    public PKeyword[] getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * Returns the bound positional arguments followed by {@code callArguments}.
+     */
+    public Object[] bindArguments(Object[] callArguments) {
+        if (callArguments.length == 0) {
+            return arguments;
+        } else if (arguments.length == 0) {
+            return callArguments;
+        }
+        Object[] result = new Object[arguments.length + callArguments.length];
+        System.arraycopy(arguments, 0, result, 0, arguments.length);
+        System.arraycopy(callArguments, 0, result, arguments.length, callArguments.length);
+        return result;
+    }
+
+    /**
+     * Returns the bound keywords updated with {@code callKeywords}, which take precedence.
+     */
+    public PKeyword[] bindKeywords(PKeyword[] callKeywords) {
+        return merge(keywords, callKeywords);
+    }
+
+    @TruffleBoundary
+    public static PKeyword[] merge(PKeyword[] keywords, PKeyword[] overrides) {
+        if (overrides.length == 0) {
+            return keywords;
+        } else if (keywords.length == 0) {
+            return overrides;
+        }
+        PKeyword[] result = new PKeyword[keywords.length + overrides.length];
+        int length = 0;
+        outer: for (PKeyword keyword : keywords) {
+            for (PKeyword override : overrides) {
+                if (keyword.getName().equals(override.getName())) {
+                    continue outer;
+                }
+            }
+            result[length++] = keyword;
+        }
+        System.arraycopy(overrides, 0, result, length, overrides.length);
+        length += overrides.length;
+        if (length == result.length) {
+            return result;
+        }
+        PKeyword[] trimmed = new PKeyword[length];
+        System.arraycopy(result, 0, trimmed, 0, length);
+        return trimmed;
+    }
+}
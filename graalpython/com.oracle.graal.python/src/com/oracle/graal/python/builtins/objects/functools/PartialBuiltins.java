@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.functools;
+
+import static com.oracle.graal.python.nodes.SpecialAttributeNames.__DICT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__CALL__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.call.CallNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PPartial.class)
+public class PartialBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return PartialBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = __CALL__, minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true)
+    @GenerateNodeFactory
+    public abstract static class CallPartialNode extends PythonBuiltinNode {
+        @Specialization(guards = "keywords.length == 0")
+        Object call(PPartial self, PTuple arguments, @SuppressWarnings("unused") PKeyword[] keywords,
+                        @Cached("create()") CallNode callNode) {
+            return callNode.execute(self.getFunction(), self.bindArguments(arguments.getArray()), self.getKeywords());
+        }
+
+        @Specialization(guards = "keywords.length != 0")
+        Object callWithKeywords(PPartial self, PTuple arguments, PKeyword[] keywords,
+                        @Cached("create()") CallNode callNode) {
+            return callNode.execute(self.getFunction(), self.bindArguments(arguments.getArray()), self.bindKeywords(keywords));
+        }
+    }
+
+    @Builtin(name = "func", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class FuncNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object func(PPartial self) {
+            return self.getFunction();
+        }
+    }
+
+    @Builtin(name = "args", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ArgsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object args(PPartial self) {
+            return factory().createTuple(self.getArguments());
+        }
+    }
+
+    // a fresh dict on every access, changing it does not change the partial object
+    @Builtin(name = "keywords", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class KeywordsNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object keywords(PPartial self) {
+            return factory().createDict(self.getKeywords());
+        }
+    }
+
+    @Builtin(name = __DICT__, fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class DictNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        Object dict(PPartial self) {
+            PDict dict = self.getDict();
+            if (dict == null) {
+                dict = factory().createDictFixedStorage(self);
+                self.setDict(dict);
+            }
+            return dict;
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends PythonUnaryBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        Object repr(PPartial self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode) {
+            StringBuilder result = new StringBuilder("functools.").append(self.getPythonClass().getName()).append('(');
+            result.append(repr(reprNode, self.getFunction()));
+            for (Object argument : self.getArguments()) {
+                result.append(", ").append(repr(reprNode, argument));
+            }
+            for (PKeyword keyword : self.getKeywords()) {
+                result.append(", ").append(keyword.getName()).append('=').append(repr(reprNode, keyword.getValue()));
+            }
+            return result.append(')').toString();
+        }
+
+        private String repr(LookupAndCallUnaryNode reprNode, Object value) {
+            Object repr = reprNode.executeObject(value);
+            if (repr instanceof PString) {
+                repr = ((PString) repr).getValue();
+            }
+            if (!(repr instanceof String)) {
+                throw raise(TypeError, "__repr__ returned non-string (type %p)", repr);
+            }
+            return (String) repr;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import com.oracle.graal.python.builtins.objects.traceback.PTraceback;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallVarargsNode;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.runtime.exception.PException;
@@ -49,17 +50,26 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PGenerator.class)
 public class GeneratorBuiltins extends PythonBuiltins {
 
-    private static Object resumeGenerator(PGenerator self) {
+    private static Object resumeGenerator(PythonBuiltinNode node, PGenerator self) {
+        if (self.isFinished()) {
+            PArguments.setSpecialArgument(self.getArguments(), null);
+            throw node.raise(StopIteration);
+        }
+        Object result;
         try {
-            return self.getCallTarget().call(self.getArguments());
+            result = self.getCallTarget().call(self.getArguments());
         } finally {
             PArguments.setSpecialArgument(self.getArguments(), null);
         }
+        if (result == GetNextOrStopNode.STOP) {
+            self.markAsFinished();
+            throw node.raise(StopIteration);
+        }
+        return result;
     }
 
     @Override
@@ -81,20 +91,10 @@ public class GeneratorBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class NextNode extends PythonUnaryBuiltinNode {
 
-        private final ConditionProfile errorProfile = ConditionProfile.createBinaryProfile();
-
         @Specialization
-        public Object next(PGenerator self) {
-            if (self.isFinished()) {
-                throw raise(StopIteration);
-            }
-            try {
-                return self.getCallTarget().call(self.getArguments());
-            } catch (PException e) {
-                e.expectStopIteration(getCore(), errorProfile);
-                self.markAsFinished();
-                throw raise(StopIteration);
-            }
+        public Object next(PGenerator self,
+                        @Cached("create()") GetNextOrStopNode next) {
+            return next.executeOrRaise(self);
         }
     }
 
@@ -105,7 +105,7 @@ public class GeneratorBuiltins extends PythonBuiltins {
         @Specialization
         public Object send(PGenerator self, Object value) {
             PArguments.setSpecialArgument(self.getArguments(), value);
-            return resumeGenerator(self);
+            return resumeGenerator(this, self);
         }
     }
 
@@ -124,7 +124,7 @@ public class GeneratorBuiltins extends PythonBuiltins {
             } else {
                 throw raise(TypeError, "exceptions must derive from BaseException");
             }
-            return resumeGenerator(self);
+            return resumeGenerator(this, self);
         }
 
         @Specialization
@@ -138,7 +138,7 @@ public class GeneratorBuiltins extends PythonBuiltins {
             } else {
                 throw raise(TypeError, "exceptions must derive from BaseException");
             }
-            return resumeGenerator(self);
+            return resumeGenerator(this, self);
         }
 
         @Specialization(guards = {"!isPNone(val)", "!isPTuple(val)"})
@@ -152,7 +152,7 @@ public class GeneratorBuiltins extends PythonBuiltins {
             } else {
                 throw raise(TypeError, "exceptions must derive from BaseException");
             }
-            return resumeGenerator(self);
+            return resumeGenerator(this, self);
         }
 
         @Specialization
@@ -160,7 +160,7 @@ public class GeneratorBuiltins extends PythonBuiltins {
             PException pException = new PException(instance, this);
             instance.setException(pException);
             PArguments.setSpecialArgument(self.getArguments(), pException);
-            return resumeGenerator(self);
+            return resumeGenerator(this, self);
         }
 
         @Specialization
@@ -168,7 +168,7 @@ public class GeneratorBuiltins extends PythonBuiltins {
             PException pException = new PException(instance, this);
             instance.setException(pException);
             instance.setTraceback(tb);
-            return resumeGenerator(self);
+            return resumeGenerator(this, self);
         }
     }
 }
@@ -38,6 +38,8 @@
  */
 package com.oracle.graal.python.builtins.objects.ints;
 
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+
 import java.math.BigInteger;
 import java.util.List;
 
@@ -48,13 +50,17 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
 import com.oracle.graal.python.runtime.ArithmeticUtil;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
+import com.oracle.graal.python.runtime.formatting.IntegerFormatter;
+import com.oracle.graal.python.runtime.formatting.InternalFormat;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
@@ -1770,6 +1776,32 @@ public class IntBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = SpecialMethodNames.__FORMAT__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    abstract static class FormatNode extends PythonBinaryBuiltinNode {
+        @Specialization(guards = "formatSpec.isEmpty()")
+        Object formatEmpty(Object self, @SuppressWarnings("unused") String formatSpec,
+                        @Cached("create(__STR__)") LookupAndCallUnaryNode strNode) {
+            return strNode.executeObject(self);
+        }
+
+        @Specialization(guards = "!formatSpec.isEmpty()")
+        String format(long self, String formatSpec) {
+            return IntegerFormatter.formatNumber(getCore(), InternalFormat.fromText(getCore(), formatSpec), self);
+        }
+
+        @Specialization(guards = "!formatSpec.isEmpty()")
+        String format(PInt self, String formatSpec) {
+            return IntegerFormatter.formatNumber(getCore(), InternalFormat.fromText(getCore(), formatSpec), self.getValue());
+        }
+
+        @Fallback
+        Object formatFail(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object formatSpec) {
+            throw raise(PythonErrorType.TypeError, "format_spec must be a string");
+        }
+    }
+
     @Builtin(name = SpecialMethodNames.__STR__, fixedNumOfArguments = 1)
     @GenerateNodeFactory
     abstract static class StrNode extends PythonBuiltinNode {
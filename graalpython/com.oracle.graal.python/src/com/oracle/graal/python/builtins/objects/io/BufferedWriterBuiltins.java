@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.io;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.io.IOException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.nodes.attributes.GetAttributeNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PBufferedWriter.class)
+public class BufferedWriterBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return BufferedWriterBuiltinsFactory.getFactories();
+    }
+
+    @Builtin(name = "write", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class WriteNode extends IOBaseNode {
+        @Specialization
+        int write(PBufferedWriter self, PBytes data) {
+            return write(self, data.getInternalByteArray(), data.len());
+        }
+
+        @Specialization
+        int write(PBufferedWriter self, PByteArray data) {
+            return write(self, data.getInternalByteArray(), data.len());
+        }
+
+        @Fallback
+        Object write(@SuppressWarnings("unused") Object self, Object data) {
+            throw raise(TypeError, "a bytes-like object is required, not '%p'", data);
+        }
+
+        @TruffleBoundary
+        private int write(PBufferedWriter self, byte[] data, int length) {
+            checkOpen(self.isClosed());
+            try {
+                return self.write(data, length);
+            } catch (IOException | NonWritableChannelException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "flush", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class FlushNode extends IOBaseNode {
+        @Specialization
+        @TruffleBoundary
+        PNone flush(PBufferedWriter self) {
+            checkOpen(self.isClosed());
+            try {
+                self.flush();
+            } catch (IOException | NonWritableChannelException e) {
+                throw raiseIOError(e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tell", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class TellNode extends IOBaseNode {
+        @Specialization
+        @TruffleBoundary
+        long tell(PBufferedWriter self) {
+            checkOpen(self.isClosed());
+            if (!self.isSeekable()) {
+                throw raise(OSError, "Illegal seek");
+            }
+            try {
+                return self.tell();
+            } catch (IOException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfArguments = 2, maxNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class SeekNode extends IOBaseNode {
+        @Specialization
+        long seek(PBufferedWriter self, long offset, @SuppressWarnings("unused") PNone whence) {
+            return seek(self, offset, 0);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        long seek(PBufferedWriter self, long offset, int whence) {
+            checkOpen(self.isClosed());
+            if (!self.isSeekable()) {
+                throw raise(OSError, "Illegal seek");
+            }
+            try {
+                return self.seek(offset, whence);
+            } catch (IOException | NonWritableChannelException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "readable", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReadableNode extends IOBaseNode {
+        @Specialization
+        boolean readable(PBufferedWriter self) {
+            checkOpen(self.isClosed());
+            return false;
+        }
+    }
+
+    @Builtin(name = "writable", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class WritableNode extends IOBaseNode {
+        @Specialization
+        boolean writable(PBufferedWriter self) {
+            checkOpen(self.isClosed());
+            return true;
+        }
+    }
+
+    @Builtin(name = "seekable", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class SeekableNode extends IOBaseNode {
+        @Specialization
+        boolean seekable(PBufferedWriter self) {
+            checkOpen(self.isClosed());
+            return self.isSeekable();
+        }
+    }
+
+    @Builtin(name = "fileno", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class FilenoNode extends IOBaseNode {
+        @Child private LookupAndCallUnaryNode callFileno = LookupAndCallUnaryNode.create("fileno");
+
+        @Specialization
+        Object fileno(PBufferedWriter self) {
+            return callFileno.executeObject(self.getRaw());
+        }
+    }
+
+    @Builtin(name = "close", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CloseNode extends IOBaseNode {
+        @Child private LookupAndCallUnaryNode callClose = LookupAndCallUnaryNode.create("close");
+
+        @Specialization
+        PNone close(PBufferedWriter self) {
+            if (!self.isClosed()) {
+                try {
+                    flush(self);
+                } finally {
+                    self.setClosed();
+                    callClose.executeObject(self.getRaw());
+                }
+            }
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private void flush(PBufferedWriter self) {
+            try {
+                self.flush();
+            } catch (IOException | NonWritableChannelException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "closed", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ClosedNode extends IOBaseNode {
+        @Specialization
+        boolean closed(PBufferedWriter self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = "raw", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class RawNode extends IOBaseNode {
+        @Specialization
+        Object raw(PBufferedWriter self) {
+            return self.getRaw();
+        }
+    }
+
+    @Builtin(name = "name", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class NameNode extends IOBaseNode {
+        @Specialization
+        Object name(PBufferedWriter self,
+                        @Cached("create()") GetAttributeNode getName) {
+            return getName.execute(self.getRaw(), "name");
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends IOBaseNode {
+        @Specialization
+        String repr(PBufferedWriter self) {
+            return self.toString();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A buffered reader over the channel of a raw file. The buffer is allocated once and always kept
+ * in read mode, i.e., the bytes between its position and its limit are the ones that have been
+ * read from the channel but not yet consumed.
+ */
+public final class PBufferedReader extends PythonBuiltinObject {
+
+    private final Object raw;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private byte[] lineBuffer = new byte[80];
+    private boolean closed;
+
+    public PBufferedReader(PythonClass cls, Object raw, ReadableByteChannel channel, int bufferSize) {
+        super(cls);
+        this.raw = raw;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.buffer.limit(0);
+    }
+
+    public Object getRaw() {
+        return raw;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void setClosed() {
+        closed = true;
+    }
+
+    public boolean isSeekable() {
+        return channel instanceof SeekableByteChannel;
+    }
+
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Moves the unconsumed bytes to the front of the buffer and reads more from the channel.
+     * Returns {@code false} if the channel did not deliver any bytes.
+     */
+    @TruffleBoundary
+    boolean fill() throws IOException {
+        buffer.compact();
+        int n;
+        try {
+            n = channel.read(buffer);
+        } finally {
+            buffer.flip();
+        }
+        return n > 0;
+    }
+
+    @TruffleBoundary
+    public byte[] read(int size) throws IOException {
+        if (size < 0) {
+            return readAll();
+        }
+        byte[] result = new byte[size];
+        int length = Math.min(size, buffer.remaining());
+        buffer.get(result, 0, length);
+        while (length < size) {
+            int missing = size - length;
+            if (missing >= buffer.capacity()) {
+                // read large chunks directly into the result, there is no point in buffering them
+                int n = channel.read(ByteBuffer.wrap(result, length, missing));
+                if (n <= 0) {
+                    break;
+                }
+                length += n;
+            } else {
+                // small reads are served from a refilled buffer, so that reading a few bytes at a
+                // time does not turn into one channel read per call
+                if (!fill()) {
+                    break;
+                }
+                int count = Math.min(missing, buffer.remaining());
+                buffer.get(result, length, count);
+                length += count;
+            }
+        }
+        return length == size ? result : Arrays.copyOf(result, length);
+    }
+
+    @TruffleBoundary
+    public byte[] read1(int size) throws IOException {
+        if (!buffer.hasRemaining()) {
+            fill();
+        }
+        int length = size < 0 ? buffer.remaining() : Math.min(size, buffer.remaining());
+        byte[] result = new byte[length];
+        buffer.get(result);
+        return result;
+    }
+
+    @TruffleBoundary
+    public byte[] readAll() throws IOException {
+        byte[] result = new byte[Math.max(buffer.remaining(), buffer.capacity())];
+        int length = buffer.remaining();
+        buffer.get(result, 0, length);
+        while (true) {
+            if (length == result.length) {
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+            ByteBuffer target = ByteBuffer.wrap(result, length, result.length - length);
+            if (channel.read(target) <= 0) {
+                break;
+            }
+            length = target.position();
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    @TruffleBoundary
+    public byte[] peek() throws IOException {
+        if (!buffer.hasRemaining()) {
+            fill();
+        }
+        byte[] result = new byte[buffer.remaining()];
+        buffer.duplicate().get(result);
+        return result;
+    }
+
+    /**
+     * Reads up to and including the next {@code '\n'}, or at most {@code limit} bytes if
+     * {@code limit} is not negative. Scans the buffer in place and only copies each byte once into
+     * a line buffer that is reused between calls.
+     */
+    @TruffleBoundary
+    public byte[] readline(int limit) throws IOException {
+        int length = 0;
+        while (limit < 0 || length < limit) {
+            if (!buffer.hasRemaining() && !fill()) {
+                break;
+            }
+            int start = buffer.position();
+            int end = buffer.limit();
+            if (limit >= 0) {
+                end = Math.min(end, start + limit - length);
+            }
+            int newline = -1;
+            for (int i = start; i < end; i++) {
+                if (buffer.get(i) == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+            int count = (newline >= 0 ? newline + 1 : end) - start;
+            if (length + count > lineBuffer.length) {
+                lineBuffer = Arrays.copyOf(lineBuffer, Math.max(lineBuffer.length * 2, length + count));
+            }
+            buffer.get(lineBuffer, length, count);
+            length += count;
+            if (newline >= 0) {
+                break;
+            }
+        }
+        return Arrays.copyOf(lineBuffer, length);
+    }
+
+    @TruffleBoundary
+    public long tell() throws IOException {
+        return ((SeekableByteChannel) channel).position() - buffer.remaining();
+    }
+
+    @TruffleBoundary
+    public long seek(long offset, int whence) throws IOException {
+        SeekableByteChannel seekable = (SeekableByteChannel) channel;
+        long position;
+        switch (whence) {
+            case 1:
+                position = seekable.position() - buffer.remaining() + offset;
+                break;
+            case 2:
+                position = seekable.size() + offset;
+                break;
+            default:
+                position = offset;
+        }
+        buffer.limit(0);
+        seekable.position(position);
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "<_io.BufferedReader>";
+    }
+}
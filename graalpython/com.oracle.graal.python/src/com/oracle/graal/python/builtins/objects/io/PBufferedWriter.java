@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A buffered writer over the channel of a raw file. The buffer is allocated once and always kept
+ * in write mode, i.e., the bytes before its position are pending to be written to the channel.
+ */
+public final class PBufferedWriter extends PythonBuiltinObject {
+
+    private final Object raw;
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private boolean closed;
+
+    public PBufferedWriter(PythonClass cls, Object raw, WritableByteChannel channel, int bufferSize) {
+        super(cls);
+        this.raw = raw;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    public Object getRaw() {
+        return raw;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void setClosed() {
+        closed = true;
+    }
+
+    public boolean isSeekable() {
+        return channel instanceof SeekableByteChannel;
+    }
+
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    @TruffleBoundary
+    public int write(byte[] data, int length) throws IOException {
+        if (length > buffer.remaining()) {
+            flush();
+            if (length > buffer.capacity()) {
+                // too large to be buffered, write it directly
+                ByteBuffer source = ByteBuffer.wrap(data, 0, length);
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+                return length;
+            }
+        }
+        buffer.put(data, 0, length);
+        return length;
+    }
+
+    @TruffleBoundary
+    public void flush() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @TruffleBoundary
+    public long tell() throws IOException {
+        return ((SeekableByteChannel) channel).position() + buffer.position();
+    }
+
+    @TruffleBoundary
+    public long seek(long offset, int whence) throws IOException {
+        flush();
+        SeekableByteChannel seekable = (SeekableByteChannel) channel;
+        long position;
+        switch (whence) {
+            case 1:
+                position = seekable.position() + offset;
+                break;
+            case 2:
+                position = seekable.size() + offset;
+                break;
+            default:
+                position = offset;
+        }
+        seekable.position(position);
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "<_io.BufferedWriter>";
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A text stream on top of a {@link PBufferedReader} or a {@link PBufferedWriter}. Bytes are decoded
+ * incrementally straight out of the reader's buffer into a char buffer, and encoded straight into
+ * the writer's buffer, so there are no intermediate {@code bytes} objects.
+ */
+public final class PTextIOWrapper extends PythonBuiltinObject {
+
+    private static final int MIN_DECODE_SPACE = 64;
+
+    private final Object buffer;
+    private final PBufferedReader reader;
+    private final PBufferedWriter writer;
+    private final String encoding;
+    private final String errors;
+    /** {@code null} means universal newlines mode with translation to {@code '\n'}. */
+    private final String newline;
+    private final boolean lineBuffering;
+    private final CharsetDecoder decoder;
+    private final CharsetEncoder encoder;
+    /** Decoded but not yet consumed characters, always kept in read mode. */
+    private CharBuffer decoded;
+    private final StringBuilder line = new StringBuilder();
+    private boolean eof;
+    private boolean closed;
+    private Object mode;
+
+    public PTextIOWrapper(PythonClass cls, Object buffer, Charset charset, String encoding, String errors, String newline, boolean lineBuffering) {
+        super(cls);
+        this.buffer = buffer;
+        this.reader = buffer instanceof PBufferedReader ? (PBufferedReader) buffer : null;
+        this.writer = buffer instanceof PBufferedWriter ? (PBufferedWriter) buffer : null;
+        this.encoding = encoding;
+        this.errors = errors;
+        this.newline = newline;
+        this.lineBuffering = lineBuffering;
+        CodingErrorAction action = errorAction(errors);
+        this.decoder = charset.newDecoder().onMalformedInput(action).onUnmappableCharacter(action);
+        this.encoder = charset.newEncoder().onMalformedInput(action).onUnmappableCharacter(action);
+        this.decoded = CharBuffer.allocate(reader != null ? reader.getBuffer().capacity() : MIN_DECODE_SPACE);
+        this.decoded.limit(0);
+    }
+
+    private static CodingErrorAction errorAction(String errors) {
+        switch (errors) {
+            case "ignore":
+                return CodingErrorAction.IGNORE;
+            case "replace":
+                return CodingErrorAction.REPLACE;
+            default:
+                return CodingErrorAction.REPORT;
+        }
+    }
+
+    public Object getBuffer() {
+        return buffer;
+    }
+
+    public PBufferedReader getReader() {
+        return reader;
+    }
+
+    public PBufferedWriter getWriter() {
+        return writer;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public String getErrors() {
+        return errors;
+    }
+
+    public boolean isLineBuffering() {
+        return lineBuffering;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void setClosed() {
+        closed = true;
+    }
+
+    public Object getMode() {
+        return mode;
+    }
+
+    public void setMode(Object mode) {
+        this.mode = mode;
+    }
+
+    private boolean isUniversal() {
+        return newline == null || newline.isEmpty();
+    }
+
+    /**
+     * Decodes more characters from the reader. Returns {@code false} if the end of the stream was
+     * reached and no further characters are available.
+     */
+    private boolean decodeMore() throws IOException {
+        if (eof) {
+            return false;
+        }
+        decoded.compact();
+        try {
+            if (decoded.remaining() < MIN_DECODE_SPACE) {
+                CharBuffer larger = CharBuffer.allocate(decoded.capacity() * 2);
+                decoded.flip();
+                larger.put(decoded);
+                decoded = larger;
+            }
+            ByteBuffer bytes = reader.getBuffer();
+            int start = decoded.position();
+            while (true) {
+                CoderResult result = decoder.decode(bytes, decoded, false);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                if (decoded.position() > start) {
+                    return true;
+                }
+                if (!reader.fill()) {
+                    eof = true;
+                    result = decoder.decode(bytes, decoded, true);
+                    if (result.isError()) {
+                        result.throwException();
+                    }
+                    decoder.flush(decoded);
+                    return decoded.position() > start;
+                }
+            }
+        } finally {
+            decoded.flip();
+        }
+    }
+
+    /**
+     * Returns the next character without consuming it, or {@code -1} at the end of the stream.
+     */
+    private int peekChar() throws IOException {
+        if (!decoded.hasRemaining() && !decodeMore()) {
+            return -1;
+        }
+        return decoded.get(decoded.position());
+    }
+
+    /**
+     * Reads the next line including its terminator. In universal newlines mode, {@code "\r"},
+     * {@code "\n"} and {@code "\r\n"} all end a line, and are translated to {@code "\n"} if no
+     * {@code newline} argument was given.
+     */
+    @TruffleBoundary
+    public String readline(int limit) throws IOException, CharacterCodingException {
+        StringBuilder sb = line;
+        sb.setLength(0);
+        while (limit < 0 || sb.length() < limit) {
+            if (!decoded.hasRemaining() && !decodeMore()) {
+                break;
+            }
+            int start = decoded.position();
+            int end = decoded.limit();
+            if (limit >= 0) {
+                end = Math.min(end, start + limit - sb.length());
+            }
+            for (int i = start; i < end; i++) {
+                char c = decoded.get(i);
+                if (c == '\n') {
+                    if (isUniversal() || newline.equals("\n") || (newline.equals("\r\n") && endsWithCR(sb, start, i))) {
+                        appendAndConsume(sb, start, i + 1);
+                        return sb.toString();
+                    }
+                } else if (c == '\r') {
+                    if (isUniversal()) {
+                        appendAndConsume(sb, start, i);
+                        decoded.get();
+                        boolean crlf = peekChar() == '\n';
+                        if (crlf) {
+                            decoded.get();
+                        }
+                        sb.append(newline == null ? "\n" : crlf ? "\r\n" : "\r");
+                        return sb.toString();
+                    } else if (newline.equals("\r")) {
+                        appendAndConsume(sb, start, i + 1);
+                        return sb.toString();
+                    }
+                }
+            }
+            appendAndConsume(sb, start, end);
+        }
+        return sb.toString();
+    }
+
+    private boolean endsWithCR(StringBuilder sb, int start, int i) {
+        return i > start ? decoded.get(i - 1) == '\r' : sb.length() > 0 && sb.charAt(sb.length() - 1) == '\r';
+    }
+
+    private void appendAndConsume(StringBuilder sb, int start, int end) {
+        sb.append(decoded.array(), decoded.arrayOffset() + start, end - start);
+        decoded.position(end);
+    }
+
+    /**
+     * Reads up to {@code size} characters, or everything if {@code size} is negative. Newlines are
+     * translated as they are consumed, so {@code size} counts characters after translation.
+     */
+    @TruffleBoundary
+    public String read(int size) throws IOException, CharacterCodingException {
+        StringBuilder sb = new StringBuilder();
+        while (size < 0 || sb.length() < size) {
+            if (!decoded.hasRemaining() && !decodeMore()) {
+                break;
+            }
+            int start = decoded.position();
+            int end = size < 0 ? decoded.limit() : Math.min(decoded.limit(), start + size - sb.length());
+            if (newline == null) {
+                int cr = indexOfCR(start, end);
+                if (cr >= 0) {
+                    appendAndConsume(sb, start, cr);
+                    decoded.get();
+                    if (peekChar() == '\n') {
+                        decoded.get();
+                    }
+                    sb.append('\n');
+                    continue;
+                }
+            }
+            appendAndConsume(sb, start, end);
+        }
+        return sb.toString();
+    }
+
+    private int indexOfCR(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (decoded.get(i) == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @TruffleBoundary
+    public int write(String text) throws IOException, CharacterCodingException {
+        String translated = text;
+        if (newline != null && !newline.isEmpty() && !newline.equals("\n")) {
+            translated = text.replace("\n", newline);
+        }
+        ByteBuffer bytes = writer.getBuffer();
+        CharBuffer chars = CharBuffer.wrap(translated);
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, false);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isUnderflow()) {
+                break;
+            }
+            writer.flush();
+        }
+        if (lineBuffering && (text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0)) {
+            writer.flush();
+        }
+        return text.length();
+    }
+
+    @TruffleBoundary
+    public void flush() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    /**
+     * The position is the byte offset of the next character to be read. It is derived from the
+     * reader's position by re-encoding the characters that have been decoded but not consumed yet.
+     */
+    @TruffleBoundary
+    public long tell() throws IOException, CharacterCodingException {
+        if (writer != null) {
+            return writer.tell();
+        }
+        long position = reader.tell();
+        if (decoded.hasRemaining()) {
+            encoder.reset();
+            position -= encoder.encode(decoded.duplicate()).remaining();
+        }
+        return position;
+    }
+
+    @TruffleBoundary
+    public long seek(long offset, int whence) throws IOException, CharacterCodingException {
+        if (writer != null) {
+            return writer.seek(offset, whence);
+        }
+        long target = offset;
+        int targetWhence = whence;
+        if (whence == 1) {
+            // the reader is ahead of us by the characters we have decoded already
+            target += tell();
+            targetWhence = 0;
+        }
+        decoded.clear();
+        decoded.limit(0);
+        decoder.reset();
+        eof = false;
+        return reader.seek(target, targetWhence);
+    }
+
+    @Override
+    public String toString() {
+        return "<_io.TextIOWrapper encoding='" + encoding + "'>";
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.io;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NEXT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.io.IOException;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.nodes.attributes.GetAttributeNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+@CoreFunctions(extendClasses = PTextIOWrapper.class)
+public class TextIOWrapperBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return TextIOWrapperBuiltinsFactory.getFactories();
+    }
+
+    abstract static class TextIONode extends IOBaseNode {
+        protected final void checkReadable(PTextIOWrapper self) {
+            checkOpen(self.isClosed());
+            if (self.getReader() == null) {
+                throw raise(OSError, "not readable");
+            }
+        }
+
+        protected final void checkWritable(PTextIOWrapper self) {
+            checkOpen(self.isClosed());
+            if (self.getWriter() == null) {
+                throw raise(OSError, "not writable");
+            }
+        }
+    }
+
+    @Builtin(name = "read", minNumOfArguments = 1, maxNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class ReadNode extends TextIONode {
+        @Specialization
+        String read(PTextIOWrapper self, @SuppressWarnings("unused") PNone size) {
+            return read(self, -1);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        String read(PTextIOWrapper self, int size) {
+            checkReadable(self);
+            try {
+                return self.read(size);
+            } catch (IOException | NonReadableChannelException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "readline", minNumOfArguments = 1, maxNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class ReadlineNode extends TextIONode {
+        @Specialization
+        String readline(PTextIOWrapper self, @SuppressWarnings("unused") PNone size) {
+            return readline(self, -1);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        String readline(PTextIOWrapper self, int size) {
+            checkReadable(self);
+            try {
+                return self.readline(size);
+            } catch (IOException | NonReadableChannelException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = __ITER__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class IterNode extends TextIONode {
+        @Specialization
+        PTextIOWrapper iter(PTextIOWrapper self) {
+            checkOpen(self.isClosed());
+            return self;
+        }
+    }
+
+    @Builtin(name = __NEXT__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class NextNode extends TextIONode {
+        @Specialization
+        String next(PTextIOWrapper self,
+                        @Cached("createBinaryProfile()") ConditionProfile eofProfile) {
+            String line = readline(self);
+            if (eofProfile.profile(line.isEmpty())) {
+                throw raise(StopIteration);
+            }
+            return line;
+        }
+
+        @TruffleBoundary
+        private String readline(PTextIOWrapper self) {
+            checkReadable(self);
+            try {
+                return self.readline(-1);
+            } catch (IOException | NonReadableChannelException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "write", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class WriteNode extends TextIONode {
+        @Specialization
+        int write(PTextIOWrapper self, PString text) {
+            return write(self, text.getValue());
+        }
+
+        @Specialization
+        @TruffleBoundary
+        int write(PTextIOWrapper self, String text) {
+            checkWritable(self);
+            try {
+                return self.write(text);
+            } catch (IOException | NonWritableChannelException e) {
+                throw raiseIOError(e);
+            }
+        }
+
+        @Fallback
+        Object write(@SuppressWarnings("unused") Object self, Object text) {
+            throw raise(TypeError, "write() argument must be str, not %p", text);
+        }
+    }
+
+    @Builtin(name = "flush", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class FlushNode extends TextIONode {
+        @Specialization
+        @TruffleBoundary
+        PNone flush(PTextIOWrapper self) {
+            checkOpen(self.isClosed());
+            try {
+                self.flush();
+            } catch (IOException | NonWritableChannelException e) {
+                throw raiseIOError(e);
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tell", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class TellNode extends TextIONode {
+        @Specialization
+        @TruffleBoundary
+        long tell(PTextIOWrapper self) {
+            checkOpen(self.isClosed());
+            try {
+                return self.tell();
+            } catch (IOException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfArguments = 2, maxNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class SeekNode extends TextIONode {
+        @Specialization
+        long seek(PTextIOWrapper self, long offset, @SuppressWarnings("unused") PNone whence) {
+            return seek(self, offset, 0);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        long seek(PTextIOWrapper self, long offset, int whence) {
+            checkOpen(self.isClosed());
+            try {
+                return self.seek(offset, whence);
+            } catch (IOException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "readable", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReadableNode extends TextIONode {
+        @Specialization
+        boolean readable(PTextIOWrapper self) {
+            checkOpen(self.isClosed());
+            return self.getReader() != null;
+        }
+    }
+
+    @Builtin(name = "writable", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class WritableNode extends TextIONode {
+        @Specialization
+        boolean writable(PTextIOWrapper self) {
+            checkOpen(self.isClosed());
+            return self.getWriter() != null;
+        }
+    }
+
+    @Builtin(name = "seekable", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class SeekableNode extends TextIONode {
+        @Specialization
+        boolean seekable(PTextIOWrapper self) {
+            checkOpen(self.isClosed());
+            return self.getReader() != null ? self.getReader().isSeekable() : self.getWriter().isSeekable();
+        }
+    }
+
+    @Builtin(name = "fileno", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class FilenoNode extends TextIONode {
+        @Child private LookupAndCallUnaryNode callFileno = LookupAndCallUnaryNode.create("fileno");
+
+        @Specialization
+        Object fileno(PTextIOWrapper self) {
+            return callFileno.executeObject(self.getBuffer());
+        }
+    }
+
+    @Builtin(name = "close", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CloseNode extends TextIONode {
+        @Child private LookupAndCallUnaryNode callClose = LookupAndCallUnaryNode.create("close");
+
+        @Specialization
+        PNone close(PTextIOWrapper self) {
+            if (!self.isClosed()) {
+                try {
+                    flush(self);
+                } finally {
+                    self.setClosed();
+                    callClose.executeObject(self.getBuffer());
+                }
+            }
+            return PNone.NONE;
+        }
+
+        @TruffleBoundary
+        private void flush(PTextIOWrapper self) {
+            try {
+                self.flush();
+            } catch (IOException | NonWritableChannelException e) {
+                throw raiseIOError(e);
+            }
+        }
+    }
+
+    @Builtin(name = "closed", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ClosedNode extends TextIONode {
+        @Specialization
+        boolean closed(PTextIOWrapper self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = "buffer", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class BufferNode extends TextIONode {
+        @Specialization
+        Object buffer(PTextIOWrapper self) {
+            return self.getBuffer();
+        }
+    }
+
+    @Builtin(name = "encoding", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class EncodingNode extends TextIONode {
+        @Specialization
+        String encoding(PTextIOWrapper self) {
+            return self.getEncoding();
+        }
+    }
+
+    @Builtin(name = "errors", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ErrorsNode extends TextIONode {
+        @Specialization
+        String errors(PTextIOWrapper self) {
+            return self.getErrors();
+        }
+    }
+
+    @Builtin(name = "line_buffering", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class LineBufferingNode extends TextIONode {
+        @Specialization
+        boolean lineBuffering(PTextIOWrapper self) {
+            return self.isLineBuffering();
+        }
+    }
+
+    @Builtin(name = "name", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class NameNode extends TextIONode {
+        @Specialization
+        Object name(PTextIOWrapper self,
+                        @Cached("create()") GetAttributeNode getName) {
+            return getName.execute(self.getBuffer(), "name");
+        }
+    }
+
+    @Builtin(name = "mode", minNumOfArguments = 1, maxNumOfArguments = 2, isGetter = true, isSetter = true)
+    @GenerateNodeFactory
+    public abstract static class ModeNode extends TextIONode {
+        @Specialization(guards = "isNoValue(mode)")
+        Object getMode(PTextIOWrapper self, @SuppressWarnings("unused") PNone mode) {
+            Object result = self.getMode();
+            return result == null ? PNone.NONE : result;
+        }
+
+        @Specialization(guards = "!isNoValue(mode)")
+        Object setMode(PTextIOWrapper self, Object mode) {
+            self.setMode(mode);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends TextIONode {
+        @Specialization
+        String repr(PTextIOWrapper self) {
+            return self.toString();
+        }
+    }
+}
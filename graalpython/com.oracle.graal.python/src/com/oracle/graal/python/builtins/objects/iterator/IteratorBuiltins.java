@@ -39,14 +39,13 @@ import com.oracle.graal.python.builtins.objects.iterator.PRangeIterator.PRangeRe
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
-import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.ConditionProfile;
 
 @CoreFunctions(extendClasses = PSequenceIterator.class)
 public class IteratorBuiltins extends PythonBuiltins {
@@ -134,39 +133,21 @@ public class IteratorBuiltins extends PythonBuiltins {
         }
 
         @Specialization
-        public Object next(PBaseSetIterator self) {
-            if (self.hasNext()) {
-                return self.next();
-            }
-            throw raise(StopIteration);
-        }
-
-        @Specialization(guards = "self.isPSequence()")
-        public Object next(PSequenceIterator self) {
-            if (self.index < self.getPSequence().len()) {
-                return self.getPSequence().getItem(self.index++);
-            }
-            throw raise(StopIteration);
+        public Object next(PBaseSetIterator self,
+                        @Cached("create()") GetNextOrStopNode next) {
+            return next.executeOrRaise(self);
         }
 
         @Specialization
-        public Object next(PStringIterator self) {
-            if (self.index < self.value.length()) {
-                return Character.toString(self.value.charAt(self.index++));
-            }
-            throw raise(StopIteration);
+        public Object next(PSequenceIterator self,
+                        @Cached("create()") GetNextOrStopNode next) {
+            return next.executeOrRaise(self);
         }
 
-        @Specialization(guards = "!self.isPSequence()")
-        public Object next(PSequenceIterator self,
-                        @Cached("create(__GETITEM__)") LookupAndCallBinaryNode callGetItem,
-                        @Cached("createBinaryProfile()") ConditionProfile profile) {
-            try {
-                return callGetItem.executeObject(self.getObject(), self.index++);
-            } catch (PException e) {
-                e.expectIndexError(getCore(), profile);
-                throw raise(StopIteration);
-            }
+        @Specialization
+        public Object next(PStringIterator self,
+                        @Cached("create()") GetNextOrStopNode next) {
+            return next.executeOrRaise(self);
         }
     }
 
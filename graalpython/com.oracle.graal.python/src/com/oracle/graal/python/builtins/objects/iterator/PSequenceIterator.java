@@ -48,4 +48,27 @@ public final class PSequenceIterator extends PBuiltinIterator {
     public boolean isPSequence() {
         return sequence instanceof PSequence;
     }
+
+    /**
+     * Only applicable if {@link #isPSequence()}.
+     */
+    public boolean hasNext() {
+        return index < getPSequence().len();
+    }
+
+    /**
+     * Returns the next element - this can only be called if {@link #hasNext()} returns true.
+     */
+    public Object next() {
+        assert hasNext();
+        return getPSequence().getItem(index++);
+    }
+
+    /**
+     * Returns the index to pass to {@code __getitem__} next, for objects that are not a
+     * {@link PSequence}.
+     */
+    public int nextIndex() {
+        return index++;
+    }
 }
@@ -36,4 +36,16 @@ public final class PStringIterator extends PBuiltinIterator {
         super(clazz);
         this.value = value;
     }
+
+    public boolean hasNext() {
+        return index < value.length();
+    }
+
+    /**
+     * Returns the next character - this can only be called if {@link #hasNext()} returns true.
+     */
+    public String next() {
+        assert hasNext();
+        return Character.toString(value.charAt(index++));
+    }
 }
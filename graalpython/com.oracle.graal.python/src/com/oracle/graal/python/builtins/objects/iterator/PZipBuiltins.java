@@ -33,7 +33,7 @@ import java.util.List;
 import com.oracle.graal.python.builtins.Builtin;
 import com.oracle.graal.python.builtins.CoreFunctions;
 import com.oracle.graal.python.builtins.PythonBuiltins;
-import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
@@ -56,11 +56,11 @@ public class PZipBuiltins extends PythonBuiltins {
 
         @Specialization
         public Object __next__(PZip self,
-                        @Cached("create()") GetNextNode next) {
+                        @Cached("create()") GetNextOrStopNode next) {
             Object[] iterators = self.getIterators();
             Object[] tupleElements = new Object[iterators.length];
             for (int i = 0; i < iterators.length; i++) {
-                tupleElements[i] = next.execute(iterators[i]);
+                tupleElements[i] = next.executeOrRaise(iterators[i]);
             }
             return PythonObjectFactory.get().createTuple(tupleElements);
         }
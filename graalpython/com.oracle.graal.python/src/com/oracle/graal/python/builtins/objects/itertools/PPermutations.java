@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.itertools;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+
+/**
+ * A {@code permutations} iterator, using the same index and cycle arrays as CPython.
+ */
+public final class PPermutations extends PythonBuiltinObject {
+
+    private final Object[] pool;
+    private final int r;
+    private final int[] indices;
+    private final int[] cycles;
+    private boolean started;
+    private boolean stopped;
+
+    public PPermutations(PythonClass cls, Object[] pool, int r) {
+        super(cls);
+        int n = pool.length;
+        this.pool = pool;
+        this.r = r;
+        this.indices = new int[n];
+        this.cycles = new int[r > n ? 0 : r];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        for (int i = 0; i < cycles.length; i++) {
+            cycles[i] = n - i;
+        }
+        this.stopped = r > n;
+    }
+
+    /**
+     * Returns the next permutation, or {@code null} if there are no more.
+     */
+    public Object[] next() {
+        if (stopped) {
+            return null;
+        }
+        if (!started) {
+            started = true;
+            return result();
+        }
+        int n = pool.length;
+        for (int i = r - 1; i >= 0; i--) {
+            if (--cycles[i] == 0) {
+                // rotate indices[i:] one to the left
+                int index = indices[i];
+                System.arraycopy(indices, i + 1, indices, i, n - i - 1);
+                indices[n - 1] = index;
+                cycles[i] = n - i;
+            } else {
+                int j = n - cycles[i];
+                int index = indices[i];
+                indices[i] = indices[j];
+                indices[j] = index;
+                return result();
+            }
+        }
+        stopped = true;
+        return null;
+    }
+
+    private Object[] result() {
+        Object[] result = new Object[r];
+        for (int i = 0; i < r; i++) {
+            result[i] = pool[indices[i]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.itertools;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+
+/**
+ * A {@code product} iterator. The pools are materialized when the iterator is created, and the
+ * indices advance like an odometer with the rightmost gear moving fastest.
+ */
+public final class PProduct extends PythonBuiltinObject {
+
+    private final Object[][] gears;
+    private final int[] indices;
+    private Object[] result;
+    private boolean stopped;
+
+    public PProduct(PythonClass cls, Object[][] gears) {
+        super(cls);
+        this.gears = gears;
+        this.indices = new int[gears.length];
+    }
+
+    /**
+     * Returns the next combination, or {@code null} if there are no more.
+     */
+    public Object[] next() {
+        if (stopped) {
+            return null;
+        }
+        if (result == null) {
+            result = new Object[gears.length];
+            for (int i = 0; i < gears.length; i++) {
+                if (gears[i].length == 0) {
+                    stopped = true;
+                    return null;
+                }
+                result[i] = gears[i][0];
+            }
+            return result.clone();
+        }
+        int i = gears.length - 1;
+        for (; i >= 0; i--) {
+            Object[] gear = gears[i];
+            if (++indices[i] == gear.length) {
+                indices[i] = 0;
+                result[i] = gear[0];
+            } else {
+                result[i] = gear[indices[i]];
+                break;
+            }
+        }
+        if (i < 0) {
+            stopped = true;
+            return null;
+        }
+        return result.clone();
+    }
+}
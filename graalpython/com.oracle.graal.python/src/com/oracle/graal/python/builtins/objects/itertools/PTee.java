@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.itertools;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+
+/**
+ * One of the iterators returned by {@code tee}. All copies share a linked list of fixed-size
+ * buffers, so elements are read from the underlying iterator only once and are released as soon as
+ * every copy has moved past their buffer.
+ */
+public final class PTee extends PythonBuiltinObject {
+
+    static final int BUFFER_SIZE = 57;
+
+    /**
+     * A buffer of elements read from the underlying iterator, shared by all copies.
+     */
+    public static final class TeeData {
+        private final Object iterator;
+        private final Object[] values = new Object[BUFFER_SIZE];
+        private int numRead;
+        private TeeData next;
+
+        public TeeData(Object iterator) {
+            this.iterator = iterator;
+        }
+
+        public Object getIterator() {
+            return iterator;
+        }
+
+        public boolean isRead(int index) {
+            return index < numRead;
+        }
+
+        public Object getValue(int index) {
+            return values[index];
+        }
+
+        public void addValue(Object value) {
+            values[numRead++] = value;
+        }
+
+        TeeData nextLink() {
+            if (next == null) {
+                next = new TeeData(iterator);
+            }
+            return next;
+        }
+    }
+
+    private TeeData data;
+    private int index;
+
+    public PTee(PythonClass cls, TeeData data, int index) {
+        super(cls);
+        this.data = data;
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the buffer that holds the next element of this copy.
+     */
+    public TeeData getData() {
+        if (index == BUFFER_SIZE) {
+            data = data.nextLink();
+            index = 0;
+        }
+        return data;
+    }
+
+    public void advance() {
+        index++;
+    }
+
+    /**
+     * The buffer and index from which a copy of this iterator continues.
+     */
+    public TeeData getCopyData() {
+        return data;
+    }
+}
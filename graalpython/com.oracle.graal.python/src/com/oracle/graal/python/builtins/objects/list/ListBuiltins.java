@@ -42,6 +42,7 @@ import com.oracle.graal.python.builtins.PythonBuiltins;
 import com.oracle.graal.python.builtins.modules.MathGuards;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.iterator.PDoubleSequenceIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PIntegerSequenceIterator;
@@ -53,11 +54,13 @@ import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.PNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
+import com.oracle.graal.python.nodes.call.CallNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
 import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.control.GetIteratorNode;
 import com.oracle.graal.python.nodes.control.GetNextNode;
 import com.oracle.graal.python.nodes.expression.BinaryComparisonNode;
+import com.oracle.graal.python.nodes.expression.CastToBooleanNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonTernaryBuiltinNode;
@@ -69,6 +72,7 @@ import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.SequenceUtil.NormalizeIndexNode;
 import com.oracle.graal.python.runtime.sequence.storage.BasicSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.DoubleSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.EmptySequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.IntSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.ListSequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.LongSequenceStorage;
@@ -77,6 +81,7 @@ import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 import com.oracle.graal.python.runtime.sequence.storage.SequenceStoreException;
 import com.oracle.graal.python.runtime.sequence.storage.SetSequenceStorageItem;
 import com.oracle.graal.python.runtime.sequence.storage.TupleSequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
@@ -256,25 +261,31 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization
         public Object doPList(PList primary, PSlice slice, PSequence value) {
-            primary.setSlice(slice, value);
+            if (isSingleThreaded()) {
+                primary.setSlice(slice, value);
+            } else {
+                synchronized (primary) {
+                    primary.setSlice(slice, value);
+                }
+            }
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isIntStorage(primary)")
+        @Specialization(guards = "isIntStorage(primary)", assumptions = "getSingleThreadedAssumption()")
         public Object doPListInt(PList primary, int idx, int value) {
             IntSequenceStorage store = (IntSequenceStorage) primary.getSequenceStorage();
             store.setIntItemNormalized(normalize.forListAssign(idx, store.length()), value);
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isDoubleStorage(primary)")
+        @Specialization(guards = "isDoubleStorage(primary)", assumptions = "getSingleThreadedAssumption()")
         public Object doPListDouble(PList primary, int idx, double value) {
             DoubleSequenceStorage store = (DoubleSequenceStorage) primary.getSequenceStorage();
             store.setDoubleItemNormalized(normalize.forListAssign(idx, store.length()), value);
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isObjectStorage(primary)")
+        @Specialization(guards = "isObjectStorage(primary)", assumptions = "getSingleThreadedAssumption()")
         public Object doPListObject(PList primary, int idx, Object value) {
             ObjectSequenceStorage store = (ObjectSequenceStorage) primary.getSequenceStorage();
             store.setItemNormalized(normalize.forListAssign(idx, store.length()), value);
@@ -284,25 +295,31 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         public Object doPList(PList list, int idx, Object value,
                         @Cached("create()") SetSequenceStorageItem setItem) {
-            setItem.setItem(list, idx, value);
+            if (isSingleThreaded()) {
+                setItem.setItem(list, idx, value);
+            } else {
+                synchronized (list) {
+                    setItem.setItem(list, idx, value);
+                }
+            }
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isIntStorage(primary)")
+        @Specialization(guards = "isIntStorage(primary)", assumptions = "getSingleThreadedAssumption()")
         public Object doPListInt(PList primary, long idx, int value) {
             IntSequenceStorage store = (IntSequenceStorage) primary.getSequenceStorage();
             store.setIntItemNormalized(normalize.forListAssign(idx, store.length()), value);
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isDoubleStorage(primary)")
+        @Specialization(guards = "isDoubleStorage(primary)", assumptions = "getSingleThreadedAssumption()")
         public Object doPListDouble(PList primary, long idx, double value) {
             DoubleSequenceStorage store = (DoubleSequenceStorage) primary.getSequenceStorage();
             store.setDoubleItemNormalized(normalize.forListAssign(idx, store.length()), value);
             return PNone.NONE;
         }
 
-        @Specialization(guards = "isObjectStorage(primary)")
+        @Specialization(guards = "isObjectStorage(primary)", assumptions = "getSingleThreadedAssumption()")
         public Object doPListObject(PList primary, long idx, Object value) {
             ObjectSequenceStorage store = (ObjectSequenceStorage) primary.getSequenceStorage();
             store.setItemNormalized(normalize.forListAssign(idx, store.length()), value);
@@ -312,7 +329,13 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         public Object doPList(PList list, long idx, Object value,
                         @Cached("create()") SetSequenceStorageItem setItem) {
-            setItem.setItem(list, idx, value);
+            if (isSingleThreaded()) {
+                setItem.setItem(list, idx, value);
+            } else {
+                synchronized (list) {
+                    setItem.setItem(list, idx, value);
+                }
+            }
             return PNone.NONE;
         }
 
@@ -332,48 +355,48 @@ public class ListBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class ListAppendNode extends PythonBuiltinNode {
 
-        @Specialization(guards = "isEmptyStorage(list)")
+        @Specialization(guards = "isEmptyStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public PList appendEmpty(PList list, Object arg) {
             list.append(arg);
             return list;
         }
 
-        @Specialization(guards = "isIntStorage(list)")
+        @Specialization(guards = "isIntStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public PList appendInt(PList list, int arg) {
             IntSequenceStorage store = (IntSequenceStorage) list.getSequenceStorage();
             store.appendInt(arg);
             return list;
         }
 
-        @Specialization(guards = "isLongStorage(list)")
+        @Specialization(guards = "isLongStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public PList appendLong(PList list, long arg) {
             LongSequenceStorage store = (LongSequenceStorage) list.getSequenceStorage();
             store.appendLong(arg);
             return list;
         }
 
-        @Specialization(guards = "isDoubleStorage(list)")
+        @Specialization(guards = "isDoubleStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public PList appendDouble(PList list, double arg) {
             DoubleSequenceStorage store = (DoubleSequenceStorage) list.getSequenceStorage();
             store.appendDouble(arg);
             return list;
         }
 
-        @Specialization(guards = "isListStorage(list)")
+        @Specialization(guards = "isListStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public PList appendList(PList list, PList arg) {
             ListSequenceStorage store = (ListSequenceStorage) list.getSequenceStorage();
             store.appendList(arg);
             return list;
         }
 
-        @Specialization(guards = "isTupleStorage(list)")
+        @Specialization(guards = "isTupleStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public PList appendTuple(PList list, PTuple arg) {
             TupleSequenceStorage store = (TupleSequenceStorage) list.getSequenceStorage();
             store.appendPTuple(arg);
             return list;
         }
 
-        @Specialization(rewriteOn = {SequenceStoreException.class})
+        @Specialization(rewriteOn = {SequenceStoreException.class}, assumptions = "getSingleThreadedAssumption()")
         public PList appendObject(PList list, Object arg) throws SequenceStoreException {
             list.getSequenceStorage().append(arg);
             return list;
@@ -381,7 +404,13 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization()
         public PList appendObjectGeneric(PList list, Object arg) {
-            list.append(arg);
+            if (isSingleThreaded()) {
+                list.append(arg);
+            } else {
+                synchronized (list) {
+                    list.append(arg);
+                }
+            }
             return list;
         }
     }
@@ -406,7 +435,13 @@ public class ListBuiltins extends PythonBuiltins {
                     e.expectStopIteration(getCore(), errorProfile);
                     return list;
                 }
-                list.append(value);
+                if (isSingleThreaded()) {
+                    list.append(value);
+                } else {
+                    synchronized (list) {
+                        list.append(value);
+                    }
+                }
             }
         }
     }
@@ -418,7 +453,13 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization
         public PList insert(PList list, int index, Object value) {
-            list.insert(index, value);
+            if (isSingleThreaded()) {
+                list.insert(index, value);
+            } else {
+                synchronized (list) {
+                    list.insert(index, value);
+                }
+            }
             return list;
         }
 
@@ -436,6 +477,15 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization
         public PList remove(PList list, Object arg) {
+            if (isSingleThreaded()) {
+                return doRemove(list, arg);
+            }
+            synchronized (list) {
+                return doRemove(list, arg);
+            }
+        }
+
+        private PList doRemove(PList list, Object arg) {
             int index = list.index(arg);
             if (index >= 0) {
                 list.delItem(index);
@@ -451,7 +501,7 @@ public class ListBuiltins extends PythonBuiltins {
     @GenerateNodeFactory
     public abstract static class ListPopNode extends PythonBuiltinNode {
 
-        @Specialization(guards = "isIntStorage(list)")
+        @Specialization(guards = "isIntStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public int popInt(PList list, @SuppressWarnings("unused") PNone none,
                         @Cached("createBinaryProfile()") ConditionProfile isEmpty) {
             raiseIndexError(isEmpty.profile(list.len() == 0));
@@ -459,7 +509,7 @@ public class ListBuiltins extends PythonBuiltins {
             return store.popInt();
         }
 
-        @Specialization(guards = "isLongStorage(list)")
+        @Specialization(guards = "isLongStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public long popLong(PList list, @SuppressWarnings("unused") PNone none,
                         @Cached("createBinaryProfile()") ConditionProfile isEmpty) {
             raiseIndexError(isEmpty.profile(list.len() == 0));
@@ -467,7 +517,7 @@ public class ListBuiltins extends PythonBuiltins {
             return store.popLong();
         }
 
-        @Specialization(guards = "isDoubleStorage(list)")
+        @Specialization(guards = "isDoubleStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public double popDouble(PList list, @SuppressWarnings("unused") PNone none,
                         @Cached("createBinaryProfile()") ConditionProfile isEmpty) {
             raiseIndexError(isEmpty.profile(list.len() == 0));
@@ -475,7 +525,7 @@ public class ListBuiltins extends PythonBuiltins {
             return store.popDouble();
         }
 
-        @Specialization(guards = "isObjectStorage(list)")
+        @Specialization(guards = "isObjectStorage(list)", assumptions = "getSingleThreadedAssumption()")
         public Object popObject(PList list, @SuppressWarnings("unused") PNone none,
                         @Cached("createBinaryProfile()") ConditionProfile isEmpty) {
             raiseIndexError(isEmpty.profile(list.len() == 0));
@@ -486,6 +536,15 @@ public class ListBuiltins extends PythonBuiltins {
         @Specialization
         public Object popLast(PList list, @SuppressWarnings("unused") PNone none,
                         @Cached("createBinaryProfile()") ConditionProfile isEmpty) {
+            if (isSingleThreaded()) {
+                return doPopLast(list, isEmpty);
+            }
+            synchronized (list) {
+                return doPopLast(list, isEmpty);
+            }
+        }
+
+        private Object doPopLast(PList list, ConditionProfile isEmpty) {
             raiseIndexError(isEmpty.profile(list.len() == 0));
             Object ret = list.getItem(list.len() - 1);
             list.delItem(list.len() - 1);
@@ -525,6 +584,15 @@ public class ListBuiltins extends PythonBuiltins {
         }
 
         private Object popOnIndex(PList list, int index, ConditionProfile cp) {
+            if (isSingleThreaded()) {
+                return doPopOnIndex(list, index, cp);
+            }
+            synchronized (list) {
+                return doPopOnIndex(list, index, cp);
+            }
+        }
+
+        private Object doPopOnIndex(PList list, int index, ConditionProfile cp) {
             int len = list.len();
             if (cp.profile((index < 0 && (index + len) < 0) || index >= len)) {
                 throw raise(PythonErrorType.IndexError, "pop index out of range");
@@ -708,11 +776,316 @@ public class ListBuiltins extends PythonBuiltins {
 
         @Specialization
         public PList reverse(PList list) {
-            list.reverse();
+            if (isSingleThreaded()) {
+                list.reverse();
+            } else {
+                synchronized (list) {
+                    list.reverse();
+                }
+            }
             return list;
         }
     }
 
+    // list.sort(key=None, reverse=False)
+    @Builtin(name = "sort", fixedNumOfArguments = 1, keywordArguments = {"key", "reverse"})
+    @GenerateNodeFactory
+    public abstract static class ListSortNode extends PythonTernaryBuiltinNode {
+
+        private static final int MIN_RUN = 32;
+
+        @Child private CastToBooleanNode castToBoolean;
+
+        @SuppressWarnings("unused")
+        @Specialization(guards = "isEmptyStorage(list)")
+        public PNone sortEmpty(PList list, Object key, Object reverse) {
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isIntStorage(list)", assumptions = "getSingleThreadedAssumption()")
+        public PNone sortInt(PList list, @SuppressWarnings("unused") PNone key, Object reverse) {
+            sortPrimitive(list.getSequenceStorage(), isReverse(reverse));
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isLongStorage(list)", assumptions = "getSingleThreadedAssumption()")
+        public PNone sortLong(PList list, @SuppressWarnings("unused") PNone key, Object reverse) {
+            sortPrimitive(list.getSequenceStorage(), isReverse(reverse));
+            return PNone.NONE;
+        }
+
+        @Specialization(guards = "isDoubleStorage(list)", assumptions = "getSingleThreadedAssumption()")
+        public PNone sortDouble(PList list, @SuppressWarnings("unused") PNone key, Object reverse) {
+            sortDoubles((DoubleSequenceStorage) list.getSequenceStorage(), isReverse(reverse));
+            return PNone.NONE;
+        }
+
+        @Specialization
+        public PNone sortObject(PList list, @SuppressWarnings("unused") PNone key, Object reverse,
+                        @Cached("create(__LT__, __GT__, __LT__)") BinaryComparisonNode ltNode,
+                        @Cached("createBinaryProfile()") ConditionProfile modifiedProfile) {
+            return sortGeneric(list, null, isReverse(reverse), null, ltNode, modifiedProfile);
+        }
+
+        @Specialization(guards = "!isPNone(key)")
+        public PNone sortWithKey(PList list, Object key, Object reverse,
+                        @Cached("create()") CallNode keyCall,
+                        @Cached("create(__LT__, __GT__, __LT__)") BinaryComparisonNode ltNode,
+                        @Cached("createBinaryProfile()") ConditionProfile modifiedProfile) {
+            return sortGeneric(list, key, isReverse(reverse), keyCall, ltNode, modifiedProfile);
+        }
+
+        private boolean isReverse(Object reverse) {
+            if (PGuards.isPNone(reverse)) {
+                return false;
+            }
+            if (castToBoolean == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                castToBoolean = insert(CastToBooleanNode.createIfTrueNode());
+            }
+            return castToBoolean.executeWith(reverse);
+        }
+
+        @TruffleBoundary
+        private static void sortPrimitive(SequenceStorage storage, boolean reverse) {
+            // equal integers are indistinguishable, so stability does not matter
+            storage.sort();
+            if (reverse) {
+                storage.reverse();
+            }
+        }
+
+        /**
+         * Like {@link #sortPrimitive}, but {@code -0.0} and {@code 0.0} are equal for Python and
+         * distinguishable at the same time, while {@code Arrays.sort} puts all negative
+         * zeros first. So if both occur, the zeros are put back in their original order afterwards,
+         * as a stable sort would have left them.
+         */
+        @TruffleBoundary
+        private static void sortDoubles(DoubleSequenceStorage storage, boolean reverse) {
+            int length = storage.length();
+            int zeros = 0;
+            int negativeZeros = 0;
+            for (int i = 0; i < length; i++) {
+                double value = storage.getDoubleItemNormalized(i);
+                if (value == 0.0) {
+                    zeros++;
+                    if (Double.doubleToRawLongBits(value) != 0) {
+                        negativeZeros++;
+                    }
+                }
+            }
+            double[] zeroValues = null;
+            if (negativeZeros != 0 && negativeZeros != zeros) {
+                zeroValues = new double[zeros];
+                for (int i = 0, j = 0; i < length; i++) {
+                    double value = storage.getDoubleItemNormalized(i);
+                    if (value == 0.0) {
+                        zeroValues[j++] = value;
+                    }
+                }
+            }
+            storage.sort();
+            if (zeroValues != null) {
+                int first = 0;
+                while (storage.getDoubleItemNormalized(first) != 0.0) {
+                    first++;
+                }
+                for (int i = 0; i < zeros; i++) {
+                    // the storage is reversed below, so the zeros go in reversed as well
+                    storage.setDoubleItemNormalized(first + i, zeroValues[reverse ? zeros - 1 - i : i]);
+                }
+            }
+            if (reverse) {
+                storage.reverse();
+            }
+        }
+
+        private PNone sortGeneric(PList list, Object key, boolean reverse, CallNode keyCall, BinaryComparisonNode ltNode, ConditionProfile modifiedProfile) {
+            // like CPython, the list appears empty while it is being sorted so that
+            // modifications done by the key function, by comparisons or by other threads can be
+            // detected, so only taking the storage out and putting it back needs the lock
+            SequenceStorage storage;
+            if (isSingleThreaded()) {
+                storage = detachStorage(list);
+            } else {
+                synchronized (list) {
+                    storage = detachStorage(list);
+                }
+            }
+            int length = storage.length();
+            Object[] values = new Object[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = storage.getItemNormalized(i);
+            }
+
+            Object[] sortedValues = null;
+            try {
+                Object[] keys = values;
+                if (keyCall != null) {
+                    keys = new Object[length];
+                    for (int i = 0; i < length; i++) {
+                        keys[i] = keyCall.execute(key, new Object[]{values[i]}, PKeyword.EMPTY_KEYWORDS);
+                    }
+                }
+                if (reverse) {
+                    // reversing before and after the sort keeps equal elements in their original order
+                    reverseArray(keys);
+                    if (keys != values) {
+                        reverseArray(values);
+                    }
+                }
+                mergeSort(keys, keys != values ? values : null, ltNode);
+                if (reverse) {
+                    reverseArray(keys);
+                    if (keys != values) {
+                        reverseArray(values);
+                    }
+                }
+                sortedValues = values;
+            } finally {
+                boolean modified;
+                if (isSingleThreaded()) {
+                    modified = reattachStorage(list, storage, sortedValues);
+                } else {
+                    synchronized (list) {
+                        modified = reattachStorage(list, storage, sortedValues);
+                    }
+                }
+                if (modifiedProfile.profile(modified)) {
+                    throw raise(PythonErrorType.ValueError, "list modified during sort");
+                }
+            }
+            return PNone.NONE;
+        }
+
+        private static SequenceStorage detachStorage(PList list) {
+            SequenceStorage storage = list.getSequenceStorage();
+            list.setSequenceStorage(EmptySequenceStorage.INSTANCE);
+            return storage;
+        }
+
+        /**
+         * Puts the storage back into the list, dropping anything added while sorting. The sorted
+         * values, if the sort completed, are only written if the list was not modified.
+         *
+         * @return whether the list was modified while sorting
+         */
+        private static boolean reattachStorage(PList list, SequenceStorage storage, Object[] sortedValues) {
+            boolean modified = list.getSequenceStorage() != EmptySequenceStorage.INSTANCE;
+            if (!modified && sortedValues != null) {
+                writeBack(storage, sortedValues);
+            }
+            list.setSequenceStorage(storage);
+            return modified;
+        }
+
+        private static void writeBack(SequenceStorage storage, Object[] values) {
+            try {
+                for (int i = 0; i < values.length; i++) {
+                    storage.setItemNormalized(i, values[i]);
+                }
+            } catch (SequenceStoreException e) {
+                // the storage held exactly these values before sorting
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static void reverseArray(Object[] array) {
+            for (int head = 0, tail = array.length - 1; head < tail; head++, tail--) {
+                Object temp = array[head];
+                array[head] = array[tail];
+                array[tail] = temp;
+            }
+        }
+
+        /**
+         * Stable merge sort of {@code keys} using only {@code <}. Short runs are sorted with binary
+         * insertion and then merged bottom-up. If {@code values} is not {@code null}, it is permuted
+         * in the same way as {@code keys}.
+         */
+        private static void mergeSort(Object[] keys, Object[] values, BinaryComparisonNode ltNode) {
+            int length = keys.length;
+            for (int lo = 0; lo < length; lo += MIN_RUN) {
+                binaryInsertionSort(keys, values, lo, Math.min(lo + MIN_RUN, length), ltNode);
+            }
+            if (length <= MIN_RUN) {
+                return;
+            }
+            Object[] keysTmp = new Object[length];
+            Object[] valuesTmp = values != null ? new Object[length] : null;
+            for (int width = MIN_RUN; width < length; width *= 2) {
+                for (int lo = 0; lo < length - width; lo += 2 * width) {
+                    int mid = lo + width;
+                    int hi = Math.min(lo + 2 * width, length);
+                    // the runs are already in order, nothing to merge
+                    if (!ltNode.executeBool(keys[mid], keys[mid - 1])) {
+                        continue;
+                    }
+                    merge(keys, values, keysTmp, valuesTmp, lo, mid, hi, ltNode);
+                }
+            }
+        }
+
+        private static void binaryInsertionSort(Object[] keys, Object[] values, int lo, int hi, BinaryComparisonNode ltNode) {
+            for (int start = lo + 1; start < hi; start++) {
+                Object pivot = keys[start];
+                int left = lo;
+                int right = start;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (ltNode.executeBool(pivot, keys[mid])) {
+                        right = mid;
+                    } else {
+                        left = mid + 1;
+                    }
+                }
+                if (left < start) {
+                    System.arraycopy(keys, left, keys, left + 1, start - left);
+                    keys[left] = pivot;
+                    if (values != null) {
+                        Object pivotValue = values[start];
+                        System.arraycopy(values, left, values, left + 1, start - left);
+                        values[left] = pivotValue;
+                    }
+                }
+            }
+        }
+
+        private static void merge(Object[] keys, Object[] values, Object[] keysTmp, Object[] valuesTmp, int lo, int mid, int hi, BinaryComparisonNode ltNode) {
+            int leftLength = mid - lo;
+            System.arraycopy(keys, lo, keysTmp, lo, leftLength);
+            if (values != null) {
+                System.arraycopy(values, lo, valuesTmp, lo, leftLength);
+            }
+            int left = lo;
+            int right = mid;
+            int dest = lo;
+            while (left < mid && right < hi) {
+                // take from the right run only if strictly smaller, to keep the sort stable
+                if (ltNode.executeBool(keys[right], keysTmp[left])) {
+                    keys[dest] = keys[right];
+                    if (values != null) {
+                        values[dest] = values[right];
+                    }
+                    right++;
+                } else {
+                    keys[dest] = keysTmp[left];
+                    if (values != null) {
+                        values[dest] = valuesTmp[left];
+                    }
+                    left++;
+                }
+                dest++;
+            }
+            int remaining = mid - left;
+            System.arraycopy(keysTmp, left, keys, dest, remaining);
+            if (values != null) {
+                System.arraycopy(valuesTmp, left, values, dest, remaining);
+            }
+        }
+    }
+
     @Builtin(name = __ITER__, fixedNumOfArguments = 1)
     @GenerateNodeFactory
     public abstract static class ListIterNode extends PythonUnaryBuiltinNode {
@@ -37,6 +37,11 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import com.oracle.truffle.api.profiles.ValueProfile;
 
+/**
+ * Lists do not synchronize themselves. Once more than one thread runs, the builtins that update a
+ * list or replace its storage by a generalized one hold the lock of the list, so that no concurrent
+ * update is lost. Reading single elements takes no lock and may still see the previous storage.
+ */
 public final class PList extends PSequence {
     private SequenceStorage store;
 
@@ -0,0 +1,728 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.memoryview;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__DELITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ITER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__NE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.NotImplementedError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.slice.PSlice;
+import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.expression.BinaryComparisonNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.sequence.PSequence;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PMemoryView.class)
+public class MemoryViewBuiltins extends PythonBuiltins {
+
+    private static final BigInteger UNSIGNED_LONG_MASK = BigInteger.ONE.shiftLeft(Long.SIZE).subtract(BigInteger.ONE);
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return MemoryViewBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Strips the optional native alignment prefix from a struct format and returns the single item
+     * format character, or {@code null} if the format is not supported by memoryviews.
+     */
+    public static String normalizeFormat(String format) {
+        String f = format.startsWith("@") ? format.substring(1) : format;
+        return f.length() == 1 && getItemSize(f.charAt(0)) > 0 ? f : null;
+    }
+
+    /**
+     * The native size of an item of the given struct format character, or {@code -1}.
+     */
+    public static int getItemSize(char format) {
+        switch (format) {
+            case 'b':
+            case 'B':
+            case 'c':
+            case '?':
+                return 1;
+            case 'h':
+            case 'H':
+                return 2;
+            case 'i':
+            case 'I':
+            case 'f':
+                return 4;
+            case 'l':
+            case 'L':
+            case 'q':
+            case 'Q':
+            case 'n':
+            case 'N':
+            case 'd':
+                return 8;
+            default:
+                return -1;
+        }
+    }
+
+    private static boolean isByteFormat(String format) {
+        char c = format.charAt(0);
+        return c == 'B' || c == 'b' || c == 'c';
+    }
+
+    abstract static class MemoryViewNode extends PythonBuiltinNode {
+        @Child private BinaryComparisonNode eqNode;
+
+        protected final void checkReleased(PMemoryView self) {
+            if (self.isReleased()) {
+                throw raise(ValueError, "operation forbidden on released memoryview object");
+            }
+        }
+
+        protected final void checkWritable(PMemoryView self) {
+            checkReleased(self);
+            if (self.isReadonly()) {
+                throw raise(TypeError, "cannot modify read-only memory");
+            }
+        }
+
+        protected final int normalizeIndex(PMemoryView self, long index) {
+            long normalized = index < 0 ? index + self.getLength() : index;
+            if (normalized < 0 || normalized >= self.getLength()) {
+                throw raise(IndexError, "index out of bounds on dimension 1");
+            }
+            return (int) normalized;
+        }
+
+        protected final Object unpack(PMemoryView self, int index) {
+            long bits = self.getItemBits(index);
+            switch (self.getFormat().charAt(0)) {
+                case 'B':
+                    return (int) (bits & 0xFF);
+                case 'b':
+                    return (int) (byte) bits;
+                case 'c':
+                    return factory().createBytes(new byte[]{(byte) bits});
+                case '?':
+                    return (bits & 0xFF) != 0;
+                case 'h':
+                    return (int) (short) bits;
+                case 'H':
+                    return (int) (bits & 0xFFFF);
+                case 'i':
+                    return (int) bits;
+                case 'I':
+                    return bits & 0xFFFFFFFFL;
+                case 'f':
+                    return (double) Float.intBitsToFloat((int) bits);
+                case 'd':
+                    return Double.longBitsToDouble(bits);
+                case 'L':
+                case 'Q':
+                case 'N':
+                    if (bits < 0) {
+                        return factory().createInt(unsignedValue(bits));
+                    }
+                    return bits;
+                default:
+                    return bits;
+            }
+        }
+
+        protected final long pack(PMemoryView self, Object value) {
+            char format = self.getFormat().charAt(0);
+            switch (format) {
+                case 'c':
+                    if (!(value instanceof PBytes)) {
+                        throw raise(TypeError, "memoryview: invalid type for format 'c'");
+                    } else if (((PBytes) value).len() != 1) {
+                        throw raise(ValueError, "memoryview: invalid value for format 'c'");
+                    }
+                    return ((PBytes) value).getInternalByteArray()[0];
+                case 'f':
+                    return Float.floatToRawIntBits((float) asDouble(value, format));
+                case 'd':
+                    return Double.doubleToRawLongBits(asDouble(value, format));
+                case '?':
+                    if (value instanceof Boolean) {
+                        return (boolean) value ? 1 : 0;
+                    }
+                    return asLong(value, format, Long.MIN_VALUE, Long.MAX_VALUE) != 0 ? 1 : 0;
+                case 'b':
+                    return asLong(value, format, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                case 'B':
+                    return asLong(value, format, 0, 0xFF);
+                case 'h':
+                    return asLong(value, format, Short.MIN_VALUE, Short.MAX_VALUE);
+                case 'H':
+                    return asLong(value, format, 0, 0xFFFF);
+                case 'i':
+                    return asLong(value, format, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                case 'I':
+                    return asLong(value, format, 0, 0xFFFFFFFFL);
+                case 'L':
+                case 'Q':
+                case 'N':
+                    if (value instanceof PInt) {
+                        BigInteger big = ((PInt) value).getValue();
+                        if (big.signum() < 0 || big.bitLength() > Long.SIZE) {
+                            throw raise(ValueError, "memoryview: invalid value for format '%s'", format);
+                        }
+                        return big.longValue();
+                    }
+                    return asLong(value, format, 0, Long.MAX_VALUE);
+                default:
+                    return asLong(value, format, Long.MIN_VALUE, Long.MAX_VALUE);
+            }
+        }
+
+        private long asLong(Object value, char format, long min, long max) {
+            long result;
+            if (value instanceof Integer) {
+                result = (int) value;
+            } else if (value instanceof Long) {
+                result = (long) value;
+            } else if (value instanceof Boolean) {
+                result = (boolean) value ? 1 : 0;
+            } else if (value instanceof PInt) {
+                try {
+                    result = ((PInt) value).longValueExact();
+                } catch (ArithmeticException e) {
+                    throw raise(ValueError, "memoryview: invalid value for format '%s'", format);
+                }
+            } else {
+                throw raise(TypeError, "memoryview: invalid type for format '%s'", format);
+            }
+            if (result < min || result > max) {
+                throw raise(ValueError, "memoryview: invalid value for format '%s'", format);
+            }
+            return result;
+        }
+
+        private double asDouble(Object value, char format) {
+            if (value instanceof Double) {
+                return (double) value;
+            } else if (value instanceof PFloat) {
+                return ((PFloat) value).getValue();
+            } else if (value instanceof Integer) {
+                return (int) value;
+            } else if (value instanceof Long) {
+                return (long) value;
+            } else if (value instanceof PInt) {
+                return ((PInt) value).doubleValue();
+            }
+            throw raise(TypeError, "memoryview: invalid type for format '%s'", format);
+        }
+
+        /**
+         * Compares the items of a view with the items of another view or buffer, returning
+         * {@code NotImplemented} if {@code other} does not support the buffer protocol.
+         */
+        protected final Object compare(PMemoryView self, Object other) {
+            if (self == other) {
+                return true;
+            } else if (self.isReleased() || (other instanceof PMemoryView && ((PMemoryView) other).isReleased())) {
+                return false;
+            }
+            if (other instanceof PMemoryView) {
+                return compareViews(self, (PMemoryView) other);
+            }
+            PythonBuffer buffer = PythonBuffer.get(other);
+            if (buffer == null) {
+                return PNotImplemented.NOT_IMPLEMENTED;
+            }
+            int itemSize = buffer.getItemSize();
+            PMemoryView otherView = factory().createMemoryView(buffer, 0, buffer.getLength() / itemSize, itemSize, itemSize, buffer.getFormat(), true);
+            return compareViews(self, otherView);
+        }
+
+        private boolean compareViews(PMemoryView self, PMemoryView otherView) {
+            int length = self.getLength();
+            if (length != otherView.getLength()) {
+                return false;
+            }
+            char format = self.getFormat().charAt(0);
+            if (self.getFormat().equals(otherView.getFormat()) && format != 'f' && format != 'd') {
+                // items of the same integer format are equal iff their bits are
+                for (int i = 0; i < length; i++) {
+                    if (self.getItemBits(i) != otherView.getItemBits(i)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            if (eqNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                eqNode = insert(BinaryComparisonNode.create(__EQ__, __EQ__, "=="));
+            }
+            for (int i = 0; i < length; i++) {
+                if (!eqNode.executeBool(unpack(self, i), unpack(otherView, i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @TruffleBoundary
+        private static BigInteger unsignedValue(long bits) {
+            return BigInteger.valueOf(bits).and(UNSIGNED_LONG_MASK);
+        }
+    }
+
+    @Builtin(name = __LEN__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class LenNode extends MemoryViewNode {
+        @Specialization
+        int len(PMemoryView self) {
+            checkReleased(self);
+            return self.getLength();
+        }
+    }
+
+    @Builtin(name = __GETITEM__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class GetItemNode extends MemoryViewNode {
+        @Specialization
+        Object getitem(PMemoryView self, long index) {
+            checkReleased(self);
+            return unpack(self, normalizeIndex(self, index));
+        }
+
+        @Specialization
+        PMemoryView getitem(PMemoryView self, PSlice slice) {
+            checkReleased(self);
+            SliceInfo info = slice.computeActualIndices(self.getLength());
+            int offset = self.getOffset() + info.start * self.getStride();
+            return factory().createMemoryView(self.getBuffer(), offset, Math.max(info.length, 0), self.getStride() * info.step, self.getItemSize(), self.getFormat(), self.isReadonly());
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object getitem(Object self, Object key) {
+            throw raise(TypeError, "memoryview: invalid slice key");
+        }
+    }
+
+    @Builtin(name = __SETITEM__, fixedNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class SetItemNode extends MemoryViewNode {
+        @Specialization
+        PNone setitem(PMemoryView self, long index, Object value) {
+            checkWritable(self);
+            self.setItemBits(normalizeIndex(self, index), pack(self, value));
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone setitem(PMemoryView self, PSlice slice, Object value) {
+            checkWritable(self);
+            SliceInfo info = slice.computeActualIndices(self.getLength());
+            int length = Math.max(info.length, 0);
+            self.setItems(info.start, info.step, length, getSource(self, value, length));
+            return PNone.NONE;
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object setitem(Object self, Object key, Object value) {
+            throw raise(TypeError, "memoryview: invalid slice key");
+        }
+
+        /**
+         * Copies the contents of {@code value}, so that overlapping assignments between views of
+         * the same buffer see the original data.
+         */
+        @TruffleBoundary
+        private byte[] getSource(PMemoryView self, Object value, int length) {
+            byte[] data;
+            String format;
+            if (value instanceof PMemoryView) {
+                PMemoryView other = (PMemoryView) value;
+                checkReleased(other);
+                format = other.getFormat();
+                data = other.toBytes();
+            } else {
+                PythonBuffer buffer = PythonBuffer.get(value);
+                if (buffer == null) {
+                    throw raise(TypeError, "a bytes-like object is required, not '%p'", value);
+                }
+                format = buffer.getFormat();
+                data = new byte[buffer.getLength()];
+                buffer.getBytes(0, data, 0, data.length);
+            }
+            if (!format.equals(self.getFormat()) || data.length != length * self.getItemSize()) {
+                throw raise(ValueError, "memoryview assignment: lvalue and rvalue have different structures");
+            }
+            return data;
+        }
+    }
+
+    @Builtin(name = __DELITEM__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class DelItemNode extends MemoryViewNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        Object delitem(PMemoryView self, Object key) {
+            checkReleased(self);
+            throw raise(TypeError, "cannot delete memory");
+        }
+    }
+
+    @Builtin(name = __ITER__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class IterNode extends MemoryViewNode {
+        @Specialization
+        PSequenceIterator iter(PMemoryView self) {
+            checkReleased(self);
+            return factory().createSequenceIterator(self);
+        }
+    }
+
+    @Builtin(name = __EQ__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class EqNode extends MemoryViewNode {
+        @Specialization
+        Object eq(PMemoryView self, Object other) {
+            return compare(self, other);
+        }
+    }
+
+    @Builtin(name = __NE__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class NeNode extends MemoryViewNode {
+        @Specialization
+        Object ne(PMemoryView self, Object other) {
+            Object result = compare(self, other);
+            if (result instanceof Boolean) {
+                return !(boolean) result;
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = "tobytes", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ToBytesNode extends MemoryViewNode {
+        @Specialization
+        PBytes tobytes(PMemoryView self) {
+            checkReleased(self);
+            return factory().createBytes(self.toBytes());
+        }
+    }
+
+    @Builtin(name = "tolist", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ToListNode extends MemoryViewNode {
+        @Specialization
+        PList tolist(PMemoryView self) {
+            checkReleased(self);
+            Object[] items = new Object[self.getLength()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = unpack(self, i);
+            }
+            return factory().createList(items);
+        }
+    }
+
+    @Builtin(name = "hex", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class HexNode extends MemoryViewNode {
+        private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+        @Specialization
+        String hex(PMemoryView self) {
+            checkReleased(self);
+            return toHex(self.toBytes());
+        }
+
+        @TruffleBoundary
+        private static String toHex(byte[] bytes) {
+            char[] result = new char[bytes.length * 2];
+            for (int i = 0; i < bytes.length; i++) {
+                result[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+                result[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+            }
+            return new String(result);
+        }
+    }
+
+    @Builtin(name = "cast", minNumOfArguments = 2, maxNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class CastNode extends MemoryViewNode {
+        @Specialization
+        PMemoryView cast(PMemoryView self, PString format, Object shape) {
+            return cast(self, format.getValue(), shape);
+        }
+
+        @Specialization
+        PMemoryView cast(PMemoryView self, String format, Object shape) {
+            checkReleased(self);
+            if (!self.isContiguous()) {
+                throw raise(TypeError, "memoryview: casts are restricted to C-contiguous views");
+            }
+            String newFormat = normalizeFormat(format);
+            if (newFormat == null) {
+                throw raise(ValueError, "memoryview: destination format must be a native single character format prefixed with an optional '@'");
+            } else if (!isByteFormat(self.getFormat()) && !isByteFormat(newFormat)) {
+                throw raise(TypeError, "memoryview: cannot cast between two non-byte formats");
+            }
+            int itemSize = getItemSize(newFormat.charAt(0));
+            int nbytes = self.getNBytes();
+            if (nbytes % itemSize != 0) {
+                throw raise(TypeError, "memoryview: length is not a multiple of itemsize");
+            }
+            int length = nbytes / itemSize;
+            if (!(shape instanceof PNone)) {
+                checkShape(shape, length);
+            }
+            return factory().createMemoryView(self.getBuffer(), self.getOffset(), length, itemSize, itemSize, newFormat, self.isReadonly());
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object cast(Object self, Object format, Object shape) {
+            throw raise(TypeError, "memoryview: format argument must be a string");
+        }
+
+        private void checkShape(Object shape, int length) {
+            if (!(shape instanceof PTuple || shape instanceof PList)) {
+                throw raise(TypeError, "shape must be a list or a tuple");
+            } else if (((PSequence) shape).len() != 1) {
+                throw raise(NotImplementedError, "memoryview: only one-dimensional views are supported");
+            }
+            Object dim = ((PSequence) shape).getItem(0);
+            if (!(dim instanceof Integer) || (int) dim != length) {
+                throw raise(TypeError, "memoryview: product(shape) * itemsize != buffer size");
+            }
+        }
+    }
+
+    @Builtin(name = "release", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReleaseNode extends MemoryViewNode {
+        @Specialization
+        PNone release(PMemoryView self) {
+            self.release();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __ENTER__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class EnterNode extends MemoryViewNode {
+        @Specialization
+        PMemoryView enter(PMemoryView self) {
+            checkReleased(self);
+            self.enter();
+            return self;
+        }
+    }
+
+    @Builtin(name = __EXIT__, fixedNumOfArguments = 4)
+    @GenerateNodeFactory
+    public abstract static class ExitNode extends MemoryViewNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        PNone exit(PMemoryView self, Object type, Object value, Object traceback) {
+            self.release();
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends MemoryViewNode {
+        @Specialization
+        @TruffleBoundary
+        String repr(PMemoryView self) {
+            if (self.isReleased()) {
+                return "<released memory at 0x" + Integer.toHexString(self.hashCode()) + ">";
+            }
+            return self.toString();
+        }
+    }
+
+    @Builtin(name = "obj", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ObjNode extends MemoryViewNode {
+        @Specialization
+        Object obj(PMemoryView self) {
+            checkReleased(self);
+            return self.getOwner();
+        }
+    }
+
+    @Builtin(name = "nbytes", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class NBytesNode extends MemoryViewNode {
+        @Specialization
+        int nbytes(PMemoryView self) {
+            checkReleased(self);
+            return self.getNBytes();
+        }
+    }
+
+    @Builtin(name = "readonly", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ReadonlyNode extends MemoryViewNode {
+        @Specialization
+        boolean readonly(PMemoryView self) {
+            checkReleased(self);
+            return self.isReadonly();
+        }
+    }
+
+    @Builtin(name = "itemsize", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ItemSizeNode extends MemoryViewNode {
+        @Specialization
+        int itemsize(PMemoryView self) {
+            checkReleased(self);
+            return self.getItemSize();
+        }
+    }
+
+    @Builtin(name = "format", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class FormatNode extends MemoryViewNode {
+        @Specialization
+        String format(PMemoryView self) {
+            checkReleased(self);
+            return self.getFormat();
+        }
+    }
+
+    @Builtin(name = "ndim", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class NDimNode extends MemoryViewNode {
+        @Specialization
+        int ndim(PMemoryView self) {
+            checkReleased(self);
+            return 1;
+        }
+    }
+
+    @Builtin(name = "shape", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ShapeNode extends MemoryViewNode {
+        @Specialization
+        PTuple shape(PMemoryView self) {
+            checkReleased(self);
+            return factory().createTuple(new Object[]{self.getLength()});
+        }
+    }
+
+    @Builtin(name = "strides", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class StridesNode extends MemoryViewNode {
+        @Specialization
+        PTuple strides(PMemoryView self) {
+            checkReleased(self);
+            return factory().createTuple(new Object[]{self.getStride()});
+        }
+    }
+
+    @Builtin(name = "suboffsets", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class SubOffsetsNode extends MemoryViewNode {
+        @Specialization
+        PTuple suboffsets(PMemoryView self) {
+            checkReleased(self);
+            return factory().createTuple(new Object[0]);
+        }
+    }
+
+    @Builtin(name = "c_contiguous", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class CContiguousNode extends MemoryViewNode {
+        @Specialization
+        boolean contiguous(PMemoryView self) {
+            checkReleased(self);
+            return self.isContiguous();
+        }
+    }
+
+    @Builtin(name = "f_contiguous", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class FContiguousNode extends MemoryViewNode {
+        @Specialization
+        boolean contiguous(PMemoryView self) {
+            checkReleased(self);
+            return self.isContiguous();
+        }
+    }
+
+    @Builtin(name = "contiguous", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ContiguousNode extends MemoryViewNode {
+        @Specialization
+        boolean contiguous(PMemoryView self) {
+            checkReleased(self);
+            return self.isContiguous();
+        }
+    }
+}
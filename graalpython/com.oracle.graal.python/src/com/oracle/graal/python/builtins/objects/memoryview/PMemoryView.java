@@ -38,13 +38,173 @@
  */
 package com.oracle.graal.python.builtins.objects.memoryview;
 
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
 import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
-public class PMemoryView extends PythonBuiltinObject {
+/**
+ * A one-dimensional view of {@code length} items of {@code itemSize} bytes each, located
+ * {@code stride} bytes apart, starting {@code offset} bytes into a {@link PythonBuffer}. Slicing a
+ * view only computes a new offset, length and stride; the memory is copied only by
+ * {@link #toBytes()}.
+ */
+public final class PMemoryView extends PythonBuiltinObject {
+
+    private final PythonBuffer buffer;
+    private final int offset;
+    private final int length;
+    private final int stride;
+    private final int itemSize;
+    private final String format;
+    private final boolean readonly;
+    private boolean released;
+    /** Whether this view counts as an export of its bytearray, see {@link #enter()}. */
+    private boolean exporting;
 
-    public PMemoryView(PythonClass cls) {
+    public PMemoryView(PythonClass cls, PythonBuffer buffer, int offset, int length, int stride, int itemSize, String format, boolean readonly) {
         super(cls);
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.stride = stride;
+        this.itemSize = itemSize;
+        this.format = format;
+        this.readonly = readonly;
+    }
+
+    public PythonBuffer getBuffer() {
+        return buffer;
+    }
+
+    public Object getOwner() {
+        return buffer.getOwner();
+    }
+
+    /**
+     * The offset of the first item in the buffer, in bytes.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * The number of items in this view.
+     */
+    public int getLength() {
+        return length;
     }
 
+    /**
+     * The distance between two consecutive items in the buffer, in bytes.
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    public int getItemSize() {
+        return itemSize;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isReadonly() {
+        return readonly;
+    }
+
+    public int getNBytes() {
+        return length * itemSize;
+    }
+
+    public boolean isContiguous() {
+        return stride == itemSize || length <= 1;
+    }
+
+    public boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Called when this view is entered with {@code with}. Until it is released, the view is known
+     * to be in use, so a bytearray it views refuses to change its size.
+     */
+    public void enter() {
+        if (!exporting && buffer.getOwner() instanceof PByteArray) {
+            exporting = true;
+            ((PByteArray) buffer.getOwner()).addExport();
+        }
+    }
+
+    public void release() {
+        if (!released) {
+            released = true;
+            if (exporting) {
+                exporting = false;
+                ((PByteArray) buffer.getOwner()).removeExport();
+            }
+        }
+    }
+
+    /**
+     * Reads the bytes of the item at {@code index} into a long, in native byte order.
+     */
+    public long getItemBits(int index) {
+        int start = offset + index * stride;
+        long bits = 0;
+        for (int i = 0; i < itemSize; i++) {
+            bits |= (buffer.getByte(start + i) & 0xFFL) << PythonBuffer.shift(i, itemSize);
+        }
+        return bits;
+    }
+
+    /**
+     * Writes the low {@code itemSize} bytes of {@code bits} to the item at {@code index}, in native
+     * byte order.
+     */
+    public void setItemBits(int index, long bits) {
+        int start = offset + index * stride;
+        for (int i = 0; i < itemSize; i++) {
+            buffer.setByte(start + i, (byte) (bits >>> PythonBuffer.shift(i, itemSize)));
+        }
+    }
+
+    /**
+     * Copies the contents of this view into a new array.
+     */
+    @TruffleBoundary
+    public byte[] toBytes() {
+        byte[] result = new byte[getNBytes()];
+        if (isContiguous()) {
+            buffer.getBytes(offset, result, 0, result.length);
+        } else {
+            for (int i = 0; i < length; i++) {
+                buffer.getBytes(offset + i * stride, result, i * itemSize, itemSize);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Overwrites {@code count} items, starting at item {@code start} and advancing by {@code step}
+     * items, with the contents of {@code data}.
+     */
+    @TruffleBoundary
+    public void setItems(int start, int step, int count, byte[] data) {
+        int pos = offset + start * stride;
+        int distance = step * stride;
+        if (distance == itemSize) {
+            buffer.setBytes(pos, data, 0, count * itemSize);
+        } else {
+            for (int i = 0; i < count; i++, pos += distance) {
+                buffer.setBytes(pos, data, i * itemSize, itemSize);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "<memory at 0x" + Integer.toHexString(hashCode()) + ">";
+    }
 }
@@ -0,0 +1,480 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.memoryview;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+
+import java.nio.ByteOrder;
+
+import com.oracle.graal.python.PythonLanguage;
+import com.oracle.graal.python.builtins.objects.array.PDoubleArray;
+import com.oracle.graal.python.builtins.objects.array.PIntArray;
+import com.oracle.graal.python.builtins.objects.array.PLongArray;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A flat, byte addressed window onto the memory of an object that supports the buffer protocol.
+ * Buffers never copy: reads and writes go straight through to the exporting object, so any number
+ * of {@link PMemoryView memoryviews} can share one buffer. Multi-byte items of typed arrays are
+ * exposed in native byte order.
+ */
+public abstract class PythonBuffer {
+    private static final byte[] EMPTY = new byte[0];
+    private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+
+    private final Object owner;
+
+    protected PythonBuffer(Object owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * The object that exported this buffer.
+     */
+    public final Object getOwner() {
+        return owner;
+    }
+
+    /**
+     * The length of the buffer in bytes.
+     */
+    public abstract int getLength();
+
+    /**
+     * The struct format character of the items of the exporting object.
+     */
+    public String getFormat() {
+        return "B";
+    }
+
+    public int getItemSize() {
+        return 1;
+    }
+
+    public abstract boolean isReadonly();
+
+    public abstract byte getByte(int index);
+
+    public abstract void setByte(int index, byte value);
+
+    /**
+     * Copies {@code length} bytes starting at {@code index} into {@code dest}.
+     */
+    public void getBytes(int index, byte[] dest, int destOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = getByte(index + i);
+        }
+    }
+
+    /**
+     * Copies {@code length} bytes from {@code src} into this buffer, starting at {@code index}.
+     */
+    public void setBytes(int index, byte[] src, int srcOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            setByte(index + i, src[srcOffset + i]);
+        }
+    }
+
+    /**
+     * Returns the buffer exported by {@code object}, or {@code null} if the object does not support
+     * the buffer protocol. A {@link PMemoryView} only exports a buffer if it is contiguous and not
+     * released.
+     */
+    @TruffleBoundary
+    public static PythonBuffer get(Object object) {
+        if (object instanceof PBytes) {
+            return new BytesBuffer((PBytes) object);
+        } else if (object instanceof PByteArray) {
+            return new ByteArrayBuffer((PByteArray) object);
+        } else if (object instanceof PMemoryView) {
+            PMemoryView view = (PMemoryView) object;
+            if (view.isReleased() || !view.isContiguous()) {
+                return null;
+            }
+            return new WindowBuffer(view, view.getBuffer(), view.getOffset(), view.getNBytes(), view.isReadonly());
+        } else if (object instanceof PMMap) {
+            return new MMapBuffer((PMMap) object);
+        } else if (object instanceof PIntArray) {
+            return new IntArrayBuffer((PIntArray) object);
+        } else if (object instanceof PLongArray) {
+            return new LongArrayBuffer((PLongArray) object);
+        } else if (object instanceof PDoubleArray) {
+            return new DoubleArrayBuffer((PDoubleArray) object);
+        }
+        return null;
+    }
+
+    /**
+     * The bit shift of byte {@code index} within a native order item of {@code itemSize} bytes.
+     */
+    static int shift(int index, int itemSize) {
+        int k = index & (itemSize - 1);
+        return 8 * (LITTLE_ENDIAN ? k : itemSize - 1 - k);
+    }
+
+    private abstract static class ByteArrayBackedBuffer extends PythonBuffer {
+        ByteArrayBackedBuffer(Object owner) {
+            super(owner);
+        }
+
+        protected abstract byte[] getArray();
+
+        @Override
+        public byte getByte(int index) {
+            return getArray()[index];
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            getArray()[index] = value;
+        }
+
+        @Override
+        public void getBytes(int index, byte[] dest, int destOffset, int length) {
+            System.arraycopy(getArray(), index, dest, destOffset, length);
+        }
+
+        @Override
+        public void setBytes(int index, byte[] src, int srcOffset, int length) {
+            System.arraycopy(src, srcOffset, getArray(), index, length);
+        }
+    }
+
+    private static final class BytesBuffer extends ByteArrayBackedBuffer {
+        private final byte[] array;
+        private final int length;
+
+        BytesBuffer(PBytes bytes) {
+            super(bytes);
+            this.array = bytes.getInternalByteArray();
+            this.length = bytes.len();
+        }
+
+        @Override
+        protected byte[] getArray() {
+            return array;
+        }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public boolean isReadonly() {
+            return true;
+        }
+    }
+
+    /**
+     * A bytearray may reallocate its storage when its contents are replaced, so the array is looked
+     * up on every access instead of being captured. Its size only stays fixed while memoryviews are
+     * known to use it (see {@link PByteArray#checkResizable()}), so every access is checked against
+     * the current size; the array may be longer than that and hold stale bytes past the end.
+     */
+    private static final class ByteArrayBuffer extends ByteArrayBackedBuffer {
+        private final PByteArray byteArray;
+
+        ByteArrayBuffer(PByteArray byteArray) {
+            super(byteArray);
+            this.byteArray = byteArray;
+        }
+
+        private void checkBounds(int index, int length) {
+            if (index < 0 || length < 0 || index + length > byteArray.len()) {
+                CompilerDirectives.transferToInterpreter();
+                throw PythonLanguage.getCore().raise(IndexError, "memoryview: underlying bytearray was resized");
+            }
+        }
+
+        @Override
+        protected byte[] getArray() {
+            SequenceStorage store = byteArray.getSequenceStorage();
+            if (store instanceof ByteSequenceStorage) {
+                return ((ByteSequenceStorage) store).getInternalByteArray();
+            }
+            // only an empty bytearray has no byte storage, and accesses to it fail the bounds check
+            assert store.length() == 0 : "bytearray storage was generalized";
+            return EMPTY;
+        }
+
+        @Override
+        public byte getByte(int index) {
+            checkBounds(index, 1);
+            return super.getByte(index);
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            checkBounds(index, 1);
+            super.setByte(index, value);
+        }
+
+        @Override
+        public void getBytes(int index, byte[] dest, int destOffset, int length) {
+            checkBounds(index, length);
+            super.getBytes(index, dest, destOffset, length);
+        }
+
+        @Override
+        public void setBytes(int index, byte[] src, int srcOffset, int length) {
+            checkBounds(index, length);
+            super.setBytes(index, src, srcOffset, length);
+        }
+
+        @Override
+        public int getLength() {
+            return byteArray.len();
+        }
+
+        @Override
+        public boolean isReadonly() {
+            return false;
+        }
+    }
+
+    private static final class WindowBuffer extends PythonBuffer {
+        private final PythonBuffer delegate;
+        private final int offset;
+        private final int length;
+        private final boolean readonly;
+
+        WindowBuffer(Object owner, PythonBuffer delegate, int offset, int length, boolean readonly) {
+            super(owner);
+            this.delegate = delegate;
+            this.offset = offset;
+            this.length = length;
+            this.readonly = readonly;
+        }
+
+        @Override
+        public int getLength() {
+            return length;
+        }
+
+        @Override
+        public boolean isReadonly() {
+            return readonly;
+        }
+
+        @Override
+        public byte getByte(int index) {
+            return delegate.getByte(offset + index);
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            delegate.setByte(offset + index, value);
+        }
+
+        @Override
+        public void getBytes(int index, byte[] dest, int destOffset, int len) {
+            delegate.getBytes(offset + index, dest, destOffset, len);
+        }
+
+        @Override
+        public void setBytes(int index, byte[] src, int srcOffset, int len) {
+            delegate.setBytes(offset + index, src, srcOffset, len);
+        }
+    }
+
+    private static final class MMapBuffer extends PythonBuffer {
+        private final PMMap mmap;
+
+        MMapBuffer(PMMap mmap) {
+            super(mmap);
+            this.mmap = mmap;
+        }
+
+        @Override
+        public int getLength() {
+            return mmap.getLength();
+        }
+
+        @Override
+        public boolean isReadonly() {
+            return mmap.isReadonly();
+        }
+
+        @Override
+        public byte getByte(int index) {
+            return mmap.getByte(index);
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            mmap.setByte(index, value);
+        }
+
+        @Override
+        public void getBytes(int index, byte[] dest, int destOffset, int length) {
+            System.arraycopy(mmap.getBytes(index, length), 0, dest, destOffset, length);
+        }
+    }
+
+    private static final class IntArrayBuffer extends PythonBuffer {
+        private final int[] array;
+
+        IntArrayBuffer(PIntArray array) {
+            super(array);
+            this.array = array.getSequence();
+        }
+
+        @Override
+        public int getLength() {
+            return array.length * Integer.BYTES;
+        }
+
+        @Override
+        public String getFormat() {
+            return "i";
+        }
+
+        @Override
+        public int getItemSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public boolean isReadonly() {
+            return false;
+        }
+
+        @Override
+        public byte getByte(int index) {
+            return (byte) (array[index / Integer.BYTES] >>> shift(index, Integer.BYTES));
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            int shift = shift(index, Integer.BYTES);
+            int item = index / Integer.BYTES;
+            array[item] = (array[item] & ~(0xFF << shift)) | ((value & 0xFF) << shift);
+        }
+    }
+
+    private static final class LongArrayBuffer extends PythonBuffer {
+        private final long[] array;
+
+        LongArrayBuffer(PLongArray array) {
+            super(array);
+            this.array = array.getSequence();
+        }
+
+        @Override
+        public int getLength() {
+            return array.length * Long.BYTES;
+        }
+
+        @Override
+        public String getFormat() {
+            return "l";
+        }
+
+        @Override
+        public int getItemSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public boolean isReadonly() {
+            return false;
+        }
+
+        @Override
+        public byte getByte(int index) {
+            return (byte) (array[index / Long.BYTES] >>> shift(index, Long.BYTES));
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            int shift = shift(index, Long.BYTES);
+            int item = index / Long.BYTES;
+            array[item] = (array[item] & ~(0xFFL << shift)) | ((value & 0xFFL) << shift);
+        }
+    }
+
+    private static final class DoubleArrayBuffer extends PythonBuffer {
+        private final double[] array;
+
+        DoubleArrayBuffer(PDoubleArray array) {
+            super(array);
+            this.array = array.getSequence();
+        }
+
+        @Override
+        public int getLength() {
+            return array.length * Double.BYTES;
+        }
+
+        @Override
+        public String getFormat() {
+            return "d";
+        }
+
+        @Override
+        public int getItemSize() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public boolean isReadonly() {
+            return false;
+        }
+
+        @Override
+        public byte getByte(int index) {
+            return (byte) (Double.doubleToRawLongBits(array[index / Double.BYTES]) >>> shift(index, Double.BYTES));
+        }
+
+        @Override
+        public void setByte(int index, byte value) {
+            int shift = shift(index, Double.BYTES);
+            int item = index / Double.BYTES;
+            long bits = Double.doubleToRawLongBits(array[item]);
+            array[item] = Double.longBitsToDouble((bits & ~(0xFFL << shift)) | ((value & 0xFFL) << shift));
+        }
+    }
+}
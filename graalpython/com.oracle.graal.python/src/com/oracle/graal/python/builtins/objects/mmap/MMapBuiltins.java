@@ -0,0 +1,422 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.mmap;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__LEN__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__SETITEM__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OSError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.slice.PSlice;
+import com.oracle.graal.python.builtins.objects.slice.PSlice.SliceInfo;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PMMap.class)
+public class MMapBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return MMapBuiltinsFactory.getFactories();
+    }
+
+    abstract static class MMapNode extends PythonBuiltinNode {
+        protected final void checkValid(PMMap self) {
+            if (self.isClosed()) {
+                throw raise(ValueError, "mmap closed or invalid");
+            }
+        }
+
+        protected final void checkWritable(PMMap self) {
+            checkValid(self);
+            if (self.isReadonly()) {
+                throw raise(TypeError, "mmap can't modify a readonly memory map.");
+            }
+        }
+
+        protected final int normalizeIndex(PMMap self, long index) {
+            long normalized = index < 0 ? index + self.getLength() : index;
+            if (normalized < 0 || normalized >= self.getLength()) {
+                throw raise(IndexError, "mmap index out of range");
+            }
+            return (int) normalized;
+        }
+    }
+
+    @Builtin(name = __LEN__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class LenNode extends MMapNode {
+        @Specialization
+        int len(PMMap self) {
+            checkValid(self);
+            return self.getLength();
+        }
+    }
+
+    @Builtin(name = "size", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class SizeNode extends MMapNode {
+        @Specialization
+        int size(PMMap self) {
+            checkValid(self);
+            return self.getLength();
+        }
+    }
+
+    @Builtin(name = __GETITEM__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class GetItemNode extends MMapNode {
+        @Specialization
+        int getitem(PMMap self, long index) {
+            checkValid(self);
+            return self.getByte(normalizeIndex(self, index)) & 0xFF;
+        }
+
+        @Specialization
+        PBytes getitem(PMMap self, PSlice slice) {
+            checkValid(self);
+            SliceInfo info = slice.computeActualIndices(self.getLength());
+            if (info.step == 1) {
+                return factory().createBytes(self.getBytes(info.start, Math.max(info.length, 0)));
+            }
+            return factory().createBytes(getStrided(self, info));
+        }
+
+        @TruffleBoundary
+        private static byte[] getStrided(PMMap self, SliceInfo info) {
+            byte[] result = new byte[info.length];
+            for (int i = 0, j = info.start; i < info.length; i++, j += info.step) {
+                result[i] = self.getByte(j);
+            }
+            return result;
+        }
+    }
+
+    @Builtin(name = __SETITEM__, fixedNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class SetItemNode extends MMapNode {
+        @Specialization
+        PNone setitem(PMMap self, long index, int value) {
+            checkWritable(self);
+            int i = normalizeIndex(self, index);
+            if (value < 0 || value > 255) {
+                throw raise(ValueError, "mmap item value must be in range(0, 256)");
+            }
+            self.setByte(i, (byte) value);
+            return PNone.NONE;
+        }
+
+        @Specialization
+        PNone setitem(PMMap self, PSlice slice, PBytes value) {
+            return setSlice(self, slice, value.getInternalByteArray(), value.len());
+        }
+
+        @Specialization
+        PNone setitem(PMMap self, PSlice slice, PByteArray value) {
+            return setSlice(self, slice, value.getInternalByteArray(), value.len());
+        }
+
+        private PNone setSlice(PMMap self, PSlice slice, byte[] data, int length) {
+            checkWritable(self);
+            SliceInfo info = slice.computeActualIndices(self.getLength());
+            if (Math.max(info.length, 0) != length) {
+                throw raise(IndexError, "mmap slice assignment is wrong size");
+            }
+            if (info.step == 1) {
+                self.setBytes(info.start, data, length);
+            } else {
+                for (int i = 0, j = info.start; i < length; i++, j += info.step) {
+                    self.setByte(j, data[i]);
+                }
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "read", minNumOfArguments = 1, maxNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class ReadNode extends MMapNode {
+        @Specialization
+        PBytes read(PMMap self, @SuppressWarnings("unused") PNone size) {
+            return read(self, -1);
+        }
+
+        @Specialization
+        PBytes read(PMMap self, int size) {
+            checkValid(self);
+            return factory().createBytes(self.read(size));
+        }
+    }
+
+    @Builtin(name = "read_byte", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReadByteNode extends MMapNode {
+        @Specialization
+        int readByte(PMMap self) {
+            checkValid(self);
+            int pos = self.getPos();
+            if (pos >= self.getLength()) {
+                throw raise(ValueError, "read byte out of range");
+            }
+            self.setPos(pos + 1);
+            return self.getByte(pos) & 0xFF;
+        }
+    }
+
+    @Builtin(name = "readline", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReadlineNode extends MMapNode {
+        @Specialization
+        PBytes readline(PMMap self) {
+            checkValid(self);
+            return factory().createBytes(self.readline());
+        }
+    }
+
+    @Builtin(name = "write", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class WriteNode extends MMapNode {
+        @Specialization
+        int write(PMMap self, PBytes data) {
+            return write(self, data.getInternalByteArray(), data.len());
+        }
+
+        @Specialization
+        int write(PMMap self, PByteArray data) {
+            return write(self, data.getInternalByteArray(), data.len());
+        }
+
+        private int write(PMMap self, byte[] data, int length) {
+            checkWritable(self);
+            int pos = self.getPos();
+            if (pos > self.getLength() || self.getLength() - pos < length) {
+                throw raise(ValueError, "data out of range");
+            }
+            self.setBytes(pos, data, length);
+            self.setPos(pos + length);
+            return length;
+        }
+    }
+
+    @Builtin(name = "write_byte", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class WriteByteNode extends MMapNode {
+        @Specialization
+        PNone writeByte(PMMap self, int value) {
+            checkWritable(self);
+            int pos = self.getPos();
+            if (pos >= self.getLength()) {
+                throw raise(ValueError, "write byte out of range");
+            }
+            self.setByte(pos, (byte) value);
+            self.setPos(pos + 1);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "seek", minNumOfArguments = 2, maxNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class SeekNode extends MMapNode {
+        @Specialization
+        PNone seek(PMMap self, long dist, @SuppressWarnings("unused") PNone how) {
+            return seek(self, dist, 0);
+        }
+
+        @Specialization
+        PNone seek(PMMap self, long dist, int how) {
+            checkValid(self);
+            long where;
+            switch (how) {
+                case 0:
+                    where = dist;
+                    break;
+                case 1:
+                    where = self.getPos() + dist;
+                    break;
+                case 2:
+                    where = self.getLength() + dist;
+                    break;
+                default:
+                    throw raise(ValueError, "unknown seek type");
+            }
+            if (where < 0 || where > self.getLength()) {
+                throw raise(ValueError, "seek out of range");
+            }
+            self.setPos((int) where);
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "tell", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class TellNode extends MMapNode {
+        @Specialization
+        int tell(PMMap self) {
+            checkValid(self);
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "find", minNumOfArguments = 2, maxNumOfArguments = 4)
+    @GenerateNodeFactory
+    public abstract static class FindNode extends MMapNode {
+        @Specialization
+        int find(PMMap self, PBytes sub, Object start, Object end) {
+            return find(self, sub.getInternalByteArray(), sub.len(), start, end);
+        }
+
+        @Specialization
+        int find(PMMap self, PByteArray sub, Object start, Object end) {
+            return find(self, sub.getInternalByteArray(), sub.len(), start, end);
+        }
+
+        private int find(PMMap self, byte[] sub, int subLength, Object start, Object end) {
+            checkValid(self);
+            int length = self.getLength();
+            int from = clamp(start, self.getPos(), length);
+            int to = clamp(end, length, length);
+            return self.find(sub, subLength, from, to);
+        }
+
+        private int clamp(Object value, int defaultValue, int length) {
+            if (value instanceof PNone) {
+                return defaultValue;
+            } else if (!(value instanceof Integer)) {
+                throw raise(TypeError, "slice indices must be integers or None");
+            }
+            int index = (int) value;
+            if (index < 0) {
+                index += length;
+            }
+            return Math.max(0, Math.min(index, length));
+        }
+    }
+
+    @Builtin(name = "flush", minNumOfArguments = 1, maxNumOfArguments = 3)
+    @GenerateNodeFactory
+    public abstract static class FlushNode extends MMapNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        PNone flush(PMMap self, Object offset, Object size) {
+            checkValid(self);
+            try {
+                self.flush();
+            } catch (IOException e) {
+                throw raise(OSError, e.getMessage());
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "close", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CloseNode extends MMapNode {
+        @Specialization
+        PNone close(PMMap self) {
+            try {
+                self.close();
+            } catch (IOException e) {
+                throw raise(OSError, e.getMessage());
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "closed", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ClosedNode extends MMapNode {
+        @Specialization
+        boolean closed(PMMap self) {
+            return self.isClosed();
+        }
+    }
+
+    @Builtin(name = __ENTER__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class EnterNode extends MMapNode {
+        @Specialization
+        PMMap enter(PMMap self) {
+            checkValid(self);
+            return self;
+        }
+    }
+
+    @Builtin(name = __EXIT__, fixedNumOfArguments = 4)
+    @GenerateNodeFactory
+    public abstract static class ExitNode extends MMapNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        PNone exit(PMMap self, Object type, Object value, Object traceback) {
+            try {
+                self.close();
+            } catch (IOException e) {
+                throw raise(OSError, e.getMessage());
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends MMapNode {
+        @Specialization
+        @TruffleBoundary
+        String repr(PMMap self) {
+            return self.toString();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.mmap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A memory mapped file region. If the file is a regular file, the region is backed by a
+ * {@link MappedByteBuffer}, so reads and slices copy directly out of the page cache without
+ * going through an intermediate heap buffer. For other channels, and for anonymous maps, the
+ * region is held in a buffer that is written back to the channel on {@link #flush()}.
+ */
+public final class PMMap extends PythonBuiltinObject {
+    public static final int ACCESS_DEFAULT = 0;
+    public static final int ACCESS_READ = 1;
+    public static final int ACCESS_WRITE = 2;
+    public static final int ACCESS_COPY = 3;
+
+    private final ByteBuffer buffer;
+    /** The channel to write back to, {@code null} if the buffer is mapped or anonymous. */
+    private final SeekableByteChannel writeBack;
+    private final long offset;
+    private final int access;
+    private int pos;
+    private boolean closed;
+
+    public PMMap(PythonClass cls, ByteBuffer buffer, SeekableByteChannel writeBack, long offset, int access) {
+        super(cls);
+        this.buffer = buffer;
+        this.writeBack = writeBack;
+        this.offset = offset;
+        this.access = access;
+    }
+
+    public int getLength() {
+        return buffer.limit();
+    }
+
+    public int getPos() {
+        return pos;
+    }
+
+    public void setPos(int pos) {
+        this.pos = pos;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public boolean isReadonly() {
+        return access == ACCESS_READ;
+    }
+
+    public byte getByte(int index) {
+        return buffer.get(index);
+    }
+
+    public void setByte(int index, byte value) {
+        buffer.put(index, value);
+    }
+
+    /**
+     * Copies {@code length} bytes starting at {@code start} in a single bulk transfer.
+     */
+    @TruffleBoundary
+    public byte[] getBytes(int start, int length) {
+        byte[] result = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(start);
+        view.get(result);
+        return result;
+    }
+
+    @TruffleBoundary
+    public void setBytes(int start, byte[] data, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.position(start);
+        view.put(data, 0, length);
+    }
+
+    /**
+     * Reads up to {@code size} bytes from the current position, or all remaining bytes if
+     * {@code size} is negative.
+     */
+    public byte[] read(int size) {
+        int remaining = getLength() - pos;
+        int n = size < 0 || size > remaining ? remaining : size;
+        byte[] result = getBytes(pos, n);
+        pos += n;
+        return result;
+    }
+
+    @TruffleBoundary
+    public byte[] readline() {
+        int end = pos;
+        int length = getLength();
+        while (end < length) {
+            if (buffer.get(end++) == '\n') {
+                break;
+            }
+        }
+        byte[] result = getBytes(pos, end - pos);
+        pos = end;
+        return result;
+    }
+
+    @TruffleBoundary
+    public int find(byte[] sub, int subLength, int start, int end) {
+        int last = end - subLength;
+        outer: for (int i = start; i <= last; i++) {
+            for (int j = 0; j < subLength; j++) {
+                if (buffer.get(i + j) != sub[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    @TruffleBoundary
+    public void flush() throws IOException {
+        if (access == ACCESS_WRITE) {
+            if (buffer instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) buffer).force();
+            } else if (writeBack != null) {
+                ByteBuffer view = buffer.duplicate();
+                view.position(0);
+                writeBack.position(offset);
+                while (view.hasRemaining()) {
+                    writeBack.write(view);
+                }
+            }
+        }
+    }
+
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                flush();
+            } finally {
+                closed = true;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "<mmap.mmap closed=" + (closed ? "True" : "False") + ", access=" + access + ", length=" + getLength() + ", pos=" + pos + ", offset=" + offset + ">";
+    }
+}
@@ -200,8 +200,25 @@ public class ObjectBuiltins extends PythonBuiltins {
         @Child private ReadAttributeFromObjectNode attrRead;
         @Child private LookupAndCallBinaryNode getattrNode;
 
+        public static GetattributeNode create() {
+            return ObjectBuiltinsFactory.GetattributeNodeFactory.create(null);
+        }
+
         @Specialization
         protected Object doIt(Object object, Object key) {
+            Object value = lookupOrNoValue(object, key);
+            if (value != PNone.NO_VALUE) {
+                return value;
+            }
+            errorProfile.enter();
+            return fallbackGetattr(object, key);
+        }
+
+        /**
+         * Performs the generic attribute lookup, but returns {@link PNone#NO_VALUE} instead of
+         * falling back to {@code __getattr__} if the attribute is not found.
+         */
+        public Object lookupOrNoValue(Object object, Object key) {
             Object descr = lookup.execute(object, key);
             PythonClass dataDescClass = null;
             if (descr != PNone.NO_VALUE) {
@@ -243,8 +260,7 @@ public class ObjectBuiltins extends PythonBuiltins {
                     return dispatch(object, descr, get);
                 }
             }
-            errorProfile.enter();
-            return fallbackGetattr(object, key);
+            return PNone.NO_VALUE;
         }
 
         private Object fallbackGetattr(Object object, Object key) {
@@ -133,6 +133,38 @@ public final class FrozenSetBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = SpecialMethodNames.__OR__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    abstract static class OrNode extends PythonBinaryBuiltinNode {
+        @Child private HashingStorageNodes.UnionNode unionNode;
+
+        @Specialization
+        PBaseSet doPBaseSet(PSet left, PBaseSet right) {
+            HashingStorage storage = getUnionNode().execute(left.getDictStorage(), right.getDictStorage());
+            return factory().createSet(storage);
+        }
+
+        @Specialization
+        PBaseSet doPBaseSet(PFrozenSet left, PBaseSet right) {
+            HashingStorage storage = getUnionNode().execute(left.getDictStorage(), right.getDictStorage());
+            return factory().createFrozenSet(storage);
+        }
+
+        @Fallback
+        @SuppressWarnings("unused")
+        Object doGeneric(Object self, Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+
+        private HashingStorageNodes.UnionNode getUnionNode() {
+            if (unionNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                unionNode = insert(HashingStorageNodes.UnionNode.create());
+            }
+            return unionNode;
+        }
+    }
+
     @Builtin(name = SpecialMethodNames.__SUB__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     abstract static class SubNode extends PythonBinaryBuiltinNode {
@@ -165,7 +197,7 @@ public final class FrozenSetBuiltins extends PythonBuiltins {
         @Specialization
         boolean contains(PBaseSet self, Object key,
                         @Cached("create()") HashingStorageNodes.ContainsKeyNode containsKeyNode) {
-            return containsKeyNode.execute(self.getDictStorage(), key);
+            return containsKeyNode.execute(self, key);
         }
     }
 }
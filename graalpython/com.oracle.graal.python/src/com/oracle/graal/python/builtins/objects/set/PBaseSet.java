@@ -25,19 +25,24 @@
  */
 package com.oracle.graal.python.builtins.objects.set;
 
-import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.LongSetStorage;
 import com.oracle.graal.python.builtins.objects.common.PHashingCollection;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage.Equivalence;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 
 public abstract class PBaseSet extends PHashingCollection {
 
-    protected final HashingStorage set;
+    /**
+     * The elements of this set. A new set starts out with a {@link LongSetStorage}, which
+     * {@link com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.SetItemNode}
+     * replaces by a string or generic storage as other elements are added.
+     */
+    protected HashingStorage set;
 
     public PBaseSet(PythonClass clazz) {
         super(clazz);
-        this.set = EconomicMapStorage.create(true);
+        this.set = new LongSetStorage();
     }
 
     public PBaseSet(PythonClass clazz, HashingStorage set) {
@@ -62,4 +67,9 @@ public abstract class PBaseSet extends PHashingCollection {
     public HashingStorage getDictStorage() {
         return set;
     }
+
+    @Override
+    public void setDictStorage(HashingStorage newStorage) {
+        set = newStorage;
+    }
 }
@@ -43,9 +43,4 @@ public class PFrozenSet extends PBaseSet {
         return "frozenset(" + super.toString() + ")";
     }
 
-    @Override
-    public void setDictStorage(HashingStorage newStorage) {
-        throw new RuntimeException("frozenSet is unmodifiable");
-    }
-
 }
@@ -26,7 +26,10 @@
 package com.oracle.graal.python.builtins.objects.set;
 
 import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.common.EconomicMapStorage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.Equivalence;
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.UnmodifiableStorageException;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 
 public final class PSet extends PBaseSet {
@@ -41,7 +44,15 @@ public final class PSet extends PBaseSet {
 
     // add
     public void add(Object o) {
-        this.set.setItem(o, PNone.NO_VALUE, HashingStorage.getSlowPathEquivalence(o));
+        Equivalence eq = HashingStorage.getSlowPathEquivalence(o);
+        try {
+            this.set.setItem(o, PNone.NO_VALUE, eq);
+        } catch (UnmodifiableStorageException e) {
+            EconomicMapStorage newStorage = EconomicMapStorage.create(size() + 1, true);
+            newStorage.addAll(set, eq);
+            newStorage.setItem(o, PNone.NO_VALUE, eq);
+            this.set = newStorage;
+        }
     }
 
     // remove
@@ -67,9 +78,4 @@ public final class PSet extends PBaseSet {
         set.clear();
     }
 
-    @Override
-    public void setDictStorage(HashingStorage newStorage) {
-        throw new RuntimeException("set has fixed storage");
-    }
-
 }
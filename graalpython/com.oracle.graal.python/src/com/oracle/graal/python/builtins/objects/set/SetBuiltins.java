@@ -58,7 +58,13 @@ public final class SetBuiltins extends PythonBuiltins {
 
         @Specialization
         public Object clear(PSet self) {
-            self.clear();
+            if (isSingleThreaded()) {
+                self.clear();
+            } else {
+                synchronized (self) {
+                    self.clear();
+                }
+            }
             return PNone.NONE;
         }
     }
@@ -71,7 +77,7 @@ public final class SetBuiltins extends PythonBuiltins {
         public Object add(PSet self, Object o,
                         @Cached("create()") HashingStorageNodes.SetItemNode setItemNode) {
 
-            setItemNode.execute(self, self.getDictStorage(), o, PNone.NO_VALUE);
+            setItemNode.execute(self, o, PNone.NO_VALUE);
             return PNone.NONE;
         }
     }
@@ -92,7 +98,7 @@ public final class SetBuiltins extends PythonBuiltins {
         Object remove(PBaseSet self, Object other,
                         @Cached("create()") HashingStorageNodes.DelItemNode delItemNode) {
 
-            if (delItemNode.execute(self, self.getDictStorage(), other)) {
+            if (delItemNode.execute(self, other)) {
                 throw raise(PythonErrorType.KeyError, "%s", other);
             }
             return PNone.NONE;
@@ -106,7 +112,7 @@ public final class SetBuiltins extends PythonBuiltins {
         Object discard(PBaseSet self, Object other,
                         @Cached("create()") HashingStorageNodes.DelItemNode delItemNode) {
 
-            delItemNode.execute(self, self.getDictStorage(), other);
+            delItemNode.execute(self, other);
             return PNone.NONE;
         }
     }
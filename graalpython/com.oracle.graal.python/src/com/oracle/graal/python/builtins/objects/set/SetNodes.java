@@ -47,8 +47,7 @@ import com.oracle.graal.python.nodes.PBaseNode;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.control.GetIteratorNode;
-import com.oracle.graal.python.nodes.control.GetNextNode;
-import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
@@ -86,18 +85,17 @@ public abstract class SetNodes {
         @Specialization(guards = "!isNoValue(iterable)")
         public PSet setIterable(PythonClass cls, Object iterable,
                         @Cached("create()") GetIteratorNode getIterator,
-                        @Cached("create()") GetNextNode next,
-                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+                        @Cached("create()") GetNextOrStopNode next,
+                        @Cached("createBinaryProfile()") ConditionProfile stopProfile) {
 
             PSet set = factory().createSet(cls);
             Object iterator = getIterator.executeWith(iterable);
             while (true) {
-                try {
-                    getSetItemNode().execute(set, set.getDictStorage(), next.execute(iterator), PNone.NO_VALUE);
-                } catch (PException e) {
-                    e.expectStopIteration(getCore(), errorProfile);
+                Object value = next.execute(iterator);
+                if (stopProfile.profile(value == GetNextOrStopNode.STOP)) {
                     return set;
                 }
+                getSetItemNode().execute(set, set.getDictStorage(), value, PNone.NO_VALUE);
             }
         }
 
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.sre;
+
+import java.util.regex.MatchResult;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The result of a successful match. Only the group offsets are kept; group strings are created
+ * when they are requested.
+ */
+public final class PSREMatch extends PythonBuiltinObject {
+    private final PSREPattern pattern;
+    private final Object string;
+    private final String input;
+    private final int pos;
+    private final int endpos;
+    private final MatchResult result;
+
+    public PSREMatch(PythonClass cls, PSREPattern pattern, Object string, String input, int pos, int endpos, MatchResult result) {
+        super(cls);
+        this.pattern = pattern;
+        this.string = string;
+        this.input = input;
+        this.pos = pos;
+        this.endpos = endpos;
+        this.result = result;
+    }
+
+    public PSREPattern getPattern() {
+        return pattern;
+    }
+
+    public Object getString() {
+        return string;
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public int getPos() {
+        return pos;
+    }
+
+    public int getEndpos() {
+        return endpos;
+    }
+
+    public MatchResult getResult() {
+        return result;
+    }
+
+    /**
+     * Returns the start of group {@code group}, or {@code -1} if it did not participate.
+     */
+    @TruffleBoundary
+    public int getStart(int group) {
+        return result.start(group);
+    }
+
+    @TruffleBoundary
+    public int getEnd(int group) {
+        return result.end(group);
+    }
+
+    /**
+     * Returns the text of group {@code group}, or {@code null} if it did not participate.
+     */
+    @TruffleBoundary
+    public String getGroup(int group) {
+        int start = result.start(group);
+        return start < 0 ? null : input.substring(start, result.end(group));
+    }
+
+    /**
+     * Returns the index of the last group that was closed, or {@code -1} if no group matched.
+     * Java does not record the order groups were closed in, so this is the matched group ending
+     * last and, of several ending at the same position, the outermost one.
+     */
+    @TruffleBoundary
+    public int getLastIndex() {
+        int lastIndex = -1;
+        int lastEnd = -1;
+        for (int i = 1; i <= result.groupCount(); i++) {
+            int end = result.end(i);
+            if (end > lastEnd) {
+                lastIndex = i;
+                lastEnd = end;
+            }
+        }
+        return lastIndex;
+    }
+}
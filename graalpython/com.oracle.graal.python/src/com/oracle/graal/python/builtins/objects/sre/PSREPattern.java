@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.sre;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+
+/**
+ * A compiled regular expression. Matching is done by a {@link Pattern} translated from the Python
+ * pattern; bytes patterns and subjects are matched as Latin-1 decoded strings.
+ */
+public final class PSREPattern extends PythonBuiltinObject {
+    private final Object pattern;
+    /** The pattern as a string, bytes patterns are decoded as Latin-1. */
+    private final String source;
+    private final int flags;
+    private final int groups;
+    private final Object groupIndex;
+    /** The group names by index, {@code null} for unnamed groups. */
+    private final String[] groupNames;
+    private final Map<String, Integer> groupIndices;
+    private final boolean bytes;
+    private final Pattern regex;
+
+    /** The last replacement template passed to {@code sub} and its parsed form. */
+    private String lastTemplate;
+    private Object[] lastTemplateParts;
+
+    public PSREPattern(PythonClass cls, Object pattern, String source, int flags, int groups, Object groupIndex, String[] groupNames, boolean bytes, Pattern regex) {
+        super(cls);
+        this.pattern = pattern;
+        this.source = source;
+        this.flags = flags;
+        this.groups = groups;
+        this.groupIndex = groupIndex;
+        this.groupNames = groupNames;
+        this.bytes = bytes;
+        this.regex = regex;
+        this.groupIndices = new HashMap<>();
+        for (int i = 0; i < groupNames.length; i++) {
+            if (groupNames[i] != null) {
+                groupIndices.put(groupNames[i], i);
+            }
+        }
+    }
+
+    public Object getPattern() {
+        return pattern;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public int getGroups() {
+        return groups;
+    }
+
+    public Object getGroupIndex() {
+        return groupIndex;
+    }
+
+    /**
+     * Returns the name of group {@code index}, or {@code null} if it has none.
+     */
+    public String getGroupName(int index) {
+        return index < groupNames.length ? groupNames[index] : null;
+    }
+
+    /**
+     * Returns the index of the group called {@code name}, or {@code -1} if there is none.
+     */
+    public int getGroupIndex(String name) {
+        Integer index = groupIndices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public boolean isBytes() {
+        return bytes;
+    }
+
+    public Pattern getRegex() {
+        return regex;
+    }
+
+    /**
+     * Returns the parsed form of {@code template} if it was the last template used with this
+     * pattern, or {@code null}.
+     */
+    public Object[] getCachedTemplate(String template) {
+        return template.equals(lastTemplate) ? lastTemplateParts : null;
+    }
+
+    public void setCachedTemplate(String template, Object[] parts) {
+        this.lastTemplate = template;
+        this.lastTemplateParts = parts;
+    }
+}
@@ -0,0 +1,534 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.sre;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Translates Python regular expressions into {@link Pattern java.util.regex} patterns. Patterns
+ * have usually been validated by {@code sre_parse} when they get here, so mostly the differences
+ * between the two dialects need handling. Escapes are checked again, because an escape that Python
+ * rejects may well be valid Java syntax. Compiled patterns are kept in a bounded LRU cache keyed by
+ * pattern and flags.
+ */
+public final class RegexTranslator {
+    public static final int FLAG_TEMPLATE = 1;
+    public static final int FLAG_IGNORECASE = 2;
+    public static final int FLAG_LOCALE = 4;
+    public static final int FLAG_MULTILINE = 8;
+    public static final int FLAG_DOTALL = 16;
+    public static final int FLAG_UNICODE = 32;
+    public static final int FLAG_VERBOSE = 64;
+    public static final int FLAG_DEBUG = 128;
+    public static final int FLAG_ASCII = 256;
+
+    private static final int CACHE_SIZE = 512;
+
+    private static final Map<CacheKey, Pattern> cache = Collections.synchronizedMap(new LinkedHashMap<CacheKey, Pattern>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Pattern> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    });
+
+    private static final class CacheKey {
+        private final String pattern;
+        private final int flags;
+
+        CacheKey(String pattern, int flags) {
+            this.pattern = pattern;
+            this.flags = flags;
+        }
+
+        @Override
+        public int hashCode() {
+            return pattern.hashCode() * 31 + flags;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return flags == other.flags && pattern.equals(other.pattern);
+        }
+    }
+
+    private static final int SCOPE_MULTILINE = 1;
+    private static final int SCOPE_VERBOSE = 2;
+
+    private final String source;
+    private final int flags;
+    private final StringBuilder out;
+    private final Map<String, Integer> groupIndices = new HashMap<>();
+    /** The inline flags of the enclosing groups, restored when a group is closed. */
+    private final ArrayDeque<Integer> scopes = new ArrayDeque<>();
+    private int index;
+    private int groupCount;
+    private boolean multiline;
+    private boolean verbose;
+    private boolean usesCharacterClasses;
+
+    private RegexTranslator(String source, int flags) {
+        this.source = source;
+        this.flags = flags;
+        this.out = new StringBuilder(source.length() + 16);
+        this.multiline = (flags & FLAG_MULTILINE) != 0;
+        this.verbose = (flags & FLAG_VERBOSE) != 0;
+    }
+
+    /**
+     * Returns the compiled pattern for the Python regular expression {@code pattern}, which for
+     * bytes patterns is decoded as Latin-1.
+     *
+     * @throws IllegalArgumentException if the pattern cannot be expressed as a Java pattern
+     * @throws UnsupportedOperationException if the pattern uses an unsupported construct
+     */
+    @TruffleBoundary
+    public static Pattern compile(String pattern, int flags) {
+        CacheKey key = new CacheKey(pattern, flags);
+        Pattern result = cache.get(key);
+        if (result == null) {
+            result = new RegexTranslator(pattern, flags).translate();
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private Pattern translate() {
+        while (index < source.length()) {
+            char c = source.charAt(index++);
+            switch (c) {
+                case '\\':
+                    escape(false);
+                    break;
+                case '[':
+                    characterClass();
+                    break;
+                case '(':
+                    group();
+                    break;
+                case ')':
+                    out.append(')');
+                    if (!scopes.isEmpty()) {
+                        int scope = scopes.pop();
+                        multiline = (scope & SCOPE_MULTILINE) != 0;
+                        verbose = (scope & SCOPE_VERBOSE) != 0;
+                    }
+                    break;
+                case '{':
+                    repeat();
+                    break;
+                case '}':
+                case ']':
+                    out.append('\\').append(c);
+                    break;
+                case '^':
+                    // Java's '^' does not match after a trailing newline in multiline mode
+                    out.append(multiline ? "(?:^|(?<=\\n))" : "^");
+                    break;
+                case '$':
+                    out.append(multiline ? "(?=\\n|\\z)" : "$");
+                    break;
+                case ' ':
+                case '\t':
+                case '\n':
+                case '\r':
+                case '\u000B':
+                case '\f':
+                    if (!verbose) {
+                        out.append(c);
+                    }
+                    break;
+                case '#':
+                    if (verbose) {
+                        while (index < source.length() && source.charAt(index) != '\n') {
+                            index++;
+                        }
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        return Pattern.compile(out.toString(), getJavaFlags());
+    }
+
+    private int getJavaFlags() {
+        boolean unicode = (flags & FLAG_UNICODE) != 0 && (flags & FLAG_ASCII) == 0;
+        // we translate '^' and '$' ourselves, so only '\n' ends a line
+        int javaFlags = Pattern.UNIX_LINES;
+        if ((flags & FLAG_DOTALL) != 0) {
+            javaFlags |= Pattern.DOTALL;
+        }
+        if ((flags & FLAG_IGNORECASE) != 0) {
+            javaFlags |= Pattern.CASE_INSENSITIVE;
+            if (unicode) {
+                javaFlags |= Pattern.UNICODE_CASE;
+            }
+        }
+        if (unicode && usesCharacterClasses) {
+            // only pay for Unicode classes if the pattern uses \w, \d, \s or \b
+            javaFlags |= Pattern.UNICODE_CHARACTER_CLASS;
+        }
+        return javaFlags;
+    }
+
+    private boolean lookingAt(char c) {
+        return index < source.length() && source.charAt(index) == c;
+    }
+
+    private void pushScope() {
+        scopes.push((multiline ? SCOPE_MULTILINE : 0) | (verbose ? SCOPE_VERBOSE : 0));
+    }
+
+    private void group() {
+        if (!lookingAt('?')) {
+            groupCount++;
+            pushScope();
+            out.append('(');
+            return;
+        }
+        index++;
+        char c = source.charAt(index++);
+        switch (c) {
+            case 'P':
+                if (lookingAt('<')) {
+                    int end = source.indexOf('>', index);
+                    groupCount++;
+                    groupIndices.put(source.substring(index + 1, end), groupCount);
+                    index = end + 1;
+                    pushScope();
+                    out.append('(');
+                } else {
+                    int end = source.indexOf(')', index);
+                    Integer group = groupIndices.get(source.substring(index + 1, end));
+                    if (group == null) {
+                        throw new IllegalArgumentException("unknown group name");
+                    }
+                    index = end + 1;
+                    backreference(group);
+                }
+                break;
+            case ':':
+            case '=':
+            case '!':
+                pushScope();
+                out.append("(?").append(c);
+                break;
+            case '<':
+                pushScope();
+                out.append("(?<").append(source.charAt(index++));
+                break;
+            case '#':
+                index = source.indexOf(')', index) + 1;
+                break;
+            case '(':
+                throw new UnsupportedOperationException("conditional groups are not supported");
+            default:
+                index--;
+                inlineFlags();
+        }
+    }
+
+    private void inlineFlags() {
+        StringBuilder on = new StringBuilder();
+        StringBuilder off = new StringBuilder();
+        boolean turnOn = true;
+        boolean scopedMultiline = multiline;
+        boolean scopedVerbose = verbose;
+        while (index < source.length()) {
+            char c = source.charAt(index++);
+            switch (c) {
+                case '-':
+                    turnOn = false;
+                    break;
+                case 'i':
+                case 's':
+                    (turnOn ? on : off).append(c);
+                    break;
+                case 'm':
+                    scopedMultiline = turnOn;
+                    break;
+                case 'x':
+                    scopedVerbose = turnOn;
+                    break;
+                case ')':
+                    // global flags are already part of the compile flags
+                    return;
+                case ':':
+                    pushScope();
+                    multiline = scopedMultiline;
+                    verbose = scopedVerbose;
+                    out.append("(?").append(on);
+                    if (off.length() > 0) {
+                        out.append('-').append(off);
+                    }
+                    out.append(':');
+                    return;
+                default:
+                    // 'a', 'L' and 'u' have no scoped equivalent
+                    break;
+            }
+        }
+    }
+
+    private void backreference(int group) {
+        // the group keeps Java from reading following digits as part of the group number
+        out.append("(?:\\").append(group).append(')');
+    }
+
+    private void repeat() {
+        int start = index;
+        while (index < source.length() && Character.isDigit(source.charAt(index))) {
+            index++;
+        }
+        String min = source.substring(start, index);
+        String max = null;
+        if (lookingAt(',')) {
+            int maxStart = ++index;
+            while (index < source.length() && Character.isDigit(source.charAt(index))) {
+                index++;
+            }
+            max = source.substring(maxStart, index);
+        }
+        if (lookingAt('}') && (min.length() > 0 || max != null)) {
+            index++;
+            out.append('{').append(min.isEmpty() ? "0" : min);
+            if (max != null) {
+                out.append(',').append(max);
+            }
+            out.append('}');
+        } else {
+            // not a repeat, Python treats the brace as a literal
+            index = start;
+            out.append("\\{");
+        }
+    }
+
+    private void characterClass() {
+        out.append('[');
+        if (lookingAt('^')) {
+            index++;
+            out.append('^');
+        }
+        boolean first = true;
+        while (index < source.length()) {
+            char c = source.charAt(index++);
+            switch (c) {
+                case ']':
+                    if (first) {
+                        out.append("\\]");
+                        break;
+                    }
+                    out.append(']');
+                    return;
+                case '\\':
+                    escape(true);
+                    break;
+                case '[':
+                case '&':
+                    // nested classes and intersections only exist in Java
+                    out.append('\\').append(c);
+                    break;
+                default:
+                    out.append(c);
+            }
+            first = false;
+        }
+    }
+
+    private void escape(boolean inClass) {
+        if (index >= source.length()) {
+            throw new IllegalArgumentException("bad escape (end of pattern)");
+        }
+        char c = source.charAt(index++);
+        switch (c) {
+            case 'A':
+                if (inClass) {
+                    throw badEscape(c);
+                }
+                out.append("\\A");
+                break;
+            case 'Z':
+                if (inClass) {
+                    throw badEscape(c);
+                }
+                out.append("\\z");
+                break;
+            case 'b':
+                if (inClass) {
+                    literal('\b');
+                } else {
+                    usesCharacterClasses = true;
+                    out.append("\\b");
+                }
+                break;
+            case 'B':
+                if (inClass) {
+                    throw badEscape(c);
+                }
+                usesCharacterClasses = true;
+                out.append("\\B");
+                break;
+            case 'd':
+            case 'D':
+            case 's':
+            case 'S':
+            case 'w':
+            case 'W':
+                usesCharacterClasses = true;
+                out.append('\\').append(c);
+                break;
+            case 'a':
+                literal(0x07);
+                break;
+            case 'f':
+                literal('\f');
+                break;
+            case 'n':
+                literal('\n');
+                break;
+            case 'r':
+                literal('\r');
+                break;
+            case 't':
+                literal('\t');
+                break;
+            case 'v':
+                literal(0x0B);
+                break;
+            case 'x':
+                literal(hex(2));
+                break;
+            case 'u':
+                literal(hex(4));
+                break;
+            case 'U':
+                literal(hex(8));
+                break;
+            case '0':
+                literal(octal(0, 2));
+                break;
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                if (inClass) {
+                    literal(octal(c - '0', 2));
+                } else {
+                    digitEscape(c);
+                }
+                break;
+            default:
+                if (c < 128 && Character.isLetter(c)) {
+                    // like sre_parse, reserve the ASCII letters for future escapes
+                    throw badEscape(c);
+                }
+                literal(c);
+        }
+    }
+
+    private static IllegalArgumentException badEscape(char c) {
+        return new IllegalArgumentException("bad escape \\" + c);
+    }
+
+    /**
+     * Like {@code sre_parse}, reads three octal digits as an octal escape and anything else as a
+     * group reference.
+     */
+    private void digitEscape(char first) {
+        if (index < source.length() && Character.isDigit(source.charAt(index))) {
+            char second = source.charAt(index++);
+            if (isOctal(first) && isOctal(second) && index < source.length() && isOctal(source.charAt(index))) {
+                literal(((first - '0') << 6) | ((second - '0') << 3) | (source.charAt(index++) - '0'));
+                return;
+            }
+            backreference((first - '0') * 10 + (second - '0'));
+        } else {
+            backreference(first - '0');
+        }
+    }
+
+    private static boolean isOctal(char c) {
+        return c >= '0' && c <= '7';
+    }
+
+    private int octal(int value, int maxDigits) {
+        int result = value;
+        for (int i = 0; i < maxDigits && index < source.length() && isOctal(source.charAt(index)); i++) {
+            result = result * 8 + (source.charAt(index++) - '0');
+        }
+        return result;
+    }
+
+    private int hex(int digits) {
+        if (index + digits > source.length()) {
+            throw new IllegalArgumentException("incomplete escape \\" + source.substring(index - 1));
+        }
+        int result = Integer.parseInt(source.substring(index, index + digits), 16);
+        index += digits;
+        return result;
+    }
+
+    private void literal(int codePoint) {
+        if ((codePoint < 128 && Character.isLetterOrDigit(codePoint)) || Character.isSurrogate((char) codePoint)) {
+            out.append((char) codePoint);
+        } else {
+            out.append("\\x{").append(Integer.toHexString(codePoint)).append('}');
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.sre;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Parses replacement templates for {@code sub}, {@code subn} and {@code Match.expand} the way
+ * {@code sre_parse.parse_template} does. A parsed template is an array of literal strings and
+ * {@link Integer} group indices.
+ */
+public final class ReplacementTemplate {
+
+    private ReplacementTemplate() {
+    }
+
+    /**
+     * @throws IndexOutOfBoundsException for an unknown group name
+     * @throws IllegalArgumentException for invalid group references or escapes
+     */
+    @TruffleBoundary
+    public static Object[] parse(String template, PSREPattern pattern) {
+        List<Object> parts = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = template.length();
+        int i = 0;
+        while (i < length) {
+            char c = template.charAt(i++);
+            if (c != '\\') {
+                literal.append(c);
+                continue;
+            }
+            if (i == length) {
+                throw new IllegalArgumentException("bad escape (end of pattern)");
+            }
+            c = template.charAt(i++);
+            int group = -1;
+            switch (c) {
+                case 'g': {
+                    int end = template.indexOf('>', i);
+                    if (i >= length || template.charAt(i) != '<' || end < 0) {
+                        throw new IllegalArgumentException("missing group name");
+                    }
+                    String name = template.substring(i + 1, end);
+                    i = end + 1;
+                    if (name.isEmpty()) {
+                        throw new IllegalArgumentException("missing group name");
+                    } else if (isDigits(name)) {
+                        group = Integer.parseInt(name);
+                    } else {
+                        group = pattern.getGroupIndex(name);
+                        if (group < 0) {
+                            throw new IndexOutOfBoundsException("unknown group name '" + name + "'");
+                        }
+                    }
+                    break;
+                }
+                case '0': {
+                    int value = 0;
+                    for (int k = 0; k < 2 && i < length && isOctal(template.charAt(i)); k++) {
+                        value = value * 8 + (template.charAt(i++) - '0');
+                    }
+                    literal.append((char) value);
+                    break;
+                }
+                case 'a':
+                    literal.append('\u0007');
+                    break;
+                case 'b':
+                    literal.append('\b');
+                    break;
+                case 'f':
+                    literal.append('\f');
+                    break;
+                case 'n':
+                    literal.append('\n');
+                    break;
+                case 'r':
+                    literal.append('\r');
+                    break;
+                case 't':
+                    literal.append('\t');
+                    break;
+                case 'v':
+                    literal.append('\u000B');
+                    break;
+                case '\\':
+                    literal.append('\\');
+                    break;
+                default:
+                    if (c >= '1' && c <= '9') {
+                        group = c - '0';
+                        if (i < length && Character.isDigit(template.charAt(i))) {
+                            char second = template.charAt(i);
+                            if (isOctal(c) && isOctal(second) && i + 1 < length && isOctal(template.charAt(i + 1))) {
+                                int value = ((c - '0') << 6) | ((second - '0') << 3) | (template.charAt(i + 1) - '0');
+                                if (value > 0377) {
+                                    throw new IllegalArgumentException("octal escape value \\" + template.substring(i - 1, i + 2) + " outside of range 0-0o377");
+                                }
+                                literal.append((char) value);
+                                i += 2;
+                                group = -1;
+                                break;
+                            }
+                            group = group * 10 + (second - '0');
+                            i++;
+                        }
+                    } else if (c < 128 && Character.isLetter(c)) {
+                        throw new IllegalArgumentException("bad escape \\" + c);
+                    } else {
+                        literal.append('\\').append(c);
+                    }
+            }
+            if (group >= 0) {
+                if (group > pattern.getGroups()) {
+                    throw new IllegalArgumentException("invalid group reference " + group);
+                }
+                if (literal.length() > 0) {
+                    parts.add(literal.toString());
+                    literal.setLength(0);
+                }
+                parts.add(group);
+            }
+        }
+        if (literal.length() > 0 || parts.isEmpty()) {
+            parts.add(literal.toString());
+        }
+        return parts.toArray();
+    }
+
+    /**
+     * Returns the template as a string if it contains no group references, or {@code null}.
+     */
+    public static String getLiteral(Object[] parts) {
+        return parts.length == 1 && parts[0] instanceof String ? (String) parts[0] : null;
+    }
+
+    private static boolean isDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) < '0' || s.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOctal(char c) {
+        return c >= '0' && c <= '7';
+    }
+}
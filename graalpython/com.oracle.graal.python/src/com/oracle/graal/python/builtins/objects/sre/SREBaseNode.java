@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.sre;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.nio.charset.StandardCharsets;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PIBytesLike;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Argument conversions shared by the builtins of patterns, matches and scanners.
+ */
+abstract class SREBaseNode extends PythonBuiltinNode {
+
+    protected static boolean isString(Object object) {
+        return object instanceof String || object instanceof PString;
+    }
+
+    protected static boolean isBytesLike(Object object) {
+        return object instanceof PIBytesLike || object instanceof PMMap;
+    }
+
+    /**
+     * Returns the subject {@code string} as a Java string, decoding bytes-like objects as Latin-1.
+     */
+    @TruffleBoundary
+    protected final String toInput(PSREPattern pattern, Object string) {
+        if (isString(string)) {
+            if (pattern.isBytes()) {
+                throw raise(TypeError, "cannot use a bytes pattern on a string-like object");
+            }
+            return string.toString();
+        } else if (isBytesLike(string)) {
+            if (!pattern.isBytes()) {
+                throw raise(TypeError, "cannot use a string pattern on a bytes-like object");
+            }
+            return decode(string);
+        }
+        throw raise(TypeError, "expected string or bytes-like object");
+    }
+
+    @TruffleBoundary
+    protected static String decode(Object bytesLike) {
+        byte[] bytes;
+        if (bytesLike instanceof PMMap) {
+            PMMap mmap = (PMMap) bytesLike;
+            bytes = mmap.getBytes(0, mmap.getLength());
+        } else {
+            bytes = ((PIBytesLike) bytesLike).getInternalByteArray();
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Converts a (part of a) subject string back to the type of the pattern.
+     */
+    @TruffleBoundary
+    protected final Object toResult(PSREPattern pattern, String value) {
+        if (value == null) {
+            return PNone.NONE;
+        }
+        return pattern.isBytes() ? factory().createBytes(value.getBytes(StandardCharsets.ISO_8859_1)) : value;
+    }
+
+    protected final int toInt(Object value, int defaultValue) {
+        if (value instanceof PNone) {
+            return defaultValue;
+        } else if (value instanceof Integer) {
+            return (int) value;
+        } else if (value instanceof Long) {
+            return clamp((long) value);
+        } else if (value instanceof Boolean) {
+            return (boolean) value ? 1 : 0;
+        } else if (value instanceof PInt) {
+            return clamp(((PInt) value).longValue());
+        }
+        throw raise(TypeError, "an integer is required");
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    /**
+     * Returns the subject truncated to {@code endpos}, so that '$' and lookaheads see the end of
+     * the string there.
+     */
+    protected static String truncate(String input, int endpos) {
+        return endpos < input.length() ? input.substring(0, endpos) : input;
+    }
+
+    protected static int adjustPos(int pos, int length) {
+        return Math.min(Math.max(pos, 0), length);
+    }
+
+    protected static int adjustEndpos(int endpos, int length) {
+        return Math.min(Math.max(endpos, 0), length);
+    }
+
+    @TruffleBoundary
+    protected static Matcher createMatcher(PSREPattern pattern, String input, int pos) {
+        Matcher matcher = pattern.getRegex().matcher(input);
+        // like in Python, '^' only matches at the real beginning and lookbehinds see before pos
+        matcher.useAnchoringBounds(false);
+        matcher.useTransparentBounds(true);
+        matcher.region(pos, input.length());
+        return matcher;
+    }
+
+    @TruffleBoundary
+    protected final PSREMatch createMatch(PSREPattern pattern, Object string, String input, int pos, int endpos, Matcher matcher) {
+        return factory().createSREMatch(pattern, string, input, pos, endpos, matcher.toMatchResult());
+    }
+
+    /**
+     * Resolves a group given by index or name.
+     */
+    @TruffleBoundary
+    protected final int getGroupIndex(PSREPattern pattern, Object group) {
+        int index;
+        if (isString(group)) {
+            index = pattern.getGroupIndex(group.toString());
+        } else if (group instanceof Integer || group instanceof Long || group instanceof Boolean || group instanceof PInt) {
+            index = toInt(group, 0);
+        } else {
+            index = -1;
+        }
+        if (index < 0 || index > pattern.getGroups()) {
+            throw raise(IndexError, "no such group");
+        }
+        return index;
+    }
+
+    @TruffleBoundary
+    protected final Object[] parseTemplate(PSREPattern pattern, Object template) {
+        String source;
+        if (pattern.isBytes()) {
+            if (!isBytesLike(template)) {
+                throw raise(TypeError, "expected a bytes-like object, %p found", template);
+            }
+            source = decode(template);
+        } else {
+            if (!isString(template)) {
+                throw raise(TypeError, "expected str instance, %p found", template);
+            }
+            source = template.toString();
+        }
+        Object[] parts = pattern.getCachedTemplate(source);
+        if (parts == null) {
+            try {
+                parts = ReplacementTemplate.parse(source, pattern);
+            } catch (IndexOutOfBoundsException e) {
+                throw raise(IndexError, e.getMessage());
+            } catch (IllegalArgumentException e) {
+                throw raise(ValueError, e.getMessage());
+            }
+            pattern.setCachedTemplate(source, parts);
+        }
+        return parts;
+    }
+
+    /**
+     * Appends the expansion of a parsed template for the match {@code matcher}.
+     */
+    @TruffleBoundary
+    protected static void expandTemplate(StringBuilder sb, Object[] parts, String input, MatchResult matcher) {
+        for (Object part : parts) {
+            if (part instanceof String) {
+                sb.append((String) part);
+            } else {
+                int group = (int) part;
+                int start = matcher.start(group);
+                if (start >= 0) {
+                    sb.append(input, start, matcher.end(group));
+                }
+            }
+        }
+    }
+
+    @TruffleBoundary
+    protected static boolean find(Matcher matcher) {
+        return matcher.find();
+    }
+
+    @TruffleBoundary
+    protected static void append(StringBuilder sb, String input, int start, int end) {
+        sb.append(input, start, end);
+    }
+
+    @TruffleBoundary
+    protected static void append(StringBuilder sb, String value) {
+        sb.append(value);
+    }
+
+    @TruffleBoundary
+    protected static String toString(StringBuilder sb) {
+        return sb.toString();
+    }
+}
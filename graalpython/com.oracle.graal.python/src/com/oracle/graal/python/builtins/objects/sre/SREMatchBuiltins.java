@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.sre;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETITEM__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PSREMatch.class)
+public class SREMatchBuiltins extends PythonBuiltins {
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return SREMatchBuiltinsFactory.getFactories();
+    }
+
+    abstract static class MatchNode extends SREBaseNode {
+        protected final Object getGroup(PSREMatch self, Object group) {
+            return toResult(self.getPattern(), self.getGroup(getGroupIndex(self.getPattern(), group)));
+        }
+
+        protected final Object getGroup(PSREMatch self, int group, Object defaultValue) {
+            String value = self.getGroup(group);
+            return value == null ? defaultValue : toResult(self.getPattern(), value);
+        }
+    }
+
+    // group([group1, ...])
+    @Builtin(name = "group", minNumOfArguments = 1, takesVariableArguments = true)
+    @GenerateNodeFactory
+    public abstract static class GroupNode extends MatchNode {
+        @Specialization
+        Object group(PSREMatch self, PTuple args) {
+            Object[] groups = args.getArray();
+            if (groups.length == 0) {
+                return getGroup(self, 0, PNone.NONE);
+            } else if (groups.length == 1) {
+                return getGroup(self, groups[0]);
+            }
+            Object[] result = new Object[groups.length];
+            for (int i = 0; i < groups.length; i++) {
+                result[i] = getGroup(self, groups[i]);
+            }
+            return factory().createTuple(result);
+        }
+    }
+
+    @Builtin(name = __GETITEM__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class GetItemNode extends MatchNode {
+        @Specialization
+        Object getitem(PSREMatch self, Object group) {
+            return getGroup(self, group);
+        }
+    }
+
+    // groups(default=None)
+    @Builtin(name = "groups", fixedNumOfArguments = 1, keywordArguments = {"default"})
+    @GenerateNodeFactory
+    public abstract static class GroupsNode extends MatchNode {
+        @Specialization
+        PTuple groups(PSREMatch self, Object defaultValue) {
+            Object value = defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue;
+            Object[] result = new Object[self.getPattern().getGroups()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = getGroup(self, i + 1, value);
+            }
+            return factory().createTuple(result);
+        }
+    }
+
+    // groupdict(default=None)
+    @Builtin(name = "groupdict", fixedNumOfArguments = 1, keywordArguments = {"default"})
+    @GenerateNodeFactory
+    public abstract static class GroupDictNode extends MatchNode {
+        @Specialization
+        @TruffleBoundary
+        PDict groupdict(PSREMatch self, Object defaultValue) {
+            Object value = defaultValue == PNone.NO_VALUE ? PNone.NONE : defaultValue;
+            PSREPattern pattern = self.getPattern();
+            PDict result = factory().createDict();
+            for (int i = 1; i <= pattern.getGroups(); i++) {
+                String name = pattern.getGroupName(i);
+                if (name != null) {
+                    result.setItem(name, getGroup(self, i, value));
+                }
+            }
+            return result;
+        }
+    }
+
+    // start(group=0)
+    @Builtin(name = "start", minNumOfArguments = 1, maxNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class StartNode extends MatchNode {
+        @Specialization
+        int start(PSREMatch self, Object group) {
+            return self.getStart(group == PNone.NO_VALUE ? 0 : getGroupIndex(self.getPattern(), group));
+        }
+    }
+
+    // end(group=0)
+    @Builtin(name = "end", minNumOfArguments = 1, maxNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class EndNode extends MatchNode {
+        @Specialization
+        int end(PSREMatch self, Object group) {
+            return self.getEnd(group == PNone.NO_VALUE ? 0 : getGroupIndex(self.getPattern(), group));
+        }
+    }
+
+    // span(group=0)
+    @Builtin(name = "span", minNumOfArguments = 1, maxNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class SpanNode extends MatchNode {
+        @Specialization
+        PTuple span(PSREMatch self, Object group) {
+            int index = group == PNone.NO_VALUE ? 0 : getGroupIndex(self.getPattern(), group);
+            return factory().createTuple(new Object[]{self.getStart(index), self.getEnd(index)});
+        }
+    }
+
+    @Builtin(name = "expand", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class ExpandNode extends MatchNode {
+        @Specialization
+        @TruffleBoundary
+        Object expand(PSREMatch self, Object template) {
+            Object[] parts = parseTemplate(self.getPattern(), template);
+            StringBuilder sb = new StringBuilder();
+            expandTemplate(sb, parts, self.getInput(), self.getResult());
+            return toResult(self.getPattern(), sb.toString());
+        }
+    }
+
+    @Builtin(name = "string", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class StringNode extends PythonBuiltinNode {
+        @Specialization
+        Object string(PSREMatch self) {
+            return self.getString();
+        }
+    }
+
+    @Builtin(name = "re", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class ReNode extends PythonBuiltinNode {
+        @Specialization
+        PSREPattern re(PSREMatch self) {
+            return self.getPattern();
+        }
+    }
+
+    @Builtin(name = "pos", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class PosNode extends PythonBuiltinNode {
+        @Specialization
+        int pos(PSREMatch self) {
+            return self.getPos();
+        }
+    }
+
+    @Builtin(name = "endpos", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class EndposNode extends PythonBuiltinNode {
+        @Specialization
+        int endpos(PSREMatch self) {
+            return self.getEndpos();
+        }
+    }
+
+    @Builtin(name = "lastindex", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class LastIndexNode extends PythonBuiltinNode {
+        @Specialization
+        Object lastindex(PSREMatch self) {
+            int lastIndex = self.getLastIndex();
+            return lastIndex < 0 ? PNone.NONE : lastIndex;
+        }
+    }
+
+    @Builtin(name = "lastgroup", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class LastGroupNode extends PythonBuiltinNode {
+        @Specialization
+        Object lastgroup(PSREMatch self) {
+            int lastIndex = self.getLastIndex();
+            String name = lastIndex < 0 ? null : self.getPattern().getGroupName(lastIndex);
+            return name == null ? PNone.NONE : name;
+        }
+    }
+
+    @Builtin(name = "regs", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class RegsNode extends PythonBuiltinNode {
+        @Specialization
+        PTuple regs(PSREMatch self) {
+            Object[] regs = new Object[self.getPattern().getGroups() + 1];
+            for (int i = 0; i < regs.length; i++) {
+                regs[i] = factory().createTuple(new Object[]{self.getStart(i), self.getEnd(i)});
+            }
+            return factory().createTuple(regs);
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends MatchNode {
+        @Specialization
+        Object repr(PSREMatch self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode) {
+            Object match = getGroup(self, 0, PNone.NONE);
+            return format(self.getStart(0), self.getEnd(0), reprNode.executeObject(match).toString());
+        }
+
+        @TruffleBoundary
+        private static String format(int start, int end, String matchRepr) {
+            return "<_sre.SRE_Match object; span=(" + start + ", " + end + "), match=" + matchRepr + ">";
+        }
+    }
+
+    @Builtin(name = "__copy__", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends PythonBuiltinNode {
+        @Specialization
+        PSREMatch copy(PSREMatch self) {
+            // matches are immutable
+            return self;
+        }
+    }
+
+    @Builtin(name = "__deepcopy__", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class DeepCopyNode extends PythonBuiltinNode {
+        @Specialization
+        PSREMatch deepcopy(PSREMatch self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.sre;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EQ__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__HASH__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.PNotImplemented;
+import com.oracle.graal.python.builtins.objects.list.PList;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.nodes.call.special.CallUnaryMethodNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PSREPattern.class)
+public class SREPatternBuiltins extends PythonBuiltins {
+
+    private static final String[] FLAG_NAMES = {"re.TEMPLATE", "re.IGNORECASE", "re.LOCALE", "re.MULTILINE", "re.DOTALL", "re.UNICODE", "re.VERBOSE", "re.DEBUG", "re.ASCII"};
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return SREPatternBuiltinsFactory.getFactories();
+    }
+
+    abstract static class MatchBaseNode extends SREBaseNode {
+        protected static final int MATCH = 0;
+        protected static final int FULLMATCH = 1;
+        protected static final int SEARCH = 2;
+
+        @TruffleBoundary
+        protected final Object match(PSREPattern self, Object string, Object posArg, Object endposArg, int mode) {
+            String input = toInput(self, string);
+            int pos = adjustPos(toInt(posArg, 0), input.length());
+            int endpos = adjustEndpos(toInt(endposArg, Integer.MAX_VALUE), input.length());
+            if (endpos < pos) {
+                return PNone.NONE;
+            }
+            Matcher matcher = createMatcher(self, truncate(input, endpos), pos);
+            boolean found;
+            if (mode == MATCH) {
+                found = matcher.lookingAt();
+            } else if (mode == FULLMATCH) {
+                found = matcher.matches();
+            } else {
+                found = matcher.find();
+            }
+            return found ? createMatch(self, string, input, pos, endpos, matcher) : PNone.NONE;
+        }
+    }
+
+    // match(string, pos=0, endpos=sys.maxsize)
+    @Builtin(name = "match", fixedNumOfArguments = 2, keywordArguments = {"pos", "endpos"})
+    @GenerateNodeFactory
+    public abstract static class MatchNode extends MatchBaseNode {
+        @Specialization
+        Object match(PSREPattern self, Object string, Object pos, Object endpos) {
+            return match(self, string, pos, endpos, MATCH);
+        }
+    }
+
+    @Builtin(name = "fullmatch", fixedNumOfArguments = 2, keywordArguments = {"pos", "endpos"})
+    @GenerateNodeFactory
+    public abstract static class FullMatchNode extends MatchBaseNode {
+        @Specialization
+        Object fullmatch(PSREPattern self, Object string, Object pos, Object endpos) {
+            return match(self, string, pos, endpos, FULLMATCH);
+        }
+    }
+
+    @Builtin(name = "search", fixedNumOfArguments = 2, keywordArguments = {"pos", "endpos"})
+    @GenerateNodeFactory
+    public abstract static class SearchNode extends MatchBaseNode {
+        @Specialization
+        Object search(PSREPattern self, Object string, Object pos, Object endpos) {
+            return match(self, string, pos, endpos, SEARCH);
+        }
+    }
+
+    @Builtin(name = "findall", fixedNumOfArguments = 2, keywordArguments = {"pos", "endpos"})
+    @GenerateNodeFactory
+    public abstract static class FindAllNode extends SREBaseNode {
+        @Specialization
+        @TruffleBoundary
+        PList findall(PSREPattern self, Object string, Object posArg, Object endposArg) {
+            String input = toInput(self, string);
+            int pos = adjustPos(toInt(posArg, 0), input.length());
+            int endpos = adjustEndpos(toInt(endposArg, Integer.MAX_VALUE), input.length());
+            List<Object> result = new ArrayList<>();
+            if (pos <= endpos) {
+                Matcher matcher = createMatcher(self, truncate(input, endpos), pos);
+                int groups = self.getGroups();
+                while (matcher.find()) {
+                    if (groups == 0) {
+                        result.add(toResult(self, matcher.group()));
+                    } else if (groups == 1) {
+                        result.add(groupOrEmpty(self, matcher, 1));
+                    } else {
+                        Object[] items = new Object[groups];
+                        for (int i = 0; i < groups; i++) {
+                            items[i] = groupOrEmpty(self, matcher, i + 1);
+                        }
+                        result.add(factory().createTuple(items));
+                    }
+                }
+            }
+            return factory().createList(result.toArray());
+        }
+
+        private Object groupOrEmpty(PSREPattern self, Matcher matcher, int group) {
+            String value = matcher.group(group);
+            return toResult(self, value == null ? "" : value);
+        }
+    }
+
+    abstract static class ScannerBaseNode extends SREBaseNode {
+        @TruffleBoundary
+        protected final PSREScanner createScanner(PSREPattern self, Object string, Object posArg, Object endposArg) {
+            String input = toInput(self, string);
+            int pos = adjustPos(toInt(posArg, 0), input.length());
+            int endpos = adjustEndpos(toInt(endposArg, Integer.MAX_VALUE), input.length());
+            String subject = truncate(input, endpos);
+            return factory().createSREScanner(self, string, input, pos, endpos, createMatcher(self, subject, Math.min(pos, endpos)));
+        }
+    }
+
+    @Builtin(name = "finditer", fixedNumOfArguments = 2, keywordArguments = {"pos", "endpos"})
+    @GenerateNodeFactory
+    public abstract static class FindIterNode extends ScannerBaseNode {
+        @Specialization
+        PSREScanner finditer(PSREPattern self, Object string, Object pos, Object endpos) {
+            return createScanner(self, string, pos, endpos);
+        }
+    }
+
+    @Builtin(name = "scanner", fixedNumOfArguments = 2, keywordArguments = {"pos", "endpos"})
+    @GenerateNodeFactory
+    public abstract static class ScannerNode extends ScannerBaseNode {
+        @Specialization
+        PSREScanner scanner(PSREPattern self, Object string, Object pos, Object endpos) {
+            return createScanner(self, string, pos, endpos);
+        }
+    }
+
+    abstract static class SubBaseNode extends SREBaseNode {
+        @Child private CallUnaryMethodNode callReplNode;
+
+        /**
+         * Returns the result of the substitution and the number of replacements made.
+         */
+        protected final Object[] sub(PSREPattern self, Object repl, Object string, Object countArg) {
+            String input = toInput(self, string);
+            int count = toInt(countArg, 0);
+            if (isString(repl) || isBytesLike(repl)) {
+                return subTemplate(self, parseTemplate(self, repl), string, input, count);
+            }
+            return subCallable(self, repl, string, input, count);
+        }
+
+        @TruffleBoundary
+        private Object[] subTemplate(PSREPattern self, Object[] template, Object string, String input, int count) {
+            Matcher matcher = createMatcher(self, input, 0);
+            String literal = ReplacementTemplate.getLiteral(template);
+            StringBuilder sb = null;
+            int last = 0;
+            int n = 0;
+            while ((count == 0 || n < count) && matcher.find()) {
+                if (sb == null) {
+                    sb = new StringBuilder(input.length());
+                }
+                sb.append(input, last, matcher.start());
+                if (literal != null) {
+                    sb.append(literal);
+                } else {
+                    expandTemplate(sb, template, input, matcher);
+                }
+                last = matcher.end();
+                n++;
+            }
+            if (sb == null) {
+                return new Object[]{string, 0};
+            }
+            sb.append(input, last, input.length());
+            return new Object[]{toResult(self, sb.toString()), n};
+        }
+
+        private Object[] subCallable(PSREPattern self, Object repl, Object string, String input, int count) {
+            Matcher matcher = createMatcher(self, input, 0);
+            StringBuilder sb = new StringBuilder();
+            int last = 0;
+            int n = 0;
+            while ((count == 0 || n < count) && find(matcher)) {
+                append(sb, input, last, matcher.start());
+                Object item = callRepl(repl, createMatch(self, string, input, 0, input.length(), matcher));
+                if (isString(item)) {
+                    append(sb, item.toString());
+                } else if (self.isBytes() && isBytesLike(item)) {
+                    append(sb, decode(item));
+                } else if (item != PNone.NONE) {
+                    throw raise(TypeError, "expected %s instance, %p found", self.isBytes() ? "a bytes-like" : "str", item);
+                }
+                last = matcher.end();
+                n++;
+            }
+            append(sb, input, last, input.length());
+            return new Object[]{toResult(self, toString(sb)), n};
+        }
+
+        private Object callRepl(Object repl, PSREMatch match) {
+            if (callReplNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                callReplNode = insert(CallUnaryMethodNode.create());
+            }
+            return callReplNode.executeObject(repl, match);
+        }
+    }
+
+    // sub(repl, string, count=0)
+    @Builtin(name = "sub", fixedNumOfArguments = 3, keywordArguments = {"count"})
+    @GenerateNodeFactory
+    public abstract static class SubNode extends SubBaseNode {
+        @Specialization
+        Object sub(PSREPattern self, Object repl, Object string, Object count) {
+            return sub(self, repl, string, count)[0];
+        }
+    }
+
+    @Builtin(name = "subn", fixedNumOfArguments = 3, keywordArguments = {"count"})
+    @GenerateNodeFactory
+    public abstract static class SubnNode extends SubBaseNode {
+        @Specialization
+        PTuple subn(PSREPattern self, Object repl, Object string, Object count) {
+            return factory().createTuple(sub(self, repl, string, count));
+        }
+    }
+
+    // split(string, maxsplit=0)
+    @Builtin(name = "split", fixedNumOfArguments = 2, keywordArguments = {"maxsplit"})
+    @GenerateNodeFactory
+    public abstract static class SplitNode extends SREBaseNode {
+        @Specialization
+        @TruffleBoundary
+        PList split(PSREPattern self, Object string, Object maxsplitArg) {
+            String input = toInput(self, string);
+            int maxsplit = toInt(maxsplitArg, 0);
+            Matcher matcher = createMatcher(self, input, 0);
+            int groups = self.getGroups();
+            List<Object> result = new ArrayList<>();
+            int last = 0;
+            int n = 0;
+            while ((maxsplit == 0 || n < maxsplit) && matcher.find()) {
+                result.add(toResult(self, input.substring(last, matcher.start())));
+                for (int i = 1; i <= groups; i++) {
+                    result.add(toResult(self, matcher.group(i)));
+                }
+                last = matcher.end();
+                n++;
+            }
+            result.add(toResult(self, input.substring(last)));
+            return factory().createList(result.toArray());
+        }
+    }
+
+    @Builtin(name = "pattern", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class PatternNode extends PythonBuiltinNode {
+        @Specialization
+        Object pattern(PSREPattern self) {
+            return self.getPattern();
+        }
+    }
+
+    @Builtin(name = "flags", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class FlagsNode extends PythonBuiltinNode {
+        @Specialization
+        int flags(PSREPattern self) {
+            return self.getFlags();
+        }
+    }
+
+    @Builtin(name = "groups", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class GroupsNode extends PythonBuiltinNode {
+        @Specialization
+        int groups(PSREPattern self) {
+            return self.getGroups();
+        }
+    }
+
+    @Builtin(name = "groupindex", fixedNumOfArguments = 1, isGetter = true)
+    @GenerateNodeFactory
+    public abstract static class GroupIndexNode extends PythonBuiltinNode {
+        @Specialization
+        Object groupindex(PSREPattern self) {
+            return self.getGroupIndex();
+        }
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends PythonBuiltinNode {
+        @Specialization
+        Object repr(PSREPattern self,
+                        @Cached("create(__REPR__)") LookupAndCallUnaryNode reprNode) {
+            return format(reprNode.executeObject(self.getPattern()).toString(), self.getFlags(), self.isBytes());
+        }
+
+        @TruffleBoundary
+        private static String format(String patternRepr, int patternFlags, boolean bytes) {
+            StringBuilder sb = new StringBuilder("re.compile(");
+            sb.append(patternRepr.length() > 200 ? patternRepr.substring(0, 200) : patternRepr);
+            int flags = patternFlags;
+            if (!bytes && (flags & (RegexTranslator.FLAG_LOCALE | RegexTranslator.FLAG_UNICODE | RegexTranslator.FLAG_ASCII)) == RegexTranslator.FLAG_UNICODE) {
+                // str patterns are Unicode by default
+                flags &= ~RegexTranslator.FLAG_UNICODE;
+            }
+            if (flags != 0) {
+                String separator = ", ";
+                for (int i = 0; i < FLAG_NAMES.length; i++) {
+                    if ((flags & (1 << i)) != 0) {
+                        sb.append(separator).append(FLAG_NAMES[i]);
+                        separator = "|";
+                        flags &= ~(1 << i);
+                    }
+                }
+                if (flags != 0) {
+                    sb.append(separator).append("0x").append(Integer.toHexString(flags));
+                }
+            }
+            return sb.append(')').toString();
+        }
+    }
+
+    @Builtin(name = __EQ__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class EqNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        boolean eq(PSREPattern self, PSREPattern other) {
+            return self == other || (self.getFlags() == other.getFlags() && self.isBytes() == other.isBytes() && self.getSource().equals(other.getSource()));
+        }
+
+        @Specialization
+        PNotImplemented eq(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object other) {
+            return PNotImplemented.NOT_IMPLEMENTED;
+        }
+    }
+
+    @Builtin(name = __HASH__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class HashNode extends PythonBuiltinNode {
+        @Specialization
+        @TruffleBoundary
+        int hash(PSREPattern self) {
+            return self.getSource().hashCode() * 31 + self.getFlags();
+        }
+    }
+
+    @Builtin(name = "__copy__", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class CopyNode extends PythonBuiltinNode {
+        @Specialization
+        PSREPattern copy(PSREPattern self) {
+            // patterns are immutable
+            return self;
+        }
+    }
+
+    @Builtin(name = "__deepcopy__", fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    public abstract static class DeepCopyNode extends PythonBuiltinNode {
+        @Specialization
+        PSREPattern deepcopy(PSREPattern self, @SuppressWarnings("unused") Object memo) {
+            return self;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.str;
+
+import java.util.ArrayDeque;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * The concatenation of two character sequences, which may themselves be lazy strings. Repeated
+ * {@code s += piece} builds a tree of these in constant time per step, and the characters are
+ * copied only once, when the tree is flattened by {@link #toString()}.
+ */
+public final class LazyString implements CharSequence {
+
+    private final CharSequence left;
+    private final CharSequence right;
+    private final int length;
+
+    /**
+     * The flattened string, published once. The children are final, so a thread that sees
+     * {@code null} here can always flatten the tree itself and arrives at the same string.
+     */
+    private volatile String flattened;
+
+    public LazyString(CharSequence left, CharSequence right) {
+        assert left.length() + right.length() >= 0 : "string length overflow";
+        this.left = left;
+        this.right = right;
+        this.length = left.length() + right.length();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    /**
+     * Flattens the tree into a string. The result is remembered, so later calls and other lazy
+     * strings sharing this node do not flatten it again.
+     */
+    @Override
+    @TruffleBoundary
+    public String toString() {
+        String result = flattened;
+        if (result != null) {
+            return result;
+        }
+        StringBuilder sb = new StringBuilder(length);
+        // iterative traversal, the trees built by loops are as deep as the loop is long
+        ArrayDeque<CharSequence> todo = new ArrayDeque<>();
+        todo.push(this);
+        while (!todo.isEmpty()) {
+            CharSequence current = todo.pop();
+            if (current instanceof LazyString) {
+                LazyString node = (LazyString) current;
+                String nodeFlattened = node.flattened;
+                if (nodeFlattened != null) {
+                    sb.append(nodeFlattened);
+                } else {
+                    todo.push(node.right);
+                    todo.push(node.left);
+                }
+            } else {
+                sb.append(current);
+            }
+        }
+        result = sb.toString();
+        flattened = result;
+        return result;
+    }
+}
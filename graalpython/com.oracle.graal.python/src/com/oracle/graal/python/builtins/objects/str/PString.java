@@ -33,17 +33,39 @@ import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
 
 public final class PString extends PImmutableSequence {
 
-    private final String value;
+    /**
+     * Either a {@link String} or a {@link LazyString} that is flattened on first use. Both are
+     * immutable once published, so a thread racing with the replacement of a lazy string by its
+     * flattened value sees either one and reads the same characters.
+     */
+    private CharSequence value;
 
-    public PString(PythonClass clazz, String value) {
+    public PString(PythonClass clazz, CharSequence value) {
         super(clazz);
         this.value = value;
     }
 
     public String getValue() {
+        CharSequence v = value;
+        if (v instanceof LazyString) {
+            String flat = v.toString();
+            value = flat;
+            return flat;
+        }
+        return (String) v;
+    }
+
+    /**
+     * Returns the characters without flattening a lazy string, for appending to it.
+     */
+    public CharSequence getCharSequence() {
         return value;
     }
 
+    public boolean isLazy() {
+        return value instanceof LazyString;
+    }
+
     @Override
     public int len() {
         return value.length();
@@ -51,7 +73,7 @@ public final class PString extends PImmutableSequence {
 
     @Override
     public Object getItem(int idx) {
-        return Character.toString(value.charAt(idx));
+        return Character.toString(getValue().charAt(idx));
     }
 
     @Override
@@ -66,7 +88,7 @@ public final class PString extends PImmutableSequence {
 
     @Override
     public String toString() {
-        return value;
+        return getValue();
     }
 
     @Override
@@ -82,11 +104,11 @@ public final class PString extends PImmutableSequence {
 
     @Override
     public int hashCode() {
-        return value.hashCode();
+        return getValue().hashCode();
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj != null && obj.equals(value);
+        return obj != null && obj.equals(getValue());
     }
 }
@@ -25,8 +25,10 @@
  */
 package com.oracle.graal.python.builtins.objects.str;
 
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__FORMAT__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
 import static com.oracle.graal.python.nodes.SpecialMethodNames.__STR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.IndexError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.KeyError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.LookupError;
 import static com.oracle.graal.python.runtime.exception.PythonErrorType.MemoryError;
@@ -53,22 +55,34 @@ import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.PNotImplemented;
 import com.oracle.graal.python.builtins.objects.common.HashingStorageNodes.SetItemNode;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
+import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
+import com.oracle.graal.python.nodes.attributes.GetAttributeNode;
 import com.oracle.graal.python.nodes.attributes.LookupInheritedAttributeNode;
 import com.oracle.graal.python.nodes.builtins.JoinInternalNode;
 import com.oracle.graal.python.nodes.call.CallDispatchNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallUnaryNode;
 import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonBinaryBuiltinNode;
 import com.oracle.graal.python.nodes.function.builtins.PythonUnaryBuiltinNode;
 import com.oracle.graal.python.nodes.object.GetClassNode;
 import com.oracle.graal.python.nodes.subscript.GetItemNode;
 import com.oracle.graal.python.nodes.truffle.PythonArithmeticTypes;
+import com.oracle.graal.python.runtime.PythonOptions;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.formatting.FloatFormatter;
+import com.oracle.graal.python.runtime.formatting.IntegerFormatter;
+import com.oracle.graal.python.runtime.formatting.InternalFormat;
 import com.oracle.graal.python.runtime.formatting.StringFormatter;
+import com.oracle.graal.python.runtime.formatting.TemplateFormatter;
+import com.oracle.graal.python.runtime.formatting.TemplateFormatter.Field;
+import com.oracle.graal.python.runtime.formatting.TextFormatter;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
@@ -318,24 +332,53 @@ public final class StringBuiltins extends PythonBuiltins {
     @Builtin(name = SpecialMethodNames.__ADD__, fixedNumOfArguments = 2)
     @GenerateNodeFactory
     public abstract static class AddNode extends PythonBinaryBuiltinNode {
+        private final ConditionProfile lazyProfile = ConditionProfile.createBinaryProfile();
+        @CompilationFinal private int lazyStringMinLength = -1;
+
         @Specialization
-        String doSS(String self, String other) {
-            return new StringBuilder(self.length() + other.length()).append(self).append(other).toString();
+        Object doSS(String self, String other) {
+            if (lazyProfile.profile(isLazyConcat(self))) {
+                return factory().createString(new LazyString(self, other));
+            }
+            return stringConcat(self, other);
         }
 
         @Specialization
-        String doSS(PString self, String other) {
-            return self.getValue() + other;
+        Object doSS(PString self, String other) {
+            return concat(self.getCharSequence(), other);
         }
 
         @Specialization
-        String doSS(String self, PString other) {
-            return self + other.getValue();
+        Object doSS(String self, PString other) {
+            return concat(self, other.getCharSequence());
         }
 
         @Specialization
-        String doSS(PString self, PString other) {
-            return self.getValue() + other.getValue();
+        Object doSS(PString self, PString other) {
+            return concat(self.getCharSequence(), other.getCharSequence());
+        }
+
+        private Object concat(CharSequence left, CharSequence right) {
+            if (lazyProfile.profile(left instanceof LazyString || right instanceof LazyString || isLazyConcat(left))) {
+                return factory().createString(new LazyString(left, right));
+            }
+            return stringConcat((String) left, (String) right);
+        }
+
+        /**
+         * Appending to a long string produces a lazy string, so that building a string piecewise
+         * copies each character only once instead of once per step.
+         */
+        private boolean isLazyConcat(CharSequence left) {
+            if (lazyStringMinLength < 0) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                lazyStringMinLength = PythonOptions.getIntOption(getContext(), PythonOptions.LazyStringMinLength);
+            }
+            return left.length() >= lazyStringMinLength;
+        }
+
+        private static String stringConcat(String left, String right) {
+            return new StringBuilder(left.length() + right.length()).append(left).append(right).toString();
         }
 
         @Specialization(guards = "!isString(other)")
@@ -1202,6 +1245,204 @@ public final class StringBuiltins extends PythonBuiltins {
         }
     }
 
+    @Builtin(name = SpecialMethodNames.__FORMAT__, fixedNumOfArguments = 2)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    abstract static class FormatSpecNode extends PythonBinaryBuiltinNode {
+        @Specialization
+        String format(String self, String formatSpec) {
+            if (formatSpec.isEmpty()) {
+                return self;
+            }
+            return TextFormatter.formatText(getCore(), InternalFormat.fromText(getCore(), formatSpec), self);
+        }
+
+        @Fallback
+        Object formatFail(@SuppressWarnings("unused") Object self, @SuppressWarnings("unused") Object formatSpec) {
+            throw raise(TypeError, "format_spec must be a string");
+        }
+    }
+
+    // str.format(*args, **kwargs)
+    @Builtin(name = "format", minNumOfArguments = 1, takesVariableArguments = true, takesVariableKeywords = true)
+    @GenerateNodeFactory
+    @TypeSystemReference(PythonArithmeticTypes.class)
+    public abstract static class FormatNode extends PythonBuiltinNode {
+        @Child private GetAttributeNode getAttributeNode;
+        @Child private GetItemNode getItemNode;
+        @Child private LookupAndCallUnaryNode reprNode;
+        @Child private LookupAndCallUnaryNode strNode;
+        @Child private LookupAndCallBinaryNode formatNode;
+
+        /**
+         * Format strings are usually literals, so the parsed template is cached for the identical
+         * string object at this call site.
+         */
+        @Specialization(guards = "self == cachedSelf", limit = "3")
+        String formatCached(@SuppressWarnings("unused") String self, PTuple args, PKeyword[] keywords,
+                        @SuppressWarnings("unused") @Cached("self") String cachedSelf,
+                        @Cached("parse(self)") TemplateFormatter template) {
+            return render(template, args.getArray(), keywords);
+        }
+
+        @Specialization(replaces = "formatCached")
+        String format(String self, PTuple args, PKeyword[] keywords) {
+            return render(parse(self), args.getArray(), keywords);
+        }
+
+        protected TemplateFormatter parse(String template) {
+            return TemplateFormatter.parse(getCore(), template);
+        }
+
+        private String render(TemplateFormatter template, Object[] args, PKeyword[] keywords) {
+            StringBuilder sb = new StringBuilder();
+            append(sb, template.getLiteral(0));
+            for (int i = 0; i < template.getFieldCount(); i++) {
+                append(sb, renderField(template.getField(i), args, keywords));
+                append(sb, template.getLiteral(i + 1));
+            }
+            return toString(sb);
+        }
+
+        private String renderField(Field field, Object[] args, PKeyword[] keywords) {
+            Object value = getArgument(field, args, keywords);
+            for (int i = 0; i < field.getLookupCount(); i++) {
+                if (field.isAttributeLookup(i)) {
+                    value = getGetAttributeNode().execute(value, field.getLookupKey(i));
+                } else {
+                    value = getGetItemNode().execute(value, field.getLookupKey(i));
+                }
+            }
+            if (field.getLookupError() != null) {
+                throw raise(ValueError, field.getLookupError());
+            }
+            switch (field.getConversion()) {
+                case 'r':
+                    value = getReprNode().executeObject(value);
+                    break;
+                case 's':
+                    value = getStrNode().executeObject(value);
+                    break;
+                case 'a':
+                    value = ascii(getReprNode().executeObject(value).toString());
+                    break;
+                default:
+                    break;
+            }
+            if (field.getSpec() == null) {
+                return formatValue(value, render(field.getNestedSpec(), args, keywords));
+            }
+            if (field.getSpec().isEmpty()) {
+                if (value instanceof String) {
+                    return (String) value;
+                }
+            } else if (value instanceof String) {
+                return TextFormatter.formatText(getCore(), field.getParsedSpec(getCore()), (String) value);
+            } else if (value instanceof Integer || value instanceof Long) {
+                return IntegerFormatter.formatNumber(getCore(), field.getParsedSpec(getCore()), (Number) value);
+            } else if (value instanceof Double) {
+                return FloatFormatter.formatNumber(getCore(), field.getParsedSpec(getCore()), (double) value, "float");
+            }
+            return formatValue(value, field.getSpec());
+        }
+
+        private Object getArgument(Field field, Object[] args, PKeyword[] keywords) {
+            int index = field.getIndex();
+            if (index >= 0) {
+                if (index >= args.length) {
+                    throw raise(IndexError, "tuple index out of range");
+                }
+                return args[index];
+            }
+            String keyword = field.getKeyword();
+            for (PKeyword kw : keywords) {
+                if (keyword.equals(kw.getName())) {
+                    return kw.getValue();
+                }
+            }
+            throw raise(KeyError, "%s", keyword);
+        }
+
+        private String formatValue(Object value, String spec) {
+            Object result = getFormatNode().executeObject(value, spec);
+            if (result instanceof String) {
+                return (String) result;
+            } else if (result instanceof PString) {
+                return ((PString) result).getValue();
+            }
+            throw raise(TypeError, "__format__ must return a str, not %p", result);
+        }
+
+        @TruffleBoundary
+        private static String ascii(String repr) {
+            StringBuilder sb = new StringBuilder(repr.length());
+            for (int offset = 0; offset < repr.length();) {
+                int codepoint = repr.codePointAt(offset);
+                if (codepoint < 0x80) {
+                    sb.append((char) codepoint);
+                } else if (codepoint < 0x100) {
+                    sb.append(String.format("\\x%02x", codepoint));
+                } else if (codepoint < 0x10000) {
+                    sb.append(String.format("\\u%04x", codepoint));
+                } else {
+                    sb.append(String.format("\\U%08x", codepoint));
+                }
+                offset += Character.charCount(codepoint);
+            }
+            return sb.toString();
+        }
+
+        @TruffleBoundary
+        private static void append(StringBuilder sb, String value) {
+            sb.append(value);
+        }
+
+        @TruffleBoundary
+        private static String toString(StringBuilder sb) {
+            return sb.toString();
+        }
+
+        private GetAttributeNode getGetAttributeNode() {
+            if (getAttributeNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getAttributeNode = insert(GetAttributeNode.create());
+            }
+            return getAttributeNode;
+        }
+
+        private GetItemNode getGetItemNode() {
+            if (getItemNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                getItemNode = insert(GetItemNode.create());
+            }
+            return getItemNode;
+        }
+
+        private LookupAndCallUnaryNode getReprNode() {
+            if (reprNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                reprNode = insert(LookupAndCallUnaryNode.create(__REPR__));
+            }
+            return reprNode;
+        }
+
+        private LookupAndCallUnaryNode getStrNode() {
+            if (strNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                strNode = insert(LookupAndCallUnaryNode.create(__STR__));
+            }
+            return strNode;
+        }
+
+        private LookupAndCallBinaryNode getFormatNode() {
+            if (formatNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                formatNode = insert(LookupAndCallBinaryNode.create(__FORMAT__));
+            }
+            return formatNode;
+        }
+    }
+
     @Builtin(name = "isalnum", fixedNumOfArguments = 1)
     @GenerateNodeFactory
     @TypeSystemReference(PythonArithmeticTypes.class)
@@ -0,0 +1,436 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.bytes.PByteArray;
+import com.oracle.graal.python.builtins.objects.bytes.PBytes;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.memoryview.PythonBuffer;
+import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.tuple.PTuple;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.expression.CastToBooleanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.runtime.sequence.storage.ByteSequenceStorage;
+import com.oracle.graal.python.runtime.sequence.storage.SequenceStorage;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Packing and unpacking shared by the functions of the {@code _struct} module and the methods of
+ * {@code Struct} objects. Bytes and bytearrays are read and written in place; other objects that
+ * support the buffer protocol are accessed through a {@link PythonBuffer}, copying only the bytes
+ * of the record.
+ */
+public abstract class StructBaseNode extends PythonBuiltinNode {
+    private static final BigInteger UNSIGNED_LONG_MASK = BigInteger.ONE.shiftLeft(Long.SIZE).subtract(BigInteger.ONE);
+
+    @Child private CastToBooleanNode castToBooleanNode;
+
+    protected final PException raiseStructError(String format, Object... args) {
+        PythonClass errorClass = (PythonClass) getContext().lookupBuiltinModule("_struct").getAttribute("error");
+        throw getCore().raise(factory().createBaseException(errorClass, format, args), this);
+    }
+
+    protected final StructFormat getStructFormat(Object format) {
+        String string;
+        if (format instanceof String) {
+            string = (String) format;
+        } else if (format instanceof PString) {
+            string = ((PString) format).getValue();
+        } else if (format instanceof PBytes) {
+            string = decodeFormat((PBytes) format);
+        } else {
+            throw raise(TypeError, "Struct() argument 1 must be a str or bytes object, not %p", format);
+        }
+        try {
+            return StructFormat.get(string);
+        } catch (StructFormat.FormatException e) {
+            throw raiseStructError(getMessage(e));
+        }
+    }
+
+    @TruffleBoundary
+    private static String decodeFormat(PBytes format) {
+        return new String(format.getInternalByteArray(), 0, format.len(), StandardCharsets.US_ASCII);
+    }
+
+    @TruffleBoundary
+    private static String getMessage(Exception e) {
+        return e.getMessage();
+    }
+
+    protected final int toOffset(Object offset) {
+        if (offset instanceof PNone) {
+            return 0;
+        } else if (offset instanceof Integer) {
+            return (int) offset;
+        } else if (offset instanceof Long) {
+            long value = (long) offset;
+            return value < Integer.MIN_VALUE ? Integer.MIN_VALUE : value > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) value;
+        } else if (offset instanceof Boolean) {
+            return (boolean) offset ? 1 : 0;
+        }
+        throw raise(TypeError, "an integer is required (got type %p)", offset);
+    }
+
+    /**
+     * The byte array backing a bytes or bytearray object, or {@code null} for any other object.
+     */
+    protected static byte[] getByteArray(Object buffer) {
+        if (buffer instanceof PBytes) {
+            return ((PBytes) buffer).getInternalByteArray();
+        } else if (buffer instanceof PByteArray) {
+            SequenceStorage store = ((PByteArray) buffer).getSequenceStorage();
+            return store instanceof ByteSequenceStorage ? ((ByteSequenceStorage) store).getInternalByteArray() : new byte[0];
+        }
+        return null;
+    }
+
+    protected final PythonBuffer getBuffer(Object buffer) {
+        PythonBuffer result = PythonBuffer.get(buffer);
+        if (result == null) {
+            throw raise(TypeError, "a bytes-like object is required, not '%p'", buffer);
+        }
+        return result;
+    }
+
+    protected final int getBufferLength(Object buffer) {
+        if (buffer instanceof PBytes) {
+            return ((PBytes) buffer).len();
+        } else if (buffer instanceof PByteArray) {
+            return ((PByteArray) buffer).len();
+        }
+        return getBuffer(buffer).getLength();
+    }
+
+    protected final PBytes packBytes(StructFormat format, Object[] values) {
+        byte[] data = new byte[format.getSize()];
+        pack(format, values, data, 0);
+        return factory().createBytes(data);
+    }
+
+    protected final PNone packInto(StructFormat format, Object buffer, Object offsetArg, Object[] values) {
+        PythonBuffer target = buffer instanceof PByteArray ? null : PythonBuffer.get(buffer);
+        if (!(buffer instanceof PByteArray) && (target == null || target.isReadonly())) {
+            throw raise(TypeError, "argument must be read-write bytes-like object, not %p", buffer);
+        }
+        int length = getBufferLength(buffer);
+        int offset = toOffset(offsetArg);
+        int size = format.getSize();
+        if (offset < 0) {
+            if (offset + size > 0) {
+                throw raiseStructError("no space to pack %d bytes at offset %d", size, offset);
+            } else if (offset + length < 0) {
+                throw raiseStructError("offset %d out of range for %d-byte buffer", offset, length);
+            }
+            offset += length;
+        }
+        if (length - offset < size) {
+            throw raiseStructError("pack_into requires a buffer of at least %d bytes for packing %d bytes at offset %d (actual buffer size is %d)", size + offset, size, offset, length);
+        }
+        if (target == null) {
+            pack(format, values, getByteArray(buffer), offset);
+        } else {
+            byte[] record = new byte[size];
+            pack(format, values, record, 0);
+            target.setBytes(offset, record, 0, size);
+        }
+        return PNone.NONE;
+    }
+
+    protected final PTuple unpackBuffer(StructFormat format, Object buffer) {
+        int length = getBufferLength(buffer);
+        if (length != format.getSize()) {
+            throw raiseStructError("unpack requires a buffer of %d bytes", format.getSize());
+        }
+        return unpackRecord(format, buffer, 0);
+    }
+
+    protected final PTuple unpackFrom(StructFormat format, Object buffer, Object offsetArg) {
+        int length = getBufferLength(buffer);
+        int offset = toOffset(offsetArg);
+        int size = format.getSize();
+        if (offset < 0) {
+            if (offset + length < 0) {
+                throw raiseStructError("offset %d out of range for %d-byte buffer", offset, length);
+            }
+            offset += length;
+        }
+        if (length - offset < size) {
+            throw raiseStructError("unpack_from requires a buffer of at least %d bytes for unpacking %d bytes at offset %d (actual buffer size is %d)", size + offset, size, offset, length);
+        }
+        return unpackRecord(format, buffer, offset);
+    }
+
+    protected final PStructUnpackIterator iterUnpack(StructFormat format, Object buffer) {
+        int size = format.getSize();
+        if (size == 0) {
+            throw raiseStructError("cannot iteratively unpack with a struct of length 0");
+        }
+        int length = getBufferLength(buffer);
+        if (length % size != 0) {
+            throw raiseStructError("iterative unpacking requires a buffer of a multiple of %d bytes", size);
+        }
+        return factory().createStructUnpackIterator(format, buffer, length);
+    }
+
+    /**
+     * Unpacks the record starting at {@code offset}, which the caller has checked to be within the
+     * buffer.
+     */
+    protected final PTuple unpackRecord(StructFormat format, Object buffer, int offset) {
+        byte[] data = getByteArray(buffer);
+        if (data != null) {
+            return unpack(format, data, offset);
+        }
+        byte[] record = new byte[format.getSize()];
+        getBuffer(buffer).getBytes(offset, record, 0, record.length);
+        return unpack(format, record, 0);
+    }
+
+    protected final PTuple unpack(StructFormat format, byte[] data, int offset) {
+        Object[] result = new Object[format.getItemCount()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = unpackItem(format, i, data, offset + format.getOffset(i));
+        }
+        return factory().createTuple(result);
+    }
+
+    private Object unpackItem(StructFormat format, int item, byte[] data, int offset) {
+        int size = format.getSize(item);
+        char code = format.getCode(item);
+        switch (code) {
+            case 'c':
+                return factory().createBytes(new byte[]{data[offset]});
+            case 's':
+                return factory().createBytes(copyOfRange(data, offset, offset + size));
+            case 'p': {
+                int length = size == 0 ? 0 : Math.min(data[offset] & 0xFF, size - 1);
+                return factory().createBytes(copyOfRange(data, offset + 1, offset + 1 + length));
+            }
+            case '?':
+                return data[offset] != 0;
+            case 'e':
+                return StructFormat.halfToDouble((int) format.readBits(data, offset, size));
+            case 'f':
+                return (double) Float.intBitsToFloat((int) format.readBits(data, offset, size));
+            case 'd':
+                return Double.longBitsToDouble(format.readBits(data, offset, size));
+            case 'b':
+            case 'h':
+            case 'i':
+            case 'l':
+            case 'q':
+            case 'n': {
+                int shift = Long.SIZE - 8 * size;
+                long value = (format.readBits(data, offset, size) << shift) >> shift;
+                return size <= Integer.BYTES ? (Object) (int) value : (Object) value;
+            }
+            default: {
+                long bits = format.readBits(data, offset, size);
+                if (size < Integer.BYTES) {
+                    return (int) bits;
+                } else if (bits < 0) {
+                    return factory().createInt(unsignedValue(bits));
+                }
+                return bits;
+            }
+        }
+    }
+
+    /**
+     * Packs {@code values} into {@code data} at {@code offset}, which the caller has checked to be
+     * within the array.
+     */
+    protected final void pack(StructFormat format, Object[] values, byte[] data, int offset) {
+        if (values.length != format.getItemCount()) {
+            throw raiseStructError("pack expected %d items for packing (got %d)", format.getItemCount(), values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            packItem(format, i, values[i], data, offset + format.getOffset(i));
+        }
+    }
+
+    private void packItem(StructFormat format, int item, Object value, byte[] data, int offset) {
+        int size = format.getSize(item);
+        char code = format.getCode(item);
+        switch (code) {
+            case 'c': {
+                byte[] bytes = getByteArray(value);
+                if (bytes == null || getBufferLength(value) != 1) {
+                    throw raiseStructError("char format requires a bytes object of length 1");
+                }
+                data[offset] = bytes[0];
+                break;
+            }
+            case 's':
+            case 'p': {
+                byte[] bytes = getByteArray(value);
+                if (bytes == null) {
+                    throw raiseStructError("argument for '%c' must be a bytes object", code);
+                }
+                int length = getBufferLength(value);
+                if (code == 's') {
+                    System.arraycopy(bytes, 0, data, offset, Math.min(length, size));
+                } else if (size > 0) {
+                    int n = Math.min(Math.min(length, size - 1), 255);
+                    System.arraycopy(bytes, 0, data, offset + 1, n);
+                    data[offset] = (byte) n;
+                }
+                break;
+            }
+            case '?':
+                data[offset] = (byte) (isTrue(value) ? 1 : 0);
+                break;
+            case 'e': {
+                int half = StructFormat.doubleToHalf(asDouble(value));
+                if (half < 0) {
+                    throw raise(OverflowError, "float too large to pack with e format");
+                }
+                format.writeBits(data, offset, size, half);
+                break;
+            }
+            case 'f': {
+                double d = asDouble(value);
+                float f = (float) d;
+                if (Float.isInfinite(f) && !Double.isInfinite(d)) {
+                    throw raise(OverflowError, "float too large to pack with f format");
+                }
+                format.writeBits(data, offset, size, Float.floatToRawIntBits(f));
+                break;
+            }
+            case 'd':
+                format.writeBits(data, offset, size, Double.doubleToRawLongBits(asDouble(value)));
+                break;
+            case 'b':
+            case 'h':
+            case 'i':
+            case 'l':
+            case 'q':
+            case 'n':
+                format.writeBits(data, offset, size, asLong(value, code, size, true));
+                break;
+            default:
+                format.writeBits(data, offset, size, asLong(value, code, size, false));
+                break;
+        }
+    }
+
+    private long asLong(Object value, char code, int size, boolean signed) {
+        long result;
+        if (value instanceof Integer) {
+            result = (int) value;
+        } else if (value instanceof Long) {
+            result = (long) value;
+        } else if (value instanceof Boolean) {
+            result = (boolean) value ? 1 : 0;
+        } else if (value instanceof PInt) {
+            BigInteger big = ((PInt) value).getValue();
+            if (!signed && size == Long.BYTES && big.signum() >= 0 && big.bitLength() <= Long.SIZE) {
+                return big.longValue();
+            } else if (big.bitLength() >= Long.SIZE) {
+                throw raiseStructError("argument out of range");
+            }
+            result = big.longValue();
+        } else {
+            throw raiseStructError("required argument is not an integer");
+        }
+        if (size == Long.BYTES) {
+            if (!signed && result < 0) {
+                throw raiseStructError("argument out of range");
+            }
+        } else {
+            long min = signed ? -(1L << (8 * size - 1)) : 0;
+            long max = signed ? (1L << (8 * size - 1)) - 1 : (1L << (8 * size)) - 1;
+            if (result < min || result > max) {
+                throw raiseStructError("'%c' format requires %d <= number <= %d", code, min, max);
+            }
+        }
+        return result;
+    }
+
+    private double asDouble(Object value) {
+        if (value instanceof Double) {
+            return (double) value;
+        } else if (value instanceof PFloat) {
+            return ((PFloat) value).getValue();
+        } else if (value instanceof Integer) {
+            return (int) value;
+        } else if (value instanceof Long) {
+            return (long) value;
+        } else if (value instanceof Boolean) {
+            return (boolean) value ? 1 : 0;
+        } else if (value instanceof PInt) {
+            return ((PInt) value).doubleValue();
+        }
+        throw raiseStructError("required argument is not a float");
+    }
+
+    private boolean isTrue(Object value) {
+        if (value instanceof Boolean) {
+            return (boolean) value;
+        }
+        if (castToBooleanNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            castToBooleanNode = insert(CastToBooleanNode.createIfTrueNode());
+        }
+        return castToBooleanNode.executeWith(value);
+    }
+
+    @TruffleBoundary
+    private static byte[] copyOfRange(byte[] data, int from, int to) {
+        return Arrays.copyOfRange(data, from, to);
+    }
+
+    @TruffleBoundary
+    private static BigInteger unsignedValue(long bits) {
+        return BigInteger.valueOf(bits).and(UNSIGNED_LONG_MASK);
+    }
+}
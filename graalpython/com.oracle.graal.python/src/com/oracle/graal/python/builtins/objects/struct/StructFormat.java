@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.struct;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A compiled struct format. The format string is parsed once into a flat list of items, each with
+ * its format character, its offset in the packed data and its size, so that packing and unpacking
+ * only have to walk the items. Repeat counts are expanded, except for {@code 's'} and {@code 'p'},
+ * where the count is the size of a single item, and pad bytes, which produce no item at all.
+ */
+public final class StructFormat {
+    private static final boolean NATIVE_LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    private static final int MAX_CACHE_SIZE = 100;
+    private static final Map<String, StructFormat> CACHE = new ConcurrentHashMap<>();
+
+    private final String format;
+    private final boolean littleEndian;
+    private final int size;
+    @CompilationFinal(dimensions = 1) private final char[] codes;
+    @CompilationFinal(dimensions = 1) private final int[] offsets;
+    @CompilationFinal(dimensions = 1) private final int[] sizes;
+
+    private StructFormat(String format, boolean littleEndian, int size, char[] codes, int[] offsets, int[] sizes) {
+        this.format = format;
+        this.littleEndian = littleEndian;
+        this.size = size;
+        this.codes = codes;
+        this.offsets = offsets;
+        this.sizes = sizes;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isLittleEndian() {
+        return littleEndian;
+    }
+
+    /**
+     * The size of the packed data in bytes.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * The number of values that are packed or unpacked.
+     */
+    public int getItemCount() {
+        return codes.length;
+    }
+
+    public char getCode(int item) {
+        return codes[item];
+    }
+
+    public int getOffset(int item) {
+        return offsets[item];
+    }
+
+    public int getSize(int item) {
+        return sizes[item];
+    }
+
+    /**
+     * Thrown when a format string cannot be compiled; the message is that of the
+     * {@code struct.error} to raise.
+     */
+    public static final class FormatException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        FormatException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Returns the compiled format, reusing a previously compiled one if possible. Like CPython, the
+     * cache is simply dropped when it grows too large.
+     */
+    @TruffleBoundary
+    public static StructFormat get(String format) throws FormatException {
+        StructFormat result = CACHE.get(format);
+        if (result == null) {
+            result = compile(format);
+            if (CACHE.size() >= MAX_CACHE_SIZE) {
+                CACHE.clear();
+            }
+            CACHE.put(format, result);
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    @TruffleBoundary
+    public static StructFormat compile(String format) throws FormatException {
+        int pos = 0;
+        boolean nativeMode = true;
+        boolean littleEndian = NATIVE_LITTLE_ENDIAN;
+        if (!format.isEmpty()) {
+            switch (format.charAt(0)) {
+                case '@':
+                    pos++;
+                    break;
+                case '=':
+                    nativeMode = false;
+                    pos++;
+                    break;
+                case '<':
+                    nativeMode = false;
+                    littleEndian = true;
+                    pos++;
+                    break;
+                case '>':
+                case '!':
+                    nativeMode = false;
+                    littleEndian = false;
+                    pos++;
+                    break;
+            }
+        }
+
+        ArrayList<Character> codes = new ArrayList<>();
+        ArrayList<Integer> offsets = new ArrayList<>();
+        ArrayList<Integer> sizes = new ArrayList<>();
+        long offset = 0;
+        int length = format.length();
+        while (pos < length) {
+            char c = format.charAt(pos++);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            long count = 1;
+            if (c >= '0' && c <= '9') {
+                count = c - '0';
+                while (true) {
+                    if (pos >= length) {
+                        throw new FormatException("repeat count given without format specifier");
+                    }
+                    c = format.charAt(pos++);
+                    if (c < '0' || c > '9') {
+                        break;
+                    }
+                    count = count * 10 + (c - '0');
+                    if (count > Integer.MAX_VALUE) {
+                        throw new FormatException("total struct size too long");
+                    }
+                }
+            }
+            int itemSize = getItemSize(c, nativeMode);
+            if (itemSize < 0) {
+                throw new FormatException("bad char in struct format");
+            }
+            if (nativeMode) {
+                // native items are aligned to their size
+                offset = (offset + itemSize - 1) / itemSize * itemSize;
+            }
+            if (c == 'x') {
+                offset += count;
+            } else if (c == 's' || c == 'p') {
+                codes.add(c);
+                offsets.add((int) offset);
+                sizes.add((int) count);
+                offset += count;
+            } else {
+                for (long i = 0; i < count; i++) {
+                    codes.add(c);
+                    offsets.add((int) offset);
+                    sizes.add(itemSize);
+                    offset += itemSize;
+                    if (offset > Integer.MAX_VALUE) {
+                        throw new FormatException("total struct size too long");
+                    }
+                }
+            }
+            if (offset > Integer.MAX_VALUE) {
+                throw new FormatException("total struct size too long");
+            }
+        }
+
+        char[] codeArray = new char[codes.size()];
+        int[] offsetArray = new int[codes.size()];
+        int[] sizeArray = new int[codes.size()];
+        for (int i = 0; i < codeArray.length; i++) {
+            codeArray[i] = codes.get(i);
+            offsetArray[i] = offsets.get(i);
+            sizeArray[i] = sizes.get(i);
+        }
+        return new StructFormat(format, littleEndian, (int) offset, codeArray, offsetArray, sizeArray);
+    }
+
+    /**
+     * The size of a format character in native or standard mode, or {@code -1} if the character
+     * is not valid in that mode.
+     */
+    private static int getItemSize(char c, boolean nativeMode) {
+        switch (c) {
+            case 'x':
+            case 'c':
+            case 'b':
+            case 'B':
+            case '?':
+            case 's':
+            case 'p':
+                return 1;
+            case 'h':
+            case 'H':
+            case 'e':
+                return 2;
+            case 'i':
+            case 'I':
+            case 'f':
+                return 4;
+            case 'l':
+            case 'L':
+                return nativeMode ? 8 : 4;
+            case 'q':
+            case 'Q':
+            case 'd':
+                return 8;
+            case 'n':
+            case 'N':
+            case 'P':
+                return nativeMode ? 8 : -1;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Reads {@code size} bytes at {@code offset} as an unsigned integer in the byte order of this
+     * format.
+     */
+    public long readBits(byte[] data, int offset, int itemSize) {
+        long bits = 0;
+        if (littleEndian) {
+            for (int i = itemSize - 1; i >= 0; i--) {
+                bits = (bits << 8) | (data[offset + i] & 0xFFL);
+            }
+        } else {
+            for (int i = 0; i < itemSize; i++) {
+                bits = (bits << 8) | (data[offset + i] & 0xFFL);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Writes the low {@code size} bytes of {@code bits} at {@code offset} in the byte order of this
+     * format.
+     */
+    public void writeBits(byte[] data, int offset, int itemSize, long bits) {
+        long value = bits;
+        if (littleEndian) {
+            for (int i = 0; i < itemSize; i++) {
+                data[offset + i] = (byte) value;
+                value >>>= 8;
+            }
+        } else {
+            for (int i = itemSize - 1; i >= 0; i--) {
+                data[offset + i] = (byte) value;
+                value >>>= 8;
+            }
+        }
+    }
+
+    /**
+     * Converts an IEEE 754 half precision value to a double.
+     */
+    public static double halfToDouble(int bits) {
+        int sign = (bits >> 15) & 0x1;
+        int exponent = (bits >> 10) & 0x1F;
+        int mantissa = bits & 0x3FF;
+        double result;
+        if (exponent == 0) {
+            result = Math.scalb((double) mantissa, -24);
+        } else if (exponent == 0x1F) {
+            result = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+        } else {
+            result = Math.scalb((double) (mantissa | 0x400), exponent - 25);
+        }
+        return sign == 0 ? result : -result;
+    }
+
+    /**
+     * Converts a double to IEEE 754 half precision, rounding half to even, or returns {@code -1}
+     * if the value is too large.
+     */
+    public static int doubleToHalf(double value) {
+        int sign = (Double.doubleToRawLongBits(value) < 0) ? 0x8000 : 0;
+        double abs = Math.abs(value);
+        if (Double.isNaN(value)) {
+            return sign | 0x7E00;
+        } else if (Double.isInfinite(value)) {
+            return sign | 0x7C00;
+        }
+        // scale so that the representable values of the target exponent are integers
+        int exponent = abs == 0 ? -25 : Math.max(Math.getExponent(abs), -14);
+        double scaled = Math.rint(Math.scalb(abs, 10 - exponent));
+        if (scaled >= 2048) {
+            scaled /= 2;
+            exponent++;
+        }
+        if (exponent > 15) {
+            return -1;
+        }
+        int mantissa = (int) scaled;
+        if (mantissa < 0x400) {
+            // subnormal
+            return sign | mantissa;
+        }
+        return sign | ((exponent + 15) << 10) | (mantissa & 0x3FF);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.thread;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__ENTER__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__EXIT__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__REPR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.OverflowError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.RuntimeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.TypeError;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.List;
+
+import com.oracle.graal.python.builtins.Builtin;
+import com.oracle.graal.python.builtins.CoreFunctions;
+import com.oracle.graal.python.builtins.PythonBuiltins;
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.floats.PFloat;
+import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.nodes.expression.CastToBooleanNode;
+import com.oracle.graal.python.nodes.function.PythonBuiltinNode;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.GenerateNodeFactory;
+import com.oracle.truffle.api.dsl.NodeFactory;
+import com.oracle.truffle.api.dsl.Specialization;
+
+@CoreFunctions(extendClasses = PLock.class)
+public class LockBuiltins extends PythonBuiltins {
+
+    /** The largest timeout in seconds, such that it still fits into a {@code long} of nanos. */
+    public static final double TIMEOUT_MAX = Long.MAX_VALUE / 1e9;
+
+    @Override
+    protected List<? extends NodeFactory<? extends PythonBuiltinNode>> getNodeFactories() {
+        return LockBuiltinsFactory.getFactories();
+    }
+
+    /**
+     * Converts the {@code blocking} and {@code timeout} arguments of {@code acquire}.
+     */
+    public abstract static class AcquireArgumentsNode extends PythonBuiltinNode {
+        @Child private CastToBooleanNode castToBooleanNode;
+
+        protected final boolean isBlocking(Object blocking) {
+            if (blocking == PNone.NO_VALUE) {
+                return true;
+            } else if (blocking instanceof Boolean) {
+                return (boolean) blocking;
+            }
+            if (castToBooleanNode == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                castToBooleanNode = insert(CastToBooleanNode.createIfTrueNode());
+            }
+            return castToBooleanNode.executeWith(blocking);
+        }
+
+        /**
+         * Returns the timeout in nanoseconds, or {@code -1} to wait forever.
+         */
+        protected final long getTimeoutNanos(boolean blocking, Object timeout) {
+            double seconds;
+            if (timeout == PNone.NO_VALUE) {
+                return -1;
+            } else if (timeout instanceof Integer) {
+                seconds = (int) timeout;
+            } else if (timeout instanceof Long) {
+                seconds = (long) timeout;
+            } else if (timeout instanceof Double) {
+                seconds = (double) timeout;
+            } else if (timeout instanceof Boolean) {
+                seconds = (boolean) timeout ? 1 : 0;
+            } else if (timeout instanceof PFloat) {
+                seconds = ((PFloat) timeout).getValue();
+            } else if (timeout instanceof PInt) {
+                seconds = ((PInt) timeout).doubleValue();
+            } else {
+                throw raise(TypeError, "must be real number, not %p", timeout);
+            }
+            if (seconds == -1) {
+                return -1;
+            } else if (!blocking) {
+                throw raise(ValueError, "can't specify a timeout for a non-blocking call");
+            } else if (seconds < 0) {
+                throw raise(ValueError, "timeout value must be a non-negative number");
+            } else if (seconds > TIMEOUT_MAX) {
+                throw raise(OverflowError, "timeout value is too large");
+            }
+            return (long) (seconds * 1e9);
+        }
+    }
+
+    @Builtin(name = "acquire", fixedNumOfArguments = 1, keywordArguments = {"blocking", "timeout"})
+    @GenerateNodeFactory
+    public abstract static class AcquireNode extends AcquireArgumentsNode {
+        @Specialization
+        boolean acquire(PLock self, Object blocking, Object timeout) {
+            boolean isBlocking = isBlocking(blocking);
+            return self.acquire(isBlocking, getTimeoutNanos(isBlocking, timeout));
+        }
+    }
+
+    @Builtin(name = "acquire_lock", fixedNumOfArguments = 1, keywordArguments = {"blocking", "timeout"})
+    @GenerateNodeFactory
+    public abstract static class AcquireLockNode extends AcquireNode {
+    }
+
+    @Builtin(name = __ENTER__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class EnterNode extends PythonBuiltinNode {
+        @Specialization
+        boolean enter(PLock self) {
+            return self.acquire(true, -1);
+        }
+    }
+
+    @Builtin(name = "release", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReleaseNode extends PythonBuiltinNode {
+        @Specialization
+        PNone release(PLock self) {
+            if (!self.release()) {
+                throw raise(RuntimeError, "release unlocked lock");
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "release_lock", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReleaseLockNode extends ReleaseNode {
+    }
+
+    @Builtin(name = __EXIT__, fixedNumOfArguments = 4)
+    @GenerateNodeFactory
+    public abstract static class ExitNode extends PythonBuiltinNode {
+        @Specialization
+        @SuppressWarnings("unused")
+        PNone exit(PLock self, Object type, Object value, Object traceback) {
+            if (!self.release()) {
+                throw raise(RuntimeError, "release unlocked lock");
+            }
+            return PNone.NONE;
+        }
+    }
+
+    @Builtin(name = "locked", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class LockedNode extends PythonBuiltinNode {
+        @Specialization
+        boolean locked(PLock self) {
+            return self.isLocked();
+        }
+    }
+
+    @Builtin(name = "locked_lock", fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class LockedLockNode extends LockedNode {
+    }
+
+    @Builtin(name = __REPR__, fixedNumOfArguments = 1)
+    @GenerateNodeFactory
+    public abstract static class ReprNode extends PythonBuiltinNode {
+        @Specialization
+        String repr(PLock self) {
+            return String.format("<%s _thread.lock object at 0x%x>", self.isLocked() ? "locked" : "unlocked", System.identityHashCode(self));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.builtins.objects.thread;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.graal.python.builtins.objects.object.PythonBuiltinObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A {@code _thread.RLock}, which is owned by the thread that acquired it.
+ */
+public final class PRLock extends PythonBuiltinObject {
+
+    private static final class Lock extends ReentrantLock {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Thread getOwner() {
+            return super.getOwner();
+        }
+    }
+
+    private final Lock lock = new Lock();
+
+    public PRLock(PythonClass cls) {
+        super(cls);
+    }
+
+    @TruffleBoundary
+    public boolean acquire(boolean blocking, long timeoutNanos) {
+        if (!blocking) {
+            return lock.tryLock();
+        } else if (timeoutNanos < 0) {
+            lock.lock();
+            return true;
+        }
+        try {
+            return lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Releases the lock once and returns {@code true}, or returns {@code false} if the current
+     * thread does not own it.
+     */
+    @TruffleBoundary
+    public boolean release() {
+        if (!lock.isHeldByCurrentThread()) {
+            return false;
+        }
+        lock.unlock();
+        return true;
+    }
+
+    /**
+     * Releases the lock completely, returning how often it was acquired, or {@code 0} if the
+     * current thread does not own it.
+     */
+    @TruffleBoundary
+    public int releaseAll() {
+        if (!lock.isHeldByCurrentThread()) {
+            return 0;
+        }
+        int count = lock.getHoldCount();
+        for (int i = 0; i < count; i++) {
+            lock.unlock();
+        }
+        return count;
+    }
+
+    /**
+     * Acquires the lock {@code count} times, blocking as necessary.
+     */
+    @TruffleBoundary
+    public void acquireAll(int count) {
+        for (int i = 0; i < count; i++) {
+            lock.lock();
+        }
+    }
+
+    @TruffleBoundary
+    public boolean isOwned() {
+        return lock.isHeldByCurrentThread();
+    }
+
+    @TruffleBoundary
+    public int getCount() {
+        return lock.isHeldByCurrentThread() ? lock.getHoldCount() : (lock.isLocked() ? 1 : 0);
+    }
+
+    @TruffleBoundary
+    public long getOwnerId() {
+        Thread owner = lock.getOwner();
+        return owner == null ? 0 : owner.getId();
+    }
+}
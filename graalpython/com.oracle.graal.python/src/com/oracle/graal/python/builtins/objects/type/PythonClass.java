@@ -31,8 +31,11 @@ import static com.oracle.graal.python.nodes.SpecialAttributeNames.__NAME__;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
@@ -52,12 +55,23 @@ import com.oracle.truffle.api.utilities.CyclicAssumption;
 public class PythonClass extends PythonObject {
 
     private static final Layout objectLayout = Layout.newLayout().build();
+    private static final AtomicInteger nextVersionTag = new AtomicInteger();
+    private static final int METHOD_CACHE_MAX_SIZE = 1024;
+
     private final String className;
 
     @CompilationFinal(dimensions = 1) private PythonClass[] baseClasses;
     @CompilationFinal(dimensions = 1) private PythonClass[] methodResolutionOrder;
     private CyclicAssumption lookupStableAssumption;
 
+    /**
+     * The version tag of this class, or {@code 0} if none is assigned. A class only holds a tag
+     * while every class in its MRO holds one, so {@link #lookupChanged()} can stop at classes
+     * that are already untagged.
+     */
+    private volatile int versionTag;
+    private volatile Map<String, MethodCacheEntry> methodCache;
+
     private final Set<PythonClass> subClasses = Collections.newSetFromMap(new WeakHashMap<PythonClass, Boolean>());
     private final Shape instanceShape;
 
@@ -90,11 +104,20 @@ public class PythonClass extends PythonObject {
     }
 
     public Assumption getLookupStableAssumption() {
+        // anybody relying on the assumption must be notified when a base class changes
+        getVersionTag();
         return lookupStableAssumption.getAssumption();
     }
 
     @TruffleBoundary
     public void lookupChanged() {
+        if (versionTag == 0) {
+            // neither this class nor any subclass has handed out a cache or assumption since the
+            // last change
+            return;
+        }
+        versionTag = 0;
+        methodCache = null;
         lookupStableAssumption.invalidate();
         for (PythonClass subclass : getSubClasses()) {
             if (subclass != null) {
@@ -103,6 +126,34 @@ public class PythonClass extends PythonObject {
         }
     }
 
+    /**
+     * Returns the version tag of this class, assigning fresh tags to this class and its MRO if
+     * necessary. The tag changes whenever an attribute of this class or of a class in its MRO is
+     * changed.
+     */
+    @TruffleBoundary
+    public int getVersionTag() {
+        int tag = versionTag;
+        if (tag == 0) {
+            PythonClass[] mro = methodResolutionOrder;
+            for (int i = mro.length - 1; i >= 0; i--) {
+                if (mro[i].versionTag == 0) {
+                    mro[i].versionTag = newVersionTag();
+                }
+            }
+            tag = versionTag;
+        }
+        return tag;
+    }
+
+    private static int newVersionTag() {
+        int tag;
+        do {
+            tag = nextVersionTag.incrementAndGet();
+        } while (tag == 0);
+        return tag;
+    }
+
     private static Shape freshShape() {
         return objectLayout.createShape(new ObjectType());
     }
@@ -225,13 +276,58 @@ public class PythonClass extends PythonObject {
     }
 
     @Override
+    @TruffleBoundary
+    public void deleteAttribute(String name) {
+        super.deleteAttribute(name);
+        lookupChanged();
+    }
+
+    /**
+     * Looks up {@code name} in the MRO of this class, using the method cache of this class.
+     *
+     * @return The lookup result, or {@link PNone#NO_VALUE} if the key isn't defined on any class
+     *         in the MRO.
+     */
+    @Override
+    @TruffleBoundary
     public Object getAttribute(String name) {
+        return lookupMethodCache(name).getValue();
+    }
+
+    /**
+     * Returns the class in the MRO of this class that defines {@code name}, or {@code null}.
+     */
+    @TruffleBoundary
+    public PythonClass getAttributeOwner(String name) {
+        return lookupMethodCache(name).getOwner();
+    }
+
+    private MethodCacheEntry lookupMethodCache(String name) {
+        int tag = getVersionTag();
+        Map<String, MethodCacheEntry> cache = methodCache;
+        if (cache == null) {
+            cache = new ConcurrentHashMap<>();
+            methodCache = cache;
+        }
+        MethodCacheEntry entry = cache.get(name);
+        if (entry == null || entry.getVersionTag() != tag) {
+            entry = lookupInMRO(name, tag);
+            if (cache.size() < METHOD_CACHE_MAX_SIZE) {
+                cache.put(name, entry);
+            }
+        }
+        return entry;
+    }
+
+    private MethodCacheEntry lookupInMRO(String name, int tag) {
         for (PythonClass o : methodResolutionOrder) {
-            if (o.getStorage().containsKey(name)) {
-                return o.getStorage().get(name);
+            // deleted attributes may remain in the storage as NO_VALUE
+            Object value = o.getStorage().get(name, PNone.NO_VALUE);
+            if (value != PNone.NO_VALUE) {
+                return new MethodCacheEntry(tag, o, value);
             }
         }
-        return PNone.NO_VALUE;
+        return new MethodCacheEntry(tag, null, PNone.NO_VALUE);
     }
 
     /**
@@ -248,6 +344,7 @@ public class PythonClass extends PythonObject {
             }
         }
         computeMethodResolutionOrder();
+        lookupChanged();
     }
 
     public final Set<PythonClass> getSubClasses() {
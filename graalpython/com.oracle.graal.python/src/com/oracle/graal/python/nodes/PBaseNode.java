@@ -46,12 +46,14 @@ import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.graal.python.runtime.object.PythonObjectFactory;
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.nodes.Node;
 
 public abstract class PBaseNode extends Node {
     @CompilationFinal private PythonCore core;
+    @CompilationFinal private Assumption singleThreaded;
     @Child private PythonObjectFactory factory;
 
     protected final PythonObjectFactory factory() {
@@ -89,4 +91,20 @@ public abstract class PBaseNode extends Node {
     public final PythonContext getContext() {
         return getCore().getContext();
     }
+
+    public final Assumption getSingleThreadedAssumption() {
+        return getContext().getLanguage().getSingleThreadedAssumption();
+    }
+
+    /**
+     * Whether only one thread runs Python code, so that lists, dicts, sets and objects can be
+     * updated without taking their lock.
+     */
+    protected final boolean isSingleThreaded() {
+        if (singleThreaded == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            singleThreaded = getSingleThreadedAssumption();
+        }
+        return singleThreaded.isValid();
+    }
 }
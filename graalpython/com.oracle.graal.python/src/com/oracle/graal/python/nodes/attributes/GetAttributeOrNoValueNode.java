@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.attributes;
+
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETATTRIBUTE__;
+import static com.oracle.graal.python.nodes.SpecialMethodNames.__GETATTR__;
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.AttributeError;
+
+import com.oracle.graal.python.builtins.objects.PNone;
+import com.oracle.graal.python.builtins.objects.object.ObjectBuiltins.GetattributeNode;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.graal.python.nodes.PBaseNode;
+import com.oracle.graal.python.nodes.SpecialMethodNames;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.nodes.object.GetClassNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * Reads an attribute like {@link GetAttributeNode}, but returns {@link PNone#NO_VALUE} instead of
+ * raising an {@code AttributeError} if it is missing. This is what {@code hasattr} and
+ * {@code getattr} with a default use. If the class of the object uses the generic
+ * {@code object.__getattribute__} and does not define {@code __getattr__}, a missing attribute is
+ * detected without creating an exception at all.
+ */
+@ImportStatic(SpecialMethodNames.class)
+public abstract class GetAttributeOrNoValueNode extends PBaseNode {
+
+    @CompilationFinal private Object objectGetattribute;
+    @CompilationFinal private Object objectGetattr;
+
+    public static GetAttributeOrNoValueNode create() {
+        return GetAttributeOrNoValueNodeGen.create();
+    }
+
+    public abstract Object execute(Object object, Object key);
+
+    @Specialization
+    Object doIt(Object object, Object key,
+                    @Cached("create()") GetClassNode getClassNode,
+                    @Cached("create()") LookupAttributeInMRONode lookupGetattribute,
+                    @Cached("create()") LookupAttributeInMRONode lookupGetattr,
+                    @Cached("create()") GetattributeNode genericGetattribute,
+                    @Cached("create(__GETATTRIBUTE__)") LookupAndCallBinaryNode dispatchNode,
+                    @Cached("createBinaryProfile()") ConditionProfile isGenericProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+        PythonClass type = getClassNode.execute(object);
+        boolean isGeneric = lookupGetattribute.execute(type, __GETATTRIBUTE__) == getObjectGetattribute() &&
+                        lookupGetattr.execute(type, __GETATTR__) == getObjectGetattr();
+        try {
+            if (isGenericProfile.profile(isGeneric)) {
+                return genericGetattribute.lookupOrNoValue(object, key);
+            } else {
+                return dispatchNode.executeObject(object, key);
+            }
+        } catch (PException e) {
+            // descriptors and custom __getattribute__ methods may still raise
+            e.expect(AttributeError, getCore(), errorProfile);
+            return PNone.NO_VALUE;
+        }
+    }
+
+    private Object getObjectGetattribute() {
+        if (objectGetattribute == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            objectGetattribute = getCore().getObjectClass().getAttribute(__GETATTRIBUTE__);
+        }
+        return objectGetattribute;
+    }
+
+    private Object getObjectGetattr() {
+        if (objectGetattr == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            objectGetattr = getCore().getObjectClass().getAttribute(__GETATTR__);
+        }
+        return objectGetattr;
+    }
+}
@@ -41,14 +41,17 @@ package com.oracle.graal.python.nodes.attributes;
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.PNode;
+import com.oracle.graal.python.runtime.TypeFeedback;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Introspectable;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
 
 @NodeChildren({@NodeChild(value = "klass", type = PNode.class), @NodeChild(value = "key", type = PNode.class)})
+@Introspectable
 public abstract class LookupAttributeInMRONode extends PNode {
     public static LookupAttributeInMRONode create() {
         return LookupAttributeInMRONodeGen.create(null, null);
@@ -62,6 +65,10 @@ public abstract class LookupAttributeInMRONode extends PNode {
      */
     public abstract Object execute(Object klass, Object key);
 
+    protected TypeFeedback getTypeFeedback() {
+        return getContext().getTypeFeedback();
+    }
+
     @SuppressWarnings("unused")
     @Specialization(guards = {"klass == cachedKlass", "key.equals(cachedKey)"}, limit = "5", assumptions = "lookupStable")
     protected Object returnDirect(PythonClass klass, String key,
@@ -72,8 +79,16 @@ public abstract class LookupAttributeInMRONode extends PNode {
         return result;
     }
 
+    /**
+     * Megamorphic case: uses the per-class method cache, which is keyed by the class' version tag,
+     * instead of walking the MRO.
+     */
     @Specialization(replaces = "returnDirect")
-    protected Object lookup(PythonClass klass, String key) {
+    protected Object lookup(PythonClass klass, String key,
+                    @Cached("getTypeFeedback()") TypeFeedback typeFeedback) {
+        if (typeFeedback != null) {
+            typeFeedback.recordReceiver(this, klass);
+        }
         return klass.getAttribute(key);
     }
 
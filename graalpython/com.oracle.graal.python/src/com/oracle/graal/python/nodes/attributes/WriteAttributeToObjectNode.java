@@ -39,6 +39,7 @@
 package com.oracle.graal.python.nodes.attributes;
 
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.PNode;
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives;
@@ -65,11 +66,37 @@ public abstract class WriteAttributeToObjectNode extends PNode {
         return prop == null ? null : prop.getLocation();
     }
 
+    /**
+     * Writes to classes must go through the class so that its method cache and the lookup
+     * assumptions of its subclasses are invalidated.
+     */
+    @TruffleBoundary
+    @Specialization
+    protected boolean writeToClass(PythonClass klass, Object key, Object value) {
+        if (isSingleThreaded()) {
+            klass.getStorage().define(key, value);
+            klass.lookupChanged();
+        } else {
+            synchronized (klass.getStorage()) {
+                klass.getStorage().define(key, value);
+                klass.lookupChanged();
+            }
+        }
+        return true;
+    }
+
+    /*
+     * The cached specializations below update the storage without a lock, so they are only used
+     * while a single thread runs. Afterwards, all writes go through doIndirect, which holds the lock
+     * of the storage while it changes the shape or grows the storage, so that no concurrent write to
+     * another attribute of the same object is lost.
+     */
+
     @SuppressWarnings("unused")
     @Specialization(guards = {
                     "object.getStorage().getShape() == cachedShape",
                     "!layoutAssumption.isValid()"
-    })
+    }, assumptions = "getSingleThreadedAssumption()")
     protected Object updateShapeAndWrite(PythonObject object, Object key, Object value,
                     @Cached("object.getStorage().getShape()") Shape cachedShape,
                     @Cached("cachedShape.getValidAssumption()") Assumption layoutAssumption,
@@ -87,8 +114,8 @@ public abstract class WriteAttributeToObjectNode extends PNode {
                                     "loc.canSet(value)"
                     }, //
                     assumptions = {
-                                    "layoutAssumption"
-
+                                    "layoutAssumption",
+                                    "getSingleThreadedAssumption()"
                     })
     protected boolean doDirect(PythonObject object, Object key, Object value,
                     @Cached("key") Object cachedKey,
@@ -116,7 +143,8 @@ public abstract class WriteAttributeToObjectNode extends PNode {
                     }, //
                     assumptions = {
                                     "layoutAssumption",
-                                    "newLayoutAssumption"
+                                    "newLayoutAssumption",
+                                    "getSingleThreadedAssumption()"
                     })
     protected boolean defineDirect(PythonObject object, Object key, Object value,
                     @Cached("key") Object cachedKey,
@@ -153,14 +181,23 @@ public abstract class WriteAttributeToObjectNode extends PNode {
     @TruffleBoundary
     @Specialization(replaces = {"doDirect", "defineDirect"}, guards = {"object.getStorage().getShape().isValid()"})
     protected boolean doIndirect(PythonObject object, Object key, Object value) {
-        object.setAttribute(key, value);
+        if (isSingleThreaded()) {
+            object.setAttribute(key, value);
+        } else {
+            synchronized (object.getStorage()) {
+                object.getStorage().updateShape();
+                object.setAttribute(key, value);
+            }
+        }
         return true;
     }
 
     @Specialization(guards = "!object.getStorage().getShape().isValid()")
     protected boolean defineDirect(PythonObject object, Object key, Object value) {
         CompilerDirectives.transferToInterpreter();
-        object.getStorage().updateShape();
+        if (isSingleThreaded()) {
+            object.getStorage().updateShape();
+        }
         return doIndirect(object, key, value);
     }
 }
@@ -47,8 +47,7 @@ import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.nodes.PBaseNode;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.control.GetIteratorNode;
-import com.oracle.graal.python.nodes.control.GetNextNode;
-import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.graal.python.runtime.sequence.storage.ObjectSequenceStorage;
 import com.oracle.truffle.api.dsl.Cached;
@@ -147,25 +146,21 @@ public abstract class JoinInternalNode extends PBaseNode {
     @Specialization
     protected String join(String string, PythonObject iterable, @SuppressWarnings("unused") PythonClass iterableClass,
                     @Cached("create()") GetIteratorNode getIterator,
-                    @Cached("create()") GetNextNode next,
-                    @Cached("createBinaryProfile()") ConditionProfile errorProfile1,
-                    @Cached("createBinaryProfile()") ConditionProfile errorProfile2) {
+                    @Cached("create()") GetNextOrStopNode next,
+                    @Cached("createBinaryProfile()") ConditionProfile stopProfile1,
+                    @Cached("createBinaryProfile()") ConditionProfile stopProfile2) {
 
         Object iterator = getIterator.executeWith(iterable);
         StringBuilder str = new StringBuilder();
-        try {
-            str.append(checkItem(next.execute(iterator), 0));
-        } catch (PException e) {
-            e.expectStopIteration(getCore(), errorProfile1);
+        Object first = next.execute(iterator);
+        if (stopProfile1.profile(first == GetNextOrStopNode.STOP)) {
             return "";
         }
+        str.append(checkItem(first, 0));
         int i = 1;
         while (true) {
-            Object value;
-            try {
-                value = next.execute(iterator);
-            } catch (PException e) {
-                e.expectStopIteration(getCore(), errorProfile2);
+            Object value = next.execute(iterator);
+            if (stopProfile2.profile(value == GetNextOrStopNode.STOP)) {
                 return str.toString();
             }
             str.append(string);
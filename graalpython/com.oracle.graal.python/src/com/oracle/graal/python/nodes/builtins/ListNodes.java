@@ -48,8 +48,7 @@ import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.builtins.ListNodesFactory.ConstructListNodeGen;
 import com.oracle.graal.python.nodes.builtins.ListNodesFactory.FastConstructListNodeGen;
 import com.oracle.graal.python.nodes.control.GetIteratorNode;
-import com.oracle.graal.python.nodes.control.GetNextNode;
-import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.runtime.sequence.PSequence;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
@@ -69,15 +68,12 @@ public abstract class ListNodes {
 
         @Specialization
         public PList executeGeneric(PythonClass cls, Object iterator,
-                        @Cached("create()") GetNextNode next,
-                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+                        @Cached("create()") GetNextOrStopNode next,
+                        @Cached("createBinaryProfile()") ConditionProfile stopProfile) {
             PList list = factory().createList(cls);
             while (true) {
-                Object value;
-                try {
-                    value = next.execute(iterator);
-                } catch (PException e) {
-                    e.expectStopIteration(getCore(), errorProfile);
+                Object value = next.execute(iterator);
+                if (stopProfile.profile(value == GetNextOrStopNode.STOP)) {
                     return list;
                 }
                 list.append(value);
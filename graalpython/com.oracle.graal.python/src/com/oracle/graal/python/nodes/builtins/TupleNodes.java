@@ -49,8 +49,7 @@ import com.oracle.graal.python.nodes.PBaseNode;
 import com.oracle.graal.python.nodes.PGuards;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.control.GetIteratorNode;
-import com.oracle.graal.python.nodes.control.GetNextNode;
-import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
@@ -89,18 +88,17 @@ public abstract class TupleNodes {
         @Specialization(guards = "!isNoValue(iterable)")
         public PTuple tuple(PythonClass cls, Object iterable,
                         @Cached("create()") GetIteratorNode getIterator,
-                        @Cached("create()") GetNextNode next,
-                        @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+                        @Cached("create()") GetNextOrStopNode next,
+                        @Cached("createBinaryProfile()") ConditionProfile stopProfile) {
 
             Object iterator = getIterator.executeWith(iterable);
             List<Object> internalStorage = new ArrayList<>();
             while (true) {
-                try {
-                    internalStorage.add(next.execute(iterator));
-                } catch (PException e) {
-                    e.expectStopIteration(getCore(), errorProfile);
+                Object value = next.execute(iterator);
+                if (stopProfile.profile(value == GetNextOrStopNode.STOP)) {
                     return factory().createTuple(cls, internalStorage.toArray());
                 }
+                internalStorage.add(value);
             }
         }
 
@@ -25,6 +25,7 @@
  */
 package com.oracle.graal.python.nodes.call;
 
+import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.function.PBuiltinFunction;
 import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
@@ -32,12 +33,15 @@ import com.oracle.graal.python.builtins.objects.function.PythonCallable;
 import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
 import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.graal.python.runtime.TypeFeedback;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Introspectable;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.Node;
 
 @ImportStatic(PythonOptions.class)
+@Introspectable
 public abstract class CallDispatchNode extends Node {
 
     protected final String calleeName;
@@ -46,6 +50,10 @@ public abstract class CallDispatchNode extends Node {
         this.calleeName = calleeName;
     }
 
+    protected static TypeFeedback getTypeFeedback() {
+        return PythonLanguage.getContext().getTypeFeedback();
+    }
+
     protected static InvokeNode createInvokeNode(PythonCallable callee) {
         return InvokeNode.create(callee);
     }
@@ -90,7 +98,11 @@ public abstract class CallDispatchNode extends Node {
 
     @Specialization(replaces = {"callMethod", "callBuiltinMethod", "callFunction"})
     protected Object callGeneric(PythonCallable callee, Object[] arguments, PKeyword[] keywords,
-                    @Cached("create()") GenericInvokeNode invoke) {
+                    @Cached("create()") GenericInvokeNode invoke,
+                    @Cached("getTypeFeedback()") TypeFeedback typeFeedback) {
+        if (typeFeedback != null) {
+            typeFeedback.recordReceiver(this, callee);
+        }
         return invoke.execute(callee, arguments, keywords);
     }
 }
@@ -117,6 +117,10 @@ public abstract class LookupAndCallBinaryNode extends PNode {
         return LookupAndCallBinaryNodeGen.create(name, rname, handlerFactory, null, null);
     }
 
+    public String getName() {
+        return name;
+    }
+
     protected Object getMethod(Object receiver, String methodName) {
         return getCore().lookupType(PythonBuiltinClassType.fromClass(receiver.getClass())).getAttribute(methodName);
     }
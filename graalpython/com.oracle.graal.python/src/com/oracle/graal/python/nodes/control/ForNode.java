@@ -34,7 +34,6 @@ import com.oracle.graal.python.nodes.PNode;
 import com.oracle.graal.python.nodes.SpecialMethodNames;
 import com.oracle.graal.python.nodes.frame.WriteNode;
 import com.oracle.graal.python.runtime.PythonOptions;
-import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.graal.python.runtime.exception.PythonErrorType;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
@@ -125,15 +124,14 @@ abstract class ForNextElementNode extends PBaseNode {
 
     @Specialization
     protected boolean doIterator(VirtualFrame frame, Object object,
-                    @Cached("create()") GetNextNode next,
-                    @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
-        try {
-            ((WriteNode) target).doWrite(frame, next.execute(object));
-            return true;
-        } catch (PException e) {
-            e.expectStopIteration(getCore(), errorProfile);
+                    @Cached("create()") GetNextOrStopNode next,
+                    @Cached("createBinaryProfile()") ConditionProfile stopProfile) {
+        Object value = next.execute(object);
+        if (stopProfile.profile(value == GetNextOrStopNode.STOP)) {
             return false;
         }
+        ((WriteNode) target).doWrite(frame, value);
+        return true;
     }
 }
 
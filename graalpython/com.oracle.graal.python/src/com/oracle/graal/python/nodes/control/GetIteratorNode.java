@@ -34,9 +34,17 @@ import com.oracle.graal.python.builtins.objects.array.PIntArray;
 import com.oracle.graal.python.builtins.objects.array.PLongArray;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.iterator.PBuiltinIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PFilter;
+import com.oracle.graal.python.builtins.objects.iterator.PMap;
 import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PStringIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PZip;
+import com.oracle.graal.python.builtins.objects.itertools.PChain;
+import com.oracle.graal.python.builtins.objects.itertools.PCount;
+import com.oracle.graal.python.builtins.objects.itertools.PIslice;
+import com.oracle.graal.python.builtins.objects.itertools.PProduct;
+import com.oracle.graal.python.builtins.objects.itertools.PRepeat;
+import com.oracle.graal.python.builtins.objects.itertools.PZipLongest;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.range.PRange;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
@@ -148,6 +156,46 @@ public abstract class GetIteratorNode extends UnaryOpNode {
         return value;
     }
 
+    @Specialization(guards = "iterCannotBeOverridden(value)")
+    public PythonObject doPMap(PMap value) {
+        return value;
+    }
+
+    @Specialization(guards = "iterCannotBeOverridden(value)")
+    public PythonObject doPFilter(PFilter value) {
+        return value;
+    }
+
+    @Specialization(guards = "iterCannotBeOverridden(value)")
+    public PythonObject doPCount(PCount value) {
+        return value;
+    }
+
+    @Specialization(guards = "iterCannotBeOverridden(value)")
+    public PythonObject doPRepeat(PRepeat value) {
+        return value;
+    }
+
+    @Specialization(guards = "iterCannotBeOverridden(value)")
+    public PythonObject doPChain(PChain value) {
+        return value;
+    }
+
+    @Specialization(guards = "iterCannotBeOverridden(value)")
+    public PythonObject doPIslice(PIslice value) {
+        return value;
+    }
+
+    @Specialization(guards = "iterCannotBeOverridden(value)")
+    public PythonObject doPZipLongest(PZipLongest value) {
+        return value;
+    }
+
+    @Specialization(guards = "iterCannotBeOverridden(value)")
+    public PythonObject doPProduct(PProduct value) {
+        return value;
+    }
+
     @Specialization(guards = "iterCannotBeOverridden(range)")
     public PythonObject doRange(PRange range) {
         return factory().createRangeIterator(range);
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.nodes.control;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
+
+import com.oracle.graal.python.builtins.objects.common.HashingStorage.DictEntry;
+import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictItemsIterator;
+import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictKeysIterator;
+import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictValuesIterator;
+import com.oracle.graal.python.builtins.objects.generator.PGenerator;
+import com.oracle.graal.python.builtins.objects.iterator.PBaseSetIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PDoubleIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PIntegerIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PLongIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PStringIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PZip;
+import com.oracle.graal.python.nodes.PBaseNode;
+import com.oracle.graal.python.nodes.SpecialMethodNames;
+import com.oracle.graal.python.nodes.call.special.LookupAndCallBinaryNode;
+import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.ImportStatic;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+
+/**
+ * The internal iteration protocol: returns the next element of an iterator, or {@link #STOP} once
+ * it is exhausted. Loops and the builtins that consume whole iterators use this instead of
+ * {@link GetNextNode}, so that the builtin iterators and generators end without allocating a
+ * {@code StopIteration}. All other iterators are advanced through {@code __next__}.
+ */
+@ImportStatic(SpecialMethodNames.class)
+public abstract class GetNextOrStopNode extends PBaseNode {
+
+    /**
+     * Returned instead of raising {@code StopIteration}. Never visible to Python code.
+     */
+    public static final Object STOP = new Object() {
+        @Override
+        public String toString() {
+            return "<iterator exhausted>";
+        }
+    };
+
+    @Child private GetNextNode getNextNode;
+    private final ConditionProfile stopIterationProfile = ConditionProfile.createBinaryProfile();
+
+    public static GetNextOrStopNode create() {
+        return GetNextOrStopNodeGen.create();
+    }
+
+    public abstract Object execute(Object iterator);
+
+    /**
+     * Like {@link #execute(Object)}, but raises {@code StopIteration}. This is how the builtin
+     * {@code __next__} methods of the iterators handled here are implemented.
+     */
+    public final Object executeOrRaise(Object iterator) {
+        Object value = execute(iterator);
+        if (value == STOP) {
+            throw raise(StopIteration);
+        }
+        return value;
+    }
+
+    @Specialization
+    Object doGenerator(PGenerator generator,
+                    @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+        if (generator.isFinished()) {
+            return STOP;
+        }
+        Object value;
+        try {
+            value = generator.getCallTarget().call(generator.getArguments());
+        } catch (PException e) {
+            // the body raised StopIteration itself
+            e.expectStopIteration(getCore(), errorProfile);
+            value = STOP;
+        }
+        if (value == STOP) {
+            generator.markAsFinished();
+        }
+        return value;
+    }
+
+    @Specialization
+    Object doIntegerIterator(PIntegerIterator iterator) {
+        return iterator.hasNext() ? iterator.next() : STOP;
+    }
+
+    @Specialization
+    Object doLongIterator(PLongIterator iterator) {
+        return iterator.hasNext() ? iterator.next() : STOP;
+    }
+
+    @Specialization
+    Object doDoubleIterator(PDoubleIterator iterator) {
+        return iterator.hasNext() ? iterator.next() : STOP;
+    }
+
+    @Specialization(guards = "iterator.isPSequence()")
+    Object doSequenceIterator(PSequenceIterator iterator) {
+        return iterator.hasNext() ? iterator.next() : STOP;
+    }
+
+    @Specialization(guards = "!iterator.isPSequence()")
+    Object doSequenceIteratorGeneric(PSequenceIterator iterator,
+                    @Cached("create(__GETITEM__)") LookupAndCallBinaryNode callGetItem,
+                    @Cached("createBinaryProfile()") ConditionProfile errorProfile) {
+        try {
+            return callGetItem.executeObject(iterator.getObject(), iterator.nextIndex());
+        } catch (PException e) {
+            e.expectIndexError(getCore(), errorProfile);
+            return STOP;
+        }
+    }
+
+    @Specialization
+    Object doStringIterator(PStringIterator iterator) {
+        return iterator.hasNext() ? iterator.next() : STOP;
+    }
+
+    @Specialization
+    Object doDictItemsIterator(PDictItemsIterator iterator) {
+        if (iterator.hasNext()) {
+            DictEntry entry = (DictEntry) iterator.next();
+            return factory().createTuple(new Object[]{entry.getKey(), entry.getValue()});
+        }
+        return STOP;
+    }
+
+    @Specialization
+    Object doDictKeysIterator(PDictKeysIterator iterator) {
+        return iterator.hasNext() ? iterator.next() : STOP;
+    }
+
+    @Specialization
+    Object doDictValuesIterator(PDictValuesIterator iterator) {
+        return iterator.hasNext() ? iterator.next() : STOP;
+    }
+
+    @Specialization
+    Object doSetIterator(PBaseSetIterator iterator) {
+        return iterator.hasNext() ? iterator.next() : STOP;
+    }
+
+    /**
+     * Instances of subclasses of {@code zip} may override {@code __next__}.
+     */
+    @Specialization(guards = "zip.getPythonClass().isBuiltin()")
+    Object doZip(PZip zip,
+                    @Cached("create()") GetNextOrStopNode next) {
+        Object[] iterators = zip.getIterators();
+        Object[] tupleElements = new Object[iterators.length];
+        for (int i = 0; i < iterators.length; i++) {
+            Object value = next.execute(iterators[i]);
+            if (value == STOP) {
+                return STOP;
+            }
+            tupleElements[i] = value;
+        }
+        return factory().createTuple(tupleElements);
+    }
+
+    @Fallback
+    Object doGeneric(Object iterator) {
+        if (getNextNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            getNextNode = insert(GetNextNode.create());
+        }
+        try {
+            return getNextNode.execute(iterator);
+        } catch (PException e) {
+            e.expectStopIteration(getCore(), stopIterationProfile);
+            return STOP;
+        }
+    }
+
+}
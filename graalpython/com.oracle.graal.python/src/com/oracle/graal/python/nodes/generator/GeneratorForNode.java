@@ -27,10 +27,9 @@ package com.oracle.graal.python.nodes.generator;
 
 import com.oracle.graal.python.builtins.objects.PNone;
 import com.oracle.graal.python.nodes.PNode;
-import com.oracle.graal.python.nodes.control.GetNextNode;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.nodes.control.LoopNode;
 import com.oracle.graal.python.nodes.frame.WriteNode;
-import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeCost;
@@ -42,9 +41,9 @@ public abstract class GeneratorForNode extends LoopNode implements GeneratorCont
     @Child protected PNode body;
     @Child protected WriteNode target;
     @Child protected PNode getIterator;
-    @Child protected GetNextNode getNext = GetNextNode.create();
+    @Child protected GetNextOrStopNode getNext = GetNextOrStopNode.create();
 
-    protected final ConditionProfile errorProfile = ConditionProfile.createBinaryProfile();
+    protected final ConditionProfile stopProfile = ConditionProfile.createBinaryProfile();
 
     protected final int iteratorSlot;
     private int count;
@@ -99,11 +98,8 @@ public abstract class GeneratorForNode extends LoopNode implements GeneratorCont
         while (true) {
             body.executeVoid(frame);
             Object iterator = getIterator(frame, iteratorSlot);
-            Object value;
-            try {
-                value = getNext.execute(iterator);
-            } catch (PException e) {
-                e.expectStopIteration(getCore(), errorProfile);
+            Object value = getNext.execute(iterator);
+            if (stopProfile.profile(value == GetNextOrStopNode.STOP)) {
                 break;
             }
             target.doWrite(frame, value);
@@ -134,11 +130,8 @@ public abstract class GeneratorForNode extends LoopNode implements GeneratorCont
             setIterator(frame, iteratorSlot, this.getIterator.execute(frame));
             Object iterator = getIterator(frame, iteratorSlot);
 
-            Object value;
-            try {
-                value = getNext.execute(iterator);
-            } catch (PException e) {
-                e.expectStopIteration(getCore(), errorProfile);
+            Object value = getNext.execute(iterator);
+            if (stopProfile.profile(value == GetNextOrStopNode.STOP)) {
                 return true;
             }
             target.doWrite(frame, value);
@@ -169,11 +162,8 @@ public abstract class GeneratorForNode extends LoopNode implements GeneratorCont
             setIterator(frame, iteratorSlot, iterator);
 
             iterator = getIterator(frame, iteratorSlot);
-            Object value;
-            try {
-                value = getNext.execute(iterator);
-            } catch (PException e) {
-                e.expectStopIteration(getCore(), errorProfile);
+            Object value = getNext.execute(iterator);
+            if (stopProfile.profile(value == GetNextOrStopNode.STOP)) {
                 return true;
             }
             target.doWrite(frame, value);
@@ -25,9 +25,8 @@
  */
 package com.oracle.graal.python.nodes.generator;
 
-import static com.oracle.graal.python.runtime.exception.PythonErrorType.StopIteration;
-
 import com.oracle.graal.python.nodes.PNode;
+import com.oracle.graal.python.nodes.control.GetNextOrStopNode;
 import com.oracle.graal.python.nodes.control.ReturnTargetNode;
 import com.oracle.graal.python.runtime.exception.ReturnException;
 import com.oracle.graal.python.runtime.exception.YieldException;
@@ -63,9 +62,10 @@ public final class GeneratorReturnTargetNode extends ReturnTargetNode implements
         } catch (YieldException eye) {
             return returnValue.execute(frame);
         } catch (ReturnException ire) {
-            // return statement in generators throws StopIteration.
+            // return statement in generators ends the iteration
         }
 
-        throw raise(StopIteration);
+        // the caller raises StopIteration if it needs one
+        return GetNextOrStopNode.STOP;
     }
 }
@@ -35,6 +35,10 @@ public final class StringLiteralNode extends LiteralNode {
         this.value = value;
     }
 
+    public String getValue() {
+        return value;
+    }
+
     @Override
     public Object execute(VirtualFrame frame) {
         return value;
@@ -43,20 +43,32 @@ public class ExceptNode extends StatementNode {
     @Child private PNode body;
     @Child private PNode exceptType;
     @Child private PNode exceptName;
+    /**
+     * Whether the name bound to the exception is used anywhere in its scope, or the handler's body
+     * may call other code. Only then can the exception object escape the handler's frame or be
+     * looked up from a callee, e.g. by {@code sys.exc_info()}, so its stack trace has to be
+     * materialized while that frame and its callers are still the current stack.
+     */
+    private final boolean captureStackTrace;
 
-    public ExceptNode(PNode body, PNode exceptType, PNode exceptName) {
+    public ExceptNode(PNode body, PNode exceptType, PNode exceptName, boolean captureStackTrace) {
         this.body = body;
         this.exceptName = exceptName;
         this.exceptType = exceptType;
+        this.captureStackTrace = captureStackTrace;
     }
 
     public ExceptNode(ExceptNode original) {
         this.body = original.body;
         this.exceptName = original.exceptName;
         this.exceptType = original.exceptType;
+        this.captureStackTrace = original.captureStackTrace;
     }
 
     public void executeExcept(VirtualFrame frame, PException e) {
+        if (captureStackTrace) {
+            e.getExceptionObject().reifyException();
+        }
         PythonContext context = getContext();
         if (context != null) {
             context.setCurrentException(e);
@@ -101,7 +113,6 @@ public class ExceptNode extends StatementNode {
             if (type != null) {
                 if (exceptName != null) {
                     ((WriteNode) exceptName).doWrite(frame, e.getExceptionObject());
-                    e.getExceptionObject().reifyException();
                 }
             } else {
                 return false;
@@ -52,13 +52,25 @@ public abstract class DeleteItemNode extends BinaryOpNode {
 
     @Specialization
     public Object doPList(PList primary, int index) {
-        primary.delItem(index);
+        if (isSingleThreaded()) {
+            primary.delItem(index);
+        } else {
+            synchronized (primary) {
+                primary.delItem(index);
+            }
+        }
         return PNone.NONE;
     }
 
     @Specialization
     public Object doPList(PList primary, PSlice slice) {
-        primary.delSlice(slice);
+        if (isSingleThreaded()) {
+            primary.delSlice(slice);
+        } else {
+            synchronized (primary) {
+                primary.delSlice(slice);
+            }
+        }
         return PNone.NONE;
     }
 
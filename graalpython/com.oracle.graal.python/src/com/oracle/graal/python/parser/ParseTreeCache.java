@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.zip.CRC32;
+
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+
+import com.oracle.graal.python.parser.antlr.Python3Parser;
+import com.oracle.graal.python.runtime.PythonContext;
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.PythonOptions;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * An on-disk cache of ANTLR parse trees for file sources, enabled with the
+ * {@link PythonOptions#ParseCacheDirectory} option. Entries are named after the source path and
+ * validated against the length and modification time of the source file and, if the file was
+ * touched or its time stamp is too recent to be trusted, against a hash of the source text, so a
+ * changed file is simply parsed again and its entry overwritten. The parse tree is cached rather than the Truffle AST, because translation
+ * depends on the core and language instance of the context.
+ */
+final class ParseTreeCache {
+    private static final int MAGIC = 0x47505443; // "GPTC"
+    private static final int FORMAT_VERSION = 3;
+    private static final byte KIND_RULE = 0;
+    private static final byte KIND_TOKEN = 1;
+    /**
+     * Modification times this recent are not trusted: with coarse file system time stamps, the file
+     * may be changed again without changing its time stamp.
+     */
+    private static final long RECENT_MODIFICATION_MILLIS = 2000;
+
+    private static Constructor<?>[] ruleConstructors;
+
+    private ParseTreeCache() {
+        // no instances
+    }
+
+    private static String getCacheDirectory(PythonCore core, Source source) {
+        PythonContext context = core.getContext();
+        if (context == null || source.getPath() == null || source.isInteractive()) {
+            return null;
+        }
+        String directory = PythonOptions.getOption(context, PythonOptions.ParseCacheDirectory);
+        return directory.isEmpty() ? null : directory;
+    }
+
+    private static TruffleFile getCacheFile(PythonCore core, Source source) {
+        String directory = getCacheDirectory(core, source);
+        if (directory == null) {
+            return null;
+        }
+        PythonContext context = core.getContext();
+        String path = source.getPath();
+        TruffleFile cacheDir = context.getEnv().getTruffleFile(directory);
+        if (!cacheDir.exists()) {
+            try {
+                cacheDir.createDirectory();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        String name = toHex(digest(path.getBytes(StandardCharsets.UTF_8))) + ".ptc";
+        return context.getEnv().getTruffleFile(directory + PythonCore.FILE_SEPARATOR + name);
+    }
+
+    /**
+     * Returns the modification time of the source file, or {@code -1} if it is unknown or too
+     * recent to be trusted. It has to be read before parsing: a file changed after that gets a
+     * newer time stamp than the one stored next to the tree, which was parsed from the old text.
+     */
+    @TruffleBoundary
+    static long getModificationTime(PythonCore core, Source source) {
+        if (getCacheDirectory(core, source) == null) {
+            return -1;
+        }
+        long modified = lastModified(core, source);
+        if (modified < 0 || System.currentTimeMillis() - modified < RECENT_MODIFICATION_MILLIS) {
+            return -1;
+        }
+        return modified;
+    }
+
+    /**
+     * Returns the cached parse tree for the source, or {@code null} if there is no valid entry. The
+     * source text is only hashed if {@code modified} does not match the time stored in the entry.
+     */
+    @TruffleBoundary
+    static ParserRuleContext lookup(PythonCore core, Source source, long modified) {
+        TruffleFile file = getCacheFile(core, source);
+        if (file == null || !file.exists()) {
+            return null;
+        }
+        try (InputStream in = Channels.newInputStream(file.newByteChannel(EnumSet.of(StandardOpenOption.READ)))) {
+            DataInputStream header = new DataInputStream(in);
+            if (header.readInt() != MAGIC || header.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            if (header.readInt() != source.getLength()) {
+                return null;
+            }
+            long storedModified = header.readLong();
+            byte[] hash = new byte[32];
+            header.readFully(hash);
+            // only hash the whole source if the file may have changed since the entry was written
+            if ((modified < 0 || modified != storedModified) && !Arrays.equals(hash, contentHash(source))) {
+                return null;
+            }
+            byte[] body = new byte[header.readInt()];
+            header.readFully(body);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if (header.readInt() != (int) crc.getValue()) {
+                return null;
+            }
+            return new Reader(new DataInputStream(new ByteArrayInputStream(body))).readRule(null);
+        } catch (IOException | ReflectiveOperationException | RuntimeException e) {
+            // a stale or corrupt entry is no worse than a missing one
+            return null;
+        }
+    }
+
+    /**
+     * Writes the entry for a tree parsed from {@code source}, which was read no earlier than
+     * {@code modified} was taken with {@link #getModificationTime}.
+     */
+    @TruffleBoundary
+    static void store(PythonCore core, Source source, ParserRuleContext tree, long modified) {
+        TruffleFile file = getCacheFile(core, source);
+        if (file == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            if (!new Writer(new DataOutputStream(body)).writeTree(tree)) {
+                return;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(body.toByteArray());
+            try (OutputStream out = Channels.newOutputStream(
+                            file.newByteChannel(EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)))) {
+                DataOutputStream data = new DataOutputStream(out);
+                data.writeInt(MAGIC);
+                data.writeInt(FORMAT_VERSION);
+                data.writeInt(source.getLength());
+                data.writeLong(modified);
+                data.write(contentHash(source));
+                data.writeInt(body.size());
+                body.writeTo(data);
+                data.writeInt((int) crc.getValue());
+                data.flush();
+            }
+        } catch (IOException | SecurityException e) {
+            // caching is best effort
+        }
+    }
+
+    /**
+     * Returns the modification time of the source file in milliseconds, or {@code -1} if it is
+     * unknown.
+     */
+    private static long lastModified(PythonCore core, Source source) {
+        try {
+            return core.getContext().getEnv().getTruffleFile(source.getPath()).getLastModifiedTime().toMillis();
+        } catch (IOException | SecurityException | UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    private static byte[] contentHash(Source source) {
+        return digest(source.getCharacters().toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] digest(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static Constructor<?> getRuleConstructor(int ruleIndex) throws ReflectiveOperationException {
+        if (ruleConstructors == null) {
+            String[] ruleNames = Python3Parser.ruleNames;
+            Constructor<?>[] constructors = new Constructor<?>[ruleNames.length];
+            for (int i = 0; i < ruleNames.length; i++) {
+                String name = ruleNames[i];
+                String className = Python3Parser.class.getName() + "$" + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "Context";
+                constructors[i] = Class.forName(className).getConstructor(ParserRuleContext.class, int.class);
+            }
+            ruleConstructors = constructors;
+        }
+        return ruleConstructors[ruleIndex];
+    }
+
+    /**
+     * Writes the tree in pre-order. Tokens are written in full on their first occurrence and by
+     * index afterwards, since rule contexts refer to their start and stop tokens as well.
+     */
+    private static final class Writer {
+        private final DataOutputStream out;
+        private final IdentityHashMap<Token, Integer> tokens = new IdentityHashMap<>();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        boolean writeTree(ParseTree tree) throws IOException {
+            if (tree instanceof ErrorNode) {
+                return false;
+            } else if (tree instanceof TerminalNode) {
+                out.writeByte(KIND_TOKEN);
+                writeToken(((TerminalNode) tree).getSymbol());
+                return true;
+            }
+            ParserRuleContext ctx = (ParserRuleContext) tree;
+            out.writeByte(KIND_RULE);
+            out.writeShort(ctx.getRuleIndex());
+            out.writeInt(ctx.invokingState);
+            writeToken(ctx.start);
+            writeToken(ctx.stop);
+            int count = ctx.getChildCount();
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                if (!writeTree(ctx.getChild(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void writeToken(Token token) throws IOException {
+            if (token == null) {
+                out.writeInt(-1);
+                return;
+            }
+            Integer index = tokens.get(token);
+            if (index != null) {
+                out.writeInt(index);
+                return;
+            }
+            out.writeInt(tokens.size());
+            tokens.put(token, tokens.size());
+            out.writeInt(token.getType());
+            out.writeInt(token.getLine());
+            out.writeInt(token.getCharPositionInLine());
+            out.writeInt(token.getChannel());
+            out.writeInt(token.getStartIndex());
+            out.writeInt(token.getStopIndex());
+            out.writeInt(token.getTokenIndex());
+            String text = token.getText();
+            out.writeBoolean(text != null);
+            if (text != null) {
+                byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+        private final ArrayList<Token> tokens = new ArrayList<>();
+
+        Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        ParserRuleContext readRule(ParserRuleContext parent) throws IOException, ReflectiveOperationException {
+            if (in.readByte() != KIND_RULE) {
+                throw new IOException("expected a rule");
+            }
+            return readRuleBody(parent);
+        }
+
+        private ParserRuleContext readRuleBody(ParserRuleContext parent) throws IOException, ReflectiveOperationException {
+            int ruleIndex = in.readShort();
+            int invokingState = in.readInt();
+            ParserRuleContext ctx = (ParserRuleContext) getRuleConstructor(ruleIndex).newInstance(parent, invokingState);
+            ctx.start = readToken();
+            ctx.stop = readToken();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                byte kind = in.readByte();
+                if (kind == KIND_RULE) {
+                    ctx.addAnyChild(readRuleBody(ctx));
+                } else {
+                    TerminalNodeImpl node = new TerminalNodeImpl(readToken());
+                    node.parent = ctx;
+                    ctx.addAnyChild(node);
+                }
+            }
+            return ctx;
+        }
+
+        private Token readToken() throws IOException {
+            int index = in.readInt();
+            if (index < 0) {
+                return null;
+            } else if (index < tokens.size()) {
+                return tokens.get(index);
+            } else if (index != tokens.size()) {
+                throw new IOException("invalid token index");
+            }
+            CommonToken token = new CommonToken(in.readInt());
+            token.setLine(in.readInt());
+            token.setCharPositionInLine(in.readInt());
+            token.setChannel(in.readInt());
+            token.setStartIndex(in.readInt());
+            token.setStopIndex(in.readInt());
+            token.setTokenIndex(in.readInt());
+            if (in.readBoolean()) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                token.setText(new String(bytes, StandardCharsets.UTF_8));
+            }
+            tokens.add(token);
+            return token;
+        }
+    }
+}
@@ -105,6 +105,9 @@ import com.oracle.truffle.api.source.SourceSection;
 
 public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Object> {
 
+    /** Names through which code may read the locals of a frame without naming them. */
+    private static final Set<String> DYNAMIC_LOCALS_ACCESS = new HashSet<>(Arrays.asList("locals", "vars", "eval", "exec", "_getframe"));
+
     protected final PythonCore core;
     protected final NodeFactory factory;
     protected final TranslationEnvironment environment;
@@ -1257,6 +1260,7 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
                 Python3Parser.Except_clauseContext excctx = (Python3Parser.Except_clauseContext) child;
                 PNode exceptType = null;
                 PNode exceptName = null;
+                boolean exceptNameUsed = false;
                 if (excctx.test() != null) {
                     if (gotDefaultExcept) {
                         throw core.raise(SyntaxError, "default except: must be last");
@@ -1264,12 +1268,14 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
                     exceptType = (PNode) excctx.test().accept(this);
                     if (excctx.NAME() != null) {
                         exceptName = environment.findVariable(excctx.NAME().getText()).makeWriteNode(null);
+                        exceptNameUsed = isExceptNameUsed(excctx);
                     }
                 } else {
                     gotDefaultExcept = true;
                 }
+                boolean captureStackTrace = exceptNameUsed || mayCall(ctx.getChild(i));
                 PNode exceptBody = asBlockOrPNode(ctx.getChild(i).accept(this));
-                exceptClauses.add(new ExceptNode(exceptBody, exceptType, exceptName));
+                exceptClauses.add(new ExceptNode(exceptBody, exceptType, exceptName, captureStackTrace));
                 i += 1;
                 continue;
             }
@@ -1289,6 +1295,60 @@ public abstract class PythonBaseTreeTranslator<T> extends Python3BaseVisitor<Obj
         return factory.createTryExceptElseFinallyNode(tryNode, exceptClauses.toArray(new ExceptNode[0]), elseNode, finallyNode);
     }
 
+    /**
+     * Checks whether the name bound by an except clause occurs anywhere else in its scope, or
+     * whether the scope may access its locals dynamically. If not, the caught exception cannot
+     * escape the handler, and its stack trace need not be captured when it is caught.
+     */
+    private static boolean isExceptNameUsed(Python3Parser.Except_clauseContext clause) {
+        ParserRuleContext scope = clause;
+        while (scope.getParent() != null && !(scope instanceof Python3Parser.FuncdefContext) && !(scope instanceof Python3Parser.ClassdefContext)) {
+            scope = scope.getParent();
+        }
+        return containsNameUse(scope, clause.NAME().getText());
+    }
+
+    private static boolean containsNameUse(ParseTree tree, String name) {
+        if (tree instanceof TerminalNode) {
+            if (((TerminalNode) tree).getSymbol().getType() != Python3Parser.NAME) {
+                return false;
+            }
+            String text = tree.getText();
+            if (text.equals(name)) {
+                return !(tree.getParent() instanceof Python3Parser.Except_clauseContext);
+            }
+            return DYNAMIC_LOCALS_ACCESS.contains(text);
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (containsNameUse(tree.getChild(i), name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an except clause's body may run other Python code that could ask for the
+     * exception being handled, e.g. through {@code sys.exc_info()}, or suspend or chain it: calls,
+     * {@code raise}, {@code yield}, {@code await}, {@code with}, imports, decorators and class
+     * bodies. Operators and attribute accesses that end up in special methods are not considered.
+     */
+    private static boolean mayCall(ParseTree tree) {
+        if (tree instanceof TerminalNode) {
+            String text = tree.getText();
+            return (text.equals("(") && tree.getParent() instanceof Python3Parser.TrailerContext) || text.equals("await");
+        } else if (tree instanceof Python3Parser.Raise_stmtContext || tree instanceof Python3Parser.Yield_exprContext || tree instanceof Python3Parser.With_stmtContext ||
+                        tree instanceof Python3Parser.Import_stmtContext || tree instanceof Python3Parser.DecoratorContext || tree instanceof Python3Parser.ClassdefContext) {
+            return true;
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            if (mayCall(tree.getChild(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public Object visitRaise_stmt(Python3Parser.Raise_stmtContext ctx) {
         PNode type = (ctx.test().size() == 0) ? EmptyNode.create() : (PNode) ctx.test(0).accept(this);
@@ -65,7 +65,7 @@ public final class PythonParserImpl implements PythonParser {
         if (!core.isInitialized()) {
             input = cachedParseTrees.get(fileDirAndName);
             if (input == null) {
-                input = parser.file_input();
+                input = parseFileInput(core, source, parser);
                 cachedParseTrees.put(fileDirAndName, input);
             }
         } else {
@@ -73,7 +73,7 @@ public final class PythonParserImpl implements PythonParser {
                 if (source.isInteractive()) {
                     input = parser.single_input();
                 } else {
-                    input = parser.file_input();
+                    input = parseFileInput(core, source, parser);
                 }
             } catch (Throwable e) {
                 try {
@@ -103,6 +103,16 @@ public final class PythonParserImpl implements PythonParser {
         return input;
     }
 
+    private static ParserRuleContext parseFileInput(PythonCore core, Source source, Python3Parser parser) {
+        long modified = ParseTreeCache.getModificationTime(core, source);
+        ParserRuleContext input = ParseTreeCache.lookup(core, source, modified);
+        if (input == null) {
+            input = parser.file_input();
+            ParseTreeCache.store(core, source, input, modified);
+        }
+        return input;
+    }
+
     @TruffleBoundary
     private static ParserRuleContext preParseInlineWithAntlr(PythonCore core, Source source) {
         Python3Parser parser = new com.oracle.graal.python.parser.antlr.Builder.Parser(source.getCharacters().toString()).build();
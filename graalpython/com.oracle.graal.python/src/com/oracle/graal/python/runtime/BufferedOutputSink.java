@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A buffered sink in front of a standard output stream of a context. Text is encoded straight
+ * into a reused byte buffer, which is written to the underlying stream when it is full or when the
+ * sink is flushed. If the stream is interactive, the sink also flushes after every write that
+ * contains a newline, so that prompts and progress output appear line by line.
+ * <p>
+ * All writes to the stream go through this sink, both bytes and text, so that they stay ordered.
+ */
+public final class BufferedOutputSink extends OutputStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream out;
+    private final boolean interactive;
+    private final CharsetEncoder encoder;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    /** Joins the pieces of a {@link #print} call, reused across calls. */
+    private final StringBuilder line = new StringBuilder();
+
+    public BufferedOutputSink(OutputStream out, Charset charset, boolean interactive) {
+        this.out = out;
+        this.interactive = interactive;
+        this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Whether the underlying stream is a terminal, in which case the sink is line buffered.
+     */
+    public boolean isInteractive() {
+        return interactive;
+    }
+
+    /**
+     * Writes the {@code values} separated by {@code sep} and followed by {@code end}, encoding them
+     * in one go.
+     */
+    @TruffleBoundary
+    public synchronized void print(String[] values, String sep, String end) throws IOException {
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(sep);
+            }
+            line.append(values[i]);
+        }
+        line.append(end);
+        encode(line);
+        if (line.length() > BUFFER_SIZE) {
+            // do not keep a large builder alive
+            line.setLength(0);
+            line.trimToSize();
+        }
+    }
+
+    @TruffleBoundary
+    public synchronized void write(String text) throws IOException {
+        encode(text);
+    }
+
+    private void encode(CharSequence text) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(text);
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, buffer, true);
+            if (result.isOverflow()) {
+                drain();
+            }
+        } while (result.isOverflow());
+        while (encoder.flush(buffer).isOverflow()) {
+            drain();
+        }
+        if (interactive && containsNewline(text)) {
+            flush();
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public synchronized void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+        if (interactive && b == '\n') {
+            flush();
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        if (len > buffer.remaining()) {
+            drain();
+        }
+        if (len > buffer.capacity()) {
+            out.write(b, off, len);
+        } else {
+            buffer.put(b, off, len);
+        }
+        if (interactive) {
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    flush();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public synchronized void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Flushes the buffered data, but leaves the underlying stream open, since it belongs to the
+     * embedder.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void drain() throws IOException {
+        if (buffer.position() > 0) {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+
+    private static boolean containsNewline(CharSequence text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            if (text.charAt(i) == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -28,7 +28,13 @@ package com.oracle.graal.python.runtime;
 import static com.oracle.graal.python.nodes.BuiltinNames.__BUILTINS__;
 import static com.oracle.graal.python.nodes.BuiltinNames.__MAIN__;
 
+import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channel;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.graalvm.options.OptionValues;
@@ -37,9 +43,12 @@ import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.objects.common.HashingStorage;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
+import com.oracle.graal.python.builtins.objects.thread.PLock;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
 import com.oracle.graal.python.runtime.exception.PException;
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLanguage;
 
 public class PythonContext {
@@ -50,30 +59,48 @@ public class PythonContext {
 
     @CompilationFinal private TruffleLanguage.Env env;
 
-    private PException currentException;
+    /** The exception being handled, per thread, as seen by {@code sys.exc_info()}. */
+    private final ThreadLocal<PException> currentException = new ThreadLocal<>();
 
     private final ReentrantLock importLock = new ReentrantLock();
+
+    /** The number of threads started through {@code _thread} that are still running. */
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private volatile long threadStackSize = 0;
+    /** The lock handed out by {@code _thread._set_sentinel()}, released when the thread ends. */
+    private final ThreadLocal<PLock> sentinelLock = new ThreadLocal<>();
     @CompilationFinal private boolean isInitialized = false;
 
     @CompilationFinal private PythonModule builtinsModule;
+    private Map<String, PythonModule> builtinModules;
     @CompilationFinal private PDict sysModules;
 
-    private OutputStream out;
+    private BufferedOutputSink out;
     private OutputStream err;
+    /** The channels over the standard streams, created on first use. */
+    private final Channel[] standardChannels = new Channel[3];
     @CompilationFinal private boolean capiWasLoaded = false;
 
     @CompilationFinal private HashingStorage.Equivalence slowPathEquivalence;
+    /**
+     * With a shared core, the context's copies of the exception classes, see
+     * {@link PythonCore#getErrorClass}.
+     */
+    @CompilationFinal(dimensions = 1) private PythonClass[] errorClasses;
+    /** The type feedback of the engine, {@code null} unless its instrument is enabled. */
+    @CompilationFinal private TypeFeedback typeFeedback;
 
     public PythonContext(PythonLanguage language, TruffleLanguage.Env env, PythonCore core) {
         this.language = language;
         this.core = core;
         this.env = env;
         if (env == null) {
-            this.out = System.out;
+            this.out = createSink(System.out);
             this.err = System.err;
         } else {
-            this.out = env.out();
+            this.out = createSink(env.out());
             this.err = env.err();
+            this.typeFeedback = TypeFeedback.lookup(env);
         }
     }
 
@@ -89,6 +116,28 @@ public class PythonContext {
         return importLock;
     }
 
+    public AtomicInteger getThreadCount() {
+        return threadCount;
+    }
+
+    public long getThreadStackSize() {
+        return threadStackSize;
+    }
+
+    public void setThreadStackSize(long size) {
+        threadStackSize = size;
+    }
+
+    @TruffleBoundary
+    public PLock getSentinelLock() {
+        return sentinelLock.get();
+    }
+
+    @TruffleBoundary
+    public void setSentinelLock(PLock lock) {
+        sentinelLock.set(lock);
+    }
+
     public PDict getImportedModules() {
         return sysModules;
     }
@@ -101,6 +150,16 @@ public class PythonContext {
         return builtinsModule;
     }
 
+    /**
+     * Look up the builtin module with the given name as seen by this context. Unlike
+     * {@link PythonCore#lookupBuiltinModule(String)}, this never returns a module shared with other
+     * contexts.
+     */
+    @TruffleBoundary
+    public PythonModule lookupBuiltinModule(String name) {
+        return builtinModules.get(name);
+    }
+
     public PythonModule createMainModule(String path) {
         mainModule = core.factory().createPythonModule(__MAIN__, path);
         mainModule.setAttribute(__BUILTINS__, sysModules.getItem("builtins"));
@@ -115,6 +174,8 @@ public class PythonContext {
     public void setEnv(TruffleLanguage.Env newEnv) {
         CompilerDirectives.transferToInterpreterAndInvalidate();
         env = newEnv;
+        typeFeedback = TypeFeedback.lookup(newEnv);
+        standardChannels[0] = null;
     }
 
     public PythonModule getMainModule() {
@@ -133,28 +194,93 @@ public class PythonContext {
         return core;
     }
 
+    public PythonClass[] getErrorClasses() {
+        return errorClasses;
+    }
+
+    public void setErrorClasses(PythonClass[] errorClasses) {
+        this.errorClasses = errorClasses;
+    }
+
+    public TypeFeedback getTypeFeedback() {
+        return typeFeedback;
+    }
+
     public OutputStream getStandardErr() {
         return err;
     }
 
-    public OutputStream getStandardOut() {
+    public BufferedOutputSink getStandardOut() {
         return out;
     }
 
     public void setOut(OutputStream out) {
-        this.out = out;
+        flushStandardStreams();
+        this.out = createSink(out);
+        standardChannels[1] = null;
+    }
+
+    /**
+     * Only the embedder knows whether the stream it configured is a terminal, the console of the
+     * JVM says nothing about it, so line buffering is decided by an option.
+     */
+    @TruffleBoundary
+    private BufferedOutputSink createSink(OutputStream stream) {
+        boolean terminal = env != null && env.getOptions().get(PythonOptions.StdoutIsTerminal);
+        return new BufferedOutputSink(stream, Charset.defaultCharset(), terminal);
+    }
+
+    /**
+     * Writes out everything buffered for the standard streams. This happens when a top-level
+     * evaluation finishes and when the context is finalized.
+     */
+    @TruffleBoundary
+    public void flushStandardStreams() {
+        try {
+            out.flush();
+            err.flush();
+        } catch (IOException e) {
+            // the embedder's streams are gone, there is no one left to tell
+        }
     }
 
     public void setErr(OutputStream err) {
         this.err = err;
+        standardChannels[2] = null;
     }
 
+    /**
+     * Returns the channel over standard input, output or error. It is created once per stream, so
+     * that every {@code open()} of a standard file descriptor shares it.
+     */
+    @TruffleBoundary
+    public Channel getStandardChannel(int fd) {
+        Channel channel = standardChannels[fd];
+        if (channel == null) {
+            switch (fd) {
+                case 0:
+                    channel = Channels.newChannel(env.in());
+                    break;
+                case 1:
+                    channel = Channels.newChannel(out);
+                    break;
+                default:
+                    channel = Channels.newChannel(err);
+                    break;
+            }
+            standardChannels[fd] = channel;
+        }
+        return channel;
+    }
+
+    @TruffleBoundary
     public void setCurrentException(PException e) {
-        currentException = e;
+        currentException.set(e);
     }
 
+    @TruffleBoundary
     public PException getCurrentException() {
-        return currentException;
+        return currentException.get();
     }
 
     public boolean isInitialized() {
@@ -166,13 +292,26 @@ public class PythonContext {
             core.setSingletonContext(this);
         }
 
-        PythonModule sysModule = core.createSysModule(this);
-        sysModules = (PDict) sysModule.getAttribute("modules");
-        builtinsModule = (PythonModule) sysModules.getItem("builtins");
-
+        setBuiltinModules(core.createBuiltinModules(this));
         isInitialized = true;
     }
 
+    /**
+     * Lets the first context of a shared core run on the shared builtin modules, so that the core
+     * library is loaded into them. {@link #initialize()} then gives the context its own copies.
+     */
+    public void useSharedBuiltinModules() {
+        assert PythonOptions.getOption(this, PythonOptions.SharedCore) && !core.isInitialized();
+        setBuiltinModules(core.createBuiltinModules(this));
+    }
+
+    private void setBuiltinModules(Map<String, PythonModule> modules) {
+        builtinModules = modules;
+        PythonModule sysModule = builtinModules.get("sys");
+        sysModules = (PDict) sysModule.getAttribute("modules");
+        builtinsModule = builtinModules.get("builtins");
+    }
+
     public boolean capiWasLoaded() {
         return this.capiWasLoaded;
     }
@@ -27,6 +27,7 @@ package com.oracle.graal.python.runtime;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
@@ -109,7 +110,17 @@ public interface PythonCore {
 
     public PythonParser getParser();
 
-    public PythonModule createSysModule(PythonContext context);
+    /**
+     * Create the builtin modules as seen by the given context, keyed by module name. When the
+     * core is shared between contexts, each context gets its own copies of the modules once the
+     * core library has been loaded, so that the shared core stays immutable.
+     */
+    public Map<String, PythonModule> createBuiltinModules(PythonContext context);
+
+    /**
+     * Export the C API symbols of the given context to the polyglot environment.
+     */
+    public void exportCInterface(PythonContext context);
 
     public PException getCurrentException();
 
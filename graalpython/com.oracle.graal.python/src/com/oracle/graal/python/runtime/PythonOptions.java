@@ -45,9 +45,6 @@ public final class PythonOptions {
     @Option(category = OptionCategory.DEBUG, help = "Print the java stacktrace if enabled") //
     public static final OptionKey<Boolean> WithJavaStacktrace = new OptionKey<>(false);
 
-    @Option(category = OptionCategory.DEBUG, help = "Share the core library between all contexts of an engine.") //
-    public static final OptionKey<Boolean> SharedCore = new OptionKey<>(false);
-
     @Option(category = OptionCategory.DEBUG, help = "") //
     public static final OptionKey<Boolean> TraceSequenceStorageGeneralization = new OptionKey<>(false);
 
@@ -72,6 +69,9 @@ public final class PythonOptions {
     @Option(category = OptionCategory.DEBUG, help = "") //
     public static final OptionKey<Integer> VariableArgumentInlineCacheLimit = new OptionKey<>(3);
 
+    @Option(category = OptionCategory.EXPERT, help = "The minimal length of the left operand of a string concatenation that produces a lazy string instead of copying both operands.") //
+    public static final OptionKey<Integer> LazyStringMinLength = new OptionKey<>(1024);
+
     @Option(category = OptionCategory.DEBUG, help = "") //
     public static final OptionKey<Boolean> InlineGeneratorCalls = new OptionKey<>(true);
 
@@ -90,9 +90,18 @@ public final class PythonOptions {
     @Option(category = OptionCategory.USER, help = "Set the location of lib-python/3. Overrides any environment variables or Java options.") //
     public static final OptionKey<String> StdLibHome = new OptionKey<>("");
 
+    @Option(category = OptionCategory.USER, help = "Set a directory in which parse trees of source files are cached across runs. Caching is disabled if empty.") //
+    public static final OptionKey<String> ParseCacheDirectory = new OptionKey<>("");
+
+    @Option(category = OptionCategory.EXPERT, help = "Share the builtin types and the loaded core library between all contexts of an engine. Each context still gets its own copies of the builtin modules.") //
+    public static final OptionKey<Boolean> SharedCore = new OptionKey<>(false);
+
     @Option(category = OptionCategory.EXPERT, help = "This option is set by the Python launcher to tell the language it can print exceptions directly") //
     public static final OptionKey<Boolean> AlwaysRunExcepthook = new OptionKey<>(false);
 
+    @Option(category = OptionCategory.EXPERT, help = "Set by the Python launcher if the standard output it passes to the context is a terminal. Standard output is then line buffered and os.isatty(1) is true.") //
+    public static final OptionKey<Boolean> StdoutIsTerminal = new OptionKey<>(false);
+
     @Option(category = OptionCategory.USER, help = "") //
     public static final OptionKey<Boolean> PythonInspectFlag = new OptionKey<>(false);
 
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.oracle.graal.python.builtins.objects.function.PythonCallable;
+import com.oracle.graal.python.builtins.objects.type.PythonClass;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.InstrumentInfo;
+import com.oracle.truffle.api.TruffleLanguage.Env;
+import com.oracle.truffle.api.nodes.Node;
+
+/**
+ * Records the receivers that reach the megamorphic (generic) specialization of an inline cache,
+ * for tools that report which sites exceeded their cache limit. The type feedback instrument
+ * registers an instance as a service of its engine while it is enabled, and each context looks it
+ * up through {@link #lookup(Env)}. Without the instrument there is no instance, so nodes that cache
+ * {@link PythonContext#getTypeFeedback()} fold the recording away in compiled code.
+ */
+public final class TypeFeedback {
+
+    /** The id of the instrument that provides this service. */
+    public static final String INSTRUMENT_ID = "python-typefeedback";
+
+    private static final int MAX_RECEIVERS_PER_SITE = 16;
+
+    private final Map<Node, Set<String>> receivers = new WeakHashMap<>();
+
+    /**
+     * Returns the type feedback of the engine {@code env} belongs to, or {@code null} if the
+     * instrument is not enabled there.
+     */
+    @TruffleBoundary
+    public static TypeFeedback lookup(Env env) {
+        InstrumentInfo info = env.getInstruments().get(INSTRUMENT_ID);
+        return info == null ? null : env.lookup(info, TypeFeedback.class);
+    }
+
+    /**
+     * Remembers that {@code receiver} (a class or callable) reached the generic case of
+     * {@code site}.
+     */
+    @TruffleBoundary
+    public void recordReceiver(Node site, Object receiver) {
+        String name;
+        if (receiver instanceof PythonClass) {
+            name = ((PythonClass) receiver).getName();
+        } else if (receiver instanceof PythonCallable) {
+            name = ((PythonCallable) receiver).getName();
+        } else {
+            name = receiver.getClass().getSimpleName();
+        }
+        synchronized (receivers) {
+            Set<String> names = receivers.get(site);
+            if (names == null) {
+                names = new LinkedHashSet<>();
+                receivers.put(site, names);
+            }
+            if (names.size() < MAX_RECEIVERS_PER_SITE) {
+                names.add(name);
+            }
+        }
+    }
+
+    /**
+     * Returns the receivers recorded for {@code site} so far, at most
+     * {@value #MAX_RECEIVERS_PER_SITE}.
+     */
+    @TruffleBoundary
+    public Set<String> getReceivers(Node site) {
+        synchronized (receivers) {
+            Set<String> names = receivers.get(site);
+            return names == null ? Collections.emptySet() : new LinkedHashSet<>(names);
+        }
+    }
+}
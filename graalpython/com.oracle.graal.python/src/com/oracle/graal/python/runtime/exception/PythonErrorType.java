@@ -30,8 +30,10 @@ public enum PythonErrorType {
     AssertionError,
     AttributeError,
     BaseException,
+    BufferError,
     BytesWarning,
     DeprecationWarning,
+    EOFError,
     Exception,
     FloatingPointError,
     IOError,
@@ -87,6 +87,42 @@ public class FloatFormatter extends InternalFormat.Formatter {
         return Math.max(spec.width + 1, spec.getPrecision(6) + 11);
     }
 
+    /**
+     * Formats a float according to a parsed {@code __format__} specification. Without a type and
+     * precision, the result is the shortest repr of the value, padded as specified.
+     *
+     * @param forType the type name to report for an unknown presentation type
+     * @return the formatted and padded result
+     */
+    @TruffleBoundary
+    public static String formatNumber(PythonCore core, Spec spec, double value, String forType) {
+        switch (spec.type) {
+            case 'n':
+                if (spec.grouping) {
+                    throw new FloatFormatter(core, spec).notAllowed("Grouping", "float", spec.type);
+                }
+                // fall through
+            case Spec.NONE:
+            case 'e':
+            case 'f':
+            case 'g':
+            case 'E':
+            case 'F':
+            case 'G':
+            case '%':
+                break;
+            default:
+                throw new FloatFormatter(core, spec).unknownFormat(spec.type, forType);
+        }
+        Spec s = spec.withDefaults(Spec.NUMERIC);
+        if (s.type == Spec.NONE && !Spec.specified(s.precision)) {
+            s = new Spec(s.fill, s.align, s.sign, s.alternate, s.width, s.grouping, s.precision, 'r');
+        }
+        FloatFormatter f = new FloatFormatter(core, s);
+        f.format(value);
+        return f.pad().getResult();
+    }
+
     /**
      * Override the default truncation behaviour for the specification originally supplied. Some
      * formats remove trailing zero digits, trimming to zero or one. Set member
@@ -584,6 +584,51 @@ public class IntegerFormatter extends InternalFormat.Formatter {
         return signum < 0 ? "-" + result : result;
     }
 
+    /**
+     * Formats an integer according to a parsed {@code __format__} specification. The float
+     * presentation types format the value converted to a float.
+     *
+     * @param value an {@link Integer}, {@link Long} or {@link BigInteger}
+     * @return the formatted and padded result
+     */
+    @TruffleBoundary
+    public static String formatNumber(PythonCore core, Spec spec, Number value) {
+        switch (spec.type) {
+            case 'c':
+                if (Spec.specified(spec.sign)) {
+                    throw new IntegerFormatter(core, spec).signNotAllowed("integer", spec.type);
+                } else if (spec.alternate) {
+                    throw new IntegerFormatter(core, spec).alternateFormNotAllowed("integer", spec.type);
+                }
+                // fall through
+            case 'x':
+            case 'X':
+            case 'o':
+            case 'b':
+            case 'n':
+                if (spec.grouping) {
+                    throw new IntegerFormatter(core, spec).notAllowed("Grouping", "integer", spec.type);
+                }
+                // fall through
+            case Spec.NONE:
+            case 'd':
+                if (Spec.specified(spec.precision)) {
+                    throw new IntegerFormatter(core, spec).precisionNotAllowed("integer");
+                }
+                IntegerFormatter f = new IntegerFormatter(core, spec.withDefaults(Spec.NUMERIC));
+                if (value instanceof BigInteger) {
+                    f.format((BigInteger) value);
+                } else if (value.longValue() == value.intValue()) {
+                    f.format(value.intValue());
+                } else {
+                    f.format(BigInteger.valueOf(value.longValue()));
+                }
+                return f.pad().getResult();
+            default:
+                return FloatFormatter.formatNumber(core, spec, value.doubleValue(), "int");
+        }
+    }
+
     /**
      * A minor variation on {@link IntegerFormatter} to handle "traditional" %-formatting. The
      * difference is in support for <code>spec.precision</code>, the formatting octal in "alternate"
@@ -15,6 +15,7 @@ import com.oracle.graal.python.builtins.objects.str.PString;
 import com.oracle.graal.python.nodes.truffle.PythonTypesUtil;
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.exception.PException;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 //Copyright (c) Jython Developers
 
@@ -26,6 +27,7 @@ public class InternalFormat {
      * @param text to parse
      * @return parsed equivalent to text
      */
+    @TruffleBoundary
     public static Spec fromText(PythonCore core, String text) {
         Parser parser = new Parser(text);
         try {
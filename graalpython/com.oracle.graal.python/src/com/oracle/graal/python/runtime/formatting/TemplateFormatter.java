@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates.
+ *
+ * The Universal Permissive License (UPL), Version 1.0
+ *
+ * Subject to the condition set forth below, permission is hereby granted to any
+ * person obtaining a copy of this software, associated documentation and/or data
+ * (collectively the "Software"), free of charge and under any and all copyright
+ * rights in the Software, and any and all patent rights owned or freely
+ * licensable by each licensor hereunder covering either (i) the unmodified
+ * Software as contributed to or provided by such licensor, or (ii) the Larger
+ * Works (as defined below), to deal in both
+ *
+ * (a) the Software, and
+ * (b) any piece of software and/or hardware listed in the lrgrwrks.txt file if
+ *     one is included with the Software (each a "Larger Work" to which the
+ *     Software is contributed by such licensors),
+ *
+ * without restriction, including without limitation the rights to copy, create
+ * derivative works of, display, perform, and distribute the Software and make,
+ * use, sell, offer for sale, import, export, have made, and have sold the
+ * Software and the Larger Work(s), and to sublicense the foregoing rights on
+ * either these or other terms.
+ *
+ * This license is subject to the following condition:
+ *
+ * The above copyright notice and either this complete permission notice or at a
+ * minimum a reference to the UPL must be included in all copies or substantial
+ * portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.oracle.graal.python.runtime.formatting;
+
+import static com.oracle.graal.python.runtime.exception.PythonErrorType.ValueError;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.oracle.graal.python.runtime.PythonCore;
+import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * A {@code str.format} template, parsed once into the literal text between the replacement
+ * fields and a description of each field. Automatic field numbers are resolved while parsing, so
+ * rendering a template only has to look up the arguments, convert and format them. Rendering is
+ * left to the caller, which owns the nodes for attribute access, item access and
+ * {@code __format__} calls.
+ */
+public final class TemplateFormatter {
+    private static final int MAX_RECURSION = 2;
+
+    /** The literal text before each field, and after the last one. */
+    @CompilationFinal(dimensions = 1) private final String[] literals;
+    @CompilationFinal(dimensions = 1) private final Field[] fields;
+
+    private TemplateFormatter(String[] literals, Field[] fields) {
+        assert literals.length == fields.length + 1;
+        this.literals = literals;
+        this.fields = fields;
+    }
+
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    public Field getField(int i) {
+        return fields[i];
+    }
+
+    public String getLiteral(int i) {
+        return literals[i];
+    }
+
+    /**
+     * Parses a format string, raising a {@code ValueError} if it is malformed.
+     */
+    @TruffleBoundary
+    public static TemplateFormatter parse(PythonCore core, String template) {
+        return new Parser(core, template).parse(0, template.length(), MAX_RECURSION);
+    }
+
+    /**
+     * A replacement field. The argument is either positional ({@link #getIndex()} is not negative)
+     * or a keyword argument, followed by a chain of attribute and item lookups.
+     */
+    public static final class Field {
+        private final int index;
+        private final String keyword;
+        @CompilationFinal(dimensions = 1) private final Object[] lookupKeys;
+        @CompilationFinal(dimensions = 1) private final boolean[] attributeLookups;
+        private final String lookupError;
+        private final char conversion;
+        private final String spec;
+        private final TemplateFormatter nestedSpec;
+        private Spec parsedSpec;
+
+        Field(int index, String keyword, Object[] lookupKeys, boolean[] attributeLookups, String lookupError, char conversion, String spec, TemplateFormatter nestedSpec) {
+            this.index = index;
+            this.keyword = keyword;
+            this.lookupKeys = lookupKeys;
+            this.attributeLookups = attributeLookups;
+            this.lookupError = lookupError;
+            this.conversion = conversion;
+            this.spec = spec;
+            this.nestedSpec = nestedSpec;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        public int getLookupCount() {
+            return lookupKeys.length;
+        }
+
+        /**
+         * The attribute name, or the item key as a {@link String} or an {@link Integer}.
+         */
+        public Object getLookupKey(int i) {
+            return lookupKeys[i];
+        }
+
+        public boolean isAttributeLookup(int i) {
+            return attributeLookups[i];
+        }
+
+        /**
+         * The message of the {@code ValueError} to raise after the lookups, if the field name is
+         * malformed after them. Like CPython, the argument and the valid part of the field name
+         * are looked up first.
+         */
+        public String getLookupError() {
+            return lookupError;
+        }
+
+        /**
+         * One of {@code 'r'}, {@code 's'}, {@code 'a'}, or {@code 0} if there is no conversion.
+         */
+        public char getConversion() {
+            return conversion;
+        }
+
+        /**
+         * The format spec, or {@code null} if it contains replacement fields itself.
+         */
+        public String getSpec() {
+            return spec;
+        }
+
+        public TemplateFormatter getNestedSpec() {
+            return nestedSpec;
+        }
+
+        /**
+         * Returns the parsed form of the constant format spec of this field, for formatting the
+         * builtin types directly.
+         */
+        public Spec getParsedSpec(PythonCore core) {
+            assert spec != null;
+            Spec result = parsedSpec;
+            if (result == null) {
+                result = InternalFormat.fromText(core, spec);
+                parsedSpec = result;
+            }
+            return result;
+        }
+    }
+
+    private static final class Parser {
+        private static final int NUMBERING_INIT = 0;
+        private static final int NUMBERING_AUTO = 1;
+        private static final int NUMBERING_MANUAL = 2;
+
+        private final PythonCore core;
+        private final String s;
+        private int numbering = NUMBERING_INIT;
+        private int nextIndex;
+
+        Parser(PythonCore core, String template) {
+            this.core = core;
+            this.s = template;
+        }
+
+        TemplateFormatter parse(int start, int end, int level) {
+            if (level == 0) {
+                throw core.raise(ValueError, "Max string recursion exceeded");
+            }
+            List<String> literals = new ArrayList<>();
+            List<Field> fields = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i = start;
+            while (i < end) {
+                char c = s.charAt(i++);
+                if (c == '}') {
+                    if (i == end || s.charAt(i) != '}') {
+                        throw core.raise(ValueError, "Single '}' encountered in format string");
+                    }
+                    literal.append('}');
+                    i++;
+                } else if (c == '{') {
+                    if (i == end) {
+                        throw core.raise(ValueError, "Single '{' encountered in format string");
+                    }
+                    if (s.charAt(i) == '{') {
+                        literal.append('{');
+                        i++;
+                        continue;
+                    }
+                    int fieldStart = i;
+                    int nested = 1;
+                    boolean recursive = false;
+                    while (i < end) {
+                        c = s.charAt(i);
+                        if (c == '{') {
+                            recursive = true;
+                            nested++;
+                        } else if (c == '}') {
+                            if (--nested == 0) {
+                                break;
+                            }
+                        } else if (c == '[') {
+                            // item keys may contain braces
+                            i++;
+                            while (i < end && s.charAt(i) != ']') {
+                                i++;
+                            }
+                            continue;
+                        }
+                        i++;
+                    }
+                    if (nested != 0) {
+                        throw core.raise(ValueError, "expected '}' before end of string");
+                    }
+                    literals.add(literal.toString());
+                    literal.setLength(0);
+                    fields.add(parseField(fieldStart, i, recursive, level));
+                    i++;
+                } else {
+                    literal.append(c);
+                }
+            }
+            literals.add(literal.toString());
+            return new TemplateFormatter(literals.toArray(new String[literals.size()]), fields.toArray(new Field[fields.size()]));
+        }
+
+        private Field parseField(int start, int end, boolean recursive, int level) {
+            int i = start;
+            while (i < end) {
+                char c = s.charAt(i);
+                if (c == ':' || c == '!') {
+                    break;
+                } else if (c == '[') {
+                    while (i + 1 < end && s.charAt(i + 1) != ']') {
+                        i++;
+                    }
+                } else if (c == '{') {
+                    throw core.raise(ValueError, "unexpected '{' in field name");
+                }
+                i++;
+            }
+            int nameEnd = i;
+            char conversion = 0;
+            if (i < end && s.charAt(i) == '!') {
+                i++;
+                if (i == end) {
+                    throw core.raise(ValueError, "end of string while looking for conversion specifier");
+                }
+                conversion = s.charAt(i++);
+                if (conversion != 'r' && conversion != 's' && conversion != 'a') {
+                    throw core.raise(ValueError, "Unknown conversion specifier %c", conversion);
+                }
+                if (i < end && s.charAt(i) != ':') {
+                    throw core.raise(ValueError, "expected ':' after conversion specifier");
+                }
+            }
+            if (i < end) {
+                // skip the ':'
+                i++;
+            }
+
+            // the argument of this field is numbered before the fields in its spec
+            int firstEnd = start;
+            while (firstEnd < nameEnd && s.charAt(firstEnd) != '.' && s.charAt(firstEnd) != '[') {
+                firstEnd++;
+            }
+            int index = -1;
+            String keyword = null;
+            if (firstEnd == start) {
+                index = nextAutoIndex();
+            } else if (isDigits(start, firstEnd)) {
+                index = manualIndex(start, firstEnd);
+            } else {
+                keyword = s.substring(start, firstEnd);
+            }
+
+            List<Object> keys = new ArrayList<>();
+            List<Boolean> attributes = new ArrayList<>();
+            String lookupError = parseLookups(firstEnd, nameEnd, keys, attributes);
+            boolean[] attributeLookups = new boolean[attributes.size()];
+            for (int j = 0; j < attributeLookups.length; j++) {
+                attributeLookups[j] = attributes.get(j);
+            }
+
+            if (recursive) {
+                return new Field(index, keyword, keys.toArray(), attributeLookups, lookupError, conversion, null, parse(i, end, level - 1));
+            }
+            return new Field(index, keyword, keys.toArray(), attributeLookups, lookupError, conversion, s.substring(i, end), null);
+        }
+
+        /**
+         * Parses the attribute and item lookups of a field name, returning the error message if
+         * the name is malformed, or {@code null}.
+         */
+        private String parseLookups(int start, int end, List<Object> keys, List<Boolean> attributes) {
+            int i = start;
+            while (i < end) {
+                char c = s.charAt(i++);
+                int keyStart = i;
+                if (c == '.') {
+                    while (i < end && s.charAt(i) != '.' && s.charAt(i) != '[') {
+                        i++;
+                    }
+                    if (keyStart == i) {
+                        return "Empty attribute in format string";
+                    }
+                    keys.add(s.substring(keyStart, i));
+                    attributes.add(true);
+                } else if (c == '[') {
+                    while (i < end && s.charAt(i) != ']') {
+                        i++;
+                    }
+                    if (i == end) {
+                        return "Missing ']' in format string";
+                    }
+                    if (keyStart == i) {
+                        return "Empty attribute in format string";
+                    }
+                    keys.add(isDigits(keyStart, i) ? (Object) parseIndex(keyStart, i) : s.substring(keyStart, i));
+                    attributes.add(false);
+                    // skip the ']'
+                    i++;
+                } else {
+                    return "Only '.' or '[' may follow ']' in format field specifier";
+                }
+            }
+            return null;
+        }
+
+        private int nextAutoIndex() {
+            if (numbering == NUMBERING_MANUAL) {
+                throw core.raise(ValueError, "cannot switch from manual field specification to automatic field numbering");
+            }
+            numbering = NUMBERING_AUTO;
+            return nextIndex++;
+        }
+
+        private int manualIndex(int start, int end) {
+            if (numbering == NUMBERING_AUTO) {
+                throw core.raise(ValueError, "cannot switch from automatic field numbering to manual field specification");
+            }
+            numbering = NUMBERING_MANUAL;
+            return parseIndex(start, end);
+        }
+
+        private int parseIndex(int start, int end) {
+            try {
+                return Integer.parseInt(s.substring(start, end));
+            } catch (NumberFormatException e) {
+                throw core.raise(ValueError, "Too many decimal digits in format string");
+            }
+        }
+
+        private boolean isDigits(int start, int end) {
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
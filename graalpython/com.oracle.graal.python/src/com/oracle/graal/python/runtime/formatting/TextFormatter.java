@@ -8,6 +8,7 @@ package com.oracle.graal.python.runtime.formatting;
 
 import com.oracle.graal.python.runtime.PythonCore;
 import com.oracle.graal.python.runtime.formatting.InternalFormat.Spec;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 
 /**
  * A class that provides the implementation of <code>str</code> and <code>unicode</code> formatting.
@@ -37,6 +38,34 @@ public class TextFormatter extends InternalFormat.Formatter {
         this(core, new StringBuilder(), spec);
     }
 
+    /**
+     * Formats a string according to a parsed {@code __format__} specification.
+     *
+     * @return the formatted and padded result
+     */
+    @TruffleBoundary
+    public static String formatText(PythonCore core, Spec spec, String value) {
+        switch (spec.type) {
+            case Spec.NONE:
+            case 's':
+                if (spec.grouping) {
+                    throw new TextFormatter(core, spec).notAllowed("Grouping", "string", spec.type);
+                } else if (Spec.specified(spec.sign)) {
+                    throw new TextFormatter(core, spec).signNotAllowed("string", '\0');
+                } else if (spec.alternate) {
+                    throw new TextFormatter(core, spec).alternateFormNotAllowed("string");
+                } else if (spec.align == '=') {
+                    throw new TextFormatter(core, spec).alignmentNotAllowed('=', "string");
+                }
+                break;
+            default:
+                throw new TextFormatter(core, spec).unknownFormat(spec.type, "str");
+        }
+        TextFormatter f = new TextFormatter(core, spec.withDefaults(Spec.STRING));
+        f.format(value);
+        return f.pad().getResult();
+    }
+
     /*
      * Re-implement the text appends so they return the right type.
      */
@@ -26,7 +26,15 @@
 package com.oracle.graal.python.runtime.object;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import com.oracle.graal.python.PythonLanguage;
 import com.oracle.graal.python.builtins.PythonBuiltinClassType;
@@ -45,11 +53,15 @@ import com.oracle.graal.python.builtins.objects.common.LocalsStorage;
 import com.oracle.graal.python.builtins.objects.complex.PComplex;
 import com.oracle.graal.python.builtins.objects.cpyobject.PythonNativeClass;
 import com.oracle.graal.python.builtins.objects.cpyobject.PythonNativeObject;
+import com.oracle.graal.python.builtins.objects.deque.PDeque;
+import com.oracle.graal.python.builtins.objects.deque.PDequeIterator;
+import com.oracle.graal.python.builtins.objects.dict.PDefaultDict;
 import com.oracle.graal.python.builtins.objects.dict.PDict;
 import com.oracle.graal.python.builtins.objects.dict.PDictView;
 import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictItemsView;
 import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictKeysView;
 import com.oracle.graal.python.builtins.objects.dict.PDictView.PDictValuesView;
+import com.oracle.graal.python.builtins.objects.dict.POrderedDict;
 import com.oracle.graal.python.builtins.objects.enumerate.PEnumerate;
 import com.oracle.graal.python.builtins.objects.exception.PBaseException;
 import com.oracle.graal.python.builtins.objects.floats.PFloat;
@@ -60,28 +72,58 @@ import com.oracle.graal.python.builtins.objects.function.PFunction;
 import com.oracle.graal.python.builtins.objects.function.PGeneratorFunction;
 import com.oracle.graal.python.builtins.objects.function.PKeyword;
 import com.oracle.graal.python.builtins.objects.function.PythonCallable;
+import com.oracle.graal.python.builtins.objects.functools.PLruCacheWrapper;
+import com.oracle.graal.python.builtins.objects.functools.PPartial;
 import com.oracle.graal.python.builtins.objects.generator.PGenerator;
 import com.oracle.graal.python.builtins.objects.getsetdescriptor.GetSetDescriptor;
 import com.oracle.graal.python.builtins.objects.ints.PInt;
+import com.oracle.graal.python.builtins.objects.io.PBufferedReader;
+import com.oracle.graal.python.builtins.objects.io.PBufferedWriter;
+import com.oracle.graal.python.builtins.objects.io.PTextIOWrapper;
 import com.oracle.graal.python.builtins.objects.iterator.PBaseSetIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PCharArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PDoubleArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PDoubleSequenceIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PFilter;
 import com.oracle.graal.python.builtins.objects.iterator.PForeignArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PIntArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PIntegerSequenceIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PLongArrayIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PLongSequenceIterator;
+import com.oracle.graal.python.builtins.objects.iterator.PMap;
 import com.oracle.graal.python.builtins.objects.iterator.PRangeIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PRangeIterator.PRangeReverseIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PSentinelIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PSequenceIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PStringIterator;
 import com.oracle.graal.python.builtins.objects.iterator.PZip;
+import com.oracle.graal.python.builtins.objects.itertools.PAccumulate;
+import com.oracle.graal.python.builtins.objects.itertools.PChain;
+import com.oracle.graal.python.builtins.objects.itertools.PCombinations;
+import com.oracle.graal.python.builtins.objects.itertools.PCombinationsWithReplacement;
+import com.oracle.graal.python.builtins.objects.itertools.PCompress;
+import com.oracle.graal.python.builtins.objects.itertools.PCount;
+import com.oracle.graal.python.builtins.objects.itertools.PCycle;
+import com.oracle.graal.python.builtins.objects.itertools.PDropwhile;
+import com.oracle.graal.python.builtins.objects.itertools.PFilterfalse;
+import com.oracle.graal.python.builtins.objects.itertools.PGroupBy;
+import com.oracle.graal.python.builtins.objects.itertools.PGrouper;
+import com.oracle.graal.python.builtins.objects.itertools.PIslice;
+import com.oracle.graal.python.builtins.objects.itertools.PPermutations;
+import com.oracle.graal.python.builtins.objects.itertools.PProduct;
+import com.oracle.graal.python.builtins.objects.itertools.PRepeat;
+import com.oracle.graal.python.builtins.objects.itertools.PStarmap;
+import com.oracle.graal.python.builtins.objects.itertools.PTakewhile;
+import com.oracle.graal.python.builtins.objects.itertools.PTee;
+import com.oracle.graal.python.builtins.objects.itertools.PTee.TeeData;
+import com.oracle.graal.python.builtins.objects.itertools.PZipLongest;
 import com.oracle.graal.python.builtins.objects.list.PList;
 import com.oracle.graal.python.builtins.objects.mappingproxy.PMappingproxy;
 import com.oracle.graal.python.builtins.objects.method.PBuiltinMethod;
 import com.oracle.graal.python.builtins.objects.method.PMethod;
+import com.oracle.graal.python.builtins.objects.memoryview.PMemoryView;
+import com.oracle.graal.python.builtins.objects.memoryview.PythonBuffer;
+import com.oracle.graal.python.builtins.objects.mmap.PMMap;
 import com.oracle.graal.python.builtins.objects.module.PythonModule;
 import com.oracle.graal.python.builtins.objects.object.PythonObject;
 import com.oracle.graal.python.builtins.objects.range.PRange;
@@ -92,7 +134,15 @@ import com.oracle.graal.python.builtins.objects.set.PBaseSet;
 import com.oracle.graal.python.builtins.objects.set.PFrozenSet;
 import com.oracle.graal.python.builtins.objects.set.PSet;
 import com.oracle.graal.python.builtins.objects.slice.PSlice;
+import com.oracle.graal.python.builtins.objects.sre.PSREMatch;
+import com.oracle.graal.python.builtins.objects.sre.PSREPattern;
+import com.oracle.graal.python.builtins.objects.sre.PSREScanner;
 import com.oracle.graal.python.builtins.objects.str.PString;
+import com.oracle.graal.python.builtins.objects.struct.PStruct;
+import com.oracle.graal.python.builtins.objects.struct.PStructUnpackIterator;
+import com.oracle.graal.python.builtins.objects.struct.StructFormat;
+import com.oracle.graal.python.builtins.objects.thread.PLock;
+import com.oracle.graal.python.builtins.objects.thread.PRLock;
 import com.oracle.graal.python.builtins.objects.traceback.PTraceback;
 import com.oracle.graal.python.builtins.objects.tuple.PTuple;
 import com.oracle.graal.python.builtins.objects.type.PythonClass;
@@ -214,11 +264,11 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PFloat(cls, value));
     }
 
-    public PString createString(String string) {
+    public PString createString(CharSequence string) {
         return trace(new PString(lookupClass(PythonBuiltinClassType.PString), string));
     }
 
-    public PString createString(PythonClass cls, String string) {
+    public PString createString(PythonClass cls, CharSequence string) {
         return trace(new PString(cls, string));
     }
 
@@ -392,6 +442,14 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PDict(cls));
     }
 
+    public PDefaultDict createDefaultDict(PythonClass cls) {
+        return trace(new PDefaultDict(cls));
+    }
+
+    public POrderedDict createOrderedDict(PythonClass cls) {
+        return trace(new POrderedDict(cls));
+    }
+
     public PDict createDict(Map<? extends Object, ? extends Object> map) {
         return createDict(new HashMapStorage(map));
     }
@@ -442,6 +500,18 @@ public abstract class PythonObjectFactory extends Node {
                         frameDescriptor, globals, closure, cellSlots, numOfActiveFlags, numOfGeneratorBlockNode, numOfGeneratorForNode));
     }
 
+    public PPartial createPartial(PythonClass cls, Object function, Object[] arguments, PKeyword[] keywords) {
+        return trace(new PPartial(cls, function, arguments, keywords));
+    }
+
+    public PPartial createPartial(Object function, Object[] arguments, PKeyword[] keywords) {
+        return createPartial(lookupClass(PythonBuiltinClassType.PPartial), function, arguments, keywords);
+    }
+
+    public PLruCacheWrapper createLruCacheWrapper(PythonClass cls, Object function, int maxSize, boolean typed, Object cacheInfoType, Object keywordMark) {
+        return trace(new PLruCacheWrapper(cls, function, maxSize, typed, cacheInfoType, keywordMark));
+    }
+
     public PMappingproxy createMappingproxy(PythonObject self) {
         return trace(new PMappingproxy(lookupClass(PythonBuiltinClassType.PMappingproxy), self));
     }
@@ -454,6 +524,70 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PReferenceType(lookupClass(PythonBuiltinClassType.PReferenceType), object, callback));
     }
 
+    /*
+     * I/O
+     */
+
+    public PBufferedReader createBufferedReader(PythonClass cls, Object raw, ReadableByteChannel channel, int bufferSize) {
+        return trace(new PBufferedReader(cls, raw, channel, bufferSize));
+    }
+
+    public PBufferedWriter createBufferedWriter(PythonClass cls, Object raw, WritableByteChannel channel, int bufferSize) {
+        return trace(new PBufferedWriter(cls, raw, channel, bufferSize));
+    }
+
+    public PTextIOWrapper createTextIOWrapper(PythonClass cls, Object buffer, Charset charset, String encoding, String errors, String newline, boolean lineBuffering) {
+        return trace(new PTextIOWrapper(cls, buffer, charset, encoding, errors, newline, lineBuffering));
+    }
+
+    public PMMap createMMap(PythonClass cls, ByteBuffer buffer, SeekableByteChannel writeBack, long offset, int access) {
+        return trace(new PMMap(cls, buffer, writeBack, offset, access));
+    }
+
+    public PMemoryView createMemoryView(PythonClass cls, PythonBuffer buffer, int offset, int length, int stride, int itemSize, String format, boolean readonly) {
+        return trace(new PMemoryView(cls, buffer, offset, length, stride, itemSize, format, readonly));
+    }
+
+    public PMemoryView createMemoryView(PythonBuffer buffer, int offset, int length, int stride, int itemSize, String format, boolean readonly) {
+        return trace(new PMemoryView(lookupClass(PythonBuiltinClassType.PMemoryView), buffer, offset, length, stride, itemSize, format, readonly));
+    }
+
+    public PStruct createStruct(PythonClass cls, StructFormat format) {
+        return trace(new PStruct(cls, format));
+    }
+
+    public PStructUnpackIterator createStructUnpackIterator(StructFormat format, Object buffer, int length) {
+        return trace(new PStructUnpackIterator(lookupClass(PythonBuiltinClassType.PStructUnpackIterator), format, buffer, length));
+    }
+
+    public PLock createLock() {
+        return trace(new PLock(lookupClass(PythonBuiltinClassType.PLock)));
+    }
+
+    public PRLock createRLock(PythonClass cls) {
+        return trace(new PRLock(cls));
+    }
+
+    public PDeque createDeque(PythonClass cls) {
+        return trace(new PDeque(cls));
+    }
+
+    public PDequeIterator createDequeIterator(PDeque deque, boolean reverse) {
+        return trace(new PDequeIterator(lookupClass(PythonBuiltinClassType.PDequeIterator), deque, reverse));
+    }
+
+    public PSREPattern createSREPattern(Object pattern, String source, int flags, int groups, Object groupIndex, String[] groupNames, boolean bytes, Pattern regex) {
+        return trace(new PSREPattern(lookupClass(PythonBuiltinClassType.PSREPattern), pattern, source, flags, groups, groupIndex, groupNames, bytes, regex));
+    }
+
+    public PSREMatch createSREMatch(PSREPattern pattern, Object string, String input, int pos, int endpos, MatchResult result) {
+        return trace(new PSREMatch(lookupClass(PythonBuiltinClassType.PSREMatch), pattern, string, input, pos, endpos, result));
+    }
+
+    public PSREScanner createSREScanner(PSREPattern pattern, Object string, String input, int pos, int endpos, Matcher matcher) {
+        return trace(new PSREScanner(lookupClass(PythonBuiltinClassType.PSREScanner), pattern, string, input, pos, endpos, matcher));
+    }
+
     /*
      * Frames, traces and exceptions
      */
@@ -599,6 +733,10 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PDictView.PDictKeysIterator(lookupClass(PythonBuiltinClassType.PDictKeysIterator), dict));
     }
 
+    public PDictView.PDictKeysIterator createDictKeysIterator(Iterable<Object> keys) {
+        return trace(new PDictView.PDictKeysIterator(lookupClass(PythonBuiltinClassType.PDictKeysIterator), keys));
+    }
+
     public PDictView.PDictValuesIterator createDictValuesIterator(PDict dict) {
         return trace(new PDictView.PDictValuesIterator(lookupClass(PythonBuiltinClassType.PDictValuesIterator), dict));
     }
@@ -615,6 +753,90 @@ public abstract class PythonObjectFactory extends Node {
         return trace(new PZip(cls, iterables));
     }
 
+    public PMap createMap(PythonClass cls, Object function, Object[] iterators) {
+        return trace(new PMap(cls, function, iterators));
+    }
+
+    public PFilter createFilter(PythonClass cls, Object function, Object iterator) {
+        return trace(new PFilter(cls, function, iterator));
+    }
+
+    public PCount createCount(PythonClass cls, Object start, Object step) {
+        return trace(new PCount(cls, start, step));
+    }
+
+    public PRepeat createRepeat(PythonClass cls, Object element, long times) {
+        return trace(new PRepeat(cls, element, times));
+    }
+
+    public PCycle createCycle(PythonClass cls, Object iterator) {
+        return trace(new PCycle(cls, iterator));
+    }
+
+    public PAccumulate createAccumulate(PythonClass cls, Object iterator, Object function) {
+        return trace(new PAccumulate(cls, iterator, function));
+    }
+
+    public PChain createChain(PythonClass cls, Object source) {
+        return trace(new PChain(cls, source));
+    }
+
+    public PCompress createCompress(PythonClass cls, Object data, Object selectors) {
+        return trace(new PCompress(cls, data, selectors));
+    }
+
+    public PDropwhile createDropwhile(PythonClass cls, Object predicate, Object iterator) {
+        return trace(new PDropwhile(cls, predicate, iterator));
+    }
+
+    public PTakewhile createTakewhile(PythonClass cls, Object predicate, Object iterator) {
+        return trace(new PTakewhile(cls, predicate, iterator));
+    }
+
+    public PFilterfalse createFilterfalse(PythonClass cls, Object predicate, Object iterator) {
+        return trace(new PFilterfalse(cls, predicate, iterator));
+    }
+
+    public PStarmap createStarmap(PythonClass cls, Object function, Object iterator) {
+        return trace(new PStarmap(cls, function, iterator));
+    }
+
+    public PGroupBy createGroupBy(PythonClass cls, Object iterator, Object keyFunction) {
+        return trace(new PGroupBy(cls, iterator, keyFunction));
+    }
+
+    public PGrouper createGrouper(PGroupBy parent, Object tgtKey) {
+        return trace(new PGrouper(lookupClass(PythonBuiltinClassType.PGrouper), parent, tgtKey));
+    }
+
+    public PIslice createIslice(PythonClass cls, Object iterator, long start, long stop, long step) {
+        return trace(new PIslice(cls, iterator, start, stop, step));
+    }
+
+    public PZipLongest createZipLongest(PythonClass cls, Object[] iterators, Object fillValue) {
+        return trace(new PZipLongest(cls, iterators, fillValue));
+    }
+
+    public PProduct createProduct(PythonClass cls, Object[][] gears) {
+        return trace(new PProduct(cls, gears));
+    }
+
+    public PPermutations createPermutations(PythonClass cls, Object[] pool, int r) {
+        return trace(new PPermutations(cls, pool, r));
+    }
+
+    public PCombinations createCombinations(PythonClass cls, Object[] pool, int r) {
+        return trace(new PCombinations(cls, pool, r));
+    }
+
+    public PCombinationsWithReplacement createCombinationsWithReplacement(PythonClass cls, Object[] pool, int r) {
+        return trace(new PCombinationsWithReplacement(cls, pool, r));
+    }
+
+    public PTee createTee(TeeData data, int index) {
+        return trace(new PTee(lookupClass(PythonBuiltinClassType.PTee), data, index));
+    }
+
     public PForeignArrayIterator createForeignArrayIterator(TruffleObject iterable, int size) {
         return trace(new PForeignArrayIterator(lookupClass(PythonBuiltinClassType.PForeignArrayIterator), iterable, size));
     }
@@ -27,9 +27,6 @@ _warn = sys.modules["_warnings"]._warn
 _os = sys.modules.get("posix", sys.modules.get("nt"))
 
 
-DEFAULT_BUFFER_SIZE = 8192
-
-
 class BlockingIOError(OSError):
     pass
 
@@ -647,28 +644,40 @@ class StringIO(_TextIOBase):
     pass
 
 
-class BufferedReader(_BufferedIOBase):
+class BufferedRWPair(_BufferedIOBase):
     pass
 
 
-class BufferedWriter(_BufferedIOBase):
+class BufferedRandom(_BufferedIOBase):
     pass
 
 
-class BufferedRWPair(_BufferedIOBase):
+class IncrementalNewlineDecoder(object):
     pass
 
 
-class BufferedRandom(_BufferedIOBase):
-    pass
+# BufferedReader, BufferedWriter and TextIOWrapper are implemented in Java, the
+# generic helpers are shared with the Python implementations
+for _cls in (BufferedReader, BufferedWriter, TextIOWrapper):
+    _cls.__enter__ = _IOBase.__enter__
+    _cls.__exit__ = _IOBase.__exit__
+    _cls.readlines = _IOBase.readlines
+    _cls.writelines = _IOBase.writelines
+    _cls._checkClosed = _IOBase._checkClosed
+del _cls
 
 
-class IncrementalNewlineDecoder(object):
-    pass
+def _buffered_isatty(self):
+    return self.raw.isatty()
 
 
-class TextIOWrapper(_TextIOBase):
-    pass
+def _text_isatty(self):
+    return self.buffer.isatty()
+
+
+BufferedReader.isatty = _buffered_isatty
+BufferedWriter.isatty = _buffered_isatty
+TextIOWrapper.isatty = _text_isatty
 
 
 def open(file, mode="r", buffering=-1, encoding=None, errors=None, newline=None, closefd=True, opener=None):
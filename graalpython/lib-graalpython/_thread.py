@@ -35,17 +35,5 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
-
-deque = list
-
-
-class defaultdict(dict):
-    def __new__(self, default_factory, *args, **kwds):
-        dict.__init__(self, args, kwds)
-        self.default_factory = default_factory
-
-    def __missing__(self, key):
-        if self.default_factory is None:
-            raise KeyError((key,))
-        self[key] = value = self.default_factory()
-        return value
+error = RuntimeError
+LockType = type(allocate_lock())
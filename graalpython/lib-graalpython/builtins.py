@@ -45,4 +45,3 @@ __load_builtins__('exceptions')
 __load_builtins__('super')
 __load_builtins__('property')
 __load_builtins__('ellipsis')
-__load_builtins__('timsort')
@@ -35,35 +35,6 @@
 # OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 # SOFTWARE.
 
-def hasattr(obj, key):
-    try:
-        type(obj).__getattribute__(obj, key)
-        return True
-    except AttributeError:
-        return False
-
-
-# We re-define the print function here, because that makes it easier for us to
-# deal with the default arguments. The builtin version simply requires all
-# arguments.
-def make_print():
-    builtin_print = print
-
-    def func(*objects, sep=" ", end="\n", file=None, flush=False):
-        if file is not None:
-            sz = len(objects) - 1
-            for i in range(sz):
-                file.write(str(objects[i]))
-                file.write(str(sep))
-            file.write(str(objects[-1]))
-            file.write(str(end))
-        else:
-            builtin_print(tuple(objects), sep, end, file, flush)
-    return func
-print = make_print()
-del make_print
-
-
 # We close over the globals to avoid leaking sys to the builtins scope
 def make_globals_function():
     import sys
@@ -85,28 +56,6 @@ locals = make_locals_function()
 del make_locals_function
 
 
-def any(iterable):
-    for i in iterable:
-        if i:
-            return True
-    return False
-
-
-def all(iterable):
-    for i in iterable:
-        if not i:
-            return False
-    return True
-
-
-def filter(func, iterable):
-    result = []
-    for i in iterable:
-        if func(i):
-            result.append(i)
-    return tuple(result)
-
-
 def exec(source, globals=None, locals=None):
     # compile returns the source if already a code object
     return eval(compile(source, "<exec>", "exec"), globals, locals)
@@ -126,24 +75,6 @@ def __build_class__(func, name, *bases, metaclass=None, **kwargs):
     return type(name, bases, ns)
 
 
-class map(object):
-    def __init__(self, func, iterable, *args):
-        self.__func = func
-        iterators = [iter(iterable)]
-        for i in args:
-            iterators.append(iter(i))
-        self.__iterators = iterators
-
-    def __next__(self):
-        args = []
-        for it in self.__iterators:
-            args.append(next(it))
-        return self.__func(*args)
-
-    def __iter__(self):
-        return self
-
-
 def _caller_locals():
     import sys
     return sys._getframe(2).f_locals
@@ -171,14 +102,3 @@ def format(value, format_spec=''):
     See the Format Specification Mini-Language section of help('FORMATTING') for
     details."""
     return value.__format__(format_spec)
-
-
-def sorted(iterable, key=None, reverse=False):
-    """Return a new list containing all items from the iterable in ascending order.
-
-    A custom key function can be supplied to customize the sort order, and the
-    reverse flag can be set to request the result in descending order.
-    """
-    result = list(iterable)
-    result.sort(key=key, reverse=reverse)
-    return result
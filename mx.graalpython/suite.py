@@ -128,6 +128,19 @@ suite = {
             "workingSets": "Truffle,Python",
         },
 
+        # GRAALPYTHON PROFILER
+        "com.oracle.graal.python.profiler": {
+            "subDir": "graalpython",
+            "sourceDirs": ["src"],
+            "dependencies": [
+                "com.oracle.graal.python",
+            ],
+            "checkstyle": "com.oracle.graal.python",
+            "javaCompliance": "1.8",
+            "annotationProcessors": ["truffle:TRUFFLE_DSL_PROCESSOR"],
+            "workingSets": "Truffle,Python",
+        },
+
         # GRAALPYTHON TEST
         "com.oracle.graal.python.test": {
             "subDir": "graalpython",
@@ -135,6 +148,7 @@ suite = {
             "dependencies": [
                 "com.oracle.graal.python.shell",
                 "com.oracle.graal.python",
+                "com.oracle.graal.python.profiler",
                 "truffle:TRUFFLE_TCK",
                 "mx:JUNIT"
             ],
@@ -211,6 +225,7 @@ suite = {
         "GRAALPYTHON": {
             "dependencies": [
                 "com.oracle.graal.python",
+                "com.oracle.graal.python.profiler",
             ],
             "distDependencies": [
                 "GRAALPYTHON-LAUNCHER",